@@ -0,0 +1,100 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the baseline checked in under src/jmh/baseline.
+ *
+ * Arguments: result file, baseline file, tolerance (0.15 = 15 %), update flag.
+ * A benchmark regresses when its score is worse than the baseline by more than the tolerance
+ * (slower for time modes, fewer ops for throughput). Regressions fail the build; benchmarks
+ * that are not in the baseline yet are only listed. A missing or empty baseline only prints a
+ * warning, so a fresh checkout still builds; record one with
+ * {@code mvn -Pbenchmarks -DskipTests verify -Djmh.baseline.update=true}. With update=true the
+ * result replaces the baseline instead - do that on the reference machine, never on a laptop.
+ */
+public class BaselineCheck {
+
+    public static void main(String[] args) throws Exception {
+        Path resultFile = Paths.get(args[0]);
+        Path baselineFile = Paths.get(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.15;
+        boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        if (update) {
+            Files.createDirectories(baselineFile.getParent());
+            Files.copy(resultFile, baselineFile, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(mapper.readTree(resultFile.toFile()));
+        Map<String, JsonNode> baseline = Files.exists(baselineFile)
+                ? index(mapper.readTree(baselineFile.toFile()))
+                : Map.of();
+        if (baseline.isEmpty()) {
+            System.out.println("WARNING: no baseline recorded in " + baselineFile + " - results are not compared.");
+            System.out.println("Record one on the reference machine and commit it:");
+            System.out.println("  mvn -Pbenchmarks -DskipTests verify -Djmh.baseline.update=true");
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            double score = now.path("primaryMetric").path("score").asDouble();
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+
+            if (before == null) {
+                System.out.printf("NEW   %-90s %,14.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore;
+            boolean regressed = higherIsBetter ? change < -tolerance : change > tolerance;
+
+            System.out.printf("%-5s %-90s %,14.3f %s (baseline %,.3f, %+.1f%%)%n",
+                    regressed ? "WORSE" : "OK", entry.getKey(), score, unit, baseScore, change * 100);
+            if (regressed) {
+                regressions.add(entry.getKey());
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), tolerance * 100);
+            regressions.forEach(name -> System.out.println("  " + name));
+            System.exit(1);
+        }
+    }
+
+    // benchmark{param=value,...} → result entry; params sorted so the key does not depend on JSON order
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            String name = result.path("benchmark").asText()
+                    .replace("codesAndStandards.springboot.userApp.benchmark.jmh.", "");
+            byKey.put(params.isEmpty() ? name : name + params, result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,196 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.entity.Classification;
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.entity.Tag;
+import codesAndStandards.springboot.userApp.entity.User;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generated inputs for the benchmarks. Everything is built from a fixed seed, so two runs
+ * (and two machines) measure exactly the same documents, PDFs and sheets.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 20240501L;
+
+    private static final String[] TITLE_WORDS = {
+            "Steel", "Concrete", "Pressure", "Vessel", "Welding", "Piping", "Structural", "Design",
+            "Code", "Standard", "Specification", "Fire", "Safety", "Electrical", "Installation",
+            "Testing", "Inspection", "Bridge", "Seismic", "Boiler", "Valve", "Flange", "Timber",
+            "Masonry", "Foundation", "Load", "Wind", "Thermal", "Insulation", "Coating"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    // ==================== PDF ====================
+
+    /**
+     * A text PDF with the given number of A4 pages, roughly the density of a scanned-then-OCRed standard.
+     */
+    static byte[] pdf(int pages) throws IOException {
+        Random random = new Random(SEED + pages);
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.beginText();
+                    cs.setFont(PDType1Font.HELVETICA, 10);
+                    cs.setLeading(12f);
+                    cs.newLineAtOffset(50, 780);
+                    for (int line = 0; line < 60; line++) {
+                        cs.showText(sentence(random, 12));
+                        cs.newLine();
+                    }
+                    cs.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    // ==================== DOCUMENTS ====================
+
+    /**
+     * Detached Document entities with an uploader, tags and classifications, as findAll() returns them.
+     */
+    static List<Document> documents(int count) {
+        Random random = new Random(SEED + count);
+        User uploader = new User();
+        uploader.setId(1L);
+        uploader.setUsername("bench.admin");
+
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) i + 1);
+            tag.setTagName("tag-" + i);
+            tags.add(tag);
+        }
+        List<Classification> classifications = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Classification classification = new Classification();
+            classification.setId((long) i + 1);
+            classification.setClassificationName("Class " + i);
+            classifications.add(classification);
+        }
+
+        List<Document> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Document document = new Document();
+            document.setId((long) i + 1);
+            document.setTitle(sentence(random, 4 + random.nextInt(6)));
+            document.setProductCode("PC-" + (i % 5000));
+            document.setEdition("Ed " + (i % 7));
+            document.setPublishDate(String.format("%d-%02d", 1990 + random.nextInt(35), 1 + random.nextInt(12)));
+            document.setNoOfPages(10 + random.nextInt(400));
+            document.setNotes("Generated for benchmarks");
+            document.setFilePath("\\\\bench\\share\\USERDATA\\document-" + i + ".pdf");
+            document.setFileSizeBytes(100_000L + random.nextInt(20_000_000));
+            document.setUploadedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            document.setUploadedBy(uploader);
+
+            Set<Tag> documentTags = new HashSet<>();
+            for (int t = 0; t < 5; t++) {
+                documentTags.add(tags.get(random.nextInt(tags.size())));
+            }
+            document.setTags(documentTags);
+
+            Set<Classification> documentClassifications = new HashSet<>();
+            for (int c = 0; c < 2; c++) {
+                documentClassifications.add(classifications.get(random.nextInt(classifications.size())));
+            }
+            document.setClassifications(documentClassifications);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * Ids of a random accessiblePercent of the documents, in the order the ACL query returns them.
+     */
+    static List<Long> accessibleIds(List<Document> documents, int accessiblePercent) {
+        Random random = new Random(SEED + documents.size() + accessiblePercent);
+        List<Long> ids = new ArrayList<>();
+        for (Document document : documents) {
+            if (random.nextInt(100) < accessiblePercent) {
+                ids.add(document.getId());
+            }
+        }
+        return ids;
+    }
+
+    // ==================== XLSX ====================
+
+    /**
+     * A bulk-upload metadata sheet in the generated template's layout: header, legend, example, then data.
+     */
+    static Path metadataSheet(int rows) throws IOException {
+        Path target = Files.createTempFile("jmh-bulk-metadata-", ".xlsx");
+        target.toFile().deleteOnExit();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             OutputStream out = Files.newOutputStream(target)) {
+            Sheet sheet = workbook.createSheet("Document Metadata");
+            String[] header = {"Filename *", "Title *", "Product Code *", "Edition", "Publish Month",
+                    "Publish Year *", "No. of Pages *", "Notes", "Tags *", "Classifications"};
+            Row headerRow = sheet.createRow(0);
+            for (int c = 0; c < header.length; c++) {
+                headerRow.createCell(c).setCellValue(header[c]);
+            }
+            sheet.createRow(1).createCell(0).setCellValue("* = Required field");
+            sheet.createRow(2).createCell(0).setCellValue("example.pdf");
+
+            Random random = new Random(SEED + rows);
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 3);
+                row.createCell(0).setCellValue("document-" + i + ".pdf");
+                row.createCell(1).setCellValue(sentence(random, 6));
+                row.createCell(2).setCellValue("PC-" + (i % 5000));
+                row.createCell(3).setCellValue("Ed " + (i % 7));
+                row.createCell(4).setCellValue(String.format("%02d", i % 12 + 1));
+                row.createCell(5).setCellValue(1990 + i % 35);
+                row.createCell(6).setCellValue(10 + i % 400);
+                row.createCell(7).setCellValue("Imported by benchmark");
+                row.createCell(8).setCellValue("tag-" + (i % 50) + ",tag-" + (i % 13));
+                row.createCell(9).setCellValue("Class " + (i % 9));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+        return target;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sb.append(' ');
+            }
+            sb.append(TITLE_WORDS[random.nextInt(TITLE_WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.service.BulkMetadataSheetReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk-upload metadata sheet parsing (the streaming reader BulkUploadService uses).
+ * For the heap comparison against the old XSSFWorkbook parse see BulkMetadataParsingBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class BulkMetadataSheetBenchmark {
+
+    @Param({"100", "5000", "50000"})
+    public int rows;
+
+    private BulkMetadataSheetReader reader;
+    private Path sheet;
+
+    @Setup
+    public void setUp() throws Exception {
+        reader = new BulkMetadataSheetReader();
+        sheet = BenchmarkFixtures.metadataSheet(rows);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(sheet);
+    }
+
+    @Benchmark
+    public int parse(Blackhole blackhole) throws Exception {
+        return reader.read(sheet, blackhole::consume);
+    }
+}
@@ -0,0 +1,95 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
+import codesAndStandards.springboot.userApp.service.DocumentAccessService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * DocumentAccessService.filterByUserAccess for a Manager, with the ACL query stubbed to return
+ * accessiblePercent of the library. Measures the in-memory filter, not the database.
+ *
+ * Thread-scoped because the user comes from the (thread-local) security context.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentAccessBenchmark {
+
+    private static final long USER_ID = 42L;
+
+    @Param({"1000", "10000", "50000"})
+    public int documentCount;
+
+    @Param({"5", "50"})
+    public int accessiblePercent;
+
+    @Param({"3", "25"})
+    public int groupCount;
+
+    private DocumentAccessService documentAccessService;
+    private List<Document> documents;
+
+    @Setup
+    public void setUp() {
+        documents = BenchmarkFixtures.documents(documentCount);
+        List<Long> accessibleIds = BenchmarkFixtures.accessibleIds(documents, accessiblePercent);
+
+        // stubOnly: a normal mock records every invocation and would fill the heap over a run
+        AccessControlLogicRepository aclRepository = mock(AccessControlLogicRepository.class, withSettings().stubOnly());
+        when(aclRepository.findAccessibleDocumentIdsByUserId(USER_ID)).thenReturn(accessibleIds);
+
+        documentAccessService = new DocumentAccessService(
+                mock(DocumentRepository.class, withSettings().stubOnly()),
+                mock(UserRepository.class, withSettings().stubOnly()),
+                aclRepository,
+                new SimpleMeterRegistry());
+
+        Set<Long> groupIds = new HashSet<>();
+        for (long g = 1; g <= groupCount; g++) {
+            groupIds.add(g);
+        }
+        AuthorizedUser manager = new AuthorizedUser(USER_ID, "bench.manager", "", "Manager", groupIds, 1L);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(manager, null, manager.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public List<Document> filterByUserAccess() {
+        return documentAccessService.filterByUserAccess(documents);
+    }
+}
@@ -0,0 +1,66 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.dto.DocumentDto;
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import codesAndStandards.springboot.userApp.repository.StoredProcedureRepository;
+import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.service.GroupService;
+import codesAndStandards.springboot.userApp.service.Impl.DocumentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * DocumentServiceImpl list conversion (findAllDocuments → convertToDto per row) over an
+ * in-memory result set: date formatting, tag and classification joining.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentDtoConversionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int documentCount;
+
+    private DocumentServiceImpl documentService;
+
+    @Setup
+    public void setUp() {
+        List<Document> documents = BenchmarkFixtures.documents(documentCount);
+
+        DocumentRepository documentRepository = mock(DocumentRepository.class, withSettings().stubOnly());
+        when(documentRepository.findAll()).thenReturn(documents);
+
+        documentService = new DocumentServiceImpl(
+                documentRepository,
+                mock(UserRepository.class, withSettings().stubOnly()),
+                mock(StoredProcedureRepository.class, withSettings().stubOnly()),
+                mock(GroupService.class, withSettings().stubOnly()),
+                mock(AccessControlLogicRepository.class, withSettings().stubOnly()));
+    }
+
+    @Benchmark
+    public List<DocumentDto> convertAll() {
+        return documentService.findAllDocuments();
+    }
+}
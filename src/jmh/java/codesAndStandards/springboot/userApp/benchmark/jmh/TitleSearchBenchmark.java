@@ -0,0 +1,74 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.controller.DocumentApiController;
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
+import codesAndStandards.springboot.userApp.service.DocumentService;
+import codesAndStandards.springboot.userApp.service.LicenseService;
+import codesAndStandards.springboot.userApp.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Title search as DocumentApiController.searchDocuments does it: the whole library from
+ * findAll(), a case-insensitive contains on every title, then a DTO per hit.
+ * The repository is stubbed, so this is the in-memory part only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TitleSearchBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int documentCount;
+
+    // A common word, a rarer one and a miss
+    @Param({"steel", "seismic boiler", "nomatch"})
+    public String query;
+
+    private DocumentApiController controller;
+
+    @Setup
+    public void setUp() {
+        List<Document> documents = BenchmarkFixtures.documents(documentCount);
+
+        DocumentRepository documentRepository = mock(DocumentRepository.class, withSettings().stubOnly());
+        when(documentRepository.findAll()).thenReturn(documents);
+        LicenseService licenseService = mock(LicenseService.class, withSettings().stubOnly());
+        when(licenseService.isLicenseValid()).thenReturn(true);
+
+        controller = new DocumentApiController(
+                documentRepository,
+                mock(UserService.class, withSettings().stubOnly()),
+                mock(DocumentService.class, withSettings().stubOnly()),
+                new ChangeSequenceService());
+        ReflectionTestUtils.setField(controller, "licenseService", licenseService);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> searchDocuments() {
+        return controller.searchDocuments(query);
+    }
+}
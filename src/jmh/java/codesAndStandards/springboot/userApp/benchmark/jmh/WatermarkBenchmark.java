@@ -0,0 +1,50 @@
+package codesAndStandards.springboot.userApp.benchmark.jmh;
+
+import codesAndStandards.springboot.userApp.service.WatermarkService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WatermarkService.addWatermarkToPdf - load, stamp every page, save - as done on each download.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WatermarkBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int pages;
+
+    @Param({"Diagonal", "Center", "BottomRight"})
+    public String position;
+
+    private WatermarkService watermarkService;
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        watermarkService = new WatermarkService(new SimpleMeterRegistry());
+        pdf = BenchmarkFixtures.pdf(pages);
+    }
+
+    @Benchmark
+    public byte[] addWatermark() throws IOException {
+        return watermarkService.addWatermarkToPdf(pdf, "bench.viewer", 30, position, 100);
+    }
+}
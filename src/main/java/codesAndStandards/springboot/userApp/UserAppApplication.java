@@ -2,6 +2,7 @@ package codesAndStandards.springboot.userApp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
@@ -9,8 +10,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class UserAppApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(UserAppApplication.class, args);
+		SpringApplication application = new SpringApplication(UserAppApplication.class);
+		// Startup timeline for /actuator/startup and the startup report (see FastStartConfig).
+		// Opt-in with -Dstartup.report.enabled=true: it has to be installed before any property source is read,
+		// and otherwise the buffered steps would stay in memory for the life of the process.
+		if (Boolean.getBoolean("startup.report.enabled")) {
+			application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		}
+		application.run(args);
 	}
 
 }
-
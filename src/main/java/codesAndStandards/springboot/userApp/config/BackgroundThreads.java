@@ -0,0 +1,66 @@
+package codesAndStandards.springboot.userApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the application's own background pools (indexer, bulk upload/delete, file deletion, ...).
+ *
+ * With spring.threads.virtual.enabled=true on a Java 21+ runtime, Spring Boot moves the Tomcat
+ * request threads, the MVC async executor and the scheduler to virtual threads; this class does
+ * the same for our pools so a thread blocked on the share or the database no longer holds a
+ * platform thread. Pool sizes are kept either way - they bound how hard we hit the share, not how
+ * many threads we can afford. On Java 17 the property is ignored and platform threads are used.
+ */
+@Component
+public class BackgroundThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundThreads.class);
+
+    private final boolean virtual;
+
+    public BackgroundThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        logger.info("Background pools use {} threads", virtual ? "virtual" : "platform");
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Fixed-size pool; threads are named namePrefix + 1, 2, ...
+     * Low priority only applies to platform threads (virtual threads have no priority).
+     */
+    public ExecutorService newFixedPool(String namePrefix, int threads, boolean lowPriority) {
+        return Executors.newFixedThreadPool(Math.max(1, threads), threadFactory(namePrefix, lowPriority));
+    }
+
+    public ExecutorService newSingleThread(String name, boolean lowPriority) {
+        return Executors.newSingleThreadExecutor(threadFactory(name + "-", lowPriority));
+    }
+
+    public ThreadFactory threadFactory(String namePrefix, boolean lowPriority) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, namePrefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            if (lowPriority) {
+                t.setPriority(Thread.MIN_PRIORITY);
+            }
+            return t;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package codesAndStandards.springboot.userApp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fast-start support (profile "faststart", see application-faststart.properties).
+ *
+ * With spring.main.lazy-initialization=true controllers and services are created on first use.
+ * Beans with @Scheduled methods stay eager: their schedules are only registered when the bean is
+ * created, so a lazy indexer or license refresh would never run. @EventListener methods work on
+ * lazy beans and need no exception.
+ *
+ * The startup timeline comes from the BufferingApplicationStartup that main() installs when the
+ * JVM is started with -Dstartup.report.enabled=true; the slowest steps are then logged once the
+ * application is ready, and the full timeline is at /actuator/startup when that endpoint is exposed.
+ */
+@Configuration
+public class FastStartConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastStartConfig.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, beanDefinition, beanType) ->
+                AnnotationUtils.isCandidateClass(beanType, List.of(Scheduled.class, Schedules.class))
+                        && !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class) ? Boolean.TRUE : null).isEmpty();
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> startupTimelineReport(
+            ApplicationStartup applicationStartup,
+            @Value("${startup.report.enabled:false}") boolean enabled,
+            @Value("${startup.report.steps:20}") int steps) {
+        return event -> {
+            if (!enabled || !(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+                return;
+            }
+            StartupTimeline timeline = buffering.getBufferedTimeline();
+            String slowest = timeline.getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(steps)
+                    .map(step -> String.format("  %6d ms  %s%s", step.getDuration().toMillis(),
+                            step.getStartupStep().getName(), describeTags(step.getStartupStep())))
+                    .collect(Collectors.joining("\n"));
+            logger.info("Ready in {} ms; {} slowest startup steps:\n{}",
+                    event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1, steps, slowest);
+        };
+    }
+
+    private static String describeTags(StartupStep step) {
+        StringBuilder tags = new StringBuilder();
+        for (StartupStep.Tag tag : step.getTags()) {
+            tags.append(tags.length() == 0 ? " [" : ", ").append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return tags.length() == 0 ? "" : tags.append(']').toString();
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * Dynamically sets HTTP session timeout based on database settings.
- * Reads session timeout from ApplicationSettings and applies it to each new session.
+ * Reads session timeout from the cached settings snapshot and applies it to each new session.
  */
 @Component
 public class SessionTimeoutConfig implements HttpSessionListener {
@@ -23,33 +23,13 @@ public class SessionTimeoutConfig implements HttpSessionListener {
     @Override
     public void sessionCreated(HttpSessionEvent event) {
         try {
-            // Get session timeout from database settings as STRING (to handle decimals)
-            String timeoutStr = applicationSettingsService.getSetting("session_timeout_hours");
-
-            double timeoutHours = 8.0; // Default fallback
-
-            if (timeoutStr != null && !timeoutStr.trim().isEmpty()) {
-                try {
-                    timeoutHours = Double.parseDouble(timeoutStr);
-
-                    // Validate range
-                    if (timeoutHours < 0.01 || timeoutHours > 72) {
-                        logger.warn("⚠️ Invalid timeout: {} hours, using default 8 hours", timeoutHours);
-                        timeoutHours = 8.0;
-                    }
-                } catch (NumberFormatException e) {
-                    logger.error("❌ Error parsing timeout value '{}', using default 8 hours", timeoutStr);
-                    timeoutHours = 8.0;
-                }
-            }
-
-            // Convert hours to seconds
-            int timeoutSeconds = (int) (timeoutHours * 60 * 60);
+            // Parsed and validated once per settings change (0.01 - 72 hours, default 8)
+            int timeoutSeconds = applicationSettingsService.getSessionTimeoutSeconds();
 
             // Set the session timeout
             event.getSession().setMaxInactiveInterval(timeoutSeconds);
 
-            logger.info("✅ Session created with timeout: {} hours ({} seconds)", timeoutHours, timeoutSeconds);
+            logger.debug("✅ Session created with timeout: {} seconds", timeoutSeconds);
 
         } catch (Exception e) {
             logger.error("❌ Error setting session timeout, using default: {}", e.getMessage());
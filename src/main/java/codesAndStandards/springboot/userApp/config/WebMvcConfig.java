@@ -1,10 +1,14 @@
 package codesAndStandards.springboot.userApp.config;
 
 import codesAndStandards.springboot.userApp.interceptor.LicenseInterceptor;
+import codesAndStandards.springboot.userApp.interceptor.StaticAssetCacheInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
@@ -12,15 +16,22 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private LicenseInterceptor licenseInterceptor;
 
+    // Set by the prod profile; asset URLs in templates then carry a content hash
+    @Value("${spring.web.resources.chain.strategy.content.enabled:false}")
+    private boolean fingerprintedAssets;
+
+    @Autowired
+    private ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(licenseInterceptor)
                 .addPathPatterns("/api/**")           // Check all API endpoints
-                .excludePathPatterns(
-                        "/api/license/**",                // Don't check license endpoints
-                        "/api/public/**",                 // Don't check public endpoints
-                        "/login",                         // Don't check login page
-                        "/register"                       // Don't check register page
-                );
+                .excludePathPatterns(LicenseInterceptor.EXCLUDED_PATHS); // Precompiled once at startup
+
+        if (fingerprintedAssets) {
+            registry.addInterceptor(new StaticAssetCacheInterceptor(resourceUrlProvider))
+                    .addPathPatterns(StaticAssetCacheInterceptor.ASSET_PATHS);
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,20 +3,33 @@ package codesAndStandards.springboot.userApp.controller;
 import codesAndStandards.springboot.userApp.dto.UserDto;
 import codesAndStandards.springboot.userApp.entity.ActivityLog;
 import codesAndStandards.springboot.userApp.entity.User;
+import codesAndStandards.springboot.userApp.exception.UnauthorizedException;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.service.ActivityLogExportService;
 import codesAndStandards.springboot.userApp.service.ActivityLogService;
+import codesAndStandards.springboot.userApp.service.LicenseDecision;
 import codesAndStandards.springboot.userApp.service.UserService;
 import codesAndStandards.springboot.userApp.service.LicenseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,9 +38,17 @@ import java.util.Map;
 @PreAuthorize("hasAnyAuthority('Admin','Manager','Viewer')")
 public class ActivityLogsController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogsController.class);
+
+    // Lower bound used when no start date is given (SQL Server DATETIME minimum is 1753)
+    private static final LocalDate EXPORT_MIN_DATE = LocalDate.of(1900, 1, 1);
+
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private ActivityLogExportService activityLogExportService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -73,9 +94,10 @@ public class ActivityLogsController {
                 .count();
 
         // License check
-        String currentEdition         = licenseService.getCurrentEdition();
-        boolean isProfessionalEdition = "ED2".equalsIgnoreCase(currentEdition);
-        boolean hasValidLicense       = licenseService.isLicenseValid();
+        LicenseDecision decision      = licenseService.getDecision();
+        String currentEdition         = decision.getEdition();
+        boolean isProfessionalEdition = decision.getFeatures().contains(LicenseDecision.Feature.LOG_EXPORT);
+        boolean hasValidLicense       = decision.isValid();
 
         model.addAttribute("logs", logs);
         model.addAttribute("userMap", userMap);
@@ -94,6 +116,60 @@ public class ActivityLogsController {
         return "activity-logs";
     }
 
+    /**
+     * Stream activity logs for a date range as CSV or gzip-compressed NDJSON.
+     * Dates are inclusive; either may be omitted for an open range.
+     */
+    @GetMapping("/activity-logs/export")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+
+        if (!licenseService.getDecision().allows(LicenseDecision.Feature.LOG_EXPORT)) {
+            throw new UnauthorizedException("Log export is only available in Professional Edition (ED2)");
+        }
+
+        // Throws IllegalArgumentException (-> 400) for unknown formats
+        ActivityLogExportService.Format exportFormat = ActivityLogExportService.Format.fromParam(format);
+
+        LocalDate fromDate = from != null ? from : EXPORT_MIN_DATE;
+        LocalDate toDate = to != null ? to : LocalDate.now();
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        LocalDateTime start = fromDate.atStartOfDay();
+        LocalDateTime end = toDate.plusDays(1).atStartOfDay();
+
+        // Streaming runs on an async thread, so capture the user now
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String range = (from != null ? from : "All") + " to " + (to != null ? to : "All");
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                long rows = activityLogExportService.export(start, end, exportFormat, outputStream);
+                activityLogService.logByUsername(username, ActivityLogService.ACTIVITY_LOG_EXPORT,
+                        "Exported " + rows + " activity logs (" + range + ", " + exportFormat + ")");
+            } catch (Exception e) {
+                logger.warn("Activity log export aborted for {}: {}", username, e.getMessage());
+                activityLogService.logByUsername(username, ActivityLogService.ACTIVITY_LOG_EXPORT_FAILED,
+                        "Activity log export aborted (" + range + ", " + exportFormat + "): " + e.getMessage());
+                throw e;
+            }
+        };
+
+        String filename = "Activity_Logs_" + (from != null ? from : "All") + "_to_" + (to != null ? to : "All")
+                + "." + exportFormat.getFileExtension();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
     @GetMapping("/apis/users/{userId}")
     @ResponseBody
     public ResponseEntity<?> getUserDetails(@PathVariable Long userId) {
@@ -1,23 +1,35 @@
 package codesAndStandards.springboot.userApp.controller;
 
 import codesAndStandards.springboot.userApp.dto.ApplicationSettingsDto;
+import codesAndStandards.springboot.userApp.dto.BulkDeleteStatus;
+import codesAndStandards.springboot.userApp.dto.OrphanFileReport;
 import codesAndStandards.springboot.userApp.entity.User;
+import codesAndStandards.springboot.userApp.profiling.FlightRecordingService;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.service.ActivityLogService;
 import codesAndStandards.springboot.userApp.service.ApplicationSettingsService;
+import codesAndStandards.springboot.userApp.service.BulkDeleteService;
+import codesAndStandards.springboot.userApp.service.DocumentFileIndexService;
 import codesAndStandards.springboot.userApp.service.LicenseService;
+import codesAndStandards.springboot.userApp.service.OrphanFileCollectorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -39,6 +51,18 @@ public class ApplicationSettingsController {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private DocumentFileIndexService documentFileIndexService;
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
+    @Autowired
+    private OrphanFileCollectorService orphanFileCollectorService;
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
     // ==================== GET ALL SETTINGS ====================
 
     @GetMapping
@@ -93,6 +117,7 @@ public class ApplicationSettingsController {
                 Map<String, Object> response = new HashMap<>();
                 response.put("needsConfirmation", true);
                 response.put("affectedFilesCount", affectedCount);
+                response.put("unknownSizeFilesCount", applicationSettingsService.countFilesWithUnknownSize());
                 response.put("currentMaxSize", currentMaxSize);
                 response.put("newMaxSize", maxFileSizeMb);
                 response.put("message", e.getMessage());
@@ -137,6 +162,82 @@ public class ApplicationSettingsController {
         }
     }
 
+    // ==================== STORAGE REPORT ====================
+
+    @GetMapping("/storage-report")
+    public ResponseEntity<?> getStorageReport() {
+        try {
+            if (!licenseService.isLicenseValid())
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid or expired license"));
+            return ResponseEntity.ok(documentFileIndexService.getStorageReport());
+        } catch (Exception e) {
+            logger.error("❌ Error building storage report: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to build storage report: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/storage-report/orphans")
+    public ResponseEntity<?> getOrphanFileReport() {
+        OrphanFileReport report = orphanFileCollectorService.getLastReport();
+        Map<String, Object> body = new HashMap<>();
+        body.put("running", orphanFileCollectorService.isRunning());
+        body.put("lastReport", report);
+        return ResponseEntity.ok(body);
+    }
+
+    @PostMapping("/storage-report/orphans/run")
+    public ResponseEntity<?> runOrphanFileSweep(Authentication authentication) {
+        if (!orphanFileCollectorService.startNextShard()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A sweep is already running"));
+        }
+        logger.info("Orphaned file sweep started by: {}", authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("success", true, "message", "Sweep started"));
+    }
+
+    // ==================== FLIGHT RECORDINGS ====================
+
+    @GetMapping("/diagnostics/recording")
+    public ResponseEntity<?> getFlightRecordingStatus() {
+        return ResponseEntity.ok(flightRecordingService.getStatus());
+    }
+
+    @PostMapping("/diagnostics/recording/start")
+    public ResponseEntity<?> startFlightRecording(@RequestParam(defaultValue = "300") long durationSeconds,
+                                                  Authentication authentication) {
+        try {
+            if (!flightRecordingService.start(Duration.ofSeconds(durationSeconds), authentication.getName())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "A recording is already running"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(flightRecordingService.getStatus());
+        } catch (Exception e) {
+            logger.error("❌ Error starting flight recording: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start recording: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/diagnostics/recording/stop")
+    public ResponseEntity<?> stopFlightRecording(Authentication authentication) {
+        if (!flightRecordingService.stop()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "No recording is running"));
+        }
+        logger.info("Flight recording stopped by: {}", authentication.getName());
+        return ResponseEntity.ok(flightRecordingService.getStatus());
+    }
+
+    @GetMapping("/diagnostics/recording/download")
+    public ResponseEntity<?> downloadFlightRecording() {
+        Path file = flightRecordingService.getRecordingFile();
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No finished recording available"));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(new FileSystemResource(file));
+    }
+
     // ==================== METADATA SCHEMA ====================
 
     @GetMapping("/metadata")
@@ -498,15 +599,11 @@ public class ApplicationSettingsController {
             // Prevent self-deletion
             if (currentUser != null) userIds.removeIf(id -> id.equals(currentUser.getId()));
 
-            int deleted = applicationSettingsService.bulkDeleteUsers(userIds, username);
+            // Runs in the background; the success/failure activity log is written when the job ends
+            BulkDeleteStatus job = bulkDeleteService.submitUsers(userIds, username);
 
-            // ✅ LOG SUCCESS
-            activityLogService.log(currentUser, ActivityLogService.SETTINGS_BULK_USER_DELETE,
-                    "Bulk deleted " + deleted + " user(s). IDs: " + userIds);
-
-            logger.info("✅ Bulk deleted {} users by: {}", deleted, username);
-            return ResponseEntity.ok(Map.of("success", true, "deletedCount", deleted,
-                    "message", deleted + " user(s) deleted successfully"));
+            logger.info("✅ Bulk delete of {} users started by: {} (job {})", userIds.size(), username, job.getJobId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (Exception e) {
             // ✅ LOG FAILURE
             activityLogService.log(currentUser, ActivityLogService.SETTINGS_BULK_USER_DELETE_FAIL,
@@ -527,15 +624,11 @@ public class ApplicationSettingsController {
             if (documentIds == null || documentIds.isEmpty())
                 return ResponseEntity.badRequest().body(Map.of("error", "No documents selected"));
 
-            int deleted = applicationSettingsService.bulkDeleteDocuments(documentIds, username);
+            // Runs in the background; the success/failure activity log is written when the job ends
+            BulkDeleteStatus job = bulkDeleteService.submitDocuments(documentIds, username);
 
-            // ✅ LOG SUCCESS
-            activityLogService.log(currentUser, ActivityLogService.SETTINGS_BULK_DOC_DELETE,
-                    "Bulk deleted " + deleted + " document(s). IDs: " + documentIds);
-
-            logger.info("✅ Bulk deleted {} documents by: {}", deleted, username);
-            return ResponseEntity.ok(Map.of("success", true, "deletedCount", deleted,
-                    "message", deleted + " document(s) deleted successfully"));
+            logger.info("✅ Bulk delete of {} documents started by: {} (job {})", documentIds.size(), username, job.getJobId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
         } catch (Exception e) {
             // ✅ LOG FAILURE
             activityLogService.log(currentUser, ActivityLogService.SETTINGS_BULK_DOC_DELETE_FAIL,
@@ -545,4 +638,13 @@ public class ApplicationSettingsController {
                     .body(Map.of("error", "Failed to delete documents: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/bulk-delete/jobs/{jobId}")
+    public ResponseEntity<?> getBulkDeleteStatus(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(bulkDeleteService.getStatus(jobId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package codesAndStandards.springboot.userApp.controller;
 import codesAndStandards.springboot.userApp.dto.*;
 import codesAndStandards.springboot.userApp.entity.AccessControlLogic;
 import codesAndStandards.springboot.userApp.entity.Group;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
 import codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository;
 import codesAndStandards.springboot.userApp.service.GroupService;
 import codesAndStandards.springboot.userApp.entity.User;
@@ -24,6 +25,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
@@ -36,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -1017,10 +1020,10 @@ public class AuthController {
     @GetMapping("/documents")
     public String listDocuments(Model model, Principal principal) {
 
-        // Get logged-in user
-        User user = userRepository.findByUsername(principal.getName());
+        // Get logged-in user (session snapshot - no database lookup)
+        AuthorizedUser user = AuthorizedUser.current();
         Long userId = user.getId();
-        String userRole = user.getRole().getRoleName();
+        String userRole = user.getRoleName();
 
         List<DocumentDto> documentsToShow;
 
@@ -1289,17 +1292,26 @@ public class AuthController {
     //Viewing any document(all have permission for this) -AJ
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin','Viewer')")
     @GetMapping("/documents/DocView/{id}")
-    public ResponseEntity<Resource> viewDocument(@PathVariable Long id) {
+    public ResponseEntity<Resource> viewDocument(@PathVariable Long id, WebRequest webRequest) {
         try {
-            String filePath = documentService.getFilePath(id);
+            DocumentDto document = documentService.findDocumentById(id);
+            String eTag = storedFileETag(document);
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
+            String filePath = document.getFilePath();
             Path path = Paths.get(filePath);
             Resource resource = new UrlResource(path.toUri());
 
             if (resource.exists() && resource.isReadable()) {
-                return ResponseEntity.ok()
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                         .contentType(MediaType.APPLICATION_PDF)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"");
+                if (document.getFileSizeBytes() != null && document.getFileSizeBytes() > 0) {
+                    response.contentLength(document.getFileSizeBytes());
+                }
+                return response.body(resource);
             } else {
                 throw new RuntimeException("File not found or not readable");
             }
@@ -1312,10 +1324,21 @@ public class AuthController {
 
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin','Viewer')")
     @GetMapping("/documents/DocViewer-view/{id}")
-    public ResponseEntity<byte[]> viewDocumentForViewer(@PathVariable Long id, Principal principal) {
+    public ResponseEntity<byte[]> viewDocumentForViewer(@PathVariable Long id, Principal principal, WebRequest webRequest) {
         try {
             DocumentDto document = documentService.findDocumentById(id);
 
+            // Unchanged file: answer 304 from the stored hash without touching the network share.
+            // Only for roles that may download anyway - Viewers must not get the unwatermarked file
+            // stored in their browser cache, so their responses stay no-store.
+            AuthorizedUser user = AuthorizedUser.current();
+            boolean mayDownload = user != null
+                    && ("Admin".equals(user.getRoleName()) || "Manager".equals(user.getRoleName()));
+            String eTag = mayDownload ? storedFileETag(document) : null;
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+
             String filePath = documentService.getFilePath(id);
             logger.info("Loading PDF from network share: {}", filePath);
 
@@ -1323,11 +1346,17 @@ public class AuthController {
 
             logger.info("Successfully loaded PDF, size: {} bytes", pdfBytes.length);
 
-            return ResponseEntity.ok()
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CACHE_CONTROL, "no-store, no-cache, must-revalidate")
-                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(pdfBytes.length))
-                    .body(pdfBytes);
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(pdfBytes.length));
+            if (eTag != null) {
+                // Private cache only, and always revalidated so access changes still apply
+                response.header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                        .eTag(eTag);
+            } else {
+                response.header(HttpHeaders.CACHE_CONTROL, "no-store, no-cache, must-revalidate");
+            }
+            return response.body(pdfBytes);
 
         } catch (Exception e) {
             logger.error("Failed to view document for viewer", e);
@@ -1337,6 +1366,60 @@ public class AuthController {
         }
     }
 
+    // Strong ETag from the stored SHA-256; null until the indexer has hashed the file
+    private String storedFileETag(DocumentDto document) {
+        if (document.getContentSha256() == null
+                || document.getFileSizeBytes() == null || document.getFileSizeBytes() < 0) {
+            return null;
+        }
+        return "\"" + document.getContentSha256() + "\"";
+    }
+
+    @Autowired
+    private DocumentPreviewService documentPreviewService;
+
+    @Autowired
+    private DocumentAccessService documentAccessService;
+
+    // First-page thumbnail for the library. Keyed by content hash, so a request carrying the
+    // current hash (?v=) can be cached for good; a replaced file changes the URL.
+    @GetMapping("/documents/preview/{id}")
+    public ResponseEntity<Resource> previewDocument(@PathVariable Long id,
+                                                    @RequestParam(value = "v", required = false) String version,
+                                                    WebRequest webRequest) {
+        if (!documentAccessService.hasAccessToDocument(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        DocumentPreviewRef ref = documentPreviewService.findPreviewRef(id);
+        if (ref == null || ref.getContentSha256() == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String eTag = "\"" + ref.getContentSha256() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        Path preview = documentPreviewService.getCachedPreview(ref.getContentSha256());
+        if (preview == null) {
+            // Not rendered yet - queue it; the page falls back to the text-only card
+            documentPreviewService.requestRender(ref);
+            return ResponseEntity.notFound()
+                    .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(eTag);
+        if (ref.getContentSha256().equals(version)) {
+            response.header(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        } else {
+            response.header(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return response.body(new FileSystemResource(preview));
+    }
+
 // ================== SECURE PDF VIEWER API ================== -AJ
 
     @Autowired
@@ -1348,6 +1431,9 @@ public class AuthController {
     @Autowired
     private AccessControlLogicRepository accessControlLogicRepository;  // Add this
 
+    @Autowired
+    private ChangeSequenceService changeSequenceService;
+
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin','Viewer')")
     @GetMapping("/DocViewer")
     public String showPdfViewer(@RequestParam Long id, Model model, Principal principal) {
@@ -1359,8 +1445,8 @@ public class AuthController {
             DocumentDto document = documentService.findDocumentById(id);
             logger.info("Document found: " + document.getTitle());
 
-            User user = userRepository.findByUsername(principal.getName());
-            String userRole = user.getRole().getRoleName();
+            AuthorizedUser user = AuthorizedUser.current();
+            String userRole = user.getRoleName();
             logger.info("User role: " + userRole);
 
             // ✅ ADD THIS: Fetch groups through AccessControlLogic
@@ -1401,7 +1487,13 @@ public class AuthController {
 
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin','Viewer')")
     @GetMapping("/documents/info/{id}")
-    public ResponseEntity<?> getDocumentInfo(@PathVariable Long id, Principal principal) {
+    public ResponseEntity<?> getDocumentInfo(@PathVariable Long id, Principal principal, WebRequest webRequest) {
+        // Unchanged document, tags, classifications and groups: answer 304 without touching the database
+        String eTag = changeSequenceService.documentEtag(id, ChangeSequenceService.Table.TAGS,
+                ChangeSequenceService.Table.CLASSIFICATIONS, ChangeSequenceService.Table.GROUPS);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         try {
             DocumentDto document = documentService.findDocumentById(id);
 
@@ -1425,7 +1517,10 @@ public class AuthController {
             info.put("tagNames", document.getTagNames());
             info.put("classificationNames", document.getClassificationNames());
             info.put("groupNames", groupNames);
-            return ResponseEntity.ok(info);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                    .eTag(eTag)
+                    .body(info);
         } catch (Exception e) {
             logger.error("Failed to get document info", e);
             return ResponseEntity.notFound().build();
@@ -1,10 +1,13 @@
 package codesAndStandards.springboot.userApp.controller;
 
+import codesAndStandards.springboot.userApp.dto.BulkUploadJobStatus;
 import codesAndStandards.springboot.userApp.dto.BulkUploadResult;
 import codesAndStandards.springboot.userApp.dto.BulkUploadValidationResult;
 import codesAndStandards.springboot.userApp.service.ActivityLogService;
+import codesAndStandards.springboot.userApp.service.BulkUploadJobService;
 import codesAndStandards.springboot.userApp.service.BulkUploadService;
 import codesAndStandards.springboot.userApp.service.LicenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
@@ -19,12 +22,17 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @Controller
 @RequestMapping("/api/bulk-upload")
@@ -35,12 +43,17 @@ public class BulkUploadController {
     @Autowired
     private BulkUploadService bulkUploadService;
 
+    @Autowired
+    private BulkUploadJobService bulkUploadJobService;
+
     @Autowired
     private ActivityLogService activityLogService;
 
     @Autowired
     private LicenseService licenseService;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private String getCurrentUsername() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
@@ -246,11 +259,75 @@ public class BulkUploadController {
         }
     }
 
+    /**
+     * Validate bulk upload, streaming progress as NDJSON: one {"type":"file"} line per PDF as it is
+     * read, then a final {"type":"result"} line with the full validation result.
+     */
+    @PostMapping("/validate-stream")
+    @PreAuthorize("hasAuthority('Admin')")
+    public ResponseEntity<StreamingResponseBody> validateBulkUploadStream(
+            @RequestParam("pdfFiles") MultipartFile[] pdfFiles,
+            @RequestParam("excelFile") MultipartFile excelFile,
+            @RequestParam(value = "selfValidationJson", required = false) String selfValidationJson) {
+
+        ResponseEntity<?> licenseCheck = checkLicenseEdition();
+        if (licenseCheck != null) {
+            Object error = licenseCheck.getBody();
+            return ResponseEntity.status(licenseCheck.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, error));
+        }
+
+        if (pdfFiles == null || pdfFiles.length == 0 || excelFile == null || excelFile.isEmpty()) {
+            BulkUploadValidationResult errorResult = new BulkUploadValidationResult();
+            errorResult.addError("Validation Error", pdfFiles == null || pdfFiles.length == 0
+                    ? "No PDF files provided"
+                    : "No Excel file provided");
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, errorResult));
+        }
+
+        logger.info("✅ ED2 License validated - Validating bulk upload (streaming): {} PDF files, Excel file: {}",
+                pdfFiles.length, excelFile.getOriginalFilename());
+
+        StreamingResponseBody body = out -> {
+            try {
+                BulkUploadValidationResult result = bulkUploadService.validateBulkUpload(
+                        pdfFiles, excelFile, selfValidationJson, check -> {
+                            try {
+                                writeLine(out, Map.of("type", "file", "check", check));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                writeLine(out, Map.of("type", "result", "result", result));
+            } catch (Exception e) {
+                logger.error("Error validating bulk upload", e);
+                BulkUploadValidationResult errorResult = new BulkUploadValidationResult();
+                errorResult.addError("Validation Error", "Failed to validate files: " + e.getMessage());
+                writeLine(out, Map.of("type", "result", "result", errorResult));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+        out.flush();
+    }
+
     /**
      * Process bulk upload
      * ✅ WITH LICENSE AND EDITION VALIDATION
      * UPDATED: Now accepts selfValidationJson parameter for edited metadata from Step 4
      * Also accepts uploadOnlyValid parameter to skip documents with errors
+     * The files are staged and the upload runs as a background job - poll /jobs/{jobId} for progress
      */
     @PostMapping("/process")
     @PreAuthorize("hasAuthority('Admin')")
@@ -300,61 +377,16 @@ public class BulkUploadController {
                 return ResponseEntity.badRequest().body(errorResult);
             }
 
-            long startTime = System.currentTimeMillis();
-
-            // Pass the edited metadata to the service layer
-            BulkUploadResult result = bulkUploadService.processBulkUpload(
+            // Activity is logged by the job once it finishes
+            BulkUploadJobStatus status = bulkUploadJobService.submit(
                     pdfFiles,
                     excelFile,
                     selfValidationJson,
                     onlyValid
             );
 
-            long duration = System.currentTimeMillis() - startTime;
-
-            logger.info("Bulk upload processing completed in {} ms. Success: {}, Failed: {}",
-                    duration,
-                    result.getSuccessCount(),
-                    result.getFailedCount());
-            // ✅ LOG INDIVIDUAL DOCUMENT UPLOADS
-            if (result.getSuccessfulUploads() != null && !result.getSuccessfulUploads().isEmpty()) {
-                for (Map.Entry<String, String> entry : result.getSuccessfulUploads().entrySet()) {
-
-                    String filename = entry.getKey();
-                    String title = entry.getValue();
-
-                    activityLogService.logByUsername(
-                            username,
-                            ActivityLogService.DOCUMENT_UPLOAD,
-                            "Uploaded document: \"" + filename + "\" as \"" + title + "\" " +
-                                    "(Bulk Upload" +
-                                    (selfValidationJson != null && !selfValidationJson.isEmpty()
-                                            ? ", edited metadata"
-                                            : "") +
-                                    ")"
-                    );
-                }
-            }
-
-// ✅ OPTIONAL: KEEP ONE SUMMARY LOG (recommended)
-            activityLogService.logByUsername(
-                    username,
-                    ActivityLogService.BULK_DOCUMENT_UPLOADED,
-                    "Bulk upload completed: " + result.getSuccessCount() +
-                            " document(s) uploaded using " + excelFile.getOriginalFilename()
-            );
-
-
-            // Log success
-//            activityLogService.logByUsername(
-//                    username,
-//                    ActivityLogService.BULK_DOCUMENT_UPLOADED,
-//                    "Successfully processed bulk upload of " + result.getSuccessCount() +
-//                            " document(s) using metadata file: " + excelFile.getOriginalFilename() +
-//                            (selfValidationJson != null && !selfValidationJson.isEmpty() ? " (with edited metadata)" : "") +
-//                            " [ED2 Professional Edition]"
-//            );
-            return ResponseEntity.ok(result);
+            logger.info("Bulk upload job {} accepted: {} document(s)", status.getJobId(), status.getTotalCount());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
 
         } catch (Exception e) {
             logger.error("Error processing bulk upload", e);
@@ -371,4 +403,64 @@ public class BulkUploadController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResult);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Progress of a background bulk upload job
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('Admin')")
+    @ResponseBody
+    public ResponseEntity<?> getJobStatus(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(bulkUploadJobService.getStatus(jobId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Per-file outcome of a bulk upload job
+     */
+    @GetMapping("/jobs/{jobId}/result")
+    @PreAuthorize("hasAuthority('Admin')")
+    @ResponseBody
+    public ResponseEntity<?> getJobResult(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(bulkUploadJobService.getResult(jobId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/jobs/{jobId}/cancel")
+    @PreAuthorize("hasAuthority('Admin')")
+    @ResponseBody
+    public ResponseEntity<?> cancelJob(@PathVariable Long jobId) {
+        try {
+            BulkUploadJobStatus status = bulkUploadJobService.cancel(jobId);
+            activityLogService.logByUsername(
+                    getCurrentUsername(),
+                    ActivityLogService.BULK_DOCUMENT_UPLOAD_FAIL,
+                    "Bulk upload cancelled (Job " + jobId + ")"
+            );
+            return ResponseEntity.ok(status);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/jobs/{jobId}/resume")
+    @PreAuthorize("hasAuthority('Admin')")
+    @ResponseBody
+    public ResponseEntity<?> resumeJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(bulkUploadJobService.resume(jobId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+}
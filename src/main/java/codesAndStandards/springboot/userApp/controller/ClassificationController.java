@@ -4,6 +4,7 @@ import codesAndStandards.springboot.userApp.dto.ClassificationDto;
 import codesAndStandards.springboot.userApp.entity.User;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.service.ActivityLogService;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
 import codesAndStandards.springboot.userApp.service.ClassificationService;
 import codesAndStandards.springboot.userApp.service.LicenseService;
 import jakarta.validation.Valid;
@@ -11,12 +12,14 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +35,7 @@ public class ClassificationController {
     private final ClassificationService classificationService;
     private final UserRepository userRepository;
     private final ActivityLogService activityLogService;
+    private final ChangeSequenceService changeSequenceService;
     private static final Logger logger = LoggerFactory.getLogger(ClassificationController.class);
 
     @Autowired
@@ -194,14 +198,23 @@ public class ClassificationController {
      */
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin')")
     @GetMapping
-    public ResponseEntity<?> getAllClassifications() {
+    public ResponseEntity<?> getAllClassifications(WebRequest request) {
         // ✅ LICENSE CHECK (READ-ONLY - ALL EDITIONS)
         if (!licenseService.isLicenseValid()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "License expired or not found"));
         }
 
-        return ResponseEntity.ok(classificationService.getAllClassifications());
+        // Document counts and creator names are part of the payload, so documents and users count too
+        String etag = changeSequenceService.etag(ChangeSequenceService.Table.CLASSIFICATIONS,
+                ChangeSequenceService.Table.DOCUMENTS, ChangeSequenceService.Table.USERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .eTag(etag)
+                .body(classificationService.getAllClassifications());
     }
 
     /**
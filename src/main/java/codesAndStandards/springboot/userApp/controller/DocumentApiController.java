@@ -4,18 +4,21 @@ import codesAndStandards.springboot.userApp.dto.DocumentDto;
 import codesAndStandards.springboot.userApp.dto.DocumentInfoDTO;
 import codesAndStandards.springboot.userApp.entity.Document;
 import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
 import codesAndStandards.springboot.userApp.service.DocumentService;
 import codesAndStandards.springboot.userApp.service.LicenseService;
 import codesAndStandards.springboot.userApp.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
@@ -32,6 +35,7 @@ public class DocumentApiController {
     private final DocumentRepository documentRepository;
     private final UserService userService;
     private final DocumentService documentService;
+    private final ChangeSequenceService changeSequenceService;
 
     @Autowired
     private LicenseService licenseService;
@@ -143,7 +147,7 @@ public class DocumentApiController {
      */
     @GetMapping
     @PreAuthorize("hasAnyAuthority('Admin', 'Manager', 'User')")
-    public ResponseEntity<?> getAllDocuments() {
+    public ResponseEntity<?> getAllDocuments(WebRequest request) {
         log.info("REST request to get documents (filtered by group access)");
 
         // ✅ LICENSE CHECK
@@ -153,6 +157,11 @@ public class DocumentApiController {
                     .body(Map.of("error", "License expired or not found"));
         }
 
+        String etag = changeSequenceService.etag(ChangeSequenceService.Table.DOCUMENTS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
             Long userId = userService.getLoggedInUserId();
             List<Document> documents = documentRepository.findAll();
@@ -165,7 +174,10 @@ public class DocumentApiController {
                     .collect(Collectors.toList());
 
             log.info("Returning {} accessible documents", documentDTOs.size());
-            return ResponseEntity.ok(documentDTOs);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                    .eTag(etag)
+                    .body(documentDTOs);
 
         } catch (Exception e) {
             log.error("Error fetching documents", e);
@@ -181,7 +193,7 @@ public class DocumentApiController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('Admin', 'Manager', 'User')")
-    public ResponseEntity<?> getDocumentById(@PathVariable Long id) {
+    public ResponseEntity<?> getDocumentById(@PathVariable Long id, WebRequest request) {
         log.info("REST request to get document : {}", id);
 
         // ✅ LICENSE CHECK
@@ -191,6 +203,11 @@ public class DocumentApiController {
                     .body(new ErrorResponse("License expired or not found"));
         }
 
+        String etag = changeSequenceService.documentEtag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         try {
             Document document = documentRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Document not found with ID: " + id));
@@ -200,7 +217,10 @@ public class DocumentApiController {
                     .title(document.getTitle())
                     .build();
 
-            return ResponseEntity.ok(dto);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                    .eTag(etag)
+                    .body(dto);
         } catch (RuntimeException e) {
             log.error("Error fetching document with ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -5,17 +5,20 @@ import codesAndStandards.springboot.userApp.entity.User;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.service.TagService;
 import codesAndStandards.springboot.userApp.service.ActivityLogService;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
 import codesAndStandards.springboot.userApp.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +36,7 @@ public class TagController {
     private final ActivityLogService activityLogService;
     private static final Logger logger = LoggerFactory.getLogger(TagController.class);
     private final UserService userService;
+    private final ChangeSequenceService changeSequenceService;
 
     @PostMapping
     public ResponseEntity<TagDto> createTag(@Valid @RequestBody TagDto tagDto) {
@@ -138,8 +142,17 @@ public class TagController {
 
     @PreAuthorize("hasAnyAuthority('Manager', 'Admin')")
     @GetMapping
-    public ResponseEntity<List<TagDto>> getAllTags() {
-        return ResponseEntity.ok(tagService.getAllTags());
+    public ResponseEntity<List<TagDto>> getAllTags(WebRequest request) {
+        // Document counts and creator names are part of the payload, so documents and users count too
+        String etag = changeSequenceService.etag(ChangeSequenceService.Table.TAGS,
+                ChangeSequenceService.Table.DOCUMENTS, ChangeSequenceService.Table.USERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                .eTag(etag)
+                .body(tagService.getAllTags());
     }
 
     @GetMapping("/my-tags")
@@ -0,0 +1,23 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row used by the activity log export.
+ * Built directly by a JPQL constructor expression so no entities
+ * (and none of the EAGER User associations) are loaded while streaming.
+ */
+@Getter
+@AllArgsConstructor
+public class ActivityLogExportRow {
+
+    private Long logId;
+    private LocalDateTime timestamp;
+    private String action;
+    private String details;
+    private Long userId;
+    private String username;
+}
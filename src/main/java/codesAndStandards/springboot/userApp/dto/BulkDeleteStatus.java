@@ -0,0 +1,33 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk delete started from the settings page.
+ */
+@Data
+public class BulkDeleteStatus {
+
+    private String jobId;
+    // USERS or DOCUMENTS
+    private String type;
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+
+    private int totalCount;
+    private int processed;
+    private int deletedCount;
+    // Ids that no longer existed when their chunk ran
+    private int skippedCount;
+
+    // Stored files handed to the deletion queue, and how many of them are still on the share
+    private int filesQueued;
+    private long filesPending;
+
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
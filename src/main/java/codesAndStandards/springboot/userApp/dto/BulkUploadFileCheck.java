@@ -0,0 +1,16 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of reading one uploaded PDF during validation, reported as soon as it is known.
+ */
+@Data
+@AllArgsConstructor
+public class BulkUploadFileCheck {
+    private String filename;
+    private Integer pageCount;    // null when the file could not be read as a PDF
+    private int checked;
+    private int total;
+}
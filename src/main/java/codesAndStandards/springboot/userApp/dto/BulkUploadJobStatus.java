@@ -0,0 +1,32 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a background bulk upload, as polled by the upload wizard.
+ */
+@Data
+public class BulkUploadJobStatus {
+
+    private Long jobId;
+    private String status;
+
+    private int totalCount;
+    private int successCount;
+    private int failedCount;
+    private int processed;
+
+    // Only known while the job runs on this node
+    private String currentFile;
+    private Double docsPerSecond;
+    private Long etaSeconds;
+
+    private boolean cancelRequested;
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
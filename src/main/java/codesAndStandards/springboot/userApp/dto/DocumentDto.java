@@ -25,6 +25,9 @@ public class DocumentDto {
     private String notes;
 
     private String filePath;
+    private Long fileSizeBytes;
+    private String contentSha256;
+    private Integer pageCountVerified;
     private String uploadedAt;
     private Long uploadedByUserId;
     private String uploadedByUsername;
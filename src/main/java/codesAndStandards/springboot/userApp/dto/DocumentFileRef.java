@@ -0,0 +1,16 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Minimal (id, file path) pair - avoids loading the EAGER Document graph
+ * when only the stored file is of interest.
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentFileRef {
+
+    private Long id;
+    private String filePath;
+}
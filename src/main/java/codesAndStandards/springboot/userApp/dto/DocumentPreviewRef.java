@@ -0,0 +1,16 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * (id, file path, content hash) - what the preview renderer needs, without the EAGER Document graph.
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentPreviewRef {
+
+    private Long id;
+    private String filePath;
+    private String contentSha256;
+}
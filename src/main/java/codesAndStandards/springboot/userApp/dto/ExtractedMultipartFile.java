@@ -1,62 +0,0 @@
-package codesAndStandards.springboot.userApp.dto;
-
-import org.springframework.web.multipart.MultipartFile;
-
-import java.io.*;
-//Below modules are used from java.io
-//import java.io.File;
-//import java.io.FileInputStream;
-//import java.io.IOException;
-//import java.io.InputStream;
-import java.nio.file.Files;
-
-public class ExtractedMultipartFile implements MultipartFile {
-
-    private final File file;
-    private final String filename;
-
-    public ExtractedMultipartFile(File file, String filename) {
-        this.file = file;
-        this.filename = filename;
-    }
-
-    @Override
-    public String getName() {
-        return filename;
-    }
-
-    @Override
-    public String getOriginalFilename() {
-        return filename;
-    }
-
-    @Override
-    public String getContentType() {
-        return "application/pdf";
-    }
-
-    @Override
-    public boolean isEmpty() {
-        return file.length() == 0;
-    }
-
-    @Override
-    public long getSize() {
-        return file.length();
-    }
-
-    @Override
-    public byte[] getBytes() throws IOException {
-        return Files.readAllBytes(file.toPath());
-    }
-
-    @Override
-    public InputStream getInputStream() throws IOException {
-        return new FileInputStream(file);
-    }
-
-    @Override
-    public void transferTo(File dest) throws IOException, IllegalStateException {
-        Files.copy(file.toPath(), dest.toPath());
-    }
-}
\ No newline at end of file
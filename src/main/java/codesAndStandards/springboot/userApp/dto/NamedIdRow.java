@@ -0,0 +1,15 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Id and name of a tag or classification, for the in-memory name dictionary.
+ */
+@Getter
+@AllArgsConstructor
+public class NamedIdRow {
+
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,38 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of one orphaned-file sweep over a shard of the document repository.
+ */
+@Data
+public class OrphanFileReport {
+
+    // REPORT or QUARANTINE
+    private String mode;
+    private String repositoryPath;
+    private int shard;
+    private int shardCount;
+
+    private long referencedFiles;
+    private long listedFiles;
+    // Files of this run's shard that were checked
+    private long scannedFiles;
+    private long youngFiles;
+
+    private long orphanedFiles;
+    private long orphanedBytes;
+    private long quarantinedFiles;
+    private long failedFiles;
+
+    // First few orphans, for the settings page
+    private List<String> sampleOrphans = new ArrayList<>();
+
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,18 @@
+package codesAndStandards.springboot.userApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The columns needed to authenticate and authorize a user, without the
+ * EAGER role / createdBy / groupUsers graph that loading a User brings in.
+ */
+@Getter
+@AllArgsConstructor
+public class UserAuthRow {
+
+    private Long id;
+    private String username;
+    private String password;
+    private String roleName;
+}
@@ -0,0 +1,85 @@
+package codesAndStandards.springboot.userApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk upload running in the background. Per-document state lives in BulkUploadJobItem;
+ * the counts here are kept in step with it so progress polling reads a single row.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "bulk_upload_jobs",
+        indexes = {
+                @Index(name = "idx_bulk_upload_jobs_status", columnList = "status")
+        }
+)
+public class BulkUploadJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == CANCELLED || this == FAILED;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "created_by", nullable = false)
+    private Long createdById;
+
+    @Column(name = "created_by_username", nullable = false, length = 100)
+    private String createdByUsername;
+
+    @Column(name = "metadata_file_name", length = 255)
+    private String metadataFileName;
+
+    @Column(name = "edited_metadata", nullable = false)
+    private boolean editedMetadata;
+
+    @Column(name = "staging_dir", nullable = false, length = 1000)
+    private String stagingDir;
+
+    @Column(name = "total_count", nullable = false)
+    private int totalCount;
+
+    @Column(name = "success_count", nullable = false)
+    private int successCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,61 @@
+package codesAndStandards.springboot.userApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One document of a bulk upload job. The metadata row is kept as JSON so the job can be
+ * resumed after a restart; COMMITTED is written in the same transaction as the document.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "bulk_upload_job_items",
+        indexes = {
+                @Index(name = "idx_bulk_upload_job_items_job_state", columnList = "job_id, state")
+        }
+)
+public class BulkUploadJobItem {
+
+    public enum State {
+        PENDING,
+        COMMITTED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "item_id")
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "filename", nullable = false, length = 255)
+    private String filename;
+
+    @Column(name = "title", length = 500)
+    private String title;
+
+    @Column(name = "metadata_json", columnDefinition = "NVARCHAR(MAX)")
+    private String metadataJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private State state;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -51,6 +51,17 @@ public class Document {
     @Column(name = "file_path", nullable = false)
     private String filePath;
 
+    // Filled at upload time, or by DocumentFileIndexService for older rows (-1 = file missing on share)
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    // Page count read from the file itself (noOfPages is user-entered)
+    @Column(name = "page_count_verified")
+    private Integer pageCountVerified;
+
     @Column(name = "created_at")
     private LocalDateTime uploadedAt = LocalDateTime.now();
 
@@ -0,0 +1,53 @@
+package codesAndStandards.springboot.userApp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored file still to be removed from the share after its database row was deleted.
+ * The row is deleted once the file is gone; failures are retried with backoff.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(
+        name = "file_deletion_queue",
+        indexes = {
+                @Index(name = "idx_file_deletion_queue_next_attempt", columnList = "next_attempt_at"),
+                @Index(name = "idx_file_deletion_queue_batch", columnList = "batch_id")
+        }
+)
+public class FileDeletionTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tombstone_id")
+    private Long id;
+
+    @Column(name = "file_path", nullable = false, length = 1000)
+    private String filePath;
+
+    @Column(name = "document_id")
+    private Long documentId;
+
+    // Bulk delete that queued the file, for progress reporting
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,69 @@
+package codesAndStandards.springboot.userApp.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ContentVersionStrategy;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache headers for static assets while the resource chain fingerprints their URLs (prod profile).
+ *
+ * A fingerprinted URL (bootstrap.min-&lt;md5&gt;.css) only ever serves one content, so the browser
+ * keeps it for a year without revalidating. A URL only counts as fingerprinted when it is the one
+ * the resource chain generates for the current content - a hyphenated name like company-logo.png
+ * looks versioned too. Everything else (the pdf.js worker, links typed by hand) must revalidate
+ * and gets a 304 from Last-Modified. Registered in WebMvcConfig.
+ */
+public class StaticAssetCacheInterceptor implements HandlerInterceptor {
+
+    public static final String[] ASSET_PATHS = {
+            "/css/**",
+            "/js/**",
+            "/images/**",
+            "/fonts/**",
+            "/fontawesome/**",
+            "/bootstrap-icons/**",
+            "/pdfjs/**"
+    };
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final ContentVersionStrategy versionStrategy = new ContentVersionStrategy();
+
+    // Looked up lazily - the provider is built after the interceptors are registered
+    private final ObjectProvider<ResourceUrlProvider> resourceUrlProvider;
+
+    public StaticAssetCacheInterceptor(ObjectProvider<ResourceUrlProvider> resourceUrlProvider) {
+        this.resourceUrlProvider = resourceUrlProvider;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof ResourceHttpRequestHandler) {
+            // The resource handler has no cache settings of its own, so this header is what the browser sees
+            String lookupPath = request.getRequestURI().substring(request.getContextPath().length());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, isCurrentFingerprint(lookupPath) ? IMMUTABLE : REVALIDATE);
+        }
+        return true;
+    }
+
+    // True when the path carries the content hash the resource chain would put in a link today
+    private boolean isCurrentFingerprint(String lookupPath) {
+        String version = versionStrategy.extractVersion(lookupPath);
+        ResourceUrlProvider provider = resourceUrlProvider.getIfAvailable();
+        if (version == null || provider == null) {
+            return false;
+        }
+        // Resolved through the chain's caching resolver, so this is a map lookup after the first request
+        String current = provider.getForLookupPath(versionStrategy.removeVersion(lookupPath, version));
+        return lookupPath.equals(current);
+    }
+}
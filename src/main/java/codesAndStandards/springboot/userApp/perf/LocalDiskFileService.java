@@ -0,0 +1,157 @@
+package codesAndStandards.springboot.userApp.perf;
+
+import codesAndStandards.springboot.userApp.service.NetworkFileService;
+import codesAndStandards.springboot.userApp.service.ShareMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * NetworkFileService backed by a local directory (file.upload-dir) for the perf profile.
+ * Paths are plain file system paths; the operations and metrics are the same as on the share,
+ * so a load test exercises the application rather than the SMB client.
+ */
+@Service
+@Primary
+@Profile("perf")
+public class LocalDiskFileService extends NetworkFileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalDiskFileService.class);
+
+    @Autowired
+    private ShareMetrics shareMetrics;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Override
+    public byte[] readFileFromNetworkShare(String filePath) throws Exception {
+        return shareMetrics.record("read", filePath, () -> {
+            byte[] data = Files.readAllBytes(Paths.get(filePath));
+            shareMetrics.bytesRead(data.length);
+            return data;
+        });
+    }
+
+    @Override
+    public String storeFile(MultipartFile file) throws Exception {
+        if (file == null || file.isEmpty()) {
+            throw new Exception("File is empty or null");
+        }
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null) {
+            throw new Exception("Original filename is null");
+        }
+        String cleaned = originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
+        int lastDot = cleaned.lastIndexOf('.');
+        String uniqueFileName = lastDot >= 0
+                ? cleaned.substring(0, lastDot) + "_" + System.currentTimeMillis() + cleaned.substring(lastDot)
+                : cleaned + "_" + System.currentTimeMillis();
+
+        return shareMetrics.record("store", uniqueFileName, () -> {
+            Path target = Paths.get(uploadDir, uniqueFileName);
+            Files.createDirectories(target.getParent());
+            try (InputStream in = file.getInputStream()) {
+                shareMetrics.bytesWritten(Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING));
+            }
+            return uniqueFileName;
+        });
+    }
+
+    @Override
+    public void deleteFile(String filePath) throws Exception {
+        if (filePath == null || filePath.isEmpty()) {
+            logger.warn("Delete requested with empty file path");
+            return;
+        }
+        shareMetrics.record("delete", filePath, () -> Files.deleteIfExists(Paths.get(filePath)));
+    }
+
+    @Override
+    public String getFullFilePath(String fileName) {
+        return Paths.get(uploadDir, fileName).toString();
+    }
+
+    @Override
+    public boolean fileExists(String filePath) {
+        try {
+            return shareMetrics.record("exists", filePath, () -> Files.exists(Paths.get(filePath)));
+        } catch (RuntimeException e) {
+            logger.error("Error checking file existence: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public long getFileSize(String filePath) throws Exception {
+        return shareMetrics.record("stat", filePath, () -> {
+            Path path = Paths.get(filePath);
+            return Files.exists(path) ? Files.size(path) : -1L;
+        });
+    }
+
+    @Override
+    public InputStream openInputStream(String filePath) throws Exception {
+        InputStream in = shareMetrics.record("open", filePath, () -> Files.newInputStream(Paths.get(filePath)));
+        return shareMetrics.countingReads(in);
+    }
+
+    @Override
+    public void listFiles(String dirPath, ListedFileVisitor visitor) throws Exception {
+        shareMetrics.record("list", dirPath, () -> {
+            try (Stream<Path> files = Files.list(Paths.get(dirPath))) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attributes.isRegularFile()) {
+                        visitor.visit(file.getFileName().toString(), file.toString(),
+                                attributes.size(), attributes.lastModifiedTime().toMillis());
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void moveFile(String filePath, String targetDirPath) throws Exception {
+        shareMetrics.record("move", filePath, () -> {
+            Path source = Paths.get(filePath);
+            Path targetDir = Files.createDirectories(Paths.get(targetDirPath));
+            return Files.move(source, targetDir.resolve(source.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+        });
+    }
+
+    @Override
+    public boolean testConnection() {
+        Path dir = Paths.get(uploadDir);
+        return Files.isDirectory(dir) && Files.isReadable(dir) && Files.isWritable(dir);
+    }
+
+    @Override
+    public Map<String, Object> checkPermissions() {
+        Path dir = Paths.get(uploadDir);
+        Map<String, Object> result = new HashMap<>();
+        result.put("path", dir.toString());
+        result.put("exists", Files.exists(dir));
+        result.put("isDirectory", Files.isDirectory(dir));
+        result.put("canRead", Files.isReadable(dir));
+        result.put("canWrite", Files.isWritable(dir));
+        result.put("type", "local");
+        return result;
+    }
+}
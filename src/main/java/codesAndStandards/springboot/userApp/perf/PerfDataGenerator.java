@@ -0,0 +1,428 @@
+package codesAndStandards.springboot.userApp.perf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds the perf database with users, groups, tags, classifications, documents (with real PDF
+ * files in file.upload-dir), group access and bookmarks. Sizes come from perf.seed.*.
+ *
+ * Accounts: perf-admin (Admin), perf-manager-NNNN (Manager) and perf-viewer-NNNN (Viewer), all
+ * with perf.seed.password. Each Manager and Viewer is in a few groups and each document is shared
+ * with a few groups, so library listings and access checks see a realistic spread.
+ *
+ * Everything is drawn from a fixed seed, so two runs generate the same data set.
+ */
+@Component
+@Profile("perf")
+public class PerfDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+    private static final long SEED = 20240501L;
+    private static final int BATCH_SIZE = 1000;
+
+    // Page counts of the template PDFs; most stored standards are short, a few are long
+    private static final int[] TEMPLATE_PAGES = {1, 2, 4, 8, 12, 24, 40, 120};
+    private static final int[] TEMPLATE_WEIGHTS = {10, 15, 20, 20, 15, 10, 7, 3};
+
+    private static final String[] WORDS = {
+            "Steel", "Concrete", "Pressure", "Vessel", "Welding", "Piping", "Structural", "Design",
+            "Code", "Standard", "Specification", "Fire", "Safety", "Electrical", "Installation",
+            "Testing", "Inspection", "Bridge", "Seismic", "Boiler", "Valve", "Flange", "Timber",
+            "Masonry", "Foundation", "Load", "Wind", "Thermal", "Insulation", "Coating"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${perf.seed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${perf.seed.password:perf}")
+    private String password;
+
+    @Value("${perf.seed.managers:20}")
+    private int managers;
+
+    @Value("${perf.seed.viewers:200}")
+    private int viewers;
+
+    @Value("${perf.seed.groups:25}")
+    private int groups;
+
+    @Value("${perf.seed.documents:10000}")
+    private int documents;
+
+    @Value("${perf.seed.tags:300}")
+    private int tags;
+
+    @Value("${perf.seed.classifications:40}")
+    private int classifications;
+
+    @Value("${perf.seed.bookmarks-per-user:10}")
+    private int bookmarksPerUser;
+
+    @Value("${perf.seed.groups-per-user:3}")
+    private int groupsPerUser;
+
+    @Value("${perf.seed.groups-per-document:2}")
+    private int groupsPerDocument;
+
+    /**
+     * A generated PDF that seeded documents link to.
+     */
+    private static final class Template {
+        private final Path path;
+        private final int pages;
+        private final long size;
+        private final String sha256;
+
+        private Template(Path path, int pages, long size, String sha256) {
+            this.path = path;
+            this.pages = pages;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Documents", Integer.class);
+        if (existing != null && existing > 0) {
+            logger.info("Perf data already present ({} documents) - not seeding", existing);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Random random = new Random(SEED);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Map<String, Long> roleIds = seedRoles();
+        Map<String, Long> userIds = seedUsers(roleIds, now);
+        Long adminId = userIds.get("perf-admin");
+        List<Long> groupIds = seedGroups(adminId, now);
+        seedGroupMembers(userIds, groupIds, adminId, now, random);
+        List<Long> tagIds = seedNames("tags", "tag_name", "perf-tag-", tags, adminId, now);
+        List<Long> classificationIds = seedNames("classification", "classification_name", "Perf Class ",
+                classifications, adminId, now);
+        List<Long> documentIds = seedDocuments(adminId, now, random);
+        seedDocumentLinks(documentIds, tagIds, classificationIds, groupIds, adminId, now, random);
+        seedBookmarks(userIds, documentIds, now, random);
+
+        logger.info("Perf data seeded in {} ms: {} users, {} groups, {} documents, {} tags, {} classifications",
+                System.currentTimeMillis() - start, userIds.size(), groupIds.size(), documentIds.size(),
+                tagIds.size(), classificationIds.size());
+    }
+
+    // ==================== USERS AND GROUPS ====================
+
+    private Map<String, Long> seedRoles() {
+        for (String role : List.of("Admin", "Manager", "Viewer")) {
+            jdbcTemplate.update("INSERT INTO roles (role_name) SELECT ? WHERE NOT EXISTS " +
+                    "(SELECT 1 FROM roles WHERE role_name = ?)", role, role);
+        }
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT role_id, role_name FROM roles",
+                rs -> {
+                    ids.put(rs.getString("role_name"), rs.getLong("role_id"));
+                });
+        return ids;
+    }
+
+    private Map<String, Long> seedUsers(Map<String, Long> roleIds, Timestamp now) {
+        // One hash for everyone - BCrypt per user would dominate the seeding time
+        String hash = passwordEncoder.encode(password);
+
+        List<String[]> users = new ArrayList<>();
+        users.add(new String[]{"perf-admin", "Admin"});
+        for (int i = 1; i <= managers; i++) {
+            users.add(new String[]{String.format("perf-manager-%04d", i), "Manager"});
+        }
+        for (int i = 1; i <= viewers; i++) {
+            users.add(new String[]{String.format("perf-viewer-%04d", i), "Viewer"});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (first_name, last_name, username, password, email, role_id, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                users, BATCH_SIZE, (ps, user) -> {
+                    ps.setString(1, "Perf");
+                    ps.setString(2, user[1]);
+                    ps.setString(3, user[0]);
+                    ps.setString(4, hash);
+                    ps.setString(5, user[0] + "@perf.local");
+                    ps.setLong(6, roleIds.get(user[1]));
+                    ps.setTimestamp(7, now);
+                });
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, username FROM users WHERE username LIKE 'perf-%'",
+                rs -> {
+                    ids.put(rs.getString("username"), rs.getLong("user_id"));
+                });
+        return ids;
+    }
+
+    private List<Long> seedGroups(Long adminId, Timestamp now) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 1; i <= groups; i++) {
+            numbers.add(i);
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO Groups (groupName, description, group_createdBy, group_createdAt) VALUES (?, ?, ?, ?)",
+                numbers, BATCH_SIZE, (ps, n) -> {
+                    ps.setString(1, String.format("Perf Group %02d", n));
+                    ps.setString(2, "Generated for load tests");
+                    ps.setLong(3, adminId);
+                    ps.setTimestamp(4, now);
+                });
+        return jdbcTemplate.queryForList("SELECT groupId FROM Groups ORDER BY groupId", Long.class);
+    }
+
+    private void seedGroupMembers(Map<String, Long> userIds, List<Long> groupIds, Long adminId,
+                                  Timestamp now, Random random) {
+        List<long[]> members = new ArrayList<>();
+        for (Map.Entry<String, Long> user : userIds.entrySet()) {
+            if (user.getValue().equals(adminId)) {
+                continue;
+            }
+            for (Long groupId : pick(groupIds, groupsPerUser, random)) {
+                members.add(new long[]{user.getValue(), groupId});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO GroupUser (user_id, groupId, created_by, created_at) VALUES (?, ?, ?, ?)",
+                members, BATCH_SIZE, (ps, member) -> {
+                    ps.setLong(1, member[0]);
+                    ps.setLong(2, member[1]);
+                    ps.setLong(3, adminId);
+                    ps.setTimestamp(4, now);
+                });
+    }
+
+    private List<Long> seedNames(String table, String nameColumn, String prefix, int count,
+                                 Long adminId, Timestamp now) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            numbers.add(i);
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + table + " (" + nameColumn + ", created_by, created_at) VALUES (?, ?, ?)",
+                numbers, BATCH_SIZE, (ps, n) -> {
+                    ps.setString(1, prefix + n);
+                    ps.setLong(2, adminId);
+                    ps.setTimestamp(3, now);
+                });
+        String idColumn = "tags".equals(table) ? "tag_id" : "classification_id";
+        return jdbcTemplate.queryForList("SELECT " + idColumn + " FROM " + table, Long.class);
+    }
+
+    // ==================== DOCUMENTS ====================
+
+    private List<Long> seedDocuments(Long adminId, Timestamp now, Random random) throws Exception {
+        Path dir = Files.createDirectories(Paths.get(uploadDir));
+        List<Template> templates = new ArrayList<>();
+        for (int pages : TEMPLATE_PAGES) {
+            templates.add(writeTemplate(dir, pages, random));
+        }
+        int totalWeight = 0;
+        for (int weight : TEMPLATE_WEIGHTS) {
+            totalWeight += weight;
+        }
+
+        List<Object[]> rows = new ArrayList<>(documents);
+        boolean linksSupported = true;
+        for (int i = 1; i <= documents; i++) {
+            Template template = templates.get(weightedIndex(random.nextInt(totalWeight)));
+            Path file = dir.resolve(String.format("perf-document-%06d.pdf", i));
+            // Hard links keep 10k+ documents cheap on disk; each still deletes independently
+            if (linksSupported) {
+                try {
+                    Files.deleteIfExists(file);
+                    Files.createLink(file, template.path);
+                } catch (UnsupportedOperationException | IOException e) {
+                    linksSupported = false;
+                }
+            }
+            if (!linksSupported) {
+                Files.copy(template.path, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            rows.add(new Object[]{
+                    title(random), "PC-" + (1000 + random.nextInt(9000)), "Ed " + (1 + random.nextInt(7)),
+                    String.format("%d-%02d", 1990 + random.nextInt(35), 1 + random.nextInt(12)),
+                    template.pages, file.toString(), template.size, template.sha256});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO Documents (title, product_code, edition, publication_date, number_of_pages, notes, " +
+                        "file_path, file_size_bytes, content_sha256, page_count_verified, created_at, uploader_user_id) " +
+                        "VALUES (?, ?, ?, ?, ?, 'Generated for load tests', ?, ?, ?, ?, ?, ?)",
+                rows, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setString(3, (String) row[2]);
+                    ps.setString(4, (String) row[3]);
+                    ps.setInt(5, (Integer) row[4]);
+                    ps.setString(6, (String) row[5]);
+                    ps.setLong(7, (Long) row[6]);
+                    ps.setString(8, (String) row[7]);
+                    ps.setInt(9, (Integer) row[4]);
+                    ps.setTimestamp(10, now);
+                    ps.setLong(11, adminId);
+                });
+        return jdbcTemplate.queryForList("SELECT document_id FROM Documents ORDER BY document_id", Long.class);
+    }
+
+    private void seedDocumentLinks(List<Long> documentIds, List<Long> tagIds, List<Long> classificationIds,
+                                   List<Long> groupIds, Long adminId, Timestamp now, Random random) {
+        List<long[]> documentTags = new ArrayList<>();
+        List<long[]> documentClassifications = new ArrayList<>();
+        List<long[]> access = new ArrayList<>();
+        for (Long documentId : documentIds) {
+            for (Long tagId : pick(tagIds, 1 + random.nextInt(5), random)) {
+                documentTags.add(new long[]{documentId, tagId});
+            }
+            for (Long classificationId : pick(classificationIds, 1 + random.nextInt(2), random)) {
+                documentClassifications.add(new long[]{documentId, classificationId});
+            }
+            for (Long groupId : pick(groupIds, groupsPerDocument, random)) {
+                access.add(new long[]{documentId, groupId});
+            }
+        }
+
+        insertPairs("INSERT INTO DocumentTags (document_id, tag_id) VALUES (?, ?)", documentTags);
+        insertPairs("INSERT INTO DocumentClassifications (document_id, classification_id) VALUES (?, ?)",
+                documentClassifications);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO AccessControlLogic (document_id, groupId, created_by, created_at) VALUES (?, ?, ?, ?)",
+                access, BATCH_SIZE, (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                    ps.setLong(3, adminId);
+                    ps.setTimestamp(4, now);
+                });
+    }
+
+    private void seedBookmarks(Map<String, Long> userIds, List<Long> documentIds, Timestamp now, Random random) {
+        List<long[]> bookmarks = new ArrayList<>();
+        for (Long userId : userIds.values()) {
+            for (Long documentId : pick(documentIds, bookmarksPerUser, random)) {
+                bookmarks.add(new long[]{userId, documentId});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bookmarks (user_id, document_id, bookmark_name, created_at) VALUES (?, ?, ?, ?)",
+                bookmarks, BATCH_SIZE, (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                    ps.setString(3, "Bookmark " + pair[1]);
+                    ps.setTimestamp(4, now);
+                });
+    }
+
+    private void insertPairs(String sql, List<long[]> pairs) {
+        jdbcTemplate.batchUpdate(sql, pairs, BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[1]);
+        });
+    }
+
+    // ==================== HELPERS ====================
+
+    private Template writeTemplate(Path dir, int pages, Random random) throws Exception {
+        Path path = dir.resolve(String.format("perf-template-%03d-pages.pdf", pages));
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.beginText();
+                    cs.setFont(PDType1Font.HELVETICA, 10);
+                    cs.setLeading(12f);
+                    cs.newLineAtOffset(50, 780);
+                    for (int line = 0; line < 60; line++) {
+                        cs.showText(title(random) + " " + title(random));
+                        cs.newLine();
+                    }
+                    cs.endText();
+                }
+            }
+            document.save(path.toFile());
+        }
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(path));
+        return new Template(path, pages, Files.size(path), HexFormat.of().formatHex(hash));
+    }
+
+    private static int weightedIndex(int roll) {
+        for (int i = 0; i < TEMPLATE_WEIGHTS.length; i++) {
+            roll -= TEMPLATE_WEIGHTS[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return TEMPLATE_WEIGHTS.length - 1;
+    }
+
+    private static String title(Random random) {
+        int words = 3 + random.nextInt(5);
+        StringBuilder sb = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    // count distinct elements (all of them when the list is shorter)
+    private static Set<Long> pick(List<Long> from, int count, Random random) {
+        Set<Long> picked = new LinkedHashSet<>();
+        int wanted = Math.min(count, from.size());
+        while (picked.size() < wanted) {
+            picked.add(from.get(random.nextInt(from.size())));
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,152 @@
+package codesAndStandards.springboot.userApp.perf;
+
+import codesAndStandards.springboot.userApp.repository.StoredProcedureRepository;
+import codesAndStandards.springboot.userApp.service.NameDictionaryService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Java equivalents of sp_UploadDocument, sp_UpdateDocument and sp_DeleteDocument for the perf
+ * profile, where the database is H2 and the SQL Server procedures do not exist.
+ *
+ * Same contract as the procedures: comma-separated tag and classification names are created
+ * when missing and linked to the document; update replaces both lists; delete removes the
+ * document with its links, bookmarks and group access and returns the stored file path.
+ * Runs in the caller's transaction, like the procedure call it replaces.
+ */
+@Repository
+@Primary
+@Profile("perf")
+public class PerfStoredProcedureRepository extends StoredProcedureRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(PerfStoredProcedureRepository.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NameDictionaryService nameDictionaryService;
+
+    public PerfStoredProcedureRepository(EntityManager entityManager,
+                                         JdbcTemplate jdbcTemplate,
+                                         NameDictionaryService nameDictionaryService) {
+        super(entityManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.nameDictionaryService = nameDictionaryService;
+    }
+
+    @Override
+    public Long uploadDocument(String title, String productCode, String edition,
+                               String publishDate, Integer noOfPages, String notes,
+                               String filePath, Long uploaderUserId,
+                               String tagNames, String classificationNames) {
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO Documents (title, product_code, edition, publication_date, number_of_pages, notes, " +
+                            "file_path, uploader_user_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new String[]{"document_id"});
+            ps.setString(1, title);
+            ps.setString(2, productCode);
+            ps.setString(3, edition);
+            ps.setString(4, publishDate);
+            ps.setObject(5, noOfPages, Types.INTEGER);
+            ps.setString(6, notes);
+            ps.setString(7, filePath);
+            ps.setObject(8, uploaderUserId, Types.BIGINT);
+            ps.setTimestamp(9, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        }, keyHolder);
+
+        Number key = keyHolder.getKey();
+        if (key == null) {
+            return null;
+        }
+        Long documentId = key.longValue();
+        linkNames(documentId, tagNames, classificationNames, uploaderUserId);
+        logger.debug("sp_UploadDocument (perf): document {}", documentId);
+        return documentId;
+    }
+
+    @Override
+    public boolean updateDocument(Long documentId, String title, String productCode,
+                                  String edition, String publishDate, Integer noOfPages,
+                                  String notes, String tagNames, String classificationNames) {
+
+        int updated = jdbcTemplate.update(
+                "UPDATE Documents SET title = ?, product_code = ?, edition = ?, publication_date = ?, " +
+                        "number_of_pages = ?, notes = ? WHERE document_id = ?",
+                title, productCode, edition, publishDate, noOfPages, notes, documentId);
+        if (updated == 0) {
+            return false;
+        }
+
+        jdbcTemplate.update("DELETE FROM DocumentTags WHERE document_id = ?", documentId);
+        jdbcTemplate.update("DELETE FROM DocumentClassifications WHERE document_id = ?", documentId);
+        linkNames(documentId, tagNames, classificationNames, null);
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> deleteDocument(Long documentId) {
+        Map<String, Object> result = new HashMap<>();
+        List<String> paths = jdbcTemplate.queryForList(
+                "SELECT file_path FROM Documents WHERE document_id = ?", String.class, documentId);
+        if (paths.isEmpty()) {
+            result.put("deleted", false);
+            result.put("filePath", null);
+            return result;
+        }
+
+        jdbcTemplate.update("DELETE FROM DocumentTags WHERE document_id = ?", documentId);
+        jdbcTemplate.update("DELETE FROM DocumentClassifications WHERE document_id = ?", documentId);
+        jdbcTemplate.update("DELETE FROM bookmarks WHERE document_id = ?", documentId);
+        jdbcTemplate.update("DELETE FROM AccessControlLogic WHERE document_id = ?", documentId);
+        int deleted = jdbcTemplate.update("DELETE FROM Documents WHERE document_id = ?", documentId);
+
+        result.put("deleted", deleted > 0);
+        result.put("filePath", paths.get(0));
+        return result;
+    }
+
+    private void linkNames(Long documentId, String tagNames, String classificationNames, Long userId) {
+        link("INSERT INTO DocumentTags (document_id, tag_id) VALUES (?, ?)", documentId,
+                resolve(NameDictionaryService.Kind.TAG, tagNames, userId));
+        link("INSERT INTO DocumentClassifications (document_id, classification_id) VALUES (?, ?)", documentId,
+                resolve(NameDictionaryService.Kind.CLASSIFICATION, classificationNames, userId));
+    }
+
+    private Set<Long> resolve(NameDictionaryService.Kind kind, String names, Long userId) {
+        if (names == null || names.isBlank()) {
+            return Set.of();
+        }
+        return new LinkedHashSet<>(nameDictionaryService.resolve(kind, Arrays.asList(names.split(",")), userId).values());
+    }
+
+    private void link(String sql, Long documentId, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, new ArrayList<>(ids), ids.size(), (ps, id) -> {
+            ps.setLong(1, documentId);
+            ps.setLong(2, id);
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One per-document access decision.
+ */
+@Name("cns.AccessCheck")
+@Label("Document Access Check")
+@Category({"CnS Manager", "Security"})
+@StackTrace(false)
+public class AccessCheckEvent extends Event {
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Document Id")
+    public long documentId;
+
+    @Label("Role")
+    public String role;
+
+    @Label("Granted")
+    public boolean granted;
+}
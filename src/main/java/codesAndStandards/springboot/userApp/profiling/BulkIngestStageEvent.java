@@ -0,0 +1,26 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One pass of a bulk-upload pipeline stage: a document through store or extract, or a chunk commit.
+ */
+@Name("cns.BulkIngestStage")
+@Label("Bulk Ingest Stage")
+@Category({"CnS Manager", "Bulk Upload"})
+@StackTrace(false)
+public class BulkIngestStageEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Documents")
+    public int documents;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,164 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time-boxed JDK Flight Recorder sessions started from the admin settings.
+ *
+ * One recording at a time. It uses the JDK "profile" settings plus the custom cns.* events
+ * (share I/O, watermark renders, bulk-ingest stages, access checks), stops itself after the
+ * requested duration and is written to jfr.recording.directory. Only the latest file is kept.
+ * Outside a recording the custom events cost a disabled check per call.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${jfr.recording.directory:${java.io.tmpdir}/cns-jfr}")
+    private String directory;
+
+    @Value("${jfr.recording.settings:profile}")
+    private String settingsName;
+
+    @Value("${jfr.recording.max-duration-minutes:30}")
+    private long maxDurationMinutes;
+
+    private Recording recording;
+    private Path file;
+    private String startedBy;
+    private Instant startedAt;
+    private Duration duration;
+
+    /**
+     * Start a recording. Returns false if one is already running.
+     */
+    public synchronized boolean start(Duration requested, String username) throws IOException, ParseException {
+        if (isRunning()) {
+            return false;
+        }
+        Duration max = Duration.ofMinutes(maxDurationMinutes);
+        Duration limit = requested == null || requested.isNegative() || requested.isZero() || requested.compareTo(max) > 0
+                ? max
+                : requested;
+
+        discardPrevious();
+        Path dir = Files.createDirectories(Paths.get(directory));
+        Path target = dir.resolve("cns-" + LocalDateTime.now().format(FILE_STAMP) + ".jfr");
+
+        Recording next = new Recording(Configuration.getConfiguration(settingsName));
+        next.setName("cns-admin");
+        next.enable(ShareIoEvent.class);
+        next.enable(WatermarkRenderEvent.class);
+        next.enable(BulkIngestStageEvent.class);
+        next.enable(AccessCheckEvent.class);
+        next.setToDisk(true);
+        next.setDestination(target);
+        next.setDuration(limit);
+        next.start();
+
+        recording = next;
+        file = target;
+        startedBy = username;
+        startedAt = Instant.now();
+        duration = limit;
+        logger.info("Flight recording started by {} for {} -> {}", username, limit, target);
+        return true;
+    }
+
+    /**
+     * Stop the running recording early; its data is written to the recording file.
+     * Returns false if nothing was running.
+     */
+    public synchronized boolean stop() {
+        if (!isRunning()) {
+            return false;
+        }
+        recording.stop();
+        logger.info("Flight recording stopped early -> {}", file);
+        return true;
+    }
+
+    /**
+     * The finished recording file, or null while recording or if there is none.
+     */
+    public synchronized Path getRecordingFile() {
+        if (recording == null || isRunning() || file == null || !Files.exists(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", isRunning());
+        status.put("state", recording != null ? recording.getState().name() : null);
+        status.put("startedBy", startedBy);
+        status.put("startedAt", startedAt);
+        status.put("durationSeconds", duration != null ? duration.toSeconds() : null);
+        status.put("maxDurationMinutes", maxDurationMinutes);
+        Path finished = getRecordingFile();
+        status.put("fileName", finished != null ? finished.getFileName().toString() : null);
+        status.put("fileSize", finished != null ? sizeOf(finished) : null);
+        return status;
+    }
+
+    private boolean isRunning() {
+        if (recording == null) {
+            return false;
+        }
+        RecordingState state = recording.getState();
+        return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+    }
+
+    private void discardPrevious() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete previous recording {}: {}", file, e.getMessage());
+            }
+            file = null;
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
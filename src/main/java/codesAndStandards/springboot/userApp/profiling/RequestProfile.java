@@ -0,0 +1,112 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import java.util.Locale;
+
+/**
+ * Where the time of one HTTP request went: SQL statements and JDBC time, document share time
+ * and PDF processing time. Bound to the request thread by {@link RequestProfilingFilter};
+ * the static hooks are no-ops on threads without a profile (schedulers, background pools).
+ *
+ * Work handed to other threads (parallel validation, async downloads) is not included.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private int statements;
+    private long jdbcNanos;
+    private long jdbcStartNanos;
+    private int shareCalls;
+    private long shareNanos;
+    private int pdfCalls;
+    private long pdfNanos;
+
+    private RequestProfile() {
+    }
+
+    static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // ==================== HOOKS ====================
+
+    static void jdbcStarted() {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.jdbcStartNanos = System.nanoTime();
+        }
+    }
+
+    static void jdbcFinished(int statementCount) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null && profile.jdbcStartNanos != 0) {
+            profile.statements += statementCount;
+            profile.jdbcNanos += System.nanoTime() - profile.jdbcStartNanos;
+            profile.jdbcStartNanos = 0;
+        }
+    }
+
+    /**
+     * Time spent in one call to the document share (see ShareMetrics).
+     */
+    public static void shareCall(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.shareCalls++;
+            profile.shareNanos += nanos;
+        }
+    }
+
+    /**
+     * Time spent loading, rendering or writing a PDF.
+     */
+    public static void pdfWork(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.pdfCalls++;
+            profile.pdfNanos += nanos;
+        }
+    }
+
+    // ==================== READING ====================
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getTotalMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+
+    /**
+     * Server-Timing header value; shows up in the browser's network panel.
+     */
+    public String serverTiming() {
+        return String.format(Locale.ROOT,
+                "sql;desc=\"%d statements\";dur=%.1f, share;desc=\"%d calls\";dur=%.1f, pdf;desc=\"%d\";dur=%.1f, total;dur=%.1f",
+                statements, jdbcNanos / 1e6, shareCalls, shareNanos / 1e6, pdfCalls, pdfNanos / 1e6,
+                (System.nanoTime() - startNanos) / 1e6);
+    }
+
+    /**
+     * key=value breakdown for the slow-request log.
+     */
+    public String breakdown() {
+        return String.format(Locale.ROOT,
+                "totalMs=%d statements=%d jdbcMs=%d shareCalls=%d shareMs=%d pdfCalls=%d pdfMs=%d",
+                getTotalMillis(), statements, jdbcNanos / 1_000_000, shareCalls, shareNanos / 1_000_000,
+                pdfCalls, pdfNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,72 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Request profiler wiring: the DataSource is wrapped so every JDBC execution (Hibernate, Spring
+ * Data and JdbcTemplate alike) is counted and timed against the current request, and the
+ * profiling filter is registered just inside the security chain so it can see who is asking.
+ *
+ * request-profiler.enabled=false leaves both the DataSource and the filter chain untouched.
+ */
+@Configuration
+public class RequestProfilingConfig {
+
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("request-profiler.enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new ProfilingListener())
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter(
+            @Value("${request-profiler.enabled:true}") boolean enabled,
+            @Value("${request-profiler.slow-request-ms:2000}") long slowRequestMillis,
+            @Value("${request-profiler.slow-statement-count:50}") int slowStatementCount) {
+        FilterRegistrationBean<RequestProfilingFilter> registration =
+                new FilterRegistrationBean<>(new RequestProfilingFilter(slowRequestMillis, slowStatementCount));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    private static final class ProfilingListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            RequestProfile.jdbcStarted();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            // A JDBC batch is one round trip but several statements; count what the database runs
+            int statements = execInfo.isBatch() ? Math.max(1, execInfo.getBatchSize()) : Math.max(1, queryInfoList.size());
+            RequestProfile.jdbcFinished(statements);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Profiles each request (see {@link RequestProfile}).
+ *
+ * Admins get a Server-Timing header with the breakdown. It is added just before the response
+ * commits, so for streamed bodies it covers the work up to the first flush. Requests over the
+ * time or statement threshold are logged on the "slow-request" logger with the full breakdown.
+ * Registered by {@link RequestProfilingConfig}, right after the security filter chain.
+ */
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger slowRequestLog = LoggerFactory.getLogger("slow-request");
+
+    private final long slowRequestMillis;
+    private final int slowStatementCount;
+
+    public RequestProfilingFilter(long slowRequestMillis, int slowStatementCount) {
+        this.slowRequestMillis = slowRequestMillis;
+        this.slowStatementCount = slowStatementCount;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/css/") || path.startsWith("/js/") || path.startsWith("/images/")
+                || path.startsWith("/fonts/") || path.startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        AuthorizedUser user = AuthorizedUser.current();
+        boolean admin = user != null && user.isAdmin();
+
+        HttpServletResponse profiled = !admin ? response : new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                response.addHeader("Server-Timing", profile.serverTiming());
+            }
+        };
+        try {
+            filterChain.doFilter(request, profiled);
+        } finally {
+            RequestProfile.clear();
+            if (profile.getTotalMillis() >= slowRequestMillis || profile.getStatements() >= slowStatementCount) {
+                slowRequestLog.warn("slow request method={} uri={} status={} user={} {}",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        user != null ? user.getUsername() : "-", profile.breakdown());
+            }
+        }
+    }
+}
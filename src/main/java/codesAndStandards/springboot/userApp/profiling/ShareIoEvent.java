@@ -0,0 +1,47 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to the document share (or the local stand-in). The path is hashed so recordings
+ * can leave the server without exposing file names.
+ */
+@Name("cns.ShareIo")
+@Label("Document Share I/O")
+@Category({"CnS Manager", "Storage"})
+@StackTrace(false)
+public class ShareIoEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path Hash")
+    @Description("FNV-1a 64-bit hash of the lower-cased path")
+    public String pathHash;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    public static String hash(String path) {
+        if (path == null) {
+            return null;
+        }
+        long hash = 0xcbf29ce484222325L;
+        String lower = path.toLowerCase();
+        for (int i = 0; i < lower.length(); i++) {
+            hash ^= lower.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return Long.toHexString(hash);
+    }
+}
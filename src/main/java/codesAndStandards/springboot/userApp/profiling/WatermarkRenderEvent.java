@@ -0,0 +1,32 @@
+package codesAndStandards.springboot.userApp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One watermarked PDF: load, stamp every page, save.
+ */
+@Name("cns.WatermarkRender")
+@Label("Watermark Render")
+@Category({"CnS Manager", "PDF"})
+@StackTrace(false)
+public class WatermarkRenderEvent extends Event {
+
+    @Label("Pages")
+    public int pages;
+
+    @Label("Position")
+    public String position;
+
+    @Label("Input Size")
+    @DataAmount
+    public long inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    public long outputBytes;
+}
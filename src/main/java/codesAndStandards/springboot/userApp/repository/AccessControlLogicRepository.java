@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -78,6 +79,36 @@ public interface AccessControlLogicRepository extends JpaRepository<AccessContro
     @Query("SELECT acl.document.id FROM AccessControlLogic acl WHERE acl.group.id = :groupId")
     List<Long> findDocumentIdsByGroupId(@Param("groupId") Long groupId);
 
+    /**
+     * Get group IDs a document is linked to
+     */
+    @Query("SELECT acl.group.id FROM AccessControlLogic acl WHERE acl.document.id = :documentId")
+    List<Long> findGroupIdsByDocumentId(@Param("documentId") Long documentId);
+
+    /**
+     * Which of the given documents are already in the group
+     */
+    @Query("SELECT acl.document.id FROM AccessControlLogic acl " +
+            "WHERE acl.group.id = :groupId AND acl.document.id IN :documentIds")
+    List<Long> findLinkedDocumentIds(@Param("groupId") Long groupId,
+                                     @Param("documentIds") Collection<Long> documentIds);
+
+    /**
+     * Unlink a document from several groups
+     */
+    @Modifying
+    @Query("DELETE FROM AccessControlLogic acl WHERE acl.document.id = :documentId AND acl.group.id IN :groupIds")
+    int deleteByDocumentIdAndGroupIdIn(@Param("documentId") Long documentId,
+                                       @Param("groupIds") Collection<Long> groupIds);
+
+    /**
+     * Unlink several documents from a group
+     */
+    @Modifying
+    @Query("DELETE FROM AccessControlLogic acl WHERE acl.group.id = :groupId AND acl.document.id IN :documentIds")
+    int deleteByGroupIdAndDocumentIdIn(@Param("groupId") Long groupId,
+                                       @Param("documentIds") Collection<Long> documentIds);
+
     /**
      * Check if user has access to document through any group
      */
@@ -1,16 +1,21 @@
 package codesAndStandards.springboot.userApp.repository;
 
+import codesAndStandards.springboot.userApp.dto.ActivityLogExportRow;
 import codesAndStandards.springboot.userApp.entity.ActivityLog;
 import codesAndStandards.springboot.userApp.entity.User;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
@@ -39,4 +44,20 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
     @Query("SELECT COUNT(a) FROM ActivityLog a WHERE a.action LIKE '%_FAILED'")
     Long countFailedLogs();
 
-}
\ No newline at end of file
+    // Forward-only cursor for exports - must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.ActivityLogExportRow(
+        al.logId, al.timestamp, al.action, al.details, u.id, u.username)
+    FROM ActivityLog al
+    LEFT JOIN al.user u
+    WHERE al.timestamp >= :from AND al.timestamp < :to
+    ORDER BY al.timestamp ASC, al.logId ASC
+    """)
+    Stream<ActivityLogExportRow> streamForExport(@Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+}
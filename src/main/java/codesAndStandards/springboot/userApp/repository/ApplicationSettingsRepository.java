@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -26,4 +27,10 @@ public interface ApplicationSettingsRepository extends JpaRepository<Application
      */
     @Query("SELECT s.settingValue FROM ApplicationSettings s WHERE s.settingName = :name")
     String getSettingValue(@Param("name") String settingName);
+
+    /**
+     * Latest modification time across all settings - polled to detect changes made by other nodes
+     */
+    @Query("SELECT MAX(s.updatedAt) FROM ApplicationSettings s")
+    LocalDateTime findLatestUpdatedAt();
 }
@@ -0,0 +1,32 @@
+package codesAndStandards.springboot.userApp.repository;
+
+import codesAndStandards.springboot.userApp.entity.BulkUploadJobItem;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BulkUploadJobItemRepository extends JpaRepository<BulkUploadJobItem, Long> {
+
+    List<BulkUploadJobItem> findByJobIdOrderByIdAsc(Long jobId);
+
+    List<BulkUploadJobItem> findByJobIdAndStateOrderByIdAsc(Long jobId, BulkUploadJobItem.State state);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkUploadJobItem i SET i.state = 'COMMITTED', i.documentId = :documentId, i.updatedAt = :now " +
+            "WHERE i.id = :id")
+    void markCommitted(@Param("id") Long id, @Param("documentId") Long documentId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkUploadJobItem i SET i.state = 'FAILED', i.failureReason = :reason, i.updatedAt = :now " +
+            "WHERE i.id = :id")
+    void markFailed(@Param("id") Long id, @Param("reason") String reason, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,33 @@
+package codesAndStandards.springboot.userApp.repository;
+
+import codesAndStandards.springboot.userApp.entity.BulkUploadJob;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BulkUploadJobRepository extends JpaRepository<BulkUploadJob, Long> {
+
+    List<BulkUploadJob> findByStatusInOrderByIdAsc(Collection<BulkUploadJob.Status> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkUploadJob j SET j.successCount = j.successCount + :committed WHERE j.id = :id")
+    void addCommitted(@Param("id") Long id, @Param("committed") int committed);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkUploadJob j SET j.failedCount = j.failedCount + 1 WHERE j.id = :id")
+    void addFailed(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkUploadJob j SET j.cancelRequested = true WHERE j.id = :id")
+    int requestCancel(@Param("id") Long id);
+}
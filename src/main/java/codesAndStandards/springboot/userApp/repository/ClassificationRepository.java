@@ -1,5 +1,6 @@
 package codesAndStandards.springboot.userApp.repository;
 
+import codesAndStandards.springboot.userApp.dto.NamedIdRow;
 import codesAndStandards.springboot.userApp.entity.Classification;
 import codesAndStandards.springboot.userApp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +33,16 @@ public interface ClassificationRepository extends JpaRepository<Classification,
     @Query("SELECT c FROM Classification c LEFT JOIN FETCH c.createdBy LEFT JOIN FETCH c.updatedBy WHERE c.id = :id")
     Optional<Classification> findByIdWithUsers(Long id);
 
+    // Names only, for dropdown/reference lists - avoids loading entities
+    @Query("SELECT DISTINCT c.classificationName FROM Classification c WHERE c.classificationName IS NOT NULL AND c.classificationName <> '' ORDER BY c.classificationName")
+    List<String> findAllClassificationNames();
+
+    @Query("SELECT new codesAndStandards.springboot.userApp.dto.NamedIdRow(c.id, c.classificationName) FROM Classification c")
+    List<NamedIdRow> findAllIdNames();
+
+    @Query("SELECT new codesAndStandards.springboot.userApp.dto.NamedIdRow(c.id, c.classificationName) FROM Classification c WHERE c.classificationName IN :names")
+    List<NamedIdRow> findIdNamesByClassificationNameIn(@Param("names") Collection<String> names);
+
     @Modifying
     @Query("UPDATE Classification c SET c.createdBy = null WHERE c.createdBy.id = :userId")
     void clearCreatedByUser(@Param("userId") Long userId);
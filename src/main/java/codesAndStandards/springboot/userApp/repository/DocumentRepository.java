@@ -1,17 +1,27 @@
 package codesAndStandards.springboot.userApp.repository;
 
+import codesAndStandards.springboot.userApp.dto.DocumentFileRef;
+import codesAndStandards.springboot.userApp.dto.DocumentPreviewRef;
 import codesAndStandards.springboot.userApp.entity.Document;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByUploadedBy_Username(String username);
 
+    @Query("SELECT d.id FROM Document d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT d FROM Document d JOIN d.tags t WHERE t.id = :tagId")
     List<Document> findByTagId(@Param("tagId") Long tagId);
 
@@ -27,4 +37,56 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     """)
     List<Document> findDocumentsAccessibleByUser(@Param("userId") Long userId);
 
-}
\ No newline at end of file
+    // ==================== STORED FILE STATS ====================
+
+    // Single COUNT(*) WHERE file_size_bytes > ? - used to validate max file size changes
+    long countByFileSizeBytesGreaterThan(Long sizeBytes);
+
+    long countByFileSizeBytesIsNull();
+
+    long countByFileSizeBytes(Long sizeBytes);
+
+    @Query("SELECT COALESCE(SUM(d.fileSizeBytes), 0) FROM Document d WHERE d.fileSizeBytes > 0")
+    Long sumStoredFileBytes();
+
+    @Query("SELECT COALESCE(MAX(d.fileSizeBytes), 0) FROM Document d")
+    Long findLargestStoredFileBytes();
+
+    // Keyset page of documents that still need their file stats filled in
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.DocumentFileRef(d.id, d.filePath)
+    FROM Document d
+    WHERE d.fileSizeBytes IS NULL AND d.id > :afterId
+    ORDER BY d.id ASC
+    """)
+    List<DocumentFileRef> findFileRefsMissingStats(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset page of hashed documents, for the preview backfill
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.DocumentPreviewRef(d.id, d.filePath, d.contentSha256)
+    FROM Document d
+    WHERE d.contentSha256 IS NOT NULL AND d.id > :afterId
+    ORDER BY d.id ASC
+    """)
+    List<DocumentPreviewRef> findPreviewRefs(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.DocumentPreviewRef(d.id, d.filePath, d.contentSha256)
+    FROM Document d
+    WHERE d.id = :id
+    """)
+    Optional<DocumentPreviewRef> findPreviewRef(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("""
+    UPDATE Document d
+    SET d.fileSizeBytes = :sizeBytes, d.contentSha256 = :sha256, d.pageCountVerified = :pageCount
+    WHERE d.id = :id
+    """)
+    int updateFileStats(@Param("id") Long id,
+                        @Param("sizeBytes") Long sizeBytes,
+                        @Param("sha256") String sha256,
+                        @Param("pageCount") Integer pageCount);
+
+}
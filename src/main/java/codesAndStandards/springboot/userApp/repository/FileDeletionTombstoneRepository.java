@@ -0,0 +1,35 @@
+package codesAndStandards.springboot.userApp.repository;
+
+import codesAndStandards.springboot.userApp.entity.FileDeletionTombstone;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileDeletionTombstoneRepository extends JpaRepository<FileDeletionTombstone, Long> {
+
+    @Query("SELECT t FROM FileDeletionTombstone t WHERE t.nextAttemptAt <= :now AND t.attempts < :maxAttempts " +
+            "ORDER BY t.nextAttemptAt ASC")
+    List<FileDeletionTombstone> findDue(@Param("now") LocalDateTime now,
+                                        @Param("maxAttempts") int maxAttempts,
+                                        Pageable pageable);
+
+    long countByBatchId(String batchId);
+
+    long countByAttemptsGreaterThanEqual(int attempts);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileDeletionTombstone t SET t.attempts = t.attempts + 1, t.lastError = :error, " +
+            "t.nextAttemptAt = :nextAttemptAt WHERE t.id = :id")
+    void markFailed(@Param("id") Long id,
+                    @Param("error") String error,
+                    @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
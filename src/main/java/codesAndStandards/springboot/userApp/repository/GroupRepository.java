@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,12 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
      */
     boolean existsByGroupNameIgnoreCase(String groupName);
 
+    /**
+     * Which of the given group IDs exist
+     */
+    @Query("SELECT g.id FROM Group g WHERE g.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Find all groups created by a specific user
      */
@@ -91,4 +91,10 @@ public interface GroupUserRepository extends JpaRepository<GroupUser, Long> {
      */
     @Query("SELECT gu.user.id FROM GroupUser gu WHERE gu.group.id = :groupId")
     List<Long> findUserIdsByGroupId(@Param("groupId") Long groupId);
-}
\ No newline at end of file
+
+    /**
+     * Get group IDs for a user
+     */
+    @Query("SELECT gu.group.id FROM GroupUser gu WHERE gu.user.id = :userId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+}
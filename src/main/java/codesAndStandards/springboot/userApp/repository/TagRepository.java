@@ -1,5 +1,6 @@
 package codesAndStandards.springboot.userApp.repository;
 
+import codesAndStandards.springboot.userApp.dto.NamedIdRow;
 import codesAndStandards.springboot.userApp.entity.Tag;
 import codesAndStandards.springboot.userApp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +34,16 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     @Query("SELECT t FROM Tag t LEFT JOIN FETCH t.createdBy LEFT JOIN FETCH t.updatedBy WHERE t.id = :id")
     Optional<Tag> findByIdWithUsers(Long id);
 
+    // Names only, for dropdown/reference lists - avoids loading entities
+    @Query("SELECT DISTINCT t.tagName FROM Tag t WHERE t.tagName IS NOT NULL AND t.tagName <> '' ORDER BY t.tagName")
+    List<String> findAllTagNames();
+
+    @Query("SELECT new codesAndStandards.springboot.userApp.dto.NamedIdRow(t.id, t.tagName) FROM Tag t")
+    List<NamedIdRow> findAllIdNames();
+
+    @Query("SELECT new codesAndStandards.springboot.userApp.dto.NamedIdRow(t.id, t.tagName) FROM Tag t WHERE t.tagName IN :names")
+    List<NamedIdRow> findIdNamesByTagNameIn(@Param("names") Collection<String> names);
+
     @Modifying
     @Query("UPDATE Tag t SET t.createdBy = null WHERE t.createdBy.id = :userId")
     void clearCreatedByUser(@Param("userId") Long userId);
@@ -1,5 +1,6 @@
 package codesAndStandards.springboot.userApp.repository;
 
+import codesAndStandards.springboot.userApp.dto.UserAuthRow;
 import codesAndStandards.springboot.userApp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -34,4 +35,21 @@ public interface  UserRepository extends JpaRepository<User, Long> {  //changed
     @Query(value = "SELECT CASE WHEN COUNT(*) > 0 THEN 1 ELSE 0 END FROM users WHERE email = :email", nativeQuery = true)
     int existsByEmailNative(@Param("email") String email);
 
-}
\ No newline at end of file
+    // Login / authorization snapshot - single row, no entity graph
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.UserAuthRow(u.id, u.username, u.password, r.roleName)
+    FROM User u
+    JOIN u.role r
+    WHERE u.username = :username
+    """)
+    Optional<UserAuthRow> findAuthRowByUsername(@Param("username") String username);
+
+    @Query("""
+    SELECT new codesAndStandards.springboot.userApp.dto.UserAuthRow(u.id, u.username, u.password, r.roleName)
+    FROM User u
+    JOIN u.role r
+    WHERE u.id = :id
+    """)
+    Optional<UserAuthRow> findAuthRowById(@Param("id") Long id);
+
+}
@@ -0,0 +1,71 @@
+package codesAndStandards.springboot.userApp.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Replaces the session's AuthorizedUser when roles or group membership changed since it was built.
+ * Runs before authorization so URL rules and @PreAuthorize see the new role on the same request.
+ * Not a @Component - it is only registered inside the security filter chain.
+ */
+public class AuthorizationRefreshFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationRefreshFilter.class);
+
+    private final AuthorizationSnapshotService snapshotService;
+    private final SecurityContextRepository securityContextRepository = new HttpSessionSecurityContextRepository();
+
+    public AuthorizationRefreshFilter(AuthorizationSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof AuthorizedUser current
+                && snapshotService.isStale(current)) {
+            refresh(current, authentication, request, response);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void refresh(AuthorizedUser current, Authentication authentication,
+                         HttpServletRequest request, HttpServletResponse response) {
+        Optional<AuthorizedUser> refreshed = snapshotService.loadById(current.getId());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+
+        if (refreshed.isPresent()) {
+            AuthorizedUser user = refreshed.get();
+            user.eraseCredentials();
+            UsernamePasswordAuthenticationToken token =
+                    UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+            token.setDetails(authentication.getDetails());
+            context.setAuthentication(token);
+            logger.info("Refreshed authorization for {} (role {}, {} group(s))",
+                    user.getUsername(), user.getRoleName(), user.getGroupIds().size());
+        } else {
+            // User was deleted - drop the authentication so the next request goes to login
+            logger.info("User {} no longer exists - clearing authentication", current.getUsername());
+        }
+
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+    }
+}
@@ -0,0 +1,97 @@
+package codesAndStandards.springboot.userApp.security;
+
+import codesAndStandards.springboot.userApp.dto.UserAuthRow;
+import codesAndStandards.springboot.userApp.repository.GroupUserRepository;
+import codesAndStandards.springboot.userApp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds AuthorizedUser snapshots and tracks the ACL version they were built against.
+ *
+ * Any change to roles or group membership bumps the version once its transaction commits;
+ * AuthorizationRefreshFilter then rebuilds stale principals on their next request.
+ * Rebuilding costs two small queries per logged-in user, only after a change.
+ */
+@Service
+public class AuthorizationSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationSnapshotService.class);
+
+    // Transaction resource key so a transaction touching many memberships bumps the version once
+    private static final Object ACL_CHANGE_KEY = new Object();
+
+    private final UserRepository userRepository;
+    private final GroupUserRepository groupUserRepository;
+
+    private final AtomicLong aclVersion = new AtomicLong();
+
+    public AuthorizationSnapshotService(UserRepository userRepository,
+                                        GroupUserRepository groupUserRepository) {
+        this.userRepository = userRepository;
+        this.groupUserRepository = groupUserRepository;
+    }
+
+    public Optional<AuthorizedUser> loadByUsername(String username) {
+        // Read the version first: a change committed while we query makes this snapshot stale, not wrong forever
+        long version = aclVersion.get();
+        return userRepository.findAuthRowByUsername(username).map(row -> build(row, version));
+    }
+
+    public Optional<AuthorizedUser> loadById(Long userId) {
+        long version = aclVersion.get();
+        return userRepository.findAuthRowById(userId).map(row -> build(row, version));
+    }
+
+    public long getAclVersion() {
+        return aclVersion.get();
+    }
+
+    public boolean isStale(AuthorizedUser user) {
+        return user.getAclVersion() != aclVersion.get();
+    }
+
+    /**
+     * Record that a role or group membership changed.
+     * Inside a transaction the bump is deferred until commit, so a snapshot rebuilt
+     * in between can never capture uncommitted (or rolled back) membership.
+     */
+    public void aclChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            logger.debug("ACL version bumped to {}", aclVersion.incrementAndGet());
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(ACL_CHANGE_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(ACL_CHANGE_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                logger.debug("ACL version bumped to {}", aclVersion.incrementAndGet());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ACL_CHANGE_KEY);
+            }
+        });
+    }
+
+    private AuthorizedUser build(UserAuthRow row, long version) {
+        return new AuthorizedUser(
+                row.getId(),
+                row.getUsername(),
+                row.getPassword(),
+                row.getRoleName(),
+                new HashSet<>(groupUserRepository.findGroupIdsByUserId(row.getId())),
+                version);
+    }
+}
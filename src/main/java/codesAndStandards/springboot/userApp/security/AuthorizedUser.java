@@ -0,0 +1,137 @@
+package codesAndStandards.springboot.userApp.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable authorization snapshot kept as the principal in the security context.
+ *
+ * Built once at login (and rebuilt when the ACL version moves), so request handling can read
+ * the user's id, role and group ids without going back to the users table.
+ * Equality is by username, matching Spring's own User, so concurrent session control still works.
+ */
+public final class AuthorizedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final String roleName;
+    private final Set<Long> groupIds;
+    private final long aclVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthorizedUser(Long id, String username, String password, String roleName,
+                          Set<Long> groupIds, long aclVersion) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.roleName = roleName;
+        this.groupIds = Set.copyOf(groupIds);
+        this.aclVersion = aclVersion;
+        this.authorities = List.of(new SimpleGrantedAuthority(roleName));
+    }
+
+    /**
+     * Principal of the current request, or null when not logged in.
+     */
+    public static AuthorizedUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        return (principal instanceof AuthorizedUser) ? (AuthorizedUser) principal : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public boolean isAdmin() {
+        return "Admin".equalsIgnoreCase(roleName);
+    }
+
+    public Set<Long> getGroupIds() {
+        return groupIds;
+    }
+
+    public boolean isInGroup(Long groupId) {
+        return groupIds.contains(groupId);
+    }
+
+    public long getAclVersion() {
+        return aclVersion;
+    }
+
+    // ==================== UserDetails ====================
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.unmodifiableList(authorities);
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    // Password hash is dropped once authentication succeeds so it never sits in the session
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof AuthorizedUser) && username.equals(((AuthorizedUser) o).username);
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorizedUser[id=" + id + ", username=" + username + ", role=" + roleName
+                + ", groups=" + groupIds + ", aclVersion=" + aclVersion + "]";
+    }
+}
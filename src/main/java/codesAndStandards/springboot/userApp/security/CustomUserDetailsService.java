@@ -1,9 +1,5 @@
 package codesAndStandards.springboot.userApp.security;
 
-import codesAndStandards.springboot.userApp.entity.User;
-import codesAndStandards.springboot.userApp.repository.UserRepository;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,33 +8,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final AuthorizationSnapshotService authorizationSnapshotService;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(AuthorizationSnapshotService authorizationSnapshotService) {
+        this.authorizationSnapshotService = authorizationSnapshotService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username);
-
-        if (user == null) {
-            throw new UsernameNotFoundException("Invalid username or password.");
-        }
-
-        // Get role name from the Role entity and normalize it
-        String roleName = user.getRole().getRoleName();
-
-        System.out.println("User: " + username + " has role: " + roleName); // DEBUG LINE
-
-        // Create authority from role name
-        GrantedAuthority authority = new SimpleGrantedAuthority(roleName);
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities(authority)
-                .build();
-
+        // Id, role and group ids are captured here once and kept in the session as the principal
+        return authorizationSnapshotService.loadByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Invalid username or password."));
     }
-}
\ No newline at end of file
+}
@@ -3,16 +3,21 @@ package codesAndStandards.springboot.userApp.security;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import static org.springframework.security.config.Customizer.withDefaults;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -24,12 +29,36 @@ public class SecurityConfig {
     @Autowired
     private CustomSuccessHandler customSuccessHandler;
 
+    @Autowired
+    private AuthorizationSnapshotService authorizationSnapshotService;
+
     @Bean
     public static PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    /**
+     * Actuator endpoints (metrics, Prometheus scrape). Health is open for load balancers; everything
+     * else is Admin only, with HTTP Basic so a scraper can authenticate without a login form or session.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .anyRequest().hasAuthority("Admin")
+                )
+                .httpBasic(withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf
@@ -49,6 +78,7 @@ public class SecurityConfig {
                         .requestMatchers("/register/**").permitAll()
                         .requestMatchers("/login/**").permitAll()
                         .requestMatchers("/css/**", "/js/**", "/images/**", "/fonts/**").permitAll()
+                        .requestMatchers("/fontawesome/**", "/bootstrap-icons/**", "/pdfjs/**").permitAll()
 
                         // ========================================
                         // ROLE-BASED PERMISSIONS
@@ -80,7 +110,7 @@ public class SecurityConfig {
                         .requestMatchers("/DocViewer").hasAnyAuthority("Admin","Manager","Viewer")
 
                         // Activity logs - Admin only
-                        .requestMatchers("/activity-logs").hasAuthority("Admin")
+                        .requestMatchers("/activity-logs", "/activity-logs/**").hasAuthority("Admin")
 
                         // Tags and Classifications management
                         .requestMatchers("/tags-management","/classifications-management").hasAnyAuthority("Admin","Manager")
@@ -119,6 +149,9 @@ public class SecurityConfig {
                         .permitAll()
                 );
 
+        // Rebuild the session principal after role / group membership changes
+        http.addFilterBefore(new AuthorizationRefreshFilter(authorizationSnapshotService), AuthorizationFilter.class);
+
         // ✅ SESSION MANAGEMENT - Dynamic timeout from database + concurrent session control
         http.sessionManagement(session -> session
                 .sessionFixation().migrateSession()  // Prevent session fixation attacks
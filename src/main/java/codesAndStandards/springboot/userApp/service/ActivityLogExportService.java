@@ -0,0 +1,180 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.dto.ActivityLogExportRow;
+import codesAndStandards.springboot.userApp.repository.ActivityLogRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams activity logs straight from a forward-only JDBC cursor to the HTTP response.
+ * Rows are written as they are read, so memory use does not depend on the size of the export.
+ */
+@Service
+public class ActivityLogExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogExportService.class);
+
+    // Push buffered bytes to the client every N rows; a closed connection surfaces here as an IOException
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/gzip", "ndjson.gz");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        public static Format fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            return Format.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    /**
+     * Write all logs in [from, to) to the given stream.
+     * Closing the client connection aborts the export and releases the cursor.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        logger.info("Starting activity log export - Range: {} to {}, Format: {}", from, to, format);
+
+        try (Stream<ActivityLogExportRow> rows = activityLogRepository.streamForExport(from, to)) {
+            long count = (format == Format.NDJSON)
+                    ? writeNdjson(rows.iterator(), out)
+                    : writeCsv(rows.iterator(), out);
+
+            logger.info("Activity log export finished - {} rows written", count);
+            return count;
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private long writeCsv(Iterator<ActivityLogExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("Log ID,Timestamp,User ID,Username,Action,Details\r\n");
+
+        long count = 0;
+        while (rows.hasNext()) {
+            ActivityLogExportRow row = rows.next();
+            writer.write(String.valueOf(row.getLogId()));
+            writer.write(',');
+            writer.write(row.getTimestamp() != null ? TIMESTAMP_FORMAT.format(row.getTimestamp()) : "");
+            writer.write(',');
+            writer.write(row.getUserId() != null ? String.valueOf(row.getUserId()) : "");
+            writer.write(',');
+            writeCsvField(writer, row.getUsername());
+            writer.write(',');
+            writeCsvField(writer, row.getAction());
+            writer.write(',');
+            writeCsvField(writer, row.getDetails());
+            writer.write("\r\n");
+
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+                checkCancelled();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    // ==================== NDJSON (gzip) ====================
+
+    private long writeNdjson(Iterator<ActivityLogExportRow> rows, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 8192, true);
+        JsonGenerator json = JSON_FACTORY.createGenerator(gzip);
+        json.setRootValueSeparator(null);
+
+        long count = 0;
+        while (rows.hasNext()) {
+            ActivityLogExportRow row = rows.next();
+            json.writeStartObject();
+            json.writeNumberField("logId", row.getLogId());
+            json.writeStringField("timestamp",
+                    row.getTimestamp() != null ? TIMESTAMP_FORMAT.format(row.getTimestamp()) : null);
+            if (row.getUserId() != null) {
+                json.writeNumberField("userId", row.getUserId());
+            } else {
+                json.writeNullField("userId");
+            }
+            json.writeStringField("username", row.getUsername());
+            json.writeStringField("action", row.getAction());
+            json.writeStringField("details", row.getDetails());
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                json.flush();
+                checkCancelled();
+            }
+        }
+
+        json.flush();
+        gzip.finish();
+        return count;
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Activity log export cancelled");
+        }
+    }
+}
@@ -4,6 +4,10 @@ import codesAndStandards.springboot.userApp.entity.ActivityLog;
 import codesAndStandards.springboot.userApp.entity.User;
 import codesAndStandards.springboot.userApp.repository.ActivityLogRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,6 +17,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ActivityLogService {
@@ -23,6 +29,32 @@ public class ActivityLogService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Log writes happen on the request thread; this is how many are waiting on the database right now
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    private Timer writeSuccessTimer;
+    private Timer writeErrorTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("cns.activity_log.pending", pendingWrites, AtomicInteger::get)
+                .description("Activity log writes in flight")
+                .register(meterRegistry);
+        writeSuccessTimer = writeTimer("success");
+        writeErrorTimer = writeTimer("error");
+    }
+
+    private Timer writeTimer(String outcome) {
+        return Timer.builder("cns.activity_log.writes")
+                .description("Activity log inserts")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     // ==================== AUTH ====================
     public static final String LOGIN                      = "LOGIN";
     public static final String LOGIN_FAILED               = "LOGIN_FAILED";
@@ -86,14 +118,24 @@ public class ActivityLogService {
     public static final String SETTINGS_BULK_DOC_DELETE        = "SETTINGS_BULK_DOC_DELETE";
     public static final String SETTINGS_BULK_DOC_DELETE_FAIL   = "SETTINGS_BULK_DOC_DELETE_FAIL";
 
+    // ==================== AUDIT ====================
+    public static final String ACTIVITY_LOG_EXPORT        = "ACTIVITY_LOG_EXPORT";
+    public static final String ACTIVITY_LOG_EXPORT_FAILED = "ACTIVITY_LOG_EXPORT_FAILED";
+
     // ==================== CORE METHODS ====================
 
     public void log(User user, String action, String details) {
+        long start = System.nanoTime();
+        pendingWrites.incrementAndGet();
         try {
             ActivityLog log = new ActivityLog(user, action, details);
             activityLogRepository.save(log);
+            writeSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            writeErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             System.err.println("Failed to log activity: " + e.getMessage());
+        } finally {
+            pendingWrites.decrementAndGet();
         }
     }
 
@@ -11,6 +11,7 @@ public interface ApplicationSettingsService {
     Integer getSettingAsInteger(String settingName, Integer defaultValue);
     String getSetting(String settingName);
     String getRepositoryPath();
+    ApplicationSettingsSnapshot getSnapshot(); // in-memory, no DB access
 
     // ==================== REPOSITORY ====================
     void updateRepositorySettings(Integer maxFileSizeMb, String allowedFiles, String username, boolean skipFileCheck) throws Exception;
@@ -19,6 +20,8 @@ public interface ApplicationSettingsService {
     List<String> getAllowedFormats();
     int countFilesExceedingSize(int newMaxSizeMb);
 
+    int countFilesWithUnknownSize();
+
     // ==================== METADATA SCHEMA ====================
     Map<String, Boolean> getMetadataSchema();
     void updateMetadataSchema(Map<String, Boolean> metadataSettings, String username) throws Exception;
@@ -45,6 +48,7 @@ public interface ApplicationSettingsService {
                                 Boolean requireSpecialChar, String username) throws Exception;
     Boolean isPasswordPolicyEnforced();
     Map<String, Object> getPasswordPolicy();
+    int getSessionTimeoutSeconds();
 
     // ==================== ACTIVITY LOGGING ====================
     Map<String, Object> getActivityLoggingSettings();
@@ -0,0 +1,255 @@
+package codesAndStandards.springboot.userApp.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, pre-parsed view of the application_settings table.
+ * A new instance is built on every change and published atomically, so readers
+ * on hot paths (upload, download, session creation) never touch JDBC or re-parse values.
+ */
+public final class ApplicationSettingsSnapshot {
+
+    public static final ApplicationSettingsSnapshot EMPTY =
+            new ApplicationSettingsSnapshot(Collections.emptyMap(), null, 0L);
+
+    private static final List<String> DEFAULT_ALLOWED_FORMATS = List.of("PDF");
+    private static final double DEFAULT_SESSION_TIMEOUT_HOURS = 8.0;
+
+    // ---- Change detection (MAX(updated_at) + row count of application_settings) ----
+    private final LocalDateTime lastUpdatedAt;
+    private final long settingCount;
+
+    // ---- Raw values ----
+    private final Map<String, String> values;
+
+    // ---- Repository ----
+    private final Integer maxFileSizeMb;
+    private final Set<String> allowedFormats;
+    private final List<String> allowedFormatList;
+
+    // ---- Metadata / tags ----
+    private final Map<String, Boolean> metadataSchema;
+    private final Integer maxTagsPerDocument;
+
+    // ---- Watermark ----
+    private final WatermarkConfig watermark;
+
+    // ---- Security ----
+    private final int sessionTimeoutSeconds;
+    private final Map<String, Object> passwordPolicy;
+
+    // ---- Activity logging ----
+    private final Boolean activityLoggingEnabled;
+    private final Integer logRetentionDays;
+
+    public ApplicationSettingsSnapshot(Map<String, String> values, LocalDateTime lastUpdatedAt, long settingCount) {
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+        this.lastUpdatedAt = lastUpdatedAt;
+        this.settingCount = settingCount;
+
+        this.maxFileSizeMb = parseInteger("max_file_size_mb", 50);
+
+        String allowedFiles = values.get("allowed_files");
+        if (allowedFiles == null || allowedFiles.trim().isEmpty()) {
+            this.allowedFormatList = DEFAULT_ALLOWED_FORMATS;
+        } else {
+            this.allowedFormatList = Arrays.stream(allowedFiles.split(","))
+                    .map(String::trim).filter(s -> !s.isEmpty())
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        // Empty setting means nothing is allowed for validation, same as before the cache existed
+        this.allowedFormats = (allowedFiles == null) ? Collections.emptySet()
+                : Collections.unmodifiableSet(Arrays.stream(allowedFiles.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty())
+                .map(s -> s.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        Map<String, Boolean> schema = new LinkedHashMap<>();
+        schema.put("productCode", parseBoolean("required_product_code", true));
+        schema.put("edition", parseBoolean("required_edition", true));
+        schema.put("publicationDate", parseBoolean("required_publication_date", true));
+        schema.put("title", parseBoolean("required_title", false));
+        schema.put("description", parseBoolean("required_description", false));
+        this.metadataSchema = Collections.unmodifiableMap(schema);
+        this.maxTagsPerDocument = parseInteger("max_tags_per_document", 10);
+
+        String position = values.get("watermark_position");
+        this.watermark = new WatermarkConfig(
+                parseBoolean("watermark_enabled", false),
+                parseInteger("watermark_opacity", 30),
+                position != null ? position : "Diagonal",
+                parseInteger("watermark_font_size", 24));
+
+        this.sessionTimeoutSeconds = (int) (parseSessionTimeoutHours() * 60 * 60);
+
+        Map<String, Object> policy = new LinkedHashMap<>();
+        policy.put("enforcePasswordPolicy", parseBoolean("enforce_password_policy", false));
+        policy.put("minPasswordLength", parseInteger("min_password_length", 8));
+        policy.put("requireUppercase", parseBoolean("require_uppercase", true));
+        policy.put("requireLowercase", parseBoolean("require_lowercase", true));
+        policy.put("requireNumber", parseBoolean("require_number", true));
+        policy.put("requireSpecialChar", parseBoolean("require_special_char", true));
+        this.passwordPolicy = Collections.unmodifiableMap(policy);
+
+        this.activityLoggingEnabled = parseBoolean("activity_logging_enabled", true);
+        this.logRetentionDays = parseInteger("log_retention_days", 90);
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public String get(String settingName) {
+        return values.get(settingName);
+    }
+
+    public Integer getInteger(String settingName, Integer defaultValue) {
+        return parseInteger(settingName, defaultValue);
+    }
+
+    public Boolean getBoolean(String settingName, Boolean defaultValue) {
+        return parseBoolean(settingName, defaultValue);
+    }
+
+    public boolean isFormatAllowed(String format) {
+        if (format == null) return false;
+        String trimmed = format.trim();
+        if (trimmed.isEmpty()) return false;
+        // Callers normally pass upper-case extensions, so the common case is a single hash lookup
+        return allowedFormats.contains(trimmed) || allowedFormats.contains(trimmed.toUpperCase(Locale.ROOT));
+    }
+
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    public long getSettingCount() {
+        return settingCount;
+    }
+
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    public Integer getMaxFileSizeMb() {
+        return maxFileSizeMb;
+    }
+
+    public Set<String> getAllowedFormats() {
+        return allowedFormats;
+    }
+
+    public List<String> getAllowedFormatList() {
+        return allowedFormatList;
+    }
+
+    public Map<String, Boolean> getMetadataSchema() {
+        return metadataSchema;
+    }
+
+    public Integer getMaxTagsPerDocument() {
+        return maxTagsPerDocument;
+    }
+
+    public WatermarkConfig getWatermark() {
+        return watermark;
+    }
+
+    public int getSessionTimeoutSeconds() {
+        return sessionTimeoutSeconds;
+    }
+
+    public Map<String, Object> getPasswordPolicy() {
+        return passwordPolicy;
+    }
+
+    public Boolean getActivityLoggingEnabled() {
+        return activityLoggingEnabled;
+    }
+
+    public Integer getLogRetentionDays() {
+        return logRetentionDays;
+    }
+
+    // ==================== PARSING ====================
+
+    private Integer parseInteger(String settingName, Integer defaultValue) {
+        try {
+            String value = values.get(settingName);
+            return value != null ? Integer.valueOf(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private Boolean parseBoolean(String settingName, Boolean defaultValue) {
+        String value = values.get(settingName);
+        if (value == null) return defaultValue;
+        return "1".equals(value) || "true".equalsIgnoreCase(value);
+    }
+
+    // Stored as a string so fractional hours (e.g. 0.5) are accepted; valid range 0.01 - 72
+    private double parseSessionTimeoutHours() {
+        String value = values.get("session_timeout_hours");
+        if (value == null || value.trim().isEmpty()) return DEFAULT_SESSION_TIMEOUT_HOURS;
+        try {
+            double hours = Double.parseDouble(value.trim());
+            return (hours < 0.01 || hours > 72) ? DEFAULT_SESSION_TIMEOUT_HOURS : hours;
+        } catch (NumberFormatException e) {
+            return DEFAULT_SESSION_TIMEOUT_HOURS;
+        }
+    }
+
+    /**
+     * Parsed watermark settings, plus the legacy map form returned by getWatermarkSettings().
+     */
+    public static final class WatermarkConfig {
+
+        private final Boolean enabled;
+        private final Integer opacity;
+        private final String position;
+        private final Integer fontSize;
+        private final Map<String, Object> asMap;
+
+        WatermarkConfig(Boolean enabled, Integer opacity, String position, Integer fontSize) {
+            this.enabled = enabled;
+            this.opacity = opacity;
+            this.position = position;
+            this.fontSize = fontSize;
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("watermarkEnabled", enabled);
+            map.put("watermarkOpacity", opacity);
+            map.put("watermarkPosition", position);
+            map.put("watermarkFontSize", fontSize);
+            this.asMap = Collections.unmodifiableMap(map);
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public Integer getOpacity() {
+            return opacity;
+        }
+
+        public String getPosition() {
+            return position;
+        }
+
+        public Integer getFontSize() {
+            return fontSize;
+        }
+
+        public Map<String, Object> asMap() {
+            return asMap;
+        }
+    }
+}
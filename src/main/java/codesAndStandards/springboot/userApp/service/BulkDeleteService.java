@@ -0,0 +1,322 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.BulkDeleteStatus;
+import codesAndStandards.springboot.userApp.security.AuthorizationSnapshotService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based bulk delete of documents and users for the settings page.
+ *
+ * Ids are processed in chunks; each chunk is one transaction of a handful of
+ * DELETE/UPDATE ... WHERE id IN (...) statements, instead of a stored procedure call and a
+ * synchronous file delete per row. Stored files are not touched here: their paths are written
+ * to the file deletion queue in the same transaction and removed from the share afterwards.
+ *
+ * Jobs run on a single background thread and report progress in memory, so the settings
+ * page can poll them; a restart loses the progress view but not the work already committed.
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    // Finished jobs stay pollable for this long
+    private static final Duration FINISHED_JOB_TTL = Duration.ofHours(1);
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FileDeletionQueueService fileDeletionQueueService;
+
+    @Autowired
+    private AuthorizationSnapshotService authorizationSnapshotService;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired
+    private ChangeSequenceService changeSequenceService;
+
+    // SQL Server accepts at most 2100 parameters per statement
+    @Value("${bulk-delete.chunk-size:1000}")
+    private int chunkSize;
+
+    private ExecutorService jobPool;
+
+    private final Map<String, BulkDeleteStatus> jobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        jobPool = backgroundThreads.newSingleThread("bulk-delete", false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (jobPool != null) {
+            jobPool.shutdownNow();
+        }
+    }
+
+    // ==================== JOBS ====================
+
+    public BulkDeleteStatus submitDocuments(List<Long> documentIds, String adminUsername) {
+        BulkDeleteStatus status = newJob("DOCUMENTS", documentIds);
+        logger.warn("⚠️ BULK DELETE DOCUMENTS - Admin: {}, Count: {}, Job: {}",
+                adminUsername, status.getTotalCount(), status.getJobId());
+        jobPool.execute(() -> runJob(status, documentIds, adminUsername));
+        return copy(status);
+    }
+
+    public BulkDeleteStatus submitUsers(List<Long> userIds, String adminUsername) {
+        BulkDeleteStatus status = newJob("USERS", userIds);
+        logger.warn("⚠️ BULK DELETE USERS - Admin: {}, Count: {}, Job: {}",
+                adminUsername, status.getTotalCount(), status.getJobId());
+        jobPool.execute(() -> runJob(status, userIds, adminUsername));
+        return copy(status);
+    }
+
+    public BulkDeleteStatus getStatus(String jobId) {
+        BulkDeleteStatus status = jobs.get(jobId);
+        if (status == null) {
+            throw new NoSuchElementException("Bulk delete job not found: " + jobId);
+        }
+        BulkDeleteStatus view = copy(status);
+        if (view.getFilesQueued() > 0) {
+            view.setFilesPending(fileDeletionQueueService.countPending(jobId));
+        }
+        return view;
+    }
+
+    private BulkDeleteStatus newJob(String type, List<Long> ids) {
+        LocalDateTime expiry = LocalDateTime.now().minus(FINISHED_JOB_TTL);
+        jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(expiry));
+
+        BulkDeleteStatus status = new BulkDeleteStatus();
+        status.setJobId(UUID.randomUUID().toString());
+        status.setType(type);
+        status.setStatus("RUNNING");
+        status.setTotalCount(new LinkedHashSet<>(ids).size());
+        status.setStartedAt(LocalDateTime.now());
+        jobs.put(status.getJobId(), status);
+        return status;
+    }
+
+    private void runJob(BulkDeleteStatus status, List<Long> ids, String adminUsername) {
+        boolean users = "USERS".equals(status.getType());
+        try {
+            if (users) {
+                deleteUsers(ids, status);
+            } else {
+                deleteDocuments(ids, status.getJobId(), status);
+            }
+            finish(status, "COMPLETED", null);
+            activityLogService.logByUsername(adminUsername,
+                    users ? ActivityLogService.SETTINGS_BULK_USER_DELETE : ActivityLogService.SETTINGS_BULK_DOC_DELETE,
+                    "Bulk deleted " + status.getDeletedCount() + (users ? " user(s)" : " document(s)")
+                            + ". IDs: " + ids);
+            logger.info("✅ Bulk delete job {} finished: {} of {} {} deleted",
+                    status.getJobId(), status.getDeletedCount(), status.getTotalCount(), users ? "users" : "documents");
+        } catch (RuntimeException e) {
+            finish(status, "FAILED", e.getMessage());
+            activityLogService.logByUsername(adminUsername,
+                    users ? ActivityLogService.SETTINGS_BULK_USER_DELETE_FAIL : ActivityLogService.SETTINGS_BULK_DOC_DELETE_FAIL,
+                    "Failed to bulk delete " + (users ? "users" : "documents") + " after "
+                            + status.getDeletedCount() + " deleted: " + e.getMessage());
+            logger.error("❌ Bulk delete job {} failed: {}", status.getJobId(), e.getMessage(), e);
+        }
+    }
+
+    private void finish(BulkDeleteStatus status, String result, String errorMessage) {
+        synchronized (status) {
+            status.setStatus(result);
+            status.setErrorMessage(errorMessage);
+            status.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    private static BulkDeleteStatus copy(BulkDeleteStatus status) {
+        BulkDeleteStatus view = new BulkDeleteStatus();
+        synchronized (status) {
+            view.setJobId(status.getJobId());
+            view.setType(status.getType());
+            view.setStatus(status.getStatus());
+            view.setTotalCount(status.getTotalCount());
+            view.setProcessed(status.getProcessed());
+            view.setDeletedCount(status.getDeletedCount());
+            view.setSkippedCount(status.getSkippedCount());
+            view.setFilesQueued(status.getFilesQueued());
+            view.setErrorMessage(status.getErrorMessage());
+            view.setStartedAt(status.getStartedAt());
+            view.setFinishedAt(status.getFinishedAt());
+        }
+        return view;
+    }
+
+    // ==================== DOCUMENTS ====================
+
+    /**
+     * Delete documents and everything that references them, one transaction per chunk.
+     * Their stored files are queued for deletion under batchId. Rows that cannot be deleted
+     * are counted as skipped.
+     *
+     * @return number of documents deleted
+     */
+    public int deleteDocuments(List<Long> documentIds, String batchId, BulkDeleteStatus progress) {
+        int deleted = 0;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (List<Long> chunk : chunks(documentIds)) {
+            int count = deleteChunk(tx, chunk, "document", ids -> deleteDocumentChunk(ids, batchId).size());
+            deleted += count;
+            if (progress != null) {
+                synchronized (progress) {
+                    progress.setProcessed(progress.getProcessed() + chunk.size());
+                    progress.setDeletedCount(progress.getDeletedCount() + count);
+                    progress.setSkippedCount(progress.getSkippedCount() + chunk.size() - count);
+                    progress.setFilesQueued(progress.getFilesQueued() + count);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private List<FileDeletionQueueService.QueuedFile> deleteDocumentChunk(List<Long> ids, String batchId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+
+        // UPDLOCK keeps the rows (and their paths) stable until the delete below
+        List<FileDeletionQueueService.QueuedFile> files = jdbcTemplate.query(
+                "SELECT document_id, file_path FROM Documents WITH (UPDLOCK) WHERE document_id IN (:ids)",
+                params, (rs, i) -> new FileDeletionQueueService.QueuedFile(rs.getLong(1), rs.getString(2)));
+        if (files.isEmpty()) {
+            return files;
+        }
+
+        jdbcTemplate.update("DELETE FROM DocumentTags WHERE document_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM DocumentClassifications WHERE document_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM bookmarks WHERE document_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM AccessControlLogic WHERE document_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM Documents WHERE document_id IN (:ids)", params);
+
+        fileDeletionQueueService.enqueue(files, batchId);
+        changeSequenceService.documentsChanged(ids);
+        return files;
+    }
+
+    // ==================== USERS ====================
+
+    /**
+     * Delete users, one transaction per chunk. Content they created is kept with its
+     * creator cleared, the same as deleting a single user. Rows that cannot be deleted
+     * are counted as skipped.
+     *
+     * @return number of users deleted
+     */
+    public int deleteUsers(List<Long> userIds, BulkDeleteStatus progress) {
+        int deleted = 0;
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (List<Long> chunk : chunks(userIds)) {
+            int count = deleteChunk(tx, chunk, "user", this::deleteUserChunk);
+            deleted += count;
+            if (progress != null) {
+                synchronized (progress) {
+                    progress.setProcessed(progress.getProcessed() + chunk.size());
+                    progress.setDeletedCount(progress.getDeletedCount() + count);
+                    progress.setSkippedCount(progress.getSkippedCount() + chunk.size() - count);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private int deleteUserChunk(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+
+        jdbcTemplate.update("UPDATE tags SET created_by = NULL WHERE created_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE tags SET updated_by = NULL WHERE updated_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE classification SET created_by = NULL WHERE created_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE classification SET updated_by = NULL WHERE updated_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE Groups SET group_createdBy = NULL WHERE group_createdBy IN (:ids)", params);
+        jdbcTemplate.update("UPDATE GroupUser SET created_by = NULL WHERE created_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE AccessControlLogic SET created_by = NULL WHERE created_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE Documents SET uploader_user_id = NULL WHERE uploader_user_id IN (:ids)", params);
+        jdbcTemplate.update("UPDATE ActivityLog SET user_id = NULL WHERE user_id IN (:ids)", params);
+        jdbcTemplate.update("UPDATE users SET created_by = NULL WHERE created_by IN (:ids)", params);
+        jdbcTemplate.update("UPDATE application_settings SET updated_by = NULL WHERE updated_by IN (:ids)", params);
+
+        jdbcTemplate.update("DELETE FROM bookmarks WHERE user_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM GroupUser WHERE user_id IN (:ids)", params);
+        int deleted = jdbcTemplate.update("DELETE FROM users WHERE user_id IN (:ids)", params);
+
+        if (deleted > 0) {
+            authorizationSnapshotService.aclChanged();
+            changeSequenceService.changed(ChangeSequenceService.Table.USERS);
+        }
+        return deleted;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * One chunk in one transaction. If the chunk fails, its ids are retried one at a time so a
+     * single row that cannot be deleted is skipped instead of stopping the rest of the job.
+     *
+     * @return number of rows deleted
+     */
+    private int deleteChunk(TransactionTemplate tx, List<Long> chunk, String type, ToIntFunction<List<Long>> delete) {
+        try {
+            return tx.execute(s -> delete.applyAsInt(chunk));
+        } catch (RuntimeException chunkFailure) {
+            logger.warn("Bulk delete: chunk of {} {}(s) failed ({}), retrying one by one",
+                    chunk.size(), type, chunkFailure.getMessage());
+        }
+        int deleted = 0;
+        for (Long id : chunk) {
+            try {
+                deleted += tx.execute(s -> delete.applyAsInt(List.of(id)));
+            } catch (RuntimeException e) {
+                logger.warn("Bulk delete: skipped {} {}: {}", type, id, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        int size = Math.max(1, Math.min(chunkSize, 2000));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += size) {
+            chunks.add(distinct.subList(from, Math.min(from + size, distinct.size())));
+        }
+        return chunks;
+    }
+}
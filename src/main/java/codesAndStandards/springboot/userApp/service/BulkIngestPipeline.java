@@ -0,0 +1,591 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.BulkUploadResult;
+import codesAndStandards.springboot.userApp.dto.DocumentMetadata;
+import codesAndStandards.springboot.userApp.entity.Classification;
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.entity.Tag;
+import codesAndStandards.springboot.userApp.entity.User;
+import codesAndStandards.springboot.userApp.repository.ClassificationRepository;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import codesAndStandards.springboot.userApp.repository.TagRepository;
+import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.profiling.BulkIngestStageEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Staged bulk-upload ingestion.
+ *
+ *   pending ──► [store: copy + SHA-256, N threads] ──► stored ──► [extract: page count probe, M threads]
+ *           ──► prepared ──► [writer: calling thread, one transaction per chunk]
+ *
+ * Queues between stages are bounded, so a slow share or a slow database applies back-pressure
+ * instead of buffering the whole batch. Each chunk commits on its own: a failure only loses that
+ * chunk's attempt, which is then retried document by document so the result records exactly
+ * which files made it in.
+ *
+ * Each stage reports cns.bulk_ingest.stage (time per document, per chunk for commit) and
+ * cns.bulk_ingest.documents (documents that left the stage), both tagged with the stage name.
+ */
+@Service
+public class BulkIngestPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkIngestPipeline.class);
+
+    // End-of-stream marker passed between stages
+    private static final IngestItem END = new IngestItem(null, null, null);
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private ClassificationRepository classificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DocumentFileIndexService documentFileIndexService;
+
+    @Autowired
+    private NameDictionaryService nameDictionaryService;
+
+    @Autowired
+    private ChangeSequenceService changeSequenceService;
+
+    @Autowired
+    private DocumentPreviewService documentPreviewService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${bulk-upload.pipeline.io-threads:4}")
+    private int ioThreads;
+
+    // 0 = one per available core
+    @Value("${bulk-upload.pipeline.extract-threads:0}")
+    private int extractThreads;
+
+    @Value("${bulk-upload.pipeline.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${bulk-upload.pipeline.commit-batch-size:50}")
+    private int commitBatchSize;
+
+    /**
+     * One document travelling through the pipeline. Later stages fill in the remaining fields;
+     * a failed item keeps flowing so the writer can record it in order.
+     */
+    public static final class IngestItem {
+        private final String filename;
+        private final DocumentMetadata metadata;
+        private final InputStreamSource source;
+        // Caller's id for this item (e.g. the bulk upload job item), passed back to the listener
+        private final Long ref;
+
+        private Path storedPath;
+        private DocumentFileIndexService.FileStats fileStats;
+        private Integer verifiedPageCount;
+        private String failure;
+
+        public IngestItem(String filename, DocumentMetadata metadata, InputStreamSource source) {
+            this(filename, metadata, source, null);
+        }
+
+        public IngestItem(String filename, DocumentMetadata metadata, InputStreamSource source, Long ref) {
+            this.filename = filename;
+            this.metadata = metadata;
+            this.source = source;
+            this.ref = ref;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public DocumentMetadata getMetadata() {
+            return metadata;
+        }
+
+        public Long getRef() {
+            return ref;
+        }
+
+        private void fail(String reason) {
+            this.failure = reason;
+        }
+    }
+
+    /**
+     * Progress and control hooks. Except for itemStarted, all callbacks run on the writer thread.
+     */
+    public interface Listener {
+
+        /** Checked before each item is stored and before each chunk commits. */
+        default boolean isCancelled() {
+            return false;
+        }
+
+        /** An item is about to be copied to storage (called from store threads). */
+        default void itemStarted(IngestItem item) {
+        }
+
+        /**
+         * Runs inside the chunk transaction after the documents were saved (ids assigned),
+         * so anything recorded here commits or rolls back together with the documents.
+         */
+        default void chunkSaved(List<IngestItem> items, List<Document> documents) {
+        }
+
+        default void itemFailed(IngestItem item, String reason) {
+        }
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+    };
+
+    /**
+     * Run all items through the pipeline, adding each outcome to the given result.
+     * Returns once every item has been committed or recorded as failed.
+     */
+    public BulkUploadResult ingest(List<IngestItem> items, Long uploaderId, BulkUploadResult result) {
+        return ingest(items, uploaderId, result, NO_LISTENER);
+    }
+
+    /**
+     * As above, reporting to the listener. When the listener reports cancellation, items not yet
+     * committed are dropped (their stored files removed) and left out of the result.
+     */
+    public BulkUploadResult ingest(List<IngestItem> items, Long uploaderId, BulkUploadResult result,
+                                   Listener listener) {
+        if (items.isEmpty()) {
+            return result;
+        }
+
+        int storeWorkers = Math.max(1, ioThreads);
+        int extractWorkers = extractThreads > 0 ? extractThreads : Runtime.getRuntime().availableProcessors();
+        int capacity = Math.max(1, queueCapacity);
+
+        logger.info("Bulk ingest: {} document(s), store threads={}, extract threads={}, queue={}, commit batch={}",
+                items.size(), storeWorkers, extractWorkers, capacity, commitBatchSize);
+
+        Queue<IngestItem> pending = new ConcurrentLinkedQueue<>(items);
+        BlockingQueue<IngestItem> stored = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<IngestItem> prepared = new ArrayBlockingQueue<>(capacity);
+
+        ExecutorService storePool = backgroundThreads.newFixedPool("bulk-store-", storeWorkers, false);
+        ExecutorService extractPool = backgroundThreads.newFixedPool("bulk-extract-", extractWorkers, false);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            // Items handed from store to extract, and from extract to the writer
+            AtomicInteger storedCount = new AtomicInteger();
+            AtomicInteger preparedCount = new AtomicInteger();
+
+            // ---- Stage 1: copy to the share and hash ----
+            AtomicInteger storeRemaining = new AtomicInteger(storeWorkers);
+            for (int i = 0; i < storeWorkers; i++) {
+                storePool.execute(() -> {
+                    try {
+                        IngestItem item;
+                        while (!listener.isCancelled() && (item = pending.poll()) != null) {
+                            listener.itemStarted(item);
+                            store(item);
+                            stored.put(item);
+                            storedCount.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        if (storeRemaining.decrementAndGet() == 0) {
+                            for (int j = 0; j < extractWorkers; j++) {
+                                putEnd(stored, extractPool);
+                            }
+                        }
+                    }
+                });
+            }
+            storePool.shutdown();
+
+            // ---- Stage 2: page count from the local copy ----
+            AtomicInteger extractRemaining = new AtomicInteger(extractWorkers);
+            for (int i = 0; i < extractWorkers; i++) {
+                extractPool.execute(() -> {
+                    try {
+                        IngestItem item;
+                        while ((item = stored.take()) != END) {
+                            extract(item);
+                            prepared.put(item);
+                            preparedCount.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        if (extractRemaining.decrementAndGet() == 0) {
+                            putEnd(prepared, null);
+                        }
+                    }
+                });
+            }
+            extractPool.shutdown();
+
+            // ---- Stage 3: single writer, chunked commits ----
+            // Upstream is done once extract has stopped, or store has stopped and every stored item
+            // reached the writer - the latter also covers extract workers that never saw END
+            BooleanSupplier upstreamDone = () -> extractPool.isTerminated()
+                    || (storePool.isTerminated() && preparedCount.get() == storedCount.get());
+            write(prepared, upstreamDone, uploaderId, result, listener);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.addError("Bulk upload interrupted - " + result.getTotalProcessed() + " of "
+                    + items.size() + " document(s) processed");
+        } finally {
+            storePool.shutdownNow();
+            extractPool.shutdownNow();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        logger.info("Bulk ingest finished in {} ms ({} docs/s). Success: {}, Failed: {}",
+                elapsed, String.format("%.1f", result.getTotalProcessed() * 1000.0 / elapsed),
+                result.getSuccessCount(), result.getFailedCount());
+        return result;
+    }
+
+    // ==================== STAGES ====================
+
+    private void store(IngestItem item) {
+        if (item.failure != null) {
+            return;
+        }
+        long start = System.nanoTime();
+        BulkIngestStageEvent event = new BulkIngestStageEvent();
+        event.begin();
+        String extension = item.filename.contains(".")
+                ? item.filename.substring(item.filename.lastIndexOf('.'))
+                : "";
+        Path target = Paths.get(uploadDir, UUID.randomUUID() + extension);
+        try {
+            Files.createDirectories(target.getParent());
+            item.fileStats = documentFileIndexService.copyAndMeasure(item.source.getInputStream(), target);
+            item.storedPath = target;
+        } catch (Exception e) {
+            logger.warn("Failed to store {}: {}", item.filename, e.getMessage());
+            deleteQuietly(target);
+            item.fail("Failed to store file: " + e.getMessage());
+        }
+        recordStage("store", start, 1);
+        commitStageEvent(event, "store", 1, item.failure == null);
+    }
+
+    private void extract(IngestItem item) {
+        if (item.failure != null || !item.filename.toLowerCase().endsWith(".pdf")) {
+            return;
+        }
+        // The probe only reads the trailer and page tree of the stored copy, so the source is not read twice
+        long start = System.nanoTime();
+        BulkIngestStageEvent event = new BulkIngestStageEvent();
+        event.begin();
+        item.verifiedPageCount = documentFileIndexService.countPages(item.storedPath);
+        recordStage("extract", start, 1);
+        commitStageEvent(event, "extract", 1, item.verifiedPageCount != null);
+        if (item.verifiedPageCount == null) {
+            logger.warn("Failed to read page count for {}", item.filename);
+        }
+    }
+
+    private void write(BlockingQueue<IngestItem> prepared, BooleanSupplier upstreamDone,
+                       Long uploaderId, BulkUploadResult result, Listener listener) throws InterruptedException {
+        List<IngestItem> batch = new ArrayList<>(commitBatchSize);
+
+        while (true) {
+            IngestItem item = prepared.poll(500, TimeUnit.MILLISECONDS);
+            if (item == END) {
+                break;
+            }
+            if (item == null) {
+                // Upstream is slow - commit what we have so progress is visible and locks stay short
+                if (!batch.isEmpty()) {
+                    commit(batch, uploaderId, result, listener);
+                    batch.clear();
+                } else if (upstreamDone.getAsBoolean() && prepared.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            if (item.failure != null) {
+                result.addFailure(item.filename, item.failure);
+                listener.itemFailed(item, item.failure);
+                continue;
+            }
+            batch.add(item);
+            if (batch.size() >= commitBatchSize) {
+                commit(batch, uploaderId, result, listener);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            commit(batch, uploaderId, result, listener);
+        }
+    }
+
+    // ==================== DB WRITER ====================
+
+    private void commit(List<IngestItem> batch, Long uploaderId, BulkUploadResult result, Listener listener) {
+        if (listener.isCancelled()) {
+            logger.info("Ingest cancelled - discarding {} stored but uncommitted document(s)", batch.size());
+            for (IngestItem item : batch) {
+                deleteQuietly(item.storedPath);
+            }
+            return;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        BulkIngestStageEvent event = new BulkIngestStageEvent();
+        event.begin();
+        try {
+            tx.executeWithoutResult(status -> saveAll(batch, uploaderId, listener));
+            changeSequenceService.changed(ChangeSequenceService.Table.DOCUMENTS);
+            for (IngestItem item : batch) {
+                result.addSuccess(item.filename, item.metadata.getTitle());
+                documentPreviewService.renderAfterCommit(item.storedPath, item.fileStats.getSha256());
+            }
+            logger.info("Committed {} document(s)", batch.size());
+            recordStage("commit", start, batch.size());
+            commitStageEvent(event, "commit", batch.size(), true);
+
+        } catch (Exception chunkFailure) {
+            commitStageEvent(event, "commit", batch.size(), false);
+            logger.warn("Chunk of {} document(s) failed ({}), retrying one by one",
+                    batch.size(), chunkFailure.getMessage());
+            // A tag or classification deleted on another node would fail every retry with a stale id
+            nameDictionaryService.reload();
+
+            for (IngestItem item : batch) {
+                BulkIngestStageEvent itemEvent = new BulkIngestStageEvent();
+                itemEvent.begin();
+                try {
+                    long itemStart = System.nanoTime();
+                    tx.executeWithoutResult(status -> saveAll(List.of(item), uploaderId, listener));
+                    changeSequenceService.changed(ChangeSequenceService.Table.DOCUMENTS);
+                    result.addSuccess(item.filename, item.metadata.getTitle());
+                    documentPreviewService.renderAfterCommit(item.storedPath, item.fileStats.getSha256());
+                    recordStage("commit", itemStart, 1);
+                    commitStageEvent(itemEvent, "commit", 1, true);
+                } catch (Exception e) {
+                    commitStageEvent(itemEvent, "commit", 1, false);
+                    logger.error("Failed to save document {}: {}", item.filename, e.getMessage());
+                    deleteQuietly(item.storedPath);
+                    String reason = "Database error: " + e.getMessage();
+                    result.addFailure(item.filename, reason);
+                    listener.itemFailed(item, reason);
+                }
+            }
+        }
+    }
+
+    private void recordStage(String stage, long startNanos, int documents) {
+        Timer.builder("cns.bulk_ingest.stage")
+                .description("Time spent in a bulk-upload pipeline stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("cns.bulk_ingest.documents")
+                .description("Documents through a bulk-upload pipeline stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment(documents);
+    }
+
+    private static void commitStageEvent(BulkIngestStageEvent event, String stage, int documents, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.stage = stage;
+            event.documents = documents;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    /**
+     * Save the documents of one chunk. Tag and classification names of the whole chunk are
+     * resolved in one dictionary call each, so a chunk costs a few statements for its
+     * taxonomy instead of a lookup per name per document.
+     */
+    private void saveAll(List<IngestItem> items, Long uploaderId, Listener listener) {
+        List<String> tagNames = new ArrayList<>();
+        List<String> classificationNames = new ArrayList<>();
+        for (IngestItem item : items) {
+            tagNames.addAll(tagNames(item.metadata));
+            classificationNames.addAll(classificationNames(item.metadata));
+        }
+        Map<String, Long> tagIds = nameDictionaryService.resolve(
+                NameDictionaryService.Kind.TAG, tagNames, uploaderId);
+        Map<String, Long> classificationIds = nameDictionaryService.resolve(
+                NameDictionaryService.Kind.CLASSIFICATION, classificationNames, uploaderId);
+
+        User uploader = userRepository.getReferenceById(uploaderId);
+        List<Document> documents = new ArrayList<>(items.size());
+        for (IngestItem item : items) {
+            documents.add(buildDocument(item, uploader, tagIds, classificationIds));
+        }
+        documentRepository.saveAll(documents);
+        listener.chunkSaved(items, documents);
+    }
+
+    private Document buildDocument(IngestItem item, User uploader,
+                                   Map<String, Long> tagIds,
+                                   Map<String, Long> classificationIds) {
+        DocumentMetadata metadata = item.metadata;
+
+        Integer pageCount = metadata.getNoOfPages();
+        if (pageCount == null || pageCount == 0) {
+            pageCount = item.verifiedPageCount;
+        }
+
+        Document document = new Document();
+        document.setTitle(metadata.getTitle());
+        document.setProductCode(metadata.getProductCode());
+        document.setEdition(metadata.getEdition());
+        document.setNoOfPages(pageCount);
+        document.setNotes(metadata.getNotes());
+        document.setFilePath(item.storedPath.toString());
+        document.setFileSizeBytes(item.fileStats.getSizeBytes());
+        document.setContentSha256(item.fileStats.getSha256());
+        document.setPageCountVerified(item.verifiedPageCount);
+        document.setUploadedAt(LocalDateTime.now());
+        document.setUploadedBy(uploader);
+
+        if (metadata.getPublishYear() != null && !metadata.getPublishYear().isEmpty()) {
+            String month = metadata.getPublishMonth();
+            document.setPublishDate(month != null && !month.isEmpty()
+                    ? metadata.getPublishYear() + "-" + month
+                    : metadata.getPublishYear());
+        }
+
+        List<String> tagNames = tagNames(metadata);
+        if (!tagNames.isEmpty()) {
+            Set<Tag> tags = new HashSet<>();
+            for (String tagName : tagNames) {
+                tags.add(tagRepository.getReferenceById(tagIds.get(NameDictionaryService.key(tagName))));
+            }
+            document.setTags(tags);
+        }
+
+        List<String> classificationNames = classificationNames(metadata);
+        if (!classificationNames.isEmpty()) {
+            Set<Classification> classifications = new HashSet<>();
+            for (String className : classificationNames) {
+                classifications.add(classificationRepository.getReferenceById(
+                        classificationIds.get(NameDictionaryService.key(className))));
+            }
+            document.setClassifications(classifications);
+        }
+
+        return document;
+    }
+
+    // Tags are stored lower-case; classifications keep the case they were typed in
+    private static List<String> tagNames(DocumentMetadata metadata) {
+        List<String> names = new ArrayList<>();
+        if (metadata.getTags() != null) {
+            for (String tagStr : metadata.getTags().split(",")) {
+                String tagName = tagStr.trim().toLowerCase();
+                if (!tagName.isEmpty()) names.add(tagName);
+            }
+        }
+        return names;
+    }
+
+    private static List<String> classificationNames(DocumentMetadata metadata) {
+        List<String> names = new ArrayList<>();
+        if (metadata.getClassifications() != null) {
+            for (String classStr : metadata.getClassifications().split(",")) {
+                String className = classStr.trim();
+                if (!className.isEmpty()) names.add(className);
+            }
+        }
+        return names;
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Hand END to the next stage even when this worker was interrupted: the flag is cleared
+     * for the hand-off (a put would otherwise throw at once and the consumer would wait forever)
+     * and restored afterwards. Gives up once the consuming pool, if any, has stopped.
+     */
+    private static void putEnd(BlockingQueue<IngestItem> queue, ExecutorService consumers) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            while (!queue.offer(END, 500, TimeUnit.MILLISECONDS)) {
+                if (consumers != null && consumers.isTerminated()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Interrupted again during the hand-off - the pipeline is being torn down
+            interrupted = true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (Exception e) {
+            logger.warn("Could not remove stored file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package codesAndStandards.springboot.userApp.service;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Streams the data rows of a bulk-upload metadata sheet (first sheet of an .xlsx).
+ *
+ * Uses POI's event model (XSSFReader + XSSFSheetXMLHandler) instead of building an XSSFWorkbook,
+ * so heap stays flat regardless of row count and the first row is handed out as soon as it is parsed.
+ * Only the shared-strings table is held in memory, read-only.
+ *
+ * Each emitted row is a String[COLUMN_COUNT] of formatted cell values (null for empty cells),
+ * in template column order: filename, title, product code, edition, publish month, publish year,
+ * pages, notes, tags, classifications. Numbers come out plain (123456789012, 2.5) whatever the
+ * cell's number format, so they parse back as numbers; only date formats are applied.
+ */
+@Component
+public class BulkMetadataSheetReader {
+
+    public static final int COLUMN_COUNT = 10;
+
+    // Header only → data at row 1; header + legend + example → data at row 3
+    private static final int LEGACY_DATA_START_ROW = 1;
+    private static final int TEMPLATE_DATA_START_ROW = 3;
+
+    /**
+     * Parse the first sheet of the workbook at the given path, passing each data row to the sink.
+     *
+     * @return number of rows emitted
+     */
+    public int read(Path xlsx, Consumer<String[]> rowSink) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(xlsx.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            RowCollector collector = new RowCollector(rowSink);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, sharedStrings, collector, new PlainNumberFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+            return collector.emitted;
+        }
+    }
+
+    /**
+     * Excel's General format gives 1.23457E+11 for long numbers and "#,##0" gives 1,234, neither of
+     * which parses as a number. Write numbers as plain digits instead and keep the formatting for dates.
+     */
+    static final class PlainNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    /**
+     * Buffers one row at a time. The data start row is decided when row 1 arrives:
+     * a legend in its first cell means the new template layout.
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<String[]> rowSink;
+        private final String[] cells = new String[COLUMN_COUNT];
+
+        private int dataStartRow = -1;
+        private int emitted;
+
+        RowCollector(Consumer<String[]> rowSink) {
+            this.rowSink = rowSink;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null) {
+                return;
+            }
+            int column = new CellReference(cellReference).getCol();
+            if (column < COLUMN_COUNT) {
+                String value = formattedValue.trim();
+                cells[column] = value.isEmpty() ? null : value;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum == 0) {
+                return;
+            }
+            if (dataStartRow < 0) {
+                dataStartRow = (rowNum == 1 && isLegend(cells[0]))
+                        ? TEMPLATE_DATA_START_ROW
+                        : LEGACY_DATA_START_ROW;
+            }
+            if (rowNum < dataStartRow) {
+                return;
+            }
+            emitted++;
+            rowSink.accept(cells.clone());
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // not used
+        }
+
+        private static boolean isLegend(String value) {
+            return value != null && (value.startsWith("*") || value.contains("= Required"));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package codesAndStandards.springboot.userApp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Filename → content index over the files of one bulk upload request.
+ *
+ * Loose PDFs are used as-is. ZIP archives are opened with random access (java.util.zip.ZipFile),
+ * so the index is built from the central directory alone and each entry is inflated straight
+ * into storage when the pipeline reaches it - nothing is extracted to a temp directory.
+ * The uploaded archive is moved (not copied) out of the multipart area so it can be opened
+ * as a file, and deleted on close.
+ *
+ * Zip-bomb limits are checked against the central directory up front and enforced again
+ * while inflating, since the sizes an archive declares cannot be trusted.
+ */
+public class BulkUploadFileIndex implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadFileIndex.class);
+
+    private final long maxEntries;
+    private final long maxTotalBytes;
+    private final long maxCompressionRatio;
+
+    private final Map<String, InputStreamSource> files = new LinkedHashMap<>();
+    private final List<ZipFile> archives = new ArrayList<>();
+    private final List<Path> spooledArchives = new ArrayList<>();
+
+    // Bytes actually inflated across all archives of this request; an entry counts on its first read only
+    private final AtomicLong inflatedBytes = new AtomicLong();
+    private final Set<ZipEntry> countedEntries = ConcurrentHashMap.newKeySet();
+
+    private BulkUploadFileIndex(long maxEntries, long maxTotalBytes, long maxCompressionRatio) {
+        this.maxEntries = maxEntries;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxCompressionRatio = maxCompressionRatio;
+    }
+
+    /**
+     * Index the uploaded files. Filenames are normalized to lower-case base names.
+     * The caller must close the index once every entry has been read.
+     */
+    public static BulkUploadFileIndex open(MultipartFile[] uploads, long maxEntries,
+                                           long maxTotalBytes, long maxCompressionRatio) throws IOException {
+        BulkUploadFileIndex index = new BulkUploadFileIndex(maxEntries, maxTotalBytes, maxCompressionRatio);
+        try {
+            if (uploads != null) {
+                for (MultipartFile upload : uploads) {
+                    String originalFilename = upload.getOriginalFilename();
+                    if (originalFilename == null) {
+                        continue;
+                    }
+                    String lower = originalFilename.toLowerCase();
+                    if (lower.endsWith(".zip")) {
+                        index.addArchive(upload);
+                    } else if (lower.endsWith(".pdf")) {
+                        index.files.put(normalize(originalFilename), upload);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+        logger.info("Indexed {} PDF file(s) from {} archive(s) and loose uploads",
+                index.files.size(), index.archives.size());
+        return index;
+    }
+
+    /**
+     * Move the uploaded files into a job's staging directory so the upload can run after the
+     * request has ended. PDFs keep their normalized name; archives are kept whole and read in
+     * place later by {@link #openStaged}.
+     */
+    public static void stage(MultipartFile[] uploads, Path stagingDir) throws IOException {
+        Files.createDirectories(stagingDir);
+        int archiveNo = 0;
+        if (uploads == null) {
+            return;
+        }
+        for (MultipartFile upload : uploads) {
+            String originalFilename = upload.getOriginalFilename();
+            if (originalFilename == null) {
+                continue;
+            }
+            String lower = originalFilename.toLowerCase();
+            if (lower.endsWith(".zip")) {
+                upload.transferTo(stagingDir.resolve("archive-" + (++archiveNo) + ".zip").toFile());
+            } else if (lower.endsWith(".pdf")) {
+                upload.transferTo(stagingDir.resolve(normalize(originalFilename)).toFile());
+            }
+        }
+    }
+
+    /**
+     * Index a staging directory written by {@link #stage}. The staged files are left in place on close.
+     */
+    public static BulkUploadFileIndex openStaged(Path stagingDir, long maxEntries,
+                                                 long maxTotalBytes, long maxCompressionRatio) throws IOException {
+        BulkUploadFileIndex index = new BulkUploadFileIndex(maxEntries, maxTotalBytes, maxCompressionRatio);
+        try (DirectoryStream<Path> staged = Files.newDirectoryStream(stagingDir)) {
+            for (Path file : staged) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".zip")) {
+                    index.indexArchive(file, name);
+                } else if (name.endsWith(".pdf")) {
+                    index.files.put(name, () -> Files.newInputStream(file));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+        logger.info("Indexed {} staged PDF file(s) in {}", index.files.size(), stagingDir);
+        return index;
+    }
+
+    public static String normalize(String name) {
+        return new File(name).getName().trim().toLowerCase();
+    }
+
+    public Set<String> getFilenames() {
+        return Collections.unmodifiableSet(files.keySet());
+    }
+
+    public InputStreamSource get(String normalizedFilename) {
+        return files.get(normalizedFilename);
+    }
+
+    // ==================== ZIP ====================
+
+    private void addArchive(MultipartFile upload) throws IOException {
+        Path spooled = Files.createTempFile("bulk-upload-", ".zip");
+        spooledArchives.add(spooled);
+        // transferTo renames the multipart temp file when it is already on disk
+        Files.delete(spooled);
+        upload.transferTo(spooled.toFile());
+        indexArchive(spooled, upload.getOriginalFilename());
+    }
+
+    private void indexArchive(Path archive, String displayName) throws IOException {
+        ZipFile zip = new ZipFile(archive.toFile());
+        archives.add(zip);
+
+        long declaredTotal = 0;
+        int entryCount = 0;
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (++entryCount > maxEntries) {
+                throw new ZipException("Archive " + displayName
+                        + " has more than " + maxEntries + " entries");
+            }
+            if (entry.isDirectory() || !entry.getName().toLowerCase().endsWith(".pdf")) {
+                continue;
+            }
+            checkRatio(entry, entry.getSize());
+            if (entry.getSize() > 0) {
+                declaredTotal += entry.getSize();
+            }
+            if (declaredTotal > maxTotalBytes) {
+                throw new ZipException("Archive " + displayName
+                        + " expands beyond the " + maxTotalBytes + " byte limit");
+            }
+            files.put(normalize(entry.getName()), () -> new LimitedEntryStream(
+                    zip.getInputStream(entry), entry, countedEntries.add(entry)));
+        }
+        logger.debug("Indexed {} from its central directory: {} entries, {} declared bytes",
+                displayName, entryCount, declaredTotal);
+    }
+
+    private void checkRatio(ZipEntry entry, long uncompressed) throws ZipException {
+        long compressed = entry.getCompressedSize();
+        if (compressed > 0 && uncompressed > compressed * maxCompressionRatio) {
+            throw new ZipException("Entry " + entry.getName() + " exceeds the compression ratio limit of "
+                    + maxCompressionRatio + ":1");
+        }
+    }
+
+    /**
+     * Counts inflated bytes and fails as soon as an entry grows past its ratio limit
+     * or the request's total crosses maxTotalBytes.
+     */
+    private final class LimitedEntryStream extends FilterInputStream {
+
+        private final ZipEntry entry;
+        private final boolean countTowardsTotal;
+        private long read;
+
+        LimitedEntryStream(InputStream in, ZipEntry entry, boolean countTowardsTotal) {
+            super(in);
+            this.entry = entry;
+            this.countTowardsTotal = countTowardsTotal;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws ZipException {
+            read += n;
+            checkRatio(entry, read);
+            if (countTowardsTotal && inflatedBytes.addAndGet(n) > maxTotalBytes) {
+                throw new ZipException("Bulk upload expands beyond the " + maxTotalBytes + " byte limit");
+            }
+        }
+    }
+
+    // ==================== CLEANUP ====================
+
+    @Override
+    public void close() {
+        for (ZipFile zip : archives) {
+            try {
+                zip.close();
+            } catch (IOException e) {
+                logger.warn("Could not close archive {}: {}", zip.getName(), e.getMessage());
+            }
+        }
+        for (Path spooled : spooledArchives) {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled archive {}: {}", spooled, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.BulkUploadJobStatus;
+import codesAndStandards.springboot.userApp.dto.BulkUploadResult;
+import codesAndStandards.springboot.userApp.dto.DocumentMetadata;
+import codesAndStandards.springboot.userApp.entity.BulkUploadJob;
+import codesAndStandards.springboot.userApp.entity.BulkUploadJobItem;
+import codesAndStandards.springboot.userApp.entity.Document;
+import codesAndStandards.springboot.userApp.repository.BulkUploadJobItemRepository;
+import codesAndStandards.springboot.userApp.repository.BulkUploadJobRepository;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Runs bulk uploads in the background so the request returns as soon as the files are staged.
+ *
+ * The upload is moved into a per-job staging directory and every metadata row becomes a job item.
+ * Items are marked COMMITTED inside the same transaction as their documents, so after a crash or
+ * restart the job picks up exactly the items that are still PENDING. Progress is polled by the
+ * wizard; the current file and throughput are tracked in memory on the node running the job.
+ */
+@Service
+public class BulkUploadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadJobService.class);
+
+    private static final String FILE_NOT_FOUND = "PDF file not found";
+    private static final String CANCELLED = "Cancelled before upload";
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private BulkUploadService bulkUploadService;
+
+    @Autowired
+    private BulkIngestPipeline bulkIngestPipeline;
+
+    @Autowired
+    private BulkUploadJobRepository jobRepository;
+
+    @Autowired
+    private BulkUploadJobItemRepository itemRepository;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Value("${bulk-upload.jobs.concurrency:1}")
+    private int concurrency;
+
+    @Value("${bulk-upload.jobs.staging-dir:${java.io.tmpdir}/cns-bulk-upload-jobs}")
+    private String stagingBaseDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExecutorService jobPool;
+
+    // Live progress of jobs running on this node
+    private final Map<Long, Progress> running = new ConcurrentHashMap<>();
+
+    private static final class Progress {
+        private final long startedAtNanos = System.nanoTime();
+        private final int processedAtStart;
+        private volatile boolean cancelled;
+        private volatile String currentFile;
+
+        Progress(int processedAtStart, boolean cancelled) {
+            this.processedAtStart = processedAtStart;
+            this.cancelled = cancelled;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        jobPool = backgroundThreads.newFixedPool("bulk-upload-job-", concurrency, false);
+    }
+
+    // Jobs interrupted here stay RUNNING and are picked up again on the next start
+    @PreDestroy
+    public void shutdown() {
+        if (jobPool != null) {
+            jobPool.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<BulkUploadJob> unfinished = jobRepository.findByStatusInOrderByIdAsc(
+                EnumSet.of(BulkUploadJob.Status.QUEUED, BulkUploadJob.Status.RUNNING));
+        for (BulkUploadJob job : unfinished) {
+            logger.info("Resuming bulk upload job {} ({})", job.getId(), job.getStatus());
+            schedule(job.getId());
+        }
+    }
+
+    // ==================== SUBMIT ====================
+
+    /**
+     * Stage the upload and queue it. Metadata is parsed and matched against the staged files
+     * here, so the job itself only has to store and commit.
+     */
+    public BulkUploadJobStatus submit(MultipartFile[] pdfFiles,
+                                      MultipartFile excelFile,
+                                      String selfValidationJson,
+                                      boolean uploadOnlyValid) throws Exception {
+        AuthorizedUser currentUser = AuthorizedUser.current();
+        if (currentUser == null) {
+            throw new Exception("User not authenticated");
+        }
+
+        List<DocumentMetadata> metadataList = bulkUploadService.parseMetadata(excelFile, selfValidationJson);
+
+        Path stagingDir = Paths.get(stagingBaseDir, UUID.randomUUID().toString());
+        BulkUploadJob job;
+        try {
+            BulkUploadFileIndex.stage(pdfFiles, stagingDir);
+
+            List<BulkUploadJobItem> items = new ArrayList<>();
+            try (BulkUploadFileIndex fileIndex = bulkUploadService.openStagedFileIndex(stagingDir)) {
+                List<DocumentMetadata> selected = bulkUploadService.selectForUpload(
+                        metadataList, fileIndex.getFilenames(), uploadOnlyValid);
+                for (DocumentMetadata metadata : selected) {
+                    items.add(newItem(metadata, fileIndex.get(BulkUploadFileIndex.normalize(metadata.getFilename())) != null));
+                }
+            }
+
+            job = new BulkUploadJob();
+            job.setStatus(BulkUploadJob.Status.QUEUED);
+            job.setCreatedById(currentUser.getId());
+            job.setCreatedByUsername(currentUser.getUsername());
+            job.setMetadataFileName(excelFile != null ? excelFile.getOriginalFilename() : null);
+            job.setEditedMetadata(selfValidationJson != null && !selfValidationJson.isEmpty());
+            job.setStagingDir(stagingDir.toString());
+            job.setTotalCount(items.size());
+            job.setFailedCount((int) items.stream()
+                    .filter(i -> i.getState() == BulkUploadJobItem.State.FAILED)
+                    .count());
+            job.setCreatedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+
+            for (BulkUploadJobItem item : items) {
+                item.setJobId(job.getId());
+            }
+            itemRepository.saveAll(items);
+
+        } catch (Exception e) {
+            deleteStagingDir(stagingDir);
+            throw e;
+        }
+
+        logger.info("Bulk upload job {} queued: {} document(s), staged in {}",
+                job.getId(), job.getTotalCount(), stagingDir);
+        schedule(job.getId());
+        return toStatus(job);
+    }
+
+    private BulkUploadJobItem newItem(DocumentMetadata metadata, boolean fileFound) throws IOException {
+        BulkUploadJobItem item = new BulkUploadJobItem();
+        item.setFilename(BulkUploadFileIndex.normalize(metadata.getFilename()));
+        item.setTitle(metadata.getTitle());
+        item.setMetadataJson(objectMapper.writeValueAsString(metadata));
+        item.setState(fileFound ? BulkUploadJobItem.State.PENDING : BulkUploadJobItem.State.FAILED);
+        item.setFailureReason(fileFound ? null : FILE_NOT_FOUND);
+        item.setUpdatedAt(LocalDateTime.now());
+        return item;
+    }
+
+    private void schedule(Long jobId) {
+        jobPool.execute(() -> run(jobId));
+    }
+
+    // ==================== RUN ====================
+
+    private void run(Long jobId) {
+        BulkUploadJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus().isFinished()) {
+            return;
+        }
+
+        Progress progress = new Progress(job.getSuccessCount() + job.getFailedCount(), job.isCancelRequested());
+        running.put(jobId, progress);
+        try {
+            job.setStatus(BulkUploadJob.Status.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+            jobRepository.save(job);
+
+            Path stagingDir = Paths.get(job.getStagingDir());
+            try (BulkUploadFileIndex fileIndex = bulkUploadService.openStagedFileIndex(stagingDir)) {
+                List<BulkIngestPipeline.IngestItem> items = new ArrayList<>();
+                for (BulkUploadJobItem item : itemRepository.findByJobIdAndStateOrderByIdAsc(
+                        jobId, BulkUploadJobItem.State.PENDING)) {
+                    InputStreamSource source = fileIndex.get(item.getFilename());
+                    if (source == null) {
+                        markFailed(jobId, item.getId(), FILE_NOT_FOUND);
+                        continue;
+                    }
+                    DocumentMetadata metadata = objectMapper.readValue(item.getMetadataJson(), DocumentMetadata.class);
+                    items.add(new BulkIngestPipeline.IngestItem(item.getFilename(), metadata, source, item.getId()));
+                }
+
+                bulkIngestPipeline.ingest(items, job.getCreatedById(), new BulkUploadResult(),
+                        new JobListener(jobId, progress));
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                logger.info("Bulk upload job {} interrupted by shutdown, will resume on restart", jobId);
+                return;
+            }
+            finish(jobId, progress.cancelled);
+
+        } catch (Exception e) {
+            logger.error("Bulk upload job {} failed", jobId, e);
+            fail(jobId, e.getMessage());
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private final class JobListener implements BulkIngestPipeline.Listener {
+
+        private final Long jobId;
+        private final Progress progress;
+
+        JobListener(Long jobId, Progress progress) {
+            this.jobId = jobId;
+            this.progress = progress;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return progress.cancelled;
+        }
+
+        @Override
+        public void itemStarted(BulkIngestPipeline.IngestItem item) {
+            progress.currentFile = item.getFilename();
+        }
+
+        @Override
+        public void chunkSaved(List<BulkIngestPipeline.IngestItem> items, List<Document> documents) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < items.size(); i++) {
+                itemRepository.markCommitted(items.get(i).getRef(), documents.get(i).getId(), now);
+            }
+            jobRepository.addCommitted(jobId, items.size());
+        }
+
+        @Override
+        public void itemFailed(BulkIngestPipeline.IngestItem item, String reason) {
+            markFailed(jobId, item.getRef(), reason);
+        }
+    }
+
+    private void markFailed(Long jobId, Long itemId, String reason) {
+        itemRepository.markFailed(itemId, truncate(reason, 1000), LocalDateTime.now());
+        jobRepository.addFailed(jobId);
+    }
+
+    private void finish(Long jobId, boolean cancelled) {
+        if (cancelled) {
+            for (BulkUploadJobItem item : itemRepository.findByJobIdAndStateOrderByIdAsc(
+                    jobId, BulkUploadJobItem.State.PENDING)) {
+                markFailed(jobId, item.getId(), CANCELLED);
+            }
+        }
+
+        BulkUploadJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(cancelled ? BulkUploadJob.Status.CANCELLED : BulkUploadJob.Status.COMPLETED);
+        job.setFinishedAt(LocalDateTime.now());
+        jobRepository.save(job);
+
+        deleteStagingDir(Paths.get(job.getStagingDir()));
+        logCompletion(job);
+
+        logger.info("Bulk upload job {} {}: Success: {}, Failed: {}",
+                jobId, job.getStatus(), job.getSuccessCount(), job.getFailedCount());
+    }
+
+    // The staging directory is kept so the job can be resumed
+    private void fail(Long jobId, String message) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(BulkUploadJob.Status.FAILED);
+            job.setErrorMessage(truncate(message, 2000));
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+
+            activityLogService.logByUsername(
+                    job.getCreatedByUsername(),
+                    ActivityLogService.BULK_DOCUMENT_UPLOAD_FAIL,
+                    "Bulk upload failed (Reason: " + message + ")"
+            );
+        });
+    }
+
+    private void logCompletion(BulkUploadJob job) {
+        String username = job.getCreatedByUsername();
+        for (BulkUploadJobItem item : itemRepository.findByJobIdAndStateOrderByIdAsc(
+                job.getId(), BulkUploadJobItem.State.COMMITTED)) {
+            activityLogService.logByUsername(
+                    username,
+                    ActivityLogService.DOCUMENT_UPLOAD,
+                    "Uploaded document: \"" + item.getFilename() + "\" as \"" + item.getTitle() + "\" " +
+                            "(Bulk Upload" + (job.isEditedMetadata() ? ", edited metadata" : "") + ")"
+            );
+        }
+        activityLogService.logByUsername(
+                username,
+                ActivityLogService.BULK_DOCUMENT_UPLOADED,
+                "Bulk upload completed: " + job.getSuccessCount() +
+                        " document(s) uploaded using " + job.getMetadataFileName()
+        );
+    }
+
+    // ==================== STATUS / CONTROL ====================
+
+    public BulkUploadJobStatus getStatus(Long jobId) {
+        return toStatus(findJob(jobId));
+    }
+
+    /**
+     * Per-file outcome, in the same shape the synchronous upload used to return.
+     */
+    public BulkUploadResult getResult(Long jobId) {
+        BulkUploadJob job = findJob(jobId);
+        BulkUploadResult result = new BulkUploadResult();
+        for (BulkUploadJobItem item : itemRepository.findByJobIdOrderByIdAsc(jobId)) {
+            if (item.getState() == BulkUploadJobItem.State.COMMITTED) {
+                result.addSuccess(item.getFilename(), item.getTitle());
+            } else if (item.getState() == BulkUploadJobItem.State.FAILED) {
+                result.addFailure(item.getFilename(), item.getFailureReason());
+            }
+        }
+        if (job.getErrorMessage() != null) {
+            result.addError("Upload Error: " + job.getErrorMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Stop the job after the chunk in progress. Committed documents stay; the rest are marked failed.
+     */
+    public BulkUploadJobStatus cancel(Long jobId) {
+        BulkUploadJob job = findJob(jobId);
+        if (job.getStatus().isFinished()) {
+            throw new IllegalStateException("Job " + jobId + " has already finished");
+        }
+        jobRepository.requestCancel(jobId);
+        Progress progress = running.get(jobId);
+        if (progress != null) {
+            progress.cancelled = true;
+        }
+        logger.info("Cancellation requested for bulk upload job {}", jobId);
+        return getStatus(jobId);
+    }
+
+    /**
+     * Re-queue a failed job; only the items that were not committed are uploaded.
+     */
+    public BulkUploadJobStatus resume(Long jobId) {
+        BulkUploadJob job = findJob(jobId);
+        if (job.getStatus() != BulkUploadJob.Status.FAILED) {
+            throw new IllegalStateException("Only failed jobs can be resumed (job " + jobId + " is " + job.getStatus() + ")");
+        }
+        if (!Files.isDirectory(Paths.get(job.getStagingDir()))) {
+            throw new IllegalStateException("Staged files of job " + jobId + " are no longer available");
+        }
+        job.setStatus(BulkUploadJob.Status.QUEUED);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job.setCancelRequested(false);
+        jobRepository.save(job);
+
+        logger.info("Bulk upload job {} re-queued", jobId);
+        schedule(jobId);
+        return toStatus(job);
+    }
+
+    private BulkUploadJob findJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new NoSuchElementException("Bulk upload job not found: " + jobId));
+    }
+
+    private BulkUploadJobStatus toStatus(BulkUploadJob job) {
+        BulkUploadJobStatus status = new BulkUploadJobStatus();
+        status.setJobId(job.getId());
+        status.setStatus(job.getStatus().name());
+        status.setTotalCount(job.getTotalCount());
+        status.setSuccessCount(job.getSuccessCount());
+        status.setFailedCount(job.getFailedCount());
+        status.setProcessed(job.getSuccessCount() + job.getFailedCount());
+        status.setCancelRequested(job.isCancelRequested());
+        status.setErrorMessage(job.getErrorMessage());
+        status.setCreatedAt(job.getCreatedAt());
+        status.setStartedAt(job.getStartedAt());
+        status.setFinishedAt(job.getFinishedAt());
+
+        Progress progress = running.get(job.getId());
+        if (progress != null) {
+            status.setCurrentFile(progress.currentFile);
+            double seconds = (System.nanoTime() - progress.startedAtNanos) / 1_000_000_000.0;
+            int done = status.getProcessed() - progress.processedAtStart;
+            if (seconds > 0 && done > 0) {
+                double rate = done / seconds;
+                status.setDocsPerSecond(Math.round(rate * 10) / 10.0);
+                status.setEtaSeconds(Math.round(Math.max(0, job.getTotalCount() - status.getProcessed()) / rate));
+            }
+        }
+        return status;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    private static void deleteStagingDir(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Could not delete staged file {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Could not clean up staging directory {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -1,75 +1,83 @@
 package codesAndStandards.springboot.userApp.service;
 
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.BulkUploadFileCheck;
 import codesAndStandards.springboot.userApp.dto.BulkUploadValidationResult;
-import codesAndStandards.springboot.userApp.dto.BulkUploadResult;
 import codesAndStandards.springboot.userApp.dto.DocumentMetadata;
-import codesAndStandards.springboot.userApp.dto.ExtractedMultipartFile;
-import codesAndStandards.springboot.userApp.entity.Document;
-import codesAndStandards.springboot.userApp.entity.Tag;
-import codesAndStandards.springboot.userApp.entity.Classification;
-import codesAndStandards.springboot.userApp.entity.User;
-import codesAndStandards.springboot.userApp.repository.DocumentRepository;
-import codesAndStandards.springboot.userApp.repository.TagRepository;
-import codesAndStandards.springboot.userApp.repository.ClassificationRepository;
-import codesAndStandards.springboot.userApp.repository.UserRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.apache.poi.ss.usermodel.DataValidation;
-import org.apache.poi.ss.usermodel.DataValidationConstraint;
-import org.apache.poi.ss.usermodel.DataValidationHelper;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.ss.util.CellRangeAddressList;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 @Service
 public class BulkUploadService {
 
     private static final Logger logger = LoggerFactory.getLogger(BulkUploadService.class);
 
+    // ====== CHANGE 2 + 4: Inject ApplicationSettingsService to read maxTagsPerDocument ======
     @Autowired
-    private DocumentRepository documentRepository;
+    private BackgroundThreads backgroundThreads;
 
     @Autowired
-    private TagRepository tagRepository;
+    private ApplicationSettingsService settingsService;
 
     @Autowired
-    private UserRepository userRepository;
+    private BulkMetadataSheetReader metadataSheetReader;
 
     @Autowired
-    private ClassificationRepository classificationRepository;
+    private BulkUploadTemplateService templateService;
 
-    // ====== CHANGE 2 + 4: Inject ApplicationSettingsService to read maxTagsPerDocument ======
     @Autowired
-    private ApplicationSettingsService settingsService;
+    private DocumentFileIndexService documentFileIndexService;
 
     @Value("${file.network-base-path:}")
     private String networkBasePath;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Value("${bulk-upload.zip.max-entries:10000}")
+    private long zipMaxEntries;
+
+    @Value("${bulk-upload.zip.max-total-bytes:10737418240}")
+    private long zipMaxTotalBytes;
+
+    @Value("${bulk-upload.zip.max-compression-ratio:100}")
+    private long zipMaxCompressionRatio;
 
+    @Value("${bulk-upload.validation.threads:8}")
+    private int probeThreads;
+
+    // Page-count probes for validation and template generation
+    private ExecutorService probePool;
+
+    @PostConstruct
+    public void init() {
+        probePool = backgroundThreads.newFixedPool("bulk-probe-", probeThreads, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (probePool != null) {
+            probePool.shutdownNow();
+        }
+    }
 
     /* =====================================================
        =============== VALIDATION HELPERS ==================
@@ -77,7 +85,7 @@ public class BulkUploadService {
 
     private String normalizeFilename(String name) {
         if (name == null) return null;
-        return new File(name).getName().trim().toLowerCase();
+        return BulkUploadFileIndex.normalize(name);
     }
 
     private boolean isEmpty(String s) {
@@ -90,6 +98,7 @@ public class BulkUploadService {
     private boolean validateSingleDocument(
             DocumentMetadata metadata,
             Set<String> pdfFilenames,
+            Map<String, Integer> pageCounts,
             BulkUploadValidationResult result,
             Set<String> invalidDocuments
     ) {
@@ -128,6 +137,20 @@ public class BulkUploadService {
                     "Document '" + filename + "' has invalid or missing page count");
         }
 
+        // Checks against the file itself, when it was read (see probePageCounts)
+        if (pageCounts != null && pdfFilenames.contains(filename)) {
+            Integer actualPages = pageCounts.get(filename);
+            if (actualPages == null) {
+                result.addWarning("Unreadable PDF",
+                        "Document '" + filename + "' could not be read as a PDF - page count cannot be verified");
+            } else if (metadata.getNoOfPages() != null && metadata.getNoOfPages() > 0
+                    && !metadata.getNoOfPages().equals(actualPages)) {
+                result.addWarning("Page Count Mismatch",
+                        "Document '" + filename + "' has " + metadata.getNoOfPages()
+                                + " page(s) in metadata but the PDF has " + actualPages);
+            }
+        }
+
         if (hasError) {
             invalidDocuments.add(filename);
         }
@@ -142,9 +165,12 @@ public class BulkUploadService {
      * CHANGE 4: Tags column header includes max-tags info from settings.
      */
     public ByteArrayOutputStream generateExcelTemplate(MultipartFile[] pdfFiles) throws Exception {
-        // Extract PDF filenames
-        Set<String> pdfFilenames = extractPdfFilenames(pdfFiles);
+        try (BulkUploadFileIndex fileIndex = openFileIndex(pdfFiles)) {
+            return buildExcelTemplate(fileIndex);
+        }
+    }
 
+    private ByteArrayOutputStream buildExcelTemplate(BulkUploadFileIndex fileIndex) throws Exception {
         // ====== CHANGE 4: Read maxTagsPerDocument from settings ======
         int maxTagsPerDoc = 10; // safe default
         try {
@@ -155,274 +181,14 @@ public class BulkUploadService {
         } catch (Exception e) {
             logger.warn("Could not read maxTagsPerDocument from settings, using default=10: {}", e.getMessage());
         }
-        final int maxTagsForTemplate = maxTagsPerDoc;
-
-        // Create Excel workbook
-        Workbook workbook = new XSSFWorkbook();
-
-        // ============= SHEET 1: DOCUMENT METADATA =============
-        Sheet sheet = workbook.createSheet("Documents");
-
-        // ====== Header styles ======
-        CellStyle headerStyleRequired = workbook.createCellStyle();
-        Font headerFontRequired = workbook.createFont();
-        headerFontRequired.setBold(true);
-        headerFontRequired.setFontHeightInPoints((short) 12);
-        headerFontRequired.setColor(IndexedColors.WHITE.getIndex());
-        headerStyleRequired.setFont(headerFontRequired);
-        headerStyleRequired.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
-        headerStyleRequired.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyleRequired.setBorderBottom(BorderStyle.THIN);
-        headerStyleRequired.setBorderTop(BorderStyle.THIN);
-        headerStyleRequired.setBorderLeft(BorderStyle.THIN);
-        headerStyleRequired.setBorderRight(BorderStyle.THIN);
-        headerStyleRequired.setAlignment(HorizontalAlignment.CENTER);
-        headerStyleRequired.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        // Optional header style — slightly different background so user can visually distinguish
-        CellStyle headerStyleOptional = workbook.createCellStyle();
-        Font headerFontOptional = workbook.createFont();
-        headerFontOptional.setBold(true);
-        headerFontOptional.setFontHeightInPoints((short) 11);
-        headerFontOptional.setColor(IndexedColors.WHITE.getIndex());
-        headerStyleOptional.setFont(headerFontOptional);
-        headerStyleOptional.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex()); // darker grey for optional
-        headerStyleOptional.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyleOptional.setBorderBottom(BorderStyle.THIN);
-        headerStyleOptional.setBorderTop(BorderStyle.THIN);
-        headerStyleOptional.setBorderLeft(BorderStyle.THIN);
-        headerStyleOptional.setBorderRight(BorderStyle.THIN);
-        headerStyleOptional.setAlignment(HorizontalAlignment.CENTER);
-        headerStyleOptional.setVerticalAlignment(VerticalAlignment.CENTER);
-
-        // ====== CHANGE 2: Headers with * on mandatory fields ======
-        // CHANGE 4: Tags column includes max-tags info
-        String tagsHeader = "Tags (comma-separated, max " + maxTagsForTemplate + ")";
-
-        // Column index → [header text, isRequired]
-        Object[][] columnDefs = {
-                {"Filename *",            true},   // 0 — REQUIRED
-                {"Title *",               true},   // 1 — REQUIRED
-                {"Product Code *",        true},   // 2 — REQUIRED
-                {"Edition",               false},  // 3 — optional
-                {"Publish Month",         false},  // 4 — optional
-                {"Publish Year *",        true},   // 5 — REQUIRED
-                {"No of Pages",           false},  // 6 — optional
-                {"Notes",                 false},  // 7 — optional
-                {tagsHeader,              false},  // 8 — optional
-                {"Classifications (comma-separated)", false} // 9 — optional
-        };
-
-        Row headerRow = sheet.createRow(0);
-        headerRow.setHeightInPoints(22); // slightly taller for readability
-
-        for (int i = 0; i < columnDefs.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue((String) columnDefs[i][0]);
-            boolean required = (Boolean) columnDefs[i][1];
-            cell.setCellStyle(required ? headerStyleRequired : headerStyleOptional);
-
-            // Column widths
-            if (i == 0 || i == 1) {
-                sheet.setColumnWidth(i, 45 * 256);
-            } else if (i == 7 || i == 8 || i == 9) {
-                sheet.setColumnWidth(i, 38 * 256);
-            } else {
-                sheet.setColumnWidth(i, 22 * 256);
-            }
-        }
 
-        // ====== CHANGE 2: Add a legend row below the header explaining * = required ======
-        Row legendRow = sheet.createRow(1);
-        CellStyle legendStyle = workbook.createCellStyle();
-        Font legendFont = workbook.createFont();
-        legendFont.setItalic(true);
-        legendFont.setColor(IndexedColors.DARK_RED.getIndex());
-        legendFont.setFontHeightInPoints((short) 10);
-        legendStyle.setFont(legendFont);
-        legendStyle.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
-        legendStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        Cell legendCell = legendRow.createCell(0);
-        legendCell.setCellValue("* = Required field   |   Dark blue = Required   |   Grey = Optional   |   Tags must be comma-separated (e.g. tag1,tag2,tag3)   |   Max " + maxTagsForTemplate + " tags per document");
-        legendCell.setCellStyle(legendStyle);
-        sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, columnDefs.length - 1));
-
-        // CHANGE 3 / CHANGE 4: Add example row at row index 2 (after legend)
-        Row exampleRow = sheet.createRow(2);
-        CellStyle exampleStyle = workbook.createCellStyle();
-        Font exampleFont = workbook.createFont();
-        exampleFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        exampleFont.setItalic(true);
-        exampleStyle.setFont(exampleFont);
-
-        String[] exampleData = {
-                "document1.pdf",                   // Filename *
-                "Product Manual v2.1",             // Title *
-                "PM-001",                          // Product Code *
-                "2.1",                             // Edition
-                "06",                              // Publish Month
-                "2024",                            // Publish Year *
-                "150",                             // No of Pages
-                "Updated version",                 // Notes
-                "manual,technical,v2",             // Tags — comma-separated example (CHANGE 3 note)
-                "Engineering,Safety"               // Classifications — comma-separated example
-        };
-        for (int i = 0; i < exampleData.length; i++) {
-            Cell cell = exampleRow.createCell(i);
-            cell.setCellValue(exampleData[i]);
-            cell.setCellStyle(exampleStyle);
-        }
-
-        // ====== Dropdown for Publish Month column (column 4), starting from data row 3 ======
-        DataValidationHelper validationHelper = sheet.getDataValidationHelper();
-        DataValidationConstraint monthConstraint = validationHelper.createExplicitListConstraint(
-                new String[]{
-                        "01 (Jan)", "02 (Feb)", "03 (Mar)", "04 (Apr)",
-                        "05 (May)", "06 (Jun)", "07 (Jul)", "08 (Aug)",
-                        "09 (Sep)", "10 (Oct)", "11 (Nov)", "12 (Dec)"
-                }
-        );
-        // Apply dropdown from row 3 (index) onward (rows 0=header, 1=legend, 2=example, 3+=data)
-        CellRangeAddressList monthRange = new CellRangeAddressList(3, 1003, 4, 4);
-        DataValidation monthValidation = validationHelper.createValidation(monthConstraint, monthRange);
-        monthValidation.setShowErrorBox(true);
-        sheet.addValidationData(monthValidation);
-
-        // ====== Create data rows from row index 3 ======
-        int rowNum = 3;
-        List<String> sortedFilenames = new ArrayList<>(pdfFilenames);
+        List<String> sortedFilenames = new ArrayList<>(fileIndex.getFilenames());
         Collections.sort(sortedFilenames);
 
-        Map<String, MultipartFile> fileMap = createFileMap(pdfFiles);
-
-        for (String filename : sortedFilenames) {
-            Row row = sheet.createRow(rowNum++);
-
-            // Column 0: Filename (pre-filled)
-            row.createCell(0).setCellValue(filename);
-
-            // Columns 1-5: Empty (Title, Product Code, Edition, Publish Month, Publish Year)
-            for (int i = 1; i <= 5; i++) {
-                row.createCell(i).setCellValue("");
-            }
-
-            // Column 6: Auto-detect page count
-            Cell pageCell = row.createCell(6);
-            try {
-                MultipartFile file = fileMap.get(filename);
-                if (file != null) {
-                    Integer pageCount = detectPageCount(file);
-                    if (pageCount != null && pageCount > 0) {
-                        pageCell.setCellValue(pageCount);
-                    } else {
-                        pageCell.setCellValue("");
-                    }
-                } else {
-                    pageCell.setCellValue("");
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to detect page count for {}: {}", filename, e.getMessage());
-                pageCell.setCellValue("");
-            }
-
-            // Columns 7-9: Empty (Notes, Tags, Classifications)
-            for (int i = 7; i <= 9; i++) {
-                row.createCell(i).setCellValue("");
-            }
-        }
-
-        // ============= SHEET 2: REFERENCE DATA =============
-        Sheet referenceSheet = workbook.createSheet("Reference Data");
-
-        Row refHeaderRow = referenceSheet.createRow(0);
-        Cell tagsHeaderCell = refHeaderRow.createCell(0);
-        tagsHeaderCell.setCellValue("Available Tags (max " + maxTagsForTemplate + " per document)");
-        tagsHeaderCell.setCellStyle(headerStyleRequired);
-
-        Cell classHeaderCell = refHeaderRow.createCell(2);
-        classHeaderCell.setCellValue("Available Classifications");
-        classHeaderCell.setCellStyle(headerStyleOptional);
-
-        referenceSheet.setColumnWidth(0, 35 * 256);
-        referenceSheet.setColumnWidth(2, 35 * 256);
+        // Auto-detect page counts, all files at once
+        Map<String, Integer> pageCounts = probePageCounts(fileIndex, sortedFilenames, check -> { });
 
-        List<String> existingTags = tagRepository.findAll().stream()
-                .map(Tag::getTagName)
-                .filter(name -> name != null && !name.isEmpty())
-                .sorted()
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<String> existingClassifications = classificationRepository.findAll().stream()
-                .map(Classification::getClassificationName)
-                .filter(name -> name != null && !name.isEmpty())
-                .sorted()
-                .distinct()
-                .collect(Collectors.toList());
-
-        // Add tags to column A
-        int tagRowNum = 1;
-        for (String tag : existingTags) {
-            Row row = referenceSheet.getRow(tagRowNum);
-            if (row == null) row = referenceSheet.createRow(tagRowNum);
-            row.createCell(0).setCellValue(tag);
-            tagRowNum++;
-        }
-
-        // Add classifications to column C
-        int classRowNum = 1;
-        for (String classification : existingClassifications) {
-            Row row = referenceSheet.getRow(classRowNum);
-            if (row == null) row = referenceSheet.createRow(classRowNum);
-            row.createCell(2).setCellValue(classification);
-            classRowNum++;
-        }
-
-        // Note at bottom of reference sheet
-        int noteRowNum = Math.max(tagRowNum, classRowNum) + 2;
-        Row noteRow = referenceSheet.createRow(noteRowNum);
-        Cell noteCell = noteRow.createCell(0);
-        noteCell.setCellValue("Note: Tags and Classifications in the Documents sheet must be comma-separated (e.g. tag1,tag2,tag3). " +
-                "Max " + maxTagsForTemplate + " tags per document. New entries will be created automatically during upload.");
-
-        CellStyle noteStyle = workbook.createCellStyle();
-        Font noteFont = workbook.createFont();
-        noteFont.setItalic(true);
-        noteFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
-        noteStyle.setFont(noteFont);
-        noteCell.setCellStyle(noteStyle);
-        referenceSheet.addMergedRegion(new CellRangeAddress(noteRowNum, noteRowNum, 0, 2));
-
-        // ====== CHANGE 4: Add separate "Tag Policies" sheet ======
-        Sheet policiesSheet = workbook.createSheet("Tag Policies");
-        Row policiesHeader = policiesSheet.createRow(0);
-        Cell phCell = policiesHeader.createCell(0);
-        phCell.setCellValue("Tag & Upload Policies");
-        phCell.setCellStyle(headerStyleRequired);
-        policiesSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 1));
-        policiesSheet.setColumnWidth(0, 40 * 256);
-        policiesSheet.setColumnWidth(1, 20 * 256);
-
-        String[][] policies = {
-                {"Max Tags Per Document", String.valueOf(maxTagsForTemplate)},
-                {"Tags Format", "Comma-separated (e.g. tag1,tag2,tag3)"},
-                {"Tags Case", "Lowercase only — tags are auto-converted to lowercase"},
-                {"Classifications Format", "Comma-separated (e.g. Class1,Class2)"},
-                {"Required Fields", "Filename, Title, Product Code, Publish Year"}
-        };
-        int pRow = 1;
-        for (String[] pair : policies) {
-            Row r = policiesSheet.createRow(pRow++);
-            r.createCell(0).setCellValue(pair[0]);
-            r.createCell(1).setCellValue(pair[1]);
-        }
-
-        // Write workbook to ByteArrayOutputStream
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-
-        return outputStream;
+        return templateService.generate(sortedFilenames, maxTagsPerDoc, pageCounts::get);
     }
 
 
@@ -434,23 +200,43 @@ public class BulkUploadService {
             MultipartFile[] pdfFiles,
             MultipartFile excelFile,
             String selfValidationJson) throws Exception {
+        return validateBulkUpload(pdfFiles, excelFile, selfValidationJson, check -> { });
+    }
 
-        BulkUploadValidationResult result = new BulkUploadValidationResult();
+    /**
+     * Validate the metadata and read every referenced PDF (concurrently), passing each file's
+     * outcome to onChecked as soon as it is known.
+     */
+    public BulkUploadValidationResult validateBulkUpload(
+            MultipartFile[] pdfFiles,
+            MultipartFile excelFile,
+            String selfValidationJson,
+            Consumer<BulkUploadFileCheck> onChecked) throws Exception {
 
-        List<DocumentMetadata> metadataList =
-                (selfValidationJson != null && !selfValidationJson.isEmpty())
-                        ? parseJsonToMetadataList(selfValidationJson)
-                        : parseExcelFile(excelFile);
+        List<DocumentMetadata> metadataList = parseMetadata(excelFile, selfValidationJson);
 
-        Set<String> pdfFilenames = extractPdfFilenames(pdfFiles)
-                .stream()
-                .map(this::normalizeFilename)
-                .collect(Collectors.toSet());
+        try (BulkUploadFileIndex fileIndex = openFileIndex(pdfFiles)) {
+            Set<String> referenced = new LinkedHashSet<>();
+            for (DocumentMetadata metadata : metadataList) {
+                String filename = normalizeFilename(metadata.getFilename());
+                if (filename != null && fileIndex.get(filename) != null) {
+                    referenced.add(filename);
+                }
+            }
+            Map<String, Integer> pageCounts = probePageCounts(fileIndex, referenced, onChecked);
+            return validateBulkUpload(metadataList, fileIndex.getFilenames(), pageCounts);
+        }
+    }
+
+    private BulkUploadValidationResult validateBulkUpload(List<DocumentMetadata> metadataList,
+                                                          Set<String> pdfFilenames,
+                                                          Map<String, Integer> pageCounts) {
+        BulkUploadValidationResult result = new BulkUploadValidationResult();
 
         Set<String> invalidDocuments = new HashSet<>();
 
         for (DocumentMetadata metadata : metadataList) {
-            validateSingleDocument(metadata, pdfFilenames, result, invalidDocuments);
+            validateSingleDocument(metadata, pdfFilenames, pageCounts, result, invalidDocuments);
         }
 
         Set<String> metadataFilenames = metadataList.stream()
@@ -482,53 +268,43 @@ public class BulkUploadService {
     }
 
     /**
-     * Process bulk upload
+     * Parse the metadata for an upload: the edited rows from the wizard when present,
+     * otherwise the Excel sheet.
      */
-    @Transactional
-    public BulkUploadResult processBulkUpload(
-            MultipartFile[] pdfFiles,
-            MultipartFile excelFile,
-            String selfValidationJson,
-            boolean uploadOnlyValid) throws Exception {
-
-        BulkUploadResult result = new BulkUploadResult();
-
-        List<DocumentMetadata> metadataList =
-                (selfValidationJson != null && !selfValidationJson.isEmpty())
-                        ? parseJsonToMetadataList(selfValidationJson)
-                        : parseExcelFile(excelFile);
-
-        if (uploadOnlyValid) {
-            BulkUploadValidationResult validation =
-                    validateBulkUpload(pdfFiles, excelFile, selfValidationJson);
-
-            Set<String> invalidFiles = validation.getErrors().stream()
-                    .map(Object::toString)
-                    .filter(s -> s.contains("'"))
-                    .map(s -> s.substring(s.indexOf("'") + 1, s.lastIndexOf("'")))
-                    .map(this::normalizeFilename)
-                    .collect(Collectors.toSet());
+    public List<DocumentMetadata> parseMetadata(MultipartFile excelFile, String selfValidationJson) throws Exception {
+        return (selfValidationJson != null && !selfValidationJson.isEmpty())
+                ? parseJsonToMetadataList(selfValidationJson)
+                : parseExcelFile(excelFile);
+    }
 
-            metadataList = metadataList.stream()
-                    .filter(m -> !invalidFiles.contains(normalizeFilename(m.getFilename())))
-                    .collect(Collectors.toList());
+    /**
+     * Rows to upload - all of them, or with uploadOnlyValid only those that pass validation.
+     */
+    public List<DocumentMetadata> selectForUpload(List<DocumentMetadata> metadataList,
+                                                  Set<String> pdfFilenames,
+                                                  boolean uploadOnlyValid) {
+        if (!uploadOnlyValid) {
+            return metadataList;
         }
+        BulkUploadValidationResult validation = validateBulkUpload(metadataList, pdfFilenames, null);
 
-        Map<String, MultipartFile> fileMap = createFileMap(pdfFiles);
+        Set<String> invalidFiles = validation.getErrors().stream()
+                .map(Object::toString)
+                .filter(s -> s.contains("'"))
+                .map(s -> s.substring(s.indexOf("'") + 1, s.lastIndexOf("'")))
+                .map(this::normalizeFilename)
+                .collect(Collectors.toSet());
 
-        for (DocumentMetadata metadata : metadataList) {
-            String filename = normalizeFilename(metadata.getFilename());
-            MultipartFile pdfFile = fileMap.get(filename);
-
-            if (pdfFile != null) {
-                uploadDocument(pdfFile, metadata);
-                result.addSuccess(filename, metadata.getTitle());
-            } else {
-                result.addFailure(filename, "PDF file not found");
-            }
-        }
+        return metadataList.stream()
+                .filter(m -> !invalidFiles.contains(normalizeFilename(m.getFilename())))
+                .collect(Collectors.toList());
+    }
 
-        return result;
+    /**
+     * Index a bulk upload job's staging directory, with the same ZIP limits as a direct upload.
+     */
+    public BulkUploadFileIndex openStagedFileIndex(Path stagingDir) throws IOException {
+        return BulkUploadFileIndex.openStaged(stagingDir, zipMaxEntries, zipMaxTotalBytes, zipMaxCompressionRatio);
     }
 
     /**
@@ -653,81 +429,30 @@ public class BulkUploadService {
     /**
      * Parse Excel file and extract metadata.
      * CHANGE 3: Tags and classifications are properly split by comma then trimmed.
+     *
+     * The sheet is streamed row by row (BulkMetadataSheetReader), so memory stays flat for large
+     * sheets; the upload is spooled to a temp file first because the event model needs random access.
      */
     private List<DocumentMetadata> parseExcelFile(MultipartFile excelFile) throws Exception {
         List<DocumentMetadata> metadataList = new ArrayList<>();
 
-        try (InputStream is = excelFile.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-
-            // Skip header row (row 0), legend row (row 1), and example row (row 2) — data starts at row 3
-            // Also support old templates that only have a single header row (row 0 = header, row 1 = data)
-            int startRow = detectDataStartRow(sheet);
-            logger.info("Excel data starts at row index: {}", startRow);
-
-            for (int i = startRow; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                DocumentMetadata metadata = new DocumentMetadata();
-
-                metadata.setFilename(getCellValueAsString(row.getCell(0)));
-                metadata.setTitle(getCellValueAsString(row.getCell(1)));
-                metadata.setProductCode(getCellValueAsString(row.getCell(2)));
-                metadata.setEdition(getCellValueAsString(row.getCell(3)));
-
-                // Parse month from dropdown (handle multiple formats)
-                String publishMonth = getCellValueAsString(row.getCell(4));
-                if (publishMonth != null && !publishMonth.trim().isEmpty()) {
-                    publishMonth = publishMonth.trim();
-                    if (publishMonth.contains("(")) {
-                        publishMonth = publishMonth.substring(0, publishMonth.indexOf("(")).trim();
-                    }
-                    if (publishMonth.length() == 1) {
-                        publishMonth = "0" + publishMonth;
-                    }
-                    logger.debug("Parsed publish month: '{}'", publishMonth);
-                }
-                metadata.setPublishMonth(publishMonth);
-
-                metadata.setPublishYear(getCellValueAsString(row.getCell(5)));
-                metadata.setNoOfPages(getCellValueAsInteger(row.getCell(6)));
-                metadata.setNotes(getCellValueAsString(row.getCell(7)));
-
-                // ====== CHANGE 3: Parse tags — split by comma, trim each part, then normalize ======
-                String tagsValue = getCellValueAsString(row.getCell(8));
-                if (tagsValue != null && !tagsValue.isEmpty()) {
-                    String normalizedTags = Arrays.stream(tagsValue.split(","))
-                            .map(String::trim)           // trim whitespace BEFORE normalizing
-                            .filter(tag -> !tag.isEmpty())
-                            .map(this::normalizeTag)     // then normalize (lowercase, collapse spaces)
-                            .collect(Collectors.joining(","));
-                    metadata.setTags(normalizedTags);
-                } else {
-                    metadata.setTags("");
-                }
-
-                // ====== CHANGE 3: Parse classifications — split by comma, trim each part ======
-                String classValue = getCellValueAsString(row.getCell(9));
-                if (classValue != null && !classValue.isEmpty()) {
-                    String normalizedClass = Arrays.stream(classValue.split(","))
-                            .map(String::trim)
-                            .filter(c -> !c.isEmpty())
-                            .collect(Collectors.joining(","));
-                    metadata.setClassifications(normalizedClass);
-                } else {
-                    metadata.setClassifications(getCellValueAsString(row.getCell(9)));
-                }
+        Path spooled = Files.createTempFile("bulk-metadata-", ".xlsx");
+        try {
+            try (InputStream is = excelFile.getInputStream()) {
+                Files.copy(is, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
 
+            metadataSheetReader.read(spooled, cells -> {
+                DocumentMetadata metadata = toMetadata(cells);
                 // Only add if filename is present
                 if (metadata.getFilename() != null && !metadata.getFilename().isEmpty()) {
                     metadataList.add(metadata);
                     logger.debug("Parsed metadata: filename={}, publishMonth={}, tags={}",
                             metadata.getFilename(), metadata.getPublishMonth(), metadata.getTags());
                 }
-            }
+            });
+        } finally {
+            Files.deleteIfExists(spooled);
         }
 
         logger.info("Parsed {} documents from Excel", metadataList.size());
@@ -735,25 +460,60 @@ public class BulkUploadService {
     }
 
     /**
-     * Detect which row data actually starts at.
-     * New templates have legend row (row 1) and example row (row 2) → data starts at row 3.
-     * Old templates have no legend → data starts at row 1.
+     * Map one sheet row (formatted cell values in template column order) to metadata.
      */
-    private int detectDataStartRow(Sheet sheet) {
-        // Check if row 1 looks like a legend (non-empty string starting with "*")
-        Row row1 = sheet.getRow(1);
-        if (row1 != null) {
-            Cell cell = row1.getCell(0);
-            if (cell != null && cell.getCellType() == CellType.STRING) {
-                String val = cell.getStringCellValue();
-                if (val != null && (val.startsWith("*") || val.contains("= Required"))) {
-                    // New template with legend and example rows
-                    return 3;
-                }
+    private DocumentMetadata toMetadata(String[] cells) {
+        DocumentMetadata metadata = new DocumentMetadata();
+
+        metadata.setFilename(cells[0]);
+        metadata.setTitle(cells[1]);
+        metadata.setProductCode(cells[2]);
+        metadata.setEdition(cells[3]);
+
+        // Parse month from dropdown (handle multiple formats)
+        String publishMonth = cells[4];
+        if (publishMonth != null && !publishMonth.trim().isEmpty()) {
+            publishMonth = publishMonth.trim();
+            if (publishMonth.contains("(")) {
+                publishMonth = publishMonth.substring(0, publishMonth.indexOf("(")).trim();
             }
-        }
-        // Old template or unknown — skip only header
-        return 1;
+            if (publishMonth.length() == 1) {
+                publishMonth = "0" + publishMonth;
+            }
+            logger.debug("Parsed publish month: '{}'", publishMonth);
+        }
+        metadata.setPublishMonth(publishMonth);
+
+        metadata.setPublishYear(cells[5]);
+        metadata.setNoOfPages(parseInteger(cells[6]));
+        metadata.setNotes(cells[7]);
+
+        // ====== CHANGE 3: Parse tags — split by comma, trim each part, then normalize ======
+        String tagsValue = cells[8];
+        if (tagsValue != null && !tagsValue.isEmpty()) {
+            String normalizedTags = Arrays.stream(tagsValue.split(","))
+                    .map(String::trim)           // trim whitespace BEFORE normalizing
+                    .filter(tag -> !tag.isEmpty())
+                    .map(this::normalizeTag)     // then normalize (lowercase, collapse spaces)
+                    .collect(Collectors.joining(","));
+            metadata.setTags(normalizedTags);
+        } else {
+            metadata.setTags("");
+        }
+
+        // ====== CHANGE 3: Parse classifications — split by comma, trim each part ======
+        String classValue = cells[9];
+        if (classValue != null && !classValue.isEmpty()) {
+            String normalizedClass = Arrays.stream(classValue.split(","))
+                    .map(String::trim)
+                    .filter(c -> !c.isEmpty())
+                    .collect(Collectors.joining(","));
+            metadata.setClassifications(normalizedClass);
+        } else {
+            metadata.setClassifications(classValue);
+        }
+
+        return metadata;
     }
 
     /**
@@ -767,76 +527,11 @@ public class BulkUploadService {
     }
 
     /**
-     * Extract PDF filenames from uploaded files (including ZIP extraction).
-     * Handles folder uploads where originalFilename includes path.
-     */
-    private Set<String> extractPdfFilenames(MultipartFile[] files) throws IOException {
-        Set<String> filenames = new HashSet<>();
-
-        for (MultipartFile file : files) {
-            String originalFilename = file.getOriginalFilename();
-
-            if (originalFilename != null && originalFilename.toLowerCase().endsWith(".zip")) {
-                try (ZipInputStream zis = new ZipInputStream(file.getInputStream())) {
-                    ZipEntry entry;
-                    while ((entry = zis.getNextEntry()) != null) {
-                        if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".pdf")) {
-                            String filename = normalizeFilename(entry.getName());
-                            filenames.add(filename);
-                            logger.debug("Extracted from ZIP: {}", filename);
-                        }
-                        zis.closeEntry();
-                    }
-                }
-            } else if (originalFilename != null && originalFilename.toLowerCase().endsWith(".pdf")) {
-                String justFilename = normalizeFilename(originalFilename);
-                filenames.add(justFilename.trim().toLowerCase());
-                logger.debug("Extracted filename: {} (from: {})", justFilename, originalFilename);
-            }
-        }
-
-        logger.info("Extracted {} unique PDF filenames", filenames.size());
-        return filenames;
-    }
-
-    /**
-     * Create map of filename to MultipartFile (handles ZIP extraction).
+     * Index uploaded PDFs and ZIP archives by normalized filename.
+     * ZIP entries are read from the archive's central directory and only inflated when opened.
      */
-    private Map<String, MultipartFile> createFileMap(MultipartFile[] files) throws IOException {
-        Map<String, MultipartFile> fileMap = new HashMap<>();
-
-        for (MultipartFile file : files) {
-            String originalFilename = file.getOriginalFilename();
-
-            if (originalFilename != null && originalFilename.toLowerCase().endsWith(".zip")) {
-                extractZipFiles(file, fileMap);
-            } else if (originalFilename != null && originalFilename.toLowerCase().endsWith(".pdf")) {
-                String justFilename = normalizeFilename(originalFilename);
-                fileMap.put(justFilename, file);
-                logger.debug("Added to fileMap: {} -> {}", justFilename, originalFilename);
-            }
-        }
-
-        logger.info("Created file map with {} entries", fileMap.size());
-        return fileMap;
-    }
-
-    private void extractZipFiles(MultipartFile zipFile, Map<String, MultipartFile> fileMap) throws IOException {
-        Path tempDir = Files.createTempDirectory("bulk-upload-");
-
-        try (ZipInputStream zis = new ZipInputStream(zipFile.getInputStream())) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".pdf")) {
-                    String filename = normalizeFilename(entry.getName());
-                    Path tempFile = tempDir.resolve(filename);
-                    Files.copy(zis, tempFile, StandardCopyOption.REPLACE_EXISTING);
-                    ExtractedMultipartFile extractedFile = new ExtractedMultipartFile(tempFile.toFile(), filename);
-                    fileMap.put(filename, extractedFile);
-                }
-                zis.closeEntry();
-            }
-        }
+    private BulkUploadFileIndex openFileIndex(MultipartFile[] files) throws IOException {
+        return BulkUploadFileIndex.open(files, zipMaxEntries, zipMaxTotalBytes, zipMaxCompressionRatio);
     }
 
     private void validateMetadata(DocumentMetadata metadata, BulkUploadValidationResult result) {
@@ -854,164 +549,84 @@ public class BulkUploadService {
         }
     }
 
-    @Transactional
-    private void uploadDocument(MultipartFile file, DocumentMetadata metadata) throws Exception {
-        User currentUser = getCurrentUser();
-        if (currentUser == null) {
-            throw new Exception("User not authenticated");
+    /**
+     * Page count of each named file, read on the probe pool. Results are passed to onChecked on
+     * the calling thread in completion order; unreadable files map to null.
+     */
+    private Map<String, Integer> probePageCounts(BulkUploadFileIndex fileIndex,
+                                                 Collection<String> filenames,
+                                                 Consumer<BulkUploadFileCheck> onChecked) throws InterruptedException {
+        Map<String, Integer> pageCounts = new HashMap<>();
+        if (filenames.isEmpty()) {
+            return pageCounts;
         }
 
-        String username = currentUser.getUsername();
-        Path userUploadPath = Paths.get(uploadDir, username);
-        if (!Files.exists(userUploadPath)) {
-            Files.createDirectories(userUploadPath);
+        long start = System.currentTimeMillis();
+        CompletionService<BulkUploadFileCheck> completion = new ExecutorCompletionService<>(probePool);
+        int total = filenames.size();
+        for (String filename : filenames) {
+            InputStreamSource source = fileIndex.get(filename);
+            completion.submit(() -> new BulkUploadFileCheck(filename, detectPageCount(filename, source), 0, total));
         }
 
-        String originalFileName = new File(file.getOriginalFilename()).getName();
-        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-        Path filePath = Paths.get(uploadDir, uniqueFileName);
-        Files.createDirectories(filePath.getParent());
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        String networkPath = filePath.toString();
-
-        Integer pageCount = metadata.getNoOfPages();
-        if (pageCount == null || pageCount == 0) {
+        for (int checked = 1; checked <= total; checked++) {
             try {
-                pageCount = detectPageCount(file);
-                logger.info("Auto-detected page count for {}: {}", file.getOriginalFilename(), pageCount);
-            } catch (Exception e) {
-                logger.warn("Failed to auto-detect page count for {}: {}", file.getOriginalFilename(), e.getMessage());
-                pageCount = null;
+                BulkUploadFileCheck check = completion.take().get();
+                check.setChecked(checked);
+                pageCounts.put(check.getFilename(), check.getPageCount());
+                onChecked.accept(check);
+            } catch (ExecutionException e) {
+                // detectPageCount handles its own errors, so this is an unexpected failure in the probe task;
+                // onChecked runs here on the calling thread and its exceptions propagate normally
+                logger.warn("Page count probe failed: {}", e.getCause().getMessage());
             }
         }
 
-        Document document = new Document();
-        document.setTitle(metadata.getTitle());
-        document.setProductCode(metadata.getProductCode());
-        document.setEdition(metadata.getEdition());
-        document.setNoOfPages(pageCount);
-        document.setNotes(metadata.getNotes());
-        document.setFilePath(networkPath);
-        document.setUploadedAt(LocalDateTime.now());
-        document.setUploadedBy(currentUser);
-
-        if (metadata.getPublishYear() != null && !metadata.getPublishYear().isEmpty()) {
-            String year = metadata.getPublishYear();
-            String month = metadata.getPublishMonth();
-            if (month != null && !month.isEmpty()) {
-                document.setPublishDate(year + "-" + month);
-            } else {
-                document.setPublishDate(year);
-            }
-        }
+        logger.info("Read page counts of {} PDF file(s) in {} ms", total, System.currentTimeMillis() - start);
+        return pageCounts;
+    }
 
-        document = documentRepository.save(document);
-
-        if (metadata.getTags() != null && !metadata.getTags().isEmpty()) {
-            Set<Tag> tags = new HashSet<>();
-            for (String tagStr : metadata.getTags().split(",")) {
-                String tagName = tagStr.trim().toLowerCase();
-                if (tagName.isEmpty()) continue;
-                Tag tag = tagRepository.findByTagName(tagName)
-                        .orElseGet(() -> {
-                            Tag newTag = new Tag();
-                            newTag.setTagName(tagName);
-                            newTag.setCreatedBy(currentUser);
-                            newTag.setCreatedAt(LocalDateTime.now());
-                            return tagRepository.save(newTag);
-                        });
-                tags.add(tag);
-            }
-            document.setTags(tags);
-            logger.info("Added {} tags to document: {}", tags.size(), file.getOriginalFilename());
+    /**
+     * The probe needs random access, so the file is spooled to a temp copy. Always copied from the
+     * stream: MultipartFile.transferTo would move the container's temp file and leave the upload
+     * unreadable for the rest of the request.
+     */
+    private Integer detectPageCount(String filename, InputStreamSource file) {
+        if (file == null) {
+            return null;
         }
-
-        if (metadata.getClassifications() != null && !metadata.getClassifications().isEmpty()) {
-            Set<Classification> classifications = new HashSet<>();
-            for (String classStr : metadata.getClassifications().split(",")) {
-                String className = classStr.trim();
-                if (className.isEmpty()) continue;
-                Classification classification = classificationRepository.findByClassificationName(className)
-                        .orElseGet(() -> {
-                            Classification newClass = new Classification();
-                            newClass.setClassificationName(className);
-                            newClass.setCreatedBy(currentUser);
-                            newClass.setCreatedAt(LocalDateTime.now());
-                            return classificationRepository.save(newClass);
-                        });
-                classifications.add(classification);
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("bulk-probe-", ".pdf");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
             }
-            document.setClassifications(classifications);
-            logger.info("Added {} classifications to document: {}", classifications.size(), file.getOriginalFilename());
-        }
-
-        documentRepository.save(document);
-        logger.info("Document saved successfully: {}", file.getOriginalFilename());
-    }
-
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) return null;
-        return userRepository.findByUsername(authentication.getName());
-    }
-
-    private Integer detectPageCount(MultipartFile file) throws IOException {
-        try (InputStream inputStream = file.getInputStream();
-             PDDocument document = PDDocument.load(inputStream)) {
-            return document.getNumberOfPages();
+            return documentFileIndexService.countPages(spooled);
         } catch (Exception e) {
-            throw new IOException("Failed to detect page count: " + e.getMessage(), e);
-        }
-    }
-
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return null;
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    double numValue = cell.getNumericCellValue();
-                    if (numValue == Math.floor(numValue)) {
-                        return String.valueOf((int) numValue);
-                    } else {
-                        return String.valueOf(numValue);
-                    }
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
+            logger.warn("Failed to detect page count for {}: {}", filename, e.getMessage());
+            return null;
+        } finally {
+            if (spooled != null) {
                 try {
-                    return cell.getStringCellValue().trim();
-                } catch (Exception e) {
-                    return String.valueOf(cell.getNumericCellValue());
+                    Files.deleteIfExists(spooled);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}: {}", spooled, e.getMessage());
                 }
-            case BLANK:
-                return null;
-            default:
-                return null;
+            }
         }
     }
 
-    private Integer getCellValueAsInteger(Cell cell) {
-        if (cell == null) return null;
+    private Integer parseInteger(String value) {
+        if (value == null || value.isEmpty()) return null;
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return (int) cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                String value = cell.getStringCellValue().trim();
-                if (value.isEmpty()) return null;
-                return Integer.parseInt(value);
-            } else if (cell.getCellType() == CellType.BLANK) {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            try {
+                return (int) Double.parseDouble(value);
+            } catch (NumberFormatException ignored) {
+                logger.warn("Failed to parse integer from cell value '{}'", value);
                 return null;
             }
-        } catch (Exception e) {
-            logger.warn("Failed to parse integer from cell", e);
-            return null;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,361 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.repository.ClassificationRepository;
+import codesAndStandards.springboot.userApp.repository.TagRepository;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds the bulk-upload metadata template.
+ *
+ * Everything that does not depend on the request - styles, headers, legend, example row,
+ * month dropdown and the policies sheet - is built once per max-tags setting and kept as
+ * .xlsx bytes. A request opens those bytes and appends its filename rows and the reference
+ * lists through SXSSFWorkbook, which keeps only a small row window in memory.
+ * Tag and classification names come from a name-only query cached for a short TTL.
+ */
+@Service
+public class BulkUploadTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadTemplateService.class);
+
+    public static final String DOCUMENTS_SHEET = "Documents";
+    public static final String REFERENCE_SHEET = "Reference Data";
+    public static final String POLICIES_SHEET = "Tag Policies";
+
+    // rows 0=header, 1=legend, 2=example, 3+=data
+    private static final int DATA_START_ROW = 3;
+
+    private static final int COLUMN_PAGES = 6;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private ClassificationRepository classificationRepository;
+
+    @Value("${bulk-upload.template.row-window:200}")
+    private int rowWindow;
+
+    @Value("${bulk-upload.template.dictionary-ttl-ms:60000}")
+    private long dictionaryTtlMs;
+
+    private volatile StaticTemplate staticTemplate;
+    private volatile NameLists nameLists;
+
+    /** Prebuilt static workbook for one max-tags value. */
+    private static final class StaticTemplate {
+        final int maxTags;
+        final byte[] bytes;
+        final short noteStyleIndex;
+
+        StaticTemplate(int maxTags, byte[] bytes, short noteStyleIndex) {
+            this.maxTags = maxTags;
+            this.bytes = bytes;
+            this.noteStyleIndex = noteStyleIndex;
+        }
+    }
+
+    private static final class NameLists {
+        final List<String> tags;
+        final List<String> classifications;
+        final long loadedAt;
+
+        NameLists(List<String> tags, List<String> classifications, long loadedAt) {
+            this.tags = tags;
+            this.classifications = classifications;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Generate a template pre-filled with the given filenames (already sorted).
+     *
+     * @param pageCounts page count per filename, or null when unknown
+     */
+    public ByteArrayOutputStream generate(List<String> filenames, int maxTagsPerDoc,
+                                          Function<String, Integer> pageCounts) throws Exception {
+        long startTime = System.currentTimeMillis();
+        StaticTemplate template = staticTemplate(maxTagsPerDoc);
+        NameLists names = nameLists();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(
+                new XSSFWorkbook(new ByteArrayInputStream(template.bytes)), Math.max(1, rowWindow));
+        try {
+            // ====== Data rows from row index 3 ======
+            Sheet sheet = workbook.getSheet(DOCUMENTS_SHEET);
+            int rowNum = DATA_START_ROW;
+            for (String filename : filenames) {
+                Row row = sheet.createRow(rowNum++);
+
+                // Column 0: Filename (pre-filled)
+                row.createCell(0).setCellValue(filename);
+
+                // Column 6: Auto-detected page count
+                Integer pageCount = pageCounts.apply(filename);
+                if (pageCount != null && pageCount > 0) {
+                    row.createCell(COLUMN_PAGES).setCellValue(pageCount);
+                }
+            }
+
+            // ====== Reference lists: tags in column A, classifications in column C ======
+            Sheet referenceSheet = workbook.getSheet(REFERENCE_SHEET);
+            int listRows = Math.max(names.tags.size(), names.classifications.size());
+            for (int i = 0; i < listRows; i++) {
+                Row row = referenceSheet.createRow(i + 1);
+                if (i < names.tags.size()) {
+                    row.createCell(0).setCellValue(names.tags.get(i));
+                }
+                if (i < names.classifications.size()) {
+                    row.createCell(2).setCellValue(names.classifications.get(i));
+                }
+            }
+
+            // Note at bottom of reference sheet
+            int noteRowNum = listRows + 3;
+            Cell noteCell = referenceSheet.createRow(noteRowNum).createCell(0);
+            noteCell.setCellValue("Note: Tags and Classifications in the Documents sheet must be comma-separated (e.g. tag1,tag2,tag3). " +
+                    "Max " + template.maxTags + " tags per document. New entries will be created automatically during upload.");
+            noteCell.setCellStyle(workbook.getCellStyleAt(template.noteStyleIndex));
+            referenceSheet.addMergedRegion(new CellRangeAddress(noteRowNum, noteRowNum, 0, 2));
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+
+        logger.info("Generated template with {} filename row(s) in {} ms",
+                filenames.size(), System.currentTimeMillis() - startTime);
+        return outputStream;
+    }
+
+    // ==================== CACHES ====================
+
+    private StaticTemplate staticTemplate(int maxTags) throws Exception {
+        StaticTemplate current = staticTemplate;
+        if (current != null && current.maxTags == maxTags) {
+            return current;
+        }
+        // Rebuilding twice under a race is harmless - both results are identical
+        StaticTemplate rebuilt = buildStaticTemplate(maxTags);
+        staticTemplate = rebuilt;
+        logger.info("Built static template for max {} tags ({} bytes)", maxTags, rebuilt.bytes.length);
+        return rebuilt;
+    }
+
+    private NameLists nameLists() {
+        NameLists current = nameLists;
+        long now = System.currentTimeMillis();
+        if (current != null && now - current.loadedAt < dictionaryTtlMs) {
+            return current;
+        }
+        NameLists loaded = new NameLists(
+                List.copyOf(tagRepository.findAllTagNames()),
+                List.copyOf(classificationRepository.findAllClassificationNames()),
+                now);
+        nameLists = loaded;
+        return loaded;
+    }
+
+    // ==================== STATIC PARTS ====================
+
+    /**
+     * CHANGE 2: Mandatory column headers have " *" suffix.
+     * CHANGE 4: Tags column header includes max-tags info from settings.
+     */
+    private StaticTemplate buildStaticTemplate(int maxTagsForTemplate) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+
+            // ============= SHEET 1: DOCUMENT METADATA =============
+            Sheet sheet = workbook.createSheet(DOCUMENTS_SHEET);
+
+            // ====== Header styles ======
+            CellStyle headerStyleRequired = workbook.createCellStyle();
+            Font headerFontRequired = workbook.createFont();
+            headerFontRequired.setBold(true);
+            headerFontRequired.setFontHeightInPoints((short) 12);
+            headerFontRequired.setColor(IndexedColors.WHITE.getIndex());
+            headerStyleRequired.setFont(headerFontRequired);
+            headerStyleRequired.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
+            headerStyleRequired.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyleRequired.setBorderBottom(BorderStyle.THIN);
+            headerStyleRequired.setBorderTop(BorderStyle.THIN);
+            headerStyleRequired.setBorderLeft(BorderStyle.THIN);
+            headerStyleRequired.setBorderRight(BorderStyle.THIN);
+            headerStyleRequired.setAlignment(HorizontalAlignment.CENTER);
+            headerStyleRequired.setVerticalAlignment(VerticalAlignment.CENTER);
+
+            // Optional header style — slightly different background so user can visually distinguish
+            CellStyle headerStyleOptional = workbook.createCellStyle();
+            Font headerFontOptional = workbook.createFont();
+            headerFontOptional.setBold(true);
+            headerFontOptional.setFontHeightInPoints((short) 11);
+            headerFontOptional.setColor(IndexedColors.WHITE.getIndex());
+            headerStyleOptional.setFont(headerFontOptional);
+            headerStyleOptional.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex()); // darker grey for optional
+            headerStyleOptional.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyleOptional.setBorderBottom(BorderStyle.THIN);
+            headerStyleOptional.setBorderTop(BorderStyle.THIN);
+            headerStyleOptional.setBorderLeft(BorderStyle.THIN);
+            headerStyleOptional.setBorderRight(BorderStyle.THIN);
+            headerStyleOptional.setAlignment(HorizontalAlignment.CENTER);
+            headerStyleOptional.setVerticalAlignment(VerticalAlignment.CENTER);
+
+            // ====== CHANGE 2: Headers with * on mandatory fields ======
+            // CHANGE 4: Tags column includes max-tags info
+            String tagsHeader = "Tags (comma-separated, max " + maxTagsForTemplate + ")";
+
+            // Column index → [header text, isRequired]
+            Object[][] columnDefs = {
+                    {"Filename *",            true},   // 0 — REQUIRED
+                    {"Title *",               true},   // 1 — REQUIRED
+                    {"Product Code *",        true},   // 2 — REQUIRED
+                    {"Edition",               false},  // 3 — optional
+                    {"Publish Month",         false},  // 4 — optional
+                    {"Publish Year *",        true},   // 5 — REQUIRED
+                    {"No of Pages",           false},  // 6 — optional
+                    {"Notes",                 false},  // 7 — optional
+                    {tagsHeader,              false},  // 8 — optional
+                    {"Classifications (comma-separated)", false} // 9 — optional
+            };
+
+            Row headerRow = sheet.createRow(0);
+            headerRow.setHeightInPoints(22); // slightly taller for readability
+
+            for (int i = 0; i < columnDefs.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue((String) columnDefs[i][0]);
+                boolean required = (Boolean) columnDefs[i][1];
+                cell.setCellStyle(required ? headerStyleRequired : headerStyleOptional);
+
+                // Column widths
+                if (i == 0 || i == 1) {
+                    sheet.setColumnWidth(i, 45 * 256);
+                } else if (i == 7 || i == 8 || i == 9) {
+                    sheet.setColumnWidth(i, 38 * 256);
+                } else {
+                    sheet.setColumnWidth(i, 22 * 256);
+                }
+            }
+
+            // ====== CHANGE 2: Add a legend row below the header explaining * = required ======
+            Row legendRow = sheet.createRow(1);
+            CellStyle legendStyle = workbook.createCellStyle();
+            Font legendFont = workbook.createFont();
+            legendFont.setItalic(true);
+            legendFont.setColor(IndexedColors.DARK_RED.getIndex());
+            legendFont.setFontHeightInPoints((short) 10);
+            legendStyle.setFont(legendFont);
+            legendStyle.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
+            legendStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            Cell legendCell = legendRow.createCell(0);
+            legendCell.setCellValue("* = Required field   |   Dark blue = Required   |   Grey = Optional   |   Tags must be comma-separated (e.g. tag1,tag2,tag3)   |   Max " + maxTagsForTemplate + " tags per document");
+            legendCell.setCellStyle(legendStyle);
+            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, columnDefs.length - 1));
+
+            // CHANGE 3 / CHANGE 4: Add example row at row index 2 (after legend)
+            Row exampleRow = sheet.createRow(2);
+            CellStyle exampleStyle = workbook.createCellStyle();
+            Font exampleFont = workbook.createFont();
+            exampleFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
+            exampleFont.setItalic(true);
+            exampleStyle.setFont(exampleFont);
+
+            String[] exampleData = {
+                    "document1.pdf",                   // Filename *
+                    "Product Manual v2.1",             // Title *
+                    "PM-001",                          // Product Code *
+                    "2.1",                             // Edition
+                    "06",                              // Publish Month
+                    "2024",                            // Publish Year *
+                    "150",                             // No of Pages
+                    "Updated version",                 // Notes
+                    "manual,technical,v2",             // Tags — comma-separated example (CHANGE 3 note)
+                    "Engineering,Safety"               // Classifications — comma-separated example
+            };
+            for (int i = 0; i < exampleData.length; i++) {
+                Cell cell = exampleRow.createCell(i);
+                cell.setCellValue(exampleData[i]);
+                cell.setCellStyle(exampleStyle);
+            }
+
+            // ====== Dropdown for Publish Month column (column 4), starting from data row 3 ======
+            DataValidationHelper validationHelper = sheet.getDataValidationHelper();
+            DataValidationConstraint monthConstraint = validationHelper.createExplicitListConstraint(
+                    new String[]{
+                            "01 (Jan)", "02 (Feb)", "03 (Mar)", "04 (Apr)",
+                            "05 (May)", "06 (Jun)", "07 (Jul)", "08 (Aug)",
+                            "09 (Sep)", "10 (Oct)", "11 (Nov)", "12 (Dec)"
+                    }
+            );
+            CellRangeAddressList monthRange = new CellRangeAddressList(DATA_START_ROW, 1003, 4, 4);
+            DataValidation monthValidation = validationHelper.createValidation(monthConstraint, monthRange);
+            monthValidation.setShowErrorBox(true);
+            sheet.addValidationData(monthValidation);
+
+            // ============= SHEET 2: REFERENCE DATA (lists appended per request) =============
+            Sheet referenceSheet = workbook.createSheet(REFERENCE_SHEET);
+
+            Row refHeaderRow = referenceSheet.createRow(0);
+            Cell tagsHeaderCell = refHeaderRow.createCell(0);
+            tagsHeaderCell.setCellValue("Available Tags (max " + maxTagsForTemplate + " per document)");
+            tagsHeaderCell.setCellStyle(headerStyleRequired);
+
+            Cell classHeaderCell = refHeaderRow.createCell(2);
+            classHeaderCell.setCellValue("Available Classifications");
+            classHeaderCell.setCellStyle(headerStyleOptional);
+
+            referenceSheet.setColumnWidth(0, 35 * 256);
+            referenceSheet.setColumnWidth(2, 35 * 256);
+
+            CellStyle noteStyle = workbook.createCellStyle();
+            Font noteFont = workbook.createFont();
+            noteFont.setItalic(true);
+            noteFont.setColor(IndexedColors.GREY_50_PERCENT.getIndex());
+            noteStyle.setFont(noteFont);
+
+            // ====== CHANGE 4: Add separate "Tag Policies" sheet ======
+            Sheet policiesSheet = workbook.createSheet(POLICIES_SHEET);
+            Row policiesHeader = policiesSheet.createRow(0);
+            Cell phCell = policiesHeader.createCell(0);
+            phCell.setCellValue("Tag & Upload Policies");
+            phCell.setCellStyle(headerStyleRequired);
+            policiesSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 1));
+            policiesSheet.setColumnWidth(0, 40 * 256);
+            policiesSheet.setColumnWidth(1, 20 * 256);
+
+            String[][] policies = {
+                    {"Max Tags Per Document", String.valueOf(maxTagsForTemplate)},
+                    {"Tags Format", "Comma-separated (e.g. tag1,tag2,tag3)"},
+                    {"Tags Case", "Lowercase only — tags are auto-converted to lowercase"},
+                    {"Classifications Format", "Comma-separated (e.g. Class1,Class2)"},
+                    {"Required Fields", "Filename, Title, Product Code, Publish Year"}
+            };
+            int pRow = 1;
+            for (String[] pair : policies) {
+                Row r = policiesSheet.createRow(pRow++);
+                r.createCell(0).setCellValue(pair[0]);
+                r.createCell(1).setCellValue(pair[1]);
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return new StaticTemplate(maxTagsForTemplate, outputStream.toByteArray(), noteStyle.getIndex());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package codesAndStandards.springboot.userApp.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory change sequence behind the ETags of the document, tag and classification read APIs,
+ * so a poll whose data has not changed is answered with 304 before touching the database.
+ *
+ * Services report a change per table, and per document for the single-document endpoints; the
+ * counters move after commit, so a response built from older data never carries a newer tag.
+ * Counters live in this process only: the start time in every tag keeps ETags issued before a
+ * restart from matching, and the generation advances every etag.resync-interval-ms so changes
+ * made on other nodes show up within that interval, like the name dictionary reload.
+ */
+@Service
+public class ChangeSequenceService {
+
+    public enum Table {
+        DOCUMENTS, TAGS, CLASSIFICATIONS, GROUPS, USERS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray sequences = new AtomicLongArray(Table.values().length);
+    private final Map<Long, Long> documentVersions = new ConcurrentHashMap<>();
+
+    // ==================== CHANGES ====================
+
+    public void changed(Table table) {
+        afterCommit(() -> sequences.incrementAndGet(table.ordinal()));
+    }
+
+    public void documentChanged(Long documentId) {
+        afterCommit(() -> {
+            documentVersions.merge(documentId, 1L, Long::sum);
+            sequences.incrementAndGet(Table.DOCUMENTS.ordinal());
+        });
+    }
+
+    public void documentsChanged(Collection<Long> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (Long documentId : documentIds) {
+                documentVersions.merge(documentId, 1L, Long::sum);
+            }
+            sequences.incrementAndGet(Table.DOCUMENTS.ordinal());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${etag.resync-interval-ms:60000}",
+            initialDelayString = "${etag.resync-interval-ms:60000}")
+    public void resync() {
+        generation.incrementAndGet();
+    }
+
+    // ==================== ETAGS ====================
+
+    /**
+     * Strong ETag for a response built from the given tables.
+     */
+    public String etag(Table... tables) {
+        StringBuilder tag = prefix();
+        appendSequences(tag, tables);
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Strong ETag for a response about one document, plus the tables it pulls names from.
+     */
+    public String documentEtag(Long documentId, Table... tables) {
+        StringBuilder tag = prefix()
+                .append("-d").append(documentId)
+                .append('v').append(documentVersions.getOrDefault(documentId, 0L));
+        appendSequences(tag, tables);
+        return tag.append('"').toString();
+    }
+
+    private StringBuilder prefix() {
+        return new StringBuilder(48).append('"').append(epoch).append('-').append(generation.get());
+    }
+
+    private void appendSequences(StringBuilder tag, Table... tables) {
+        for (Table table : tables) {
+            tag.append('-').append(Character.toLowerCase(table.name().charAt(0))).append(sequences.get(table.ordinal()));
+        }
+    }
+
+    // Uncommitted changes never move a counter; outside a transaction the change applies at once
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -2,13 +2,15 @@ package codesAndStandards.springboot.userApp.service;
 
 import codesAndStandards.springboot.userApp.entity.Document;
 import codesAndStandards.springboot.userApp.entity.User;
+import codesAndStandards.springboot.userApp.profiling.AccessCheckEvent;
 import codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository;
 import codesAndStandards.springboot.userApp.repository.DocumentRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,20 +25,21 @@ public class DocumentAccessService {
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
     private final AccessControlLogicRepository accessControlLogicRepository;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Get all documents accessible by current user based on their role and group membership
      */
     @Transactional(readOnly = true)
     public List<Document> getAccessibleDocuments() {
-        User currentUser = getCurrentUser();
+        AuthorizedUser currentUser = getCurrentUser();
 
         if (currentUser == null) {
             log.warn("No authenticated user found");
             return List.of();
         }
 
-        String role = currentUser.getRole() != null ? currentUser.getRole().getRoleName() : "Viewer";
+        String role = currentUser.getRoleName() != null ? currentUser.getRoleName() : "Viewer";
 
         log.info("Getting accessible documents for user: {} with role: {}",
                 currentUser.getUsername(), role);
@@ -103,21 +106,34 @@ public class DocumentAccessService {
      */
     @Transactional(readOnly = true)
     public boolean hasAccessToDocument(Long documentId) {
-        User currentUser = getCurrentUser();
-
-        if (currentUser == null) {
-            return false;
-        }
-
-        String role = currentUser.getRole() != null ? currentUser.getRole().getRoleName() : "Viewer";
-
-        // Admin has access to all documents
-        if ("Admin".equals(role)) {
-            return true;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        AccessCheckEvent event = new AccessCheckEvent();
+        event.begin();
+        Long userId = null;
+        String role = null;
+        boolean granted = false;
+        try {
+            AuthorizedUser currentUser = getCurrentUser();
+
+            if (currentUser == null) {
+                return false;
+            }
+
+            userId = currentUser.getId();
+            role = currentUser.getRoleName() != null ? currentUser.getRoleName() : "Viewer";
+
+            // Admin has access to all documents
+            if ("Admin".equals(role)) {
+                granted = true;
+                return true;
+            }
+
+            // Check if user has access through groups
+            granted = accessControlLogicRepository.hasUserAccessToDocument(currentUser.getId(), documentId);
+            return granted;
+        } finally {
+            recordAccessCheck(sample, event, userId, documentId, role, granted);
         }
-
-        // Check if user has access through groups
-        return accessControlLogicRepository.hasUserAccessToDocument(currentUser.getId(), documentId);
     }
 
     /**
@@ -125,18 +141,46 @@ public class DocumentAccessService {
      */
     @Transactional(readOnly = true)
     public boolean hasAccessToDocument(Long userId, Long documentId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        String role = user.getRole() != null ? user.getRole().getRoleName() : "Viewer";
-
-        // Admin has access to all documents
-        if ("Admin".equals(role)) {
-            return true;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        AccessCheckEvent event = new AccessCheckEvent();
+        event.begin();
+        String role = null;
+        boolean granted = false;
+        try {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            role = user.getRole() != null ? user.getRole().getRoleName() : "Viewer";
+
+            // Admin has access to all documents
+            if ("Admin".equals(role)) {
+                granted = true;
+                return true;
+            }
+
+            // Check if user has access through groups
+            granted = accessControlLogicRepository.hasUserAccessToDocument(userId, documentId);
+            return granted;
+        } finally {
+            recordAccessCheck(sample, event, userId, documentId, role, granted);
         }
+    }
 
-        // Check if user has access through groups
-        return accessControlLogicRepository.hasUserAccessToDocument(userId, documentId);
+    private void recordAccessCheck(Timer.Sample sample, AccessCheckEvent event,
+                                   Long userId, Long documentId, String role, boolean granted) {
+        sample.stop(Timer.builder("cns.acl.check")
+                .description("Per-document access checks")
+                .tag("result", granted ? "granted" : "denied")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        event.end();
+        if (event.shouldCommit()) {
+            event.userId = userId != null ? userId : -1L;
+            event.documentId = documentId != null ? documentId : -1L;
+            event.role = role;
+            event.granted = granted;
+            event.commit();
+        }
     }
 
     /**
@@ -144,13 +188,13 @@ public class DocumentAccessService {
      */
     @Transactional(readOnly = true)
     public List<Long> getAccessibleDocumentIds() {
-        User currentUser = getCurrentUser();
+        AuthorizedUser currentUser = getCurrentUser();
 
         if (currentUser == null) {
             return List.of();
         }
 
-        String role = currentUser.getRole() != null ? currentUser.getRole().getRoleName() : "Viewer";
+        String role = currentUser.getRoleName() != null ? currentUser.getRoleName() : "Viewer";
 
         // Admin can see all documents
         if ("Admin".equals(role)) {
@@ -171,13 +215,13 @@ public class DocumentAccessService {
      */
     @Transactional(readOnly = true)
     public List<Document> filterByUserAccess(List<Document> documents) {
-        User currentUser = getCurrentUser();
+        AuthorizedUser currentUser = getCurrentUser();
 
         if (currentUser == null) {
             return List.of();
         }
 
-        String role = currentUser.getRole() != null ? currentUser.getRole().getRoleName() : "Viewer";
+        String role = currentUser.getRoleName() != null ? currentUser.getRoleName() : "Viewer";
 
         // Admin can see all documents
         if ("Admin".equals(role)) {
@@ -199,19 +243,9 @@ public class DocumentAccessService {
     }
 
     /**
-     * Get current authenticated user
+     * Get current authenticated user (session snapshot - no database lookup)
      */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated() ||
-                "anonymousUser".equals(authentication.getPrincipal())) {
-            return null;
-        }
-
-        String username = authentication.getName();
-
-        return userRepository.findByUsername(username);
-//                .orElse(null);
+    private AuthorizedUser getCurrentUser() {
+        return AuthorizedUser.current();
     }
-}
\ No newline at end of file
+}
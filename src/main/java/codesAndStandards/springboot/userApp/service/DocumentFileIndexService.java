@@ -0,0 +1,315 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.profiling.RequestProfile;
+import codesAndStandards.springboot.userApp.dto.DocumentFileRef;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps Documents.file_size_bytes / content_sha256 / page_count_verified populated.
+ *
+ * New uploads get their stats while the file is being copied (see copyAndMeasure).
+ * Rows created before the columns existed are backfilled by a scheduled job that
+ * stats and hashes files on the network share in parallel, at a capped rate so the
+ * share is not saturated during business hours.
+ */
+@Service
+public class DocumentFileIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentFileIndexService.class);
+
+    // Stored in file_size_bytes when the file no longer exists on the share
+    public static final long MISSING_FILE_SIZE = -1L;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private NetworkFileService networkFileService;
+
+    @Autowired
+    private ShareMetrics shareMetrics;
+
+    @Value("${document.indexer.enabled:true}")
+    private boolean indexerEnabled;
+
+    @Value("${document.indexer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${document.indexer.threads:4}")
+    private int threads;
+
+    @Value("${document.indexer.max-files-per-second:10}")
+    private double maxFilesPerSecond;
+
+    private ExecutorService indexerPool;
+
+    // Keyset cursor so rows that keep failing do not block the rest of the table
+    private volatile long lastIndexedId = 0L;
+
+    // Simple pacing rate limiter shared by all indexer threads
+    private final ReentrantLock rateLock = new ReentrantLock();
+    private long nextPermitNanos = System.nanoTime();
+
+    /**
+     * Size and SHA-256 of a stored file.
+     */
+    public static class FileStats {
+        private final long sizeBytes;
+        private final String sha256;
+
+        public FileStats(long sizeBytes, String sha256) {
+            this.sizeBytes = sizeBytes;
+            this.sha256 = sha256;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        indexerPool = backgroundThreads.newFixedPool("doc-indexer-", threads, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (indexerPool != null) {
+            indexerPool.shutdownNow();
+        }
+    }
+
+    // ==================== UPLOAD TIME ====================
+
+    /**
+     * Copy an upload to its final location, computing size and SHA-256 in the same pass.
+     */
+    public FileStats copyAndMeasure(InputStream source, Path target) throws IOException {
+        MessageDigest digest = newSha256();
+        return shareMetrics.record("store", target.toString(), () -> {
+            try (DigestInputStream in = new DigestInputStream(source, digest)) {
+                long size = Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                shareMetrics.bytesWritten(size);
+                return new FileStats(size, HexFormat.of().formatHex(digest.digest()));
+            }
+        });
+    }
+
+    /**
+     * Page count read from the PDF itself, or null if it is not a readable PDF.
+     * Tries {@link PdfProbe} first (a few small reads at the end of the file) and only
+     * falls back to a full PDFBox load, buffered in temp files, when the probe gives up.
+     */
+    public Integer countPages(Path pdf) {
+        long start = System.nanoTime();
+        try {
+            Integer probed = PdfProbe.pageCount(pdf);
+            if (probed != null) {
+                return probed;
+            }
+            logger.debug("PDF probe could not read {}, loading the document", pdf);
+            try (PDDocument document = PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+                return document.getNumberOfPages();
+            } catch (Exception e) {
+                logger.debug("Could not read page count: {}", e.getMessage());
+                return null;
+            }
+        } finally {
+            RequestProfile.pdfWork(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * As above for a stream, which is spooled to a temp file first (the probe needs random access).
+     * The stream is read to the end.
+     */
+    public Integer countPages(InputStream pdfStream) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("page-count-", ".pdf");
+            Files.copy(pdfStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return countPages(spooled);
+        } catch (IOException e) {
+            logger.debug("Could not read page count: {}", e.getMessage());
+            return null;
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp file {}: {}", path, e.getMessage());
+        }
+    }
+
+    // ==================== BACKFILL ====================
+
+    @Scheduled(fixedDelayString = "${document.indexer.interval-ms:60000}", initialDelay = 30000)
+    public void backfillMissingStats() {
+        if (!indexerEnabled) {
+            return;
+        }
+
+        List<DocumentFileRef> batch = documentRepository.findFileRefsMissingStats(
+                lastIndexedId, PageRequest.of(0, batchSize));
+
+        if (batch.isEmpty()) {
+            if (lastIndexedId > 0) {
+                // End of table - start over next tick so transient failures are retried
+                lastIndexedId = 0L;
+            }
+            return;
+        }
+
+        logger.info("Document indexer: processing {} document(s) after id {}", batch.size(), lastIndexedId);
+
+        List<Future<Boolean>> futures = new ArrayList<>(batch.size());
+        for (DocumentFileRef ref : batch) {
+            futures.add(indexerPool.submit(() -> indexOne(ref)));
+        }
+
+        int indexed = 0;
+        for (Future<Boolean> future : futures) {
+            try {
+                if (Boolean.TRUE.equals(future.get())) {
+                    indexed++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Document indexer task failed: {}", e.getMessage());
+            }
+        }
+
+        lastIndexedId = batch.get(batch.size() - 1).getId();
+        logger.info("Document indexer: {} of {} document(s) indexed", indexed, batch.size());
+    }
+
+    private boolean indexOne(DocumentFileRef ref) {
+        String filePath = ref.getFilePath();
+        try {
+            acquireRatePermit();
+
+            long size = networkFileService.getFileSize(filePath);
+            if (size < 0) {
+                logger.warn("Document indexer: file missing for document {}: {}", ref.getId(), filePath);
+                documentRepository.updateFileStats(ref.getId(), MISSING_FILE_SIZE, null, null);
+                return true;
+            }
+
+            MessageDigest digest = newSha256();
+            Integer pageCount = null;
+            try (DigestInputStream in = new DigestInputStream(networkFileService.openInputStream(filePath), digest)) {
+                if (filePath.toLowerCase().endsWith(".pdf")) {
+                    pageCount = countPages(in);
+                }
+                // Hash whatever was not consumed (non-PDFs, or a failed spool)
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            documentRepository.updateFileStats(ref.getId(), size, HexFormat.of().formatHex(digest.digest()), pageCount);
+            return true;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // Left NULL; retried on the next pass over the table
+            logger.warn("Document indexer: failed for document {} ({}): {}", ref.getId(), filePath, e.getMessage());
+            return false;
+        }
+    }
+
+    private void acquireRatePermit() throws InterruptedException {
+        if (maxFilesPerSecond <= 0) {
+            return;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / maxFilesPerSecond);
+        long waitNanos;
+        rateLock.lock();
+        try {
+            long now = System.nanoTime();
+            long permitAt = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permitAt + intervalNanos;
+            waitNanos = permitAt - now;
+        } finally {
+            rateLock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // ==================== REPORTING ====================
+
+    public Map<String, Object> getStorageReport() {
+        long total = documentRepository.count();
+        long pending = documentRepository.countByFileSizeBytesIsNull();
+        long missing = documentRepository.countByFileSizeBytes(MISSING_FILE_SIZE);
+        long totalBytes = documentRepository.sumStoredFileBytes();
+        long indexed = total - pending - missing;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalDocuments", total);
+        report.put("indexedDocuments", indexed);
+        report.put("pendingDocuments", pending);
+        report.put("missingFiles", missing);
+        report.put("totalBytes", totalBytes);
+        report.put("averageBytes", indexed > 0 ? totalBytes / indexed : 0L);
+        report.put("largestFileBytes", documentRepository.findLargestStoredFileBytes());
+        return report;
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.DocumentPreviewRef;
+import codesAndStandards.springboot.userApp.profiling.RequestProfile;
+import codesAndStandards.springboot.userApp.repository.DocumentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-page thumbnails for the document library, so a standard can be recognised without
+ * opening the viewer (and pulling the whole file from the share).
+ *
+ * Thumbnails are PNGs in preview.cache-dir, keyed by the stored file's SHA-256: a replaced file
+ * gets a new key, so a cached image never needs invalidating and can be served as immutable.
+ * They are rendered after an upload commits and by a throttled backfill for older documents, on
+ * a small low-priority pool with a bounded queue. When the queue is full the task is dropped and
+ * the next backfill pass picks the document up again. A file that fails to render leaves a
+ * &lt;sha&gt;.failed marker next to where its preview would be; neither the backfill nor preview
+ * requests retry it (and copy it from the share again) until preview.failure-backoff-hours pass.
+ */
+@Service
+public class DocumentPreviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentPreviewService.class);
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private NetworkFileService networkFileService;
+
+    @Value("${preview.enabled:true}")
+    private boolean previewEnabled;
+
+    @Value("${preview.cache-dir:${java.io.tmpdir}/cns-previews}")
+    private String cacheDir;
+
+    @Value("${preview.width:240}")
+    private int width;
+
+    @Value("${preview.threads:1}")
+    private int threads;
+
+    @Value("${preview.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${preview.failure-backoff-hours:24}")
+    private long failureBackoffHours;
+
+    @Value("${preview.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${preview.backfill.batch-size:50}")
+    private int backfillBatchSize;
+
+    private ThreadPoolExecutor renderPool;
+
+    // Hashes queued or being rendered, so the same file is not rendered twice at once
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Keyset cursor for the backfill
+    private volatile long lastScannedId = 0L;
+
+    @PostConstruct
+    public void init() {
+        renderPool = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                backgroundThreads.threadFactory("doc-preview-", true),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (renderPool != null) {
+            renderPool.shutdownNow();
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * The cached thumbnail for a content hash, or null if it has not been rendered yet.
+     */
+    public Path getCachedPreview(String sha256) {
+        if (sha256 == null) {
+            return null;
+        }
+        Path path = cachePath(sha256);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    public DocumentPreviewRef findPreviewRef(Long documentId) {
+        return documentRepository.findPreviewRef(documentId).orElse(null);
+    }
+
+    // ==================== RENDERING ====================
+
+    /**
+     * Queue a thumbnail for a freshly stored file once the current transaction commits
+     * (at once outside a transaction). The file is read from where it was just written.
+     */
+    public void renderAfterCommit(Path storedFile, String sha256) {
+        if (!previewEnabled || sha256 == null || !isPdf(storedFile.toString())) {
+            return;
+        }
+        Runnable submit = () -> submit(sha256, () -> renderFromFile(storedFile, sha256));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit.run();
+            }
+        });
+    }
+
+    /**
+     * Queue a thumbnail for a document whose preview was asked for but is not cached yet.
+     */
+    public void requestRender(DocumentPreviewRef ref) {
+        if (!previewEnabled || ref.getContentSha256() == null || !isPdf(ref.getFilePath())) {
+            return;
+        }
+        submit(ref.getContentSha256(), () -> renderFromShare(ref));
+    }
+
+    private boolean submit(String sha256, Runnable render) {
+        if (getCachedPreview(sha256) != null || recentlyFailed(sha256) || !pending.add(sha256)) {
+            return true;
+        }
+        try {
+            renderPool.execute(() -> {
+                try {
+                    render.run();
+                } finally {
+                    pending.remove(sha256);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(sha256);
+            logger.debug("Preview queue full, skipping {}", sha256);
+            return false;
+        }
+    }
+
+    private void renderFromFile(Path file, String sha256) {
+        try {
+            writePreview(file, sha256);
+        } catch (Exception e) {
+            logger.warn("Could not render preview for {}: {}", file, e.getMessage());
+            markFailed(sha256);
+        }
+    }
+
+    private void renderFromShare(DocumentPreviewRef ref) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("preview-", ".pdf");
+            try (InputStream in = networkFileService.openInputStream(ref.getFilePath())) {
+                Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writePreview(spooled, ref.getContentSha256());
+        } catch (Exception e) {
+            logger.warn("Could not render preview for document {} ({}): {}",
+                    ref.getId(), ref.getFilePath(), e.getMessage());
+            markFailed(ref.getContentSha256());
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    private void writePreview(Path pdf, String sha256) throws IOException {
+        long start = System.nanoTime();
+        BufferedImage image;
+        try (PDDocument document = PDDocument.load(pdf.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("Document has no pages");
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float scale = box.getWidth() > 0 ? width / box.getWidth() : 1f;
+
+            PDFRenderer renderer = new PDFRenderer(document);
+            // Thumbnails do not need full-resolution images decoded
+            renderer.setSubsamplingAllowed(true);
+            image = renderer.renderImage(0, scale, ImageType.RGB);
+        } finally {
+            RequestProfile.pdfWork(System.nanoTime() - start);
+        }
+
+        Path target = cachePath(sha256);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), sha256, ".tmp");
+        try {
+            writePng(image, temp);
+            // Readers only ever see a complete file
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(temp);
+        }
+        deleteQuietly(failedMarker(sha256));
+        logger.debug("Rendered preview {} ({} bytes)", target, Files.size(target));
+    }
+
+    private static void writePng(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                // Quality 0 = strongest deflate; PNG stays lossless
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.0f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // ==================== BACKFILL ====================
+
+    @Scheduled(fixedDelayString = "${preview.backfill.interval-ms:60000}", initialDelay = 60000)
+    public void backfillMissingPreviews() {
+        if (!previewEnabled || !backfillEnabled) {
+            return;
+        }
+
+        List<DocumentPreviewRef> batch = documentRepository.findPreviewRefs(
+                lastScannedId, PageRequest.of(0, backfillBatchSize));
+
+        if (batch.isEmpty()) {
+            if (lastScannedId > 0) {
+                // End of table - start over next tick; failed renders are retried once their backoff expires
+                lastScannedId = 0L;
+            }
+            return;
+        }
+
+        int queued = 0;
+        for (DocumentPreviewRef ref : batch) {
+            if (isPdf(ref.getFilePath()) && getCachedPreview(ref.getContentSha256()) == null
+                    && !recentlyFailed(ref.getContentSha256())) {
+                // Only what the queue can take now; the rest waits for a later tick
+                if (renderPool.getQueue().remainingCapacity() == 0
+                        || !submit(ref.getContentSha256(), () -> renderFromShare(ref))) {
+                    break;
+                }
+                queued++;
+            }
+            lastScannedId = ref.getId();
+        }
+
+        if (queued > 0) {
+            logger.info("Preview backfill: queued {} document(s), up to id {}", queued, lastScannedId);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private Path cachePath(String sha256) {
+        return Paths.get(cacheDir, sha256.substring(0, 2), sha256 + ".png");
+    }
+
+    private Path failedMarker(String sha256) {
+        return Paths.get(cacheDir, sha256.substring(0, 2), sha256 + ".failed");
+    }
+
+    // The marker's modification time is when the last attempt failed
+    private boolean recentlyFailed(String sha256) {
+        try {
+            long failedAt = Files.getLastModifiedTime(failedMarker(sha256)).toMillis();
+            return System.currentTimeMillis() - failedAt < TimeUnit.HOURS.toMillis(failureBackoffHours);
+        } catch (IOException e) {
+            // No marker
+            return false;
+        }
+    }
+
+    private void markFailed(String sha256) {
+        Path marker = failedMarker(sha256);
+        try {
+            Files.createDirectories(marker.getParent());
+            Files.write(marker, new byte[0]);
+        } catch (IOException e) {
+            logger.warn("Could not record failed preview {}: {}", marker, e.getMessage());
+        }
+    }
+
+    private static boolean isPdf(String filePath) {
+        return filePath != null && filePath.toLowerCase().endsWith(".pdf");
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.entity.FileDeletionTombstone;
+import codesAndStandards.springboot.userApp.repository.FileDeletionTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes stored files in the background, after their database rows are gone.
+ *
+ * Callers enqueue a tombstone per file inside the transaction that deletes the rows, so the
+ * list of files to remove is exactly as durable as the delete itself. Once that transaction
+ * commits the queue is drained by a small pool of workers, in parallel, against the share.
+ * A failed delete stays queued and is retried with exponential backoff; after max-attempts
+ * the tombstone is kept for an administrator to look at but no longer retried.
+ */
+@Service
+public class FileDeletionQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDeletionQueueService.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private FileDeletionTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private NetworkFileService networkFileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${file-deletion.threads:4}")
+    private int threads;
+
+    @Value("${file-deletion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${file-deletion.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${file-deletion.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    private ExecutorService dispatcher;
+    private ExecutorService workerPool;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * A file to remove, and the document it belonged to (if any).
+     */
+    public static class QueuedFile {
+        private final Long documentId;
+        private final String filePath;
+
+        public QueuedFile(Long documentId, String filePath) {
+            this.documentId = documentId;
+            this.filePath = filePath;
+        }
+
+        public Long getDocumentId() {
+            return documentId;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        dispatcher = backgroundThreads.newSingleThread("file-deletion-dispatcher", false);
+        workerPool = backgroundThreads.newFixedPool("file-deletion-", threads, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    // ==================== ENQUEUE ====================
+
+    /**
+     * Queue files for deletion. Meant to be called inside the transaction that deletes their rows:
+     * the tombstones commit or roll back with it, and draining starts right after commit.
+     */
+    public void enqueue(List<QueuedFile> files, String batchId) {
+        List<QueuedFile> queued = new ArrayList<>(files.size());
+        for (QueuedFile file : files) {
+            if (file.getFilePath() != null && !file.getFilePath().isBlank()) {
+                queued.add(file);
+            }
+        }
+        if (queued.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO file_deletion_queue (file_path, document_id, batch_id, attempts, next_attempt_at, created_at) " +
+                        "VALUES (?, ?, ?, 0, ?, ?)",
+                queued, batchSize, (ps, file) -> {
+                    ps.setString(1, file.getFilePath());
+                    ps.setObject(2, file.getDocumentId(), Types.BIGINT);
+                    ps.setString(3, batchId);
+                    ps.setTimestamp(4, now);
+                    ps.setTimestamp(5, now);
+                });
+        logger.debug("Queued {} file(s) for deletion (batch {})", queued.size(), batchId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Files of a bulk delete that are still waiting to be removed.
+     */
+    public long countPending(String batchId) {
+        return tombstoneRepository.countByBatchId(batchId);
+    }
+
+    /**
+     * Tombstones that ran out of retries and need an administrator.
+     */
+    public long countAbandoned() {
+        return tombstoneRepository.countByAttemptsGreaterThanEqual(maxAttempts);
+    }
+
+    // ==================== DRAIN ====================
+
+    /**
+     * Picks up retries that came due and anything queued before a restart.
+     */
+    @Scheduled(initialDelayString = "${file-deletion.initial-delay-ms:30000}",
+            fixedDelayString = "${file-deletion.poll-interval-ms:15000}")
+    public void wakeUp() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    drain();
+                } finally {
+                    draining.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            draining.set(false);
+            logger.warn("File deletion queue not started: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        int deleted = 0;
+        int failed = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<FileDeletionTombstone> due = tombstoneRepository.findDue(
+                    LocalDateTime.now(), maxAttempts, PageRequest.of(0, Math.max(1, batchSize)));
+            if (due.isEmpty()) {
+                break;
+            }
+
+            List<Future<?>> futures = new ArrayList<>(due.size());
+            for (FileDeletionTombstone tombstone : due) {
+                futures.add(workerPool.submit(() -> deleteFile(tombstone.getFilePath())));
+            }
+
+            // Successful tombstones are removed; failures move their next attempt out, so the next round sees new rows
+            List<Long> done = new ArrayList<>(due.size());
+            for (int i = 0; i < due.size(); i++) {
+                FileDeletionTombstone tombstone = due.get(i);
+                try {
+                    futures.get(i).get();
+                    done.add(tombstone.getId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    failed++;
+                    retryLater(tombstone, e.getCause());
+                }
+            }
+            if (!done.isEmpty()) {
+                tombstoneRepository.deleteAllByIdInBatch(done);
+                deleted += done.size();
+            }
+        }
+        if (deleted > 0 || failed > 0) {
+            logger.info("File deletion queue: {} file(s) deleted, {} failed and rescheduled", deleted, failed);
+        }
+    }
+
+    private void deleteFile(String filePath) throws Exception {
+        // Stored documents live on the share; a plain path is a local upload directory
+        if (filePath.startsWith("\\\\") || filePath.startsWith("smb://")) {
+            networkFileService.deleteFile(filePath);
+        } else {
+            Files.deleteIfExists(Paths.get(filePath));
+        }
+    }
+
+    private void retryLater(FileDeletionTombstone tombstone, Throwable cause) {
+        int attempt = tombstone.getAttempts() + 1;
+        long backoff = Math.min(MAX_BACKOFF_SECONDS, retryBackoffSeconds << Math.min(attempt - 1, 16));
+        String error = cause != null && cause.getMessage() != null ? cause.getMessage() : String.valueOf(cause);
+        if (error.length() > 1000) {
+            error = error.substring(0, 1000);
+        }
+        tombstoneRepository.markFailed(tombstone.getId(), error, LocalDateTime.now().plusSeconds(backoff));
+        if (attempt >= maxAttempts) {
+            logger.error("Giving up on deleting {} after {} attempts: {}", tombstone.getFilePath(), attempt, error);
+        } else {
+            logger.warn("Could not delete {} (attempt {}), retrying in {}s: {}",
+                    tombstone.getFilePath(), attempt, backoff, error);
+        }
+    }
+}
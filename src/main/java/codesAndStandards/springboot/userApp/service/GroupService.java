@@ -3,16 +3,27 @@ package codesAndStandards.springboot.userApp.service;
 import codesAndStandards.springboot.userApp.dto.*;
 import codesAndStandards.springboot.userApp.entity.*;
 import codesAndStandards.springboot.userApp.repository.*;
+import codesAndStandards.springboot.userApp.security.AuthorizationSnapshotService;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import codesAndStandards.springboot.userApp.service.LicenseService;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,12 +31,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GroupService {
 
+    // SQL Server accepts at most 2100 parameters per statement
+    private static final int IN_CHUNK = 1000;
+    private static final int LINK_BATCH_SIZE = 500;
+
     private final GroupRepository groupRepository;
     private final codesAndStandards.springboot.userApp.repository.GroupUserRepository groupUserRepository;
     private final codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository accessControlLogicRepository;
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
     private final LicenseService licenseService;
+    private final AuthorizationSnapshotService authorizationSnapshotService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequenceService changeSequenceService;
 
     /**
      * Get all groups with counts
@@ -59,6 +77,7 @@ public class GroupService {
     @Transactional
     public GroupResponseDTO createGroup(GroupRequestDTO requestDTO) {
         log.info("Creating new group: {}", requestDTO.getGroupName());
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
         // ✅ CHECK EDITION BEFORE ALLOWING GROUP CREATION
         if (!canCreateGroups()) {
             throw new IllegalStateException(
@@ -127,6 +146,7 @@ public class GroupService {
     @Transactional
     public GroupResponseDTO updateGroup(Long id, GroupRequestDTO requestDTO) {
         log.info("Updating group with ID: {}", id);
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
 
         // Find existing group
         Group group = groupRepository.findById(id)
@@ -172,6 +192,7 @@ public class GroupService {
     @Transactional
     public void deleteGroup(Long id) {
         log.info("Deleting group with ID: {}", id);
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
 
         Group group = groupRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Group not found with ID: " + id));
@@ -184,6 +205,7 @@ public class GroupService {
 
         // Delete group
         groupRepository.delete(group);
+        authorizationSnapshotService.aclChanged();
         log.info("Group deleted successfully");
     }
 
@@ -261,6 +283,7 @@ public class GroupService {
     @Transactional
     public void addDocumentToGroup(Long groupId, Long documentId) {
         log.info("Adding document {} to group {}", documentId, groupId);
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
 
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
@@ -286,12 +309,156 @@ public class GroupService {
         log.info("Document added to group successfully");
     }
 
+    // ==================== BULK DOCUMENT LINKS ====================
+    // One existence query, one set difference and one batched insert per call, instead of
+    // a find/exists/insert round trip per link. Unknown group or document ids are skipped.
+
+    /**
+     * Link one document to several groups (links that already exist are left alone)
+     *
+     * @return number of links created
+     */
+    @Transactional
+    public int linkDocumentToGroups(Long documentId, Collection<Long> groupIds) {
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
+        Set<Long> wanted = existingIds(groupIds, groupRepository::findExistingIds);
+        wanted.removeAll(accessControlLogicRepository.findGroupIdsByDocumentId(documentId));
+
+        List<long[]> links = new ArrayList<>(wanted.size());
+        for (Long groupId : wanted) {
+            links.add(new long[]{documentId, groupId});
+        }
+        int added = insertLinks(links, currentUserId());
+        log.info("Linked document {} to {} group(s)", documentId, added);
+        return added;
+    }
+
+    /**
+     * Link several documents to one group (links that already exist are left alone)
+     *
+     * @return number of links created
+     */
+    @Transactional
+    public int linkDocumentsToGroup(Long groupId, Collection<Long> documentIds) {
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
+        int added = insertLinks(newDocumentLinks(groupId, documentIds), currentUserId());
+        log.info("Linked {} document(s) to group {}", added, groupId);
+        return added;
+    }
+
+    /**
+     * Make a document's groups exactly the given set, touching only the links that change
+     */
+    @Transactional
+    public void setDocumentGroups(Long documentId, Collection<Long> groupIds) {
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
+        Set<Long> wanted = existingIds(groupIds, groupRepository::findExistingIds);
+        Set<Long> current = new HashSet<>(accessControlLogicRepository.findGroupIdsByDocumentId(documentId));
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(wanted);
+        Set<Long> added = new HashSet<>(wanted);
+        added.removeAll(current);
+
+        forEachChunk(removed, chunk -> accessControlLogicRepository.deleteByDocumentIdAndGroupIdIn(documentId, chunk));
+
+        List<long[]> links = new ArrayList<>(added.size());
+        for (Long groupId : added) {
+            links.add(new long[]{documentId, groupId});
+        }
+        insertLinks(links, currentUserId());
+        log.info("Document {} groups updated: {} added, {} removed, {} unchanged",
+                documentId, added.size(), removed.size(), current.size() - removed.size());
+    }
+
+    /**
+     * Make a group's documents exactly the given set, touching only the links that change
+     */
+    @Transactional
+    public void setGroupDocuments(Long groupId, Collection<Long> documentIds, Long createdById) {
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
+        Set<Long> wanted = existingIds(documentIds, documentRepository::findExistingIds);
+        Set<Long> current = new HashSet<>(accessControlLogicRepository.findDocumentIdsByGroupId(groupId));
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(wanted);
+        Set<Long> added = new HashSet<>(wanted);
+        added.removeAll(current);
+
+        forEachChunk(removed, chunk -> accessControlLogicRepository.deleteByGroupIdAndDocumentIdIn(groupId, chunk));
+
+        List<long[]> links = new ArrayList<>(added.size());
+        for (Long documentId : added) {
+            links.add(new long[]{documentId, groupId});
+        }
+        insertLinks(links, createdById);
+        log.info("Group {} documents updated: {} added, {} removed, {} unchanged",
+                groupId, added.size(), removed.size(), current.size() - removed.size());
+    }
+
+    // {documentId, groupId} pairs for the existing documents not yet in the group
+    private List<long[]> newDocumentLinks(Long groupId, Collection<Long> documentIds) {
+        Set<Long> wanted = existingIds(documentIds, documentRepository::findExistingIds);
+        forEachChunk(new ArrayList<>(wanted), chunk ->
+                accessControlLogicRepository.findLinkedDocumentIds(groupId, chunk).forEach(wanted::remove));
+
+        List<long[]> links = new ArrayList<>(wanted.size());
+        for (Long documentId : wanted) {
+            links.add(new long[]{documentId, groupId});
+        }
+        return links;
+    }
+
+    private Set<Long> existingIds(Collection<Long> ids, Function<Collection<Long>, List<Long>> finder) {
+        Set<Long> existing = new LinkedHashSet<>();
+        if (ids == null || ids.isEmpty()) {
+            return existing;
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        forEachChunk(requested, chunk -> existing.addAll(finder.apply(chunk)));
+        if (existing.size() < requested.size()) {
+            log.warn("Skipping {} unknown id(s) while linking documents and groups", requested.size() - existing.size());
+        }
+        return existing;
+    }
+
+    // One JDBC batch; JPA would insert IDENTITY rows one statement at a time
+    private int insertLinks(List<long[]> links, Long createdById) {
+        if (links.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO AccessControlLogic (document_id, groupId, created_by, created_at) VALUES (?, ?, ?, ?)",
+                links, LINK_BATCH_SIZE, (ps, link) -> {
+                    ps.setLong(1, link[0]);
+                    ps.setLong(2, link[1]);
+                    ps.setObject(3, createdById, Types.BIGINT);
+                    ps.setTimestamp(4, now);
+                });
+        return links.size();
+    }
+
+    private static void forEachChunk(Collection<Long> ids, Consumer<List<Long>> action) {
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += IN_CHUNK) {
+            action.accept(list.subList(from, Math.min(from + IN_CHUNK, list.size())));
+        }
+    }
+
+    private Long currentUserId() {
+        AuthorizedUser user = AuthorizedUser.current();
+        return user != null ? user.getId() : null;
+    }
+
     /**
      * Remove document from group
      */
     @Transactional
     public void removeDocumentFromGroup(Long groupId, Long documentId) {
         log.info("Removing document {} from group {}", documentId, groupId);
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
         accessControlLogicRepository.deleteByDocumentIdAndGroupId(documentId, groupId);
         log.info("Document removed from group successfully");
     }
@@ -324,6 +491,7 @@ public class GroupService {
                 .build();
 
         groupUserRepository.save(groupUser);
+        authorizationSnapshotService.aclChanged();
         log.info("User added to group successfully");
     }
 
@@ -334,6 +502,7 @@ public class GroupService {
     public void removeUserFromGroup(Long groupId, Long userId) {
         log.info("Removing user {} from group {}", userId, groupId);
         groupUserRepository.deleteByUserIdAndGroupId(userId, groupId);
+        authorizationSnapshotService.aclChanged();
         log.info("User removed from group successfully");
     }
 
@@ -341,26 +510,9 @@ public class GroupService {
 
     @Transactional
     public void addDocumentsToGroup(Group group, List<Long> documentIds, User currentUser) {
-
-        // Convert Long → Integer
-        List<Long> docIdsAsInt = documentIds.stream()
-//                .map(Long::intValue)
-                .collect(Collectors.toList());
-
-        List<Document> documents = documentRepository.findAllById(docIdsAsInt);
-
-        for (Document document : documents) {
-            if (!accessControlLogicRepository.existsByDocumentIdAndGroupId(document.getId(), group.getId())) {
-                AccessControlLogic acl = AccessControlLogic.builder()
-                        .document(document)
-                        .group(group)
-                        .createdBy(currentUser)
-                        .createdAt(LocalDateTime.now())
-                        .build();
-                accessControlLogicRepository.save(acl);
-            }
-        }
-        log.info("Added {} documents to group", documents.size());
+        changeSequenceService.changed(ChangeSequenceService.Table.GROUPS);
+        int added = insertLinks(newDocumentLinks(group.getId(), documentIds), currentUser != null ? currentUser.getId() : null);
+        log.info("Added {} documents to group", added);
     }
 
     private void addUsersToGroup(Group group, List<Long> userIds, User currentUser) {
@@ -377,22 +529,19 @@ public class GroupService {
                 groupUserRepository.save(groupUser);
             }
         }
+        authorizationSnapshotService.aclChanged();
         log.info("Added {} users to group", users.size());
     }
 
     private void updateGroupDocuments(Group group, List<Long> documentIds, User currentUser) {
-        // Delete existing documents
-        accessControlLogicRepository.deleteByGroupId(group.getId());
-
-        // Add new documents
-        if (documentIds != null && !documentIds.isEmpty()) {
-            addDocumentsToGroup(group, documentIds, currentUser);
-        }
+        setGroupDocuments(group.getId(), documentIds != null ? documentIds : List.of(),
+                currentUser != null ? currentUser.getId() : null);
     }
 
     private void updateGroupUsers(Group group, List<Long> userIds, User currentUser) {
         // Delete existing users
         groupUserRepository.deleteByGroupId(group.getId());
+        authorizationSnapshotService.aclChanged();
 
         // Add new users
         if (userIds != null && !userIds.isEmpty()) {
@@ -2,23 +2,26 @@ package codesAndStandards.springboot.userApp.service.Impl;
 
 import codesAndStandards.springboot.userApp.dto.ApplicationSettingsDto;
 import codesAndStandards.springboot.userApp.entity.ApplicationSettings;
-import codesAndStandards.springboot.userApp.entity.Document;
 import codesAndStandards.springboot.userApp.entity.User;
 import codesAndStandards.springboot.userApp.repository.ApplicationSettingsRepository;
 import codesAndStandards.springboot.userApp.repository.DocumentRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.service.ApplicationSettingsService;
-import codesAndStandards.springboot.userApp.service.DocumentService;
+import codesAndStandards.springboot.userApp.service.ApplicationSettingsSnapshot;
+import codesAndStandards.springboot.userApp.service.BulkDeleteService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.File;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -40,12 +43,92 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    @Lazy
-    private DocumentService documentService;
+    private BulkDeleteService bulkDeleteService;
 
     @Value("${file.upload-dir}")
     private String repositoryPath;
 
+    // Transaction resource key used to refresh the snapshot only once per committing transaction
+    private static final Object SNAPSHOT_REFRESH_KEY = new Object();
+
+    // Current settings; replaced as a whole, never mutated
+    private volatile ApplicationSettingsSnapshot snapshot = ApplicationSettingsSnapshot.EMPTY;
+
+    // ==================== SNAPSHOT ====================
+
+    @PostConstruct
+    public void initSnapshot() {
+        try {
+            reloadSnapshot();
+        } catch (Exception e) {
+            // Keep serving defaults; the poller retries shortly
+            logger.error("❌ Failed to load application settings at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ApplicationSettingsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Picks up changes made by other nodes. Cheap: one MAX(updated_at) and one COUNT(*)
+     * per tick, and the full table is only re-read when either of them moved.
+     */
+    @Scheduled(fixedDelayString = "${settings.cache.refresh-interval-ms:5000}",
+            initialDelayString = "${settings.cache.refresh-interval-ms:5000}")
+    public void pollForChanges() {
+        try {
+            ApplicationSettingsSnapshot current = snapshot;
+            LocalDateTime latest = settingsRepository.findLatestUpdatedAt();
+            long count = settingsRepository.count();
+            if (count != current.getSettingCount() || !Objects.equals(latest, current.getLastUpdatedAt())) {
+                logger.info("Application settings changed (count {} -> {}, updated {} -> {}), reloading",
+                        current.getSettingCount(), count, current.getLastUpdatedAt(), latest);
+                reloadSnapshot();
+            }
+        } catch (Exception e) {
+            logger.warn("Settings change poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void reloadSnapshot() {
+        List<ApplicationSettings> all = settingsRepository.findAll();
+        Map<String, String> values = new HashMap<>();
+        LocalDateTime latest = null;
+        for (ApplicationSettings setting : all) {
+            values.put(setting.getSettingName(), setting.getSettingValue());
+            LocalDateTime updatedAt = setting.getUpdatedAt();
+            if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+                latest = updatedAt;
+            }
+        }
+        snapshot = new ApplicationSettingsSnapshot(values, latest, all.size());
+        logger.debug("Application settings snapshot loaded ({} settings)", all.size());
+    }
+
+    private void reloadSnapshotAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadSnapshot();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(SNAPSHOT_REFRESH_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(SNAPSHOT_REFRESH_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadSnapshot();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SNAPSHOT_REFRESH_KEY);
+            }
+        });
+    }
+
     // ==================== GENERAL ====================
 
     @Override
@@ -66,11 +149,8 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public String getSetting(String settingName) {
-        return settingsRepository.findBySettingName(settingName)
-                .map(ApplicationSettings::getSettingValue)
-                .orElse(null);
+        return snapshot.get(settingName);
     }
 
     @Override
@@ -97,8 +177,10 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
             Integer currentMaxSize = getMaxFileSizeMB();
             if (currentMaxSize != null && maxFileSizeMb < currentMaxSize) {
                 int affectedFilesCount = countFilesExceedingSize(maxFileSizeMb);
-                if (affectedFilesCount > 0)
-                    throw new IllegalStateException(String.format("Cannot reduce max file size to %dMB. %d existing file(s) exceed this limit.", maxFileSizeMb, affectedFilesCount));
+                int unknownSizeCount = countFilesWithUnknownSize();
+                if (affectedFilesCount > 0 || unknownSizeCount > 0)
+                    throw new IllegalStateException(String.format("Cannot reduce max file size to %dMB. %d existing file(s) exceed this limit"
+                            + " and %d file(s) have not been measured yet.", maxFileSizeMb, affectedFilesCount, unknownSizeCount));
             }
         }
 
@@ -113,64 +195,49 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean isFormatAllowed(String format) {
-        if (format == null || format.trim().isEmpty()) return false;
-        String allowedFiles = getSetting("allowed_files");
-        if (allowedFiles == null) return false;
-        return Arrays.asList(allowedFiles.split(",")).stream()
-                .anyMatch(f -> f.trim().equalsIgnoreCase(format.trim()));
+        return snapshot.isFormatAllowed(format);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getMaxFileSizeMB() {
-        return getSettingAsInteger("max_file_size_mb", 50);
+        return snapshot.getMaxFileSizeMb();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<String> getAllowedFormats() {
-        String allowedFiles = getSetting("allowed_files");
-        if (allowedFiles == null || allowedFiles.trim().isEmpty()) return Arrays.asList("PDF");
-        return Arrays.stream(allowedFiles.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+        return snapshot.getAllowedFormatList();
     }
 
     @Override
     public int countFilesExceedingSize(int newMaxSizeMb) {
         try {
             long maxSizeBytes = (long) newMaxSizeMb * 1024 * 1024;
-            List<Document> allDocs = documentRepository.findAll();
-            int count = 0;
-            for (Document doc : allDocs) {
-                if (doc.getFilePath() != null) {
-                    try {
-                        File file = new File(doc.getFilePath());
-                        if (file.exists() && file.length() > maxSizeBytes) count++;
-                    } catch (Exception e) {
-                        logger.warn("Could not check size for: {}", doc.getFilePath());
-                    }
-                }
-            }
-            return count;
+            return Math.toIntExact(documentRepository.countByFileSizeBytesGreaterThan(maxSizeBytes));
         } catch (Exception e) {
             logger.error("Error counting files exceeding size: {}", e.getMessage(), e);
             return 0;
         }
     }
 
+    /**
+     * Documents whose size the indexer has not recorded yet; they may or may not exceed a new limit.
+     */
+    @Override
+    public int countFilesWithUnknownSize() {
+        try {
+            return Math.toIntExact(documentRepository.countByFileSizeBytesIsNull());
+        } catch (Exception e) {
+            logger.error("Error counting files without a stored size: {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+
     // ==================== METADATA SCHEMA ====================
 
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Boolean> getMetadataSchema() {
-        Map<String, Boolean> schema = new LinkedHashMap<>();
-        schema.put("productCode", getSettingAsBoolean("required_product_code", true));
-        schema.put("edition", getSettingAsBoolean("required_edition", true));
-        schema.put("publicationDate", getSettingAsBoolean("required_publication_date", true));
-        schema.put("title", getSettingAsBoolean("required_title", false));
-        schema.put("description", getSettingAsBoolean("required_description", false));
-        return schema;
+        return snapshot.getMetadataSchema();
     }
 
     @Override
@@ -192,22 +259,13 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean isMetadataFieldRequired(String fieldName) {
-        Map<String, String> fieldMapping = new HashMap<>();
-        fieldMapping.put("productCode", "required_product_code");
-        fieldMapping.put("edition", "required_edition");
-        fieldMapping.put("publicationDate", "required_publication_date");
-        fieldMapping.put("title", "required_title");
-        fieldMapping.put("description", "required_description");
-        String dbName = fieldMapping.get(fieldName);
-        return dbName != null && getSettingAsBoolean(dbName, false);
+        return Boolean.TRUE.equals(snapshot.getMetadataSchema().get(fieldName));
     }
 
     // ==================== TAG POLICIES ====================
 
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getTagPolicies() {
         Map<String, Object> policies = new LinkedHashMap<>();
         policies.put("maxTagsPerDocument", getMaxTagsPerDocument());
@@ -226,22 +284,15 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getMaxTagsPerDocument() {
-        return getSettingAsInteger("max_tags_per_document", 10);
+        return snapshot.getMaxTagsPerDocument();
     }
 
     // ==================== WATERMARK ====================
 
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getWatermarkSettings() {
-        Map<String, Object> settings = new LinkedHashMap<>();
-        settings.put("watermarkEnabled", isWatermarkEnabled());
-        settings.put("watermarkOpacity", getWatermarkOpacity());
-        settings.put("watermarkPosition", getWatermarkPosition());
-        settings.put("watermarkFontSize", getWatermarkFontSize());
-        return settings;
+        return snapshot.getWatermark().asMap();
     }
 
     @Override
@@ -274,33 +325,27 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Boolean isWatermarkEnabled() {
-        return getSettingAsBoolean("watermark_enabled", false);
+        return snapshot.getWatermark().getEnabled();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getWatermarkOpacity() {
-        return getSettingAsInteger("watermark_opacity", 30);
+        return snapshot.getWatermark().getOpacity();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public String getWatermarkPosition() {
-        String position = getSetting("watermark_position");
-        return position != null ? position : "Diagonal";
+        return snapshot.getWatermark().getPosition();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getWatermarkFontSize() {
-        return getSettingAsInteger("watermark_font_size", 24);
+        return snapshot.getWatermark().getFontSize();
     }
 
     // ==================== SECURITY & ACCESS ====================
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getSecuritySettings() {
         Map<String, Object> settings = new LinkedHashMap<>();
         settings.put("sessionTimeoutHours", getSettingAsInteger("session_timeout_hours", 8));
@@ -337,28 +382,23 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Boolean isPasswordPolicyEnforced() {
-        return getSettingAsBoolean("enforce_password_policy", false);
+        return (Boolean) snapshot.getPasswordPolicy().get("enforcePasswordPolicy");
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getPasswordPolicy() {
-        Map<String, Object> policy = new LinkedHashMap<>();
-        policy.put("enforcePasswordPolicy", getSettingAsBoolean("enforce_password_policy", false));
-        policy.put("minPasswordLength", getSettingAsInteger("min_password_length", 8));
-        policy.put("requireUppercase", getSettingAsBoolean("require_uppercase", true));
-        policy.put("requireLowercase", getSettingAsBoolean("require_lowercase", true));
-        policy.put("requireNumber", getSettingAsBoolean("require_number", true));
-        policy.put("requireSpecialChar", getSettingAsBoolean("require_special_char", true));
-        return policy;
+        return snapshot.getPasswordPolicy();
+    }
+
+    @Override
+    public int getSessionTimeoutSeconds() {
+        return snapshot.getSessionTimeoutSeconds();
     }
 
     // ==================== ACTIVITY LOGGING ====================
 
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getActivityLoggingSettings() {
         Map<String, Object> settings = new LinkedHashMap<>();
         settings.put("activityLoggingEnabled", getSettingAsBoolean("activity_logging_enabled", true));
@@ -381,15 +421,13 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Boolean isActivityLoggingEnabled() {
-        return getSettingAsBoolean("activity_logging_enabled", true);
+        return snapshot.getActivityLoggingEnabled();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getLogRetentionDays() {
-        return getSettingAsInteger("log_retention_days", 90);
+        return snapshot.getLogRetentionDays();
     }
 
     // ==================== BULK DELETE ====================
@@ -401,38 +439,17 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
         return passwordEncoder.matches(rawPassword, user.getPassword());
     }
 
+    // Synchronous; the settings page runs these through BulkDeleteService jobs to get progress
     @Override
-    @Transactional
     public int bulkDeleteUsers(List<Long> userIds, String adminUsername) throws Exception {
         logger.warn("⚠️ BULK DELETE USERS - Admin: {}, Count: {}", adminUsername, userIds.size());
-        int deleted = 0;
-        for (Long userId : userIds) {
-            try {
-                userRepository.deleteById(userId);
-                deleted++;
-                logger.info("✅ Deleted user ID: {}", userId);
-            } catch (Exception e) {
-                logger.error("❌ Failed to delete user ID: {} - {}", userId, e.getMessage());
-            }
-        }
-        return deleted;
+        return bulkDeleteService.deleteUsers(userIds, null);
     }
 
     @Override
-    @Transactional
     public int bulkDeleteDocuments(List<Long> documentIds, String adminUsername) throws Exception {
         logger.warn("⚠️ BULK DELETE DOCUMENTS - Admin: {}, Count: {}", adminUsername, documentIds.size());
-        int deleted = 0;
-        for (Long docId : documentIds) {
-            try {
-                documentService.deleteDocument(docId);
-                deleted++;
-                logger.info("✅ Deleted document ID: {}", docId);
-            } catch (Exception e) {
-                logger.error("❌ Failed to delete document ID: {} - {}", docId, e.getMessage());
-            }
-        }
-        return deleted;
+        return bulkDeleteService.deleteDocuments(documentIds, null, null);
     }
 
     @Override
@@ -474,24 +491,14 @@ public class ApplicationSettingsServiceImpl implements ApplicationSettingsServic
         setting.setUpdatedBy(user);
         settingsRepository.save(setting);
         logger.info("✅ Updated {} = {}", settingName, value);
+        reloadSnapshotAfterCommit();
     }
 
     public Integer getSettingAsInteger(String settingName, Integer defaultValue) {
-        try {
-            String value = getSetting(settingName);
-            return value != null ? Integer.parseInt(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return snapshot.getInteger(settingName, defaultValue);
     }
 
     private Boolean getSettingAsBoolean(String settingName, Boolean defaultValue) {
-        try {
-            String value = getSetting(settingName);
-            if (value == null) return defaultValue;
-            return "1".equals(value) || "true".equalsIgnoreCase(value);
-        } catch (Exception e) {
-            return defaultValue;
-        }
+        return snapshot.getBoolean(settingName, defaultValue);
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import codesAndStandards.springboot.userApp.repository.ClassificationRepository;
 import codesAndStandards.springboot.userApp.repository.DocumentRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.service.ClassificationService;
+import codesAndStandards.springboot.userApp.service.NameDictionaryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +27,7 @@ public class ClassificationServiceImpl implements ClassificationService {
     private final ClassificationRepository classificationRepository;
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
+    private final NameDictionaryService nameDictionaryService;
 
     @Override
     @Transactional
@@ -43,6 +45,8 @@ public class ClassificationServiceImpl implements ClassificationService {
         classification.setCreatedBy(user);
 
         Classification savedClassification = classificationRepository.save(classification);
+        nameDictionaryService.created(NameDictionaryService.Kind.CLASSIFICATION,
+                savedClassification.getId(), savedClassification.getClassificationName());
         return mapToDto(savedClassification);
     }
 
@@ -62,10 +66,13 @@ public class ClassificationServiceImpl implements ClassificationService {
         User updatingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
+        String previousName = classification.getClassificationName();
         classification.setClassificationName(classificationDto.getClassificationName());
         classification.setUpdatedBy(updatingUser);
 
         Classification updatedClassification = classificationRepository.save(classification);
+        nameDictionaryService.renamed(NameDictionaryService.Kind.CLASSIFICATION, classificationId,
+                previousName, updatedClassification.getClassificationName());
         return mapToDto(updatedClassification);
     }
 
@@ -106,6 +113,8 @@ public class ClassificationServiceImpl implements ClassificationService {
         classification.getDocuments().clear();
 
         classificationRepository.delete(classification);
+        nameDictionaryService.deleted(NameDictionaryService.Kind.CLASSIFICATION,
+                classificationId, classification.getClassificationName());
     }
 
     @Override
@@ -7,7 +7,11 @@ import codesAndStandards.springboot.userApp.repository.StoredProcedureRepository
 import codesAndStandards.springboot.userApp.repository.UserRepository;
 import codesAndStandards.springboot.userApp.repository.AccessControlLogicRepository;
 import codesAndStandards.springboot.userApp.service.ApplicationSettingsService;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
+import codesAndStandards.springboot.userApp.service.DocumentFileIndexService;
+import codesAndStandards.springboot.userApp.service.DocumentPreviewService;
 import codesAndStandards.springboot.userApp.service.DocumentService;
+import codesAndStandards.springboot.userApp.service.FileDeletionQueueService;
 import codesAndStandards.springboot.userApp.service.GroupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +42,14 @@ public class DocumentServiceImpl implements DocumentService {
     private final AccessControlLogicRepository accessControlLogicRepository;
     @Autowired
     private ApplicationSettingsService settingsService;
+    @Autowired
+    private DocumentFileIndexService documentFileIndexService;
+    @Autowired
+    private FileDeletionQueueService fileDeletionQueueService;
+    @Autowired
+    private ChangeSequenceService changeSequenceService;
+    @Autowired
+    private DocumentPreviewService documentPreviewService;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -101,7 +113,13 @@ public class DocumentServiceImpl implements DocumentService {
 //        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
         String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
         Path filePath = Paths.get(uploadDir, uniqueFileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Size and hash are computed during the copy; the page count probe reads only the stored copy's trailer and page tree
+        DocumentFileIndexService.FileStats fileStats =
+                documentFileIndexService.copyAndMeasure(file.getInputStream(), filePath);
+        Integer verifiedPageCount = null;
+        if (".pdf".equalsIgnoreCase(fileExtension)) {
+            verifiedPageCount = documentFileIndexService.countPages(filePath);
+        }
 
         User user = userRepository.findByUsername(username);
         if (user == null) {
@@ -146,31 +164,18 @@ public class DocumentServiceImpl implements DocumentService {
 
         logger.info("✅ Document uploaded successfully. ID = {}", documentId);
 
-        // ✅ Link uploaded document to selected groups (if any)
-        if (groupIds != null && !groupIds.trim().isEmpty()) {
-            List<Long> groupIdList = Arrays.stream(groupIds.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .map(Long::valueOf)
-                    .collect(Collectors.toList());
+        documentRepository.updateFileStats(documentId, fileStats.getSizeBytes(), fileStats.getSha256(), verifiedPageCount);
+        documentPreviewService.renderAfterCommit(filePath, fileStats.getSha256());
 
-            if (!groupIdList.isEmpty()) {
-                for (Long groupId : groupIdList) {
-                    try {
-                        // Uses existing access-control logic; it already checks duplicates
-                        groupService.addDocumentToGroup(groupId, documentId);
-                        logger.info("✅ Linked document {} to group {}", documentId, groupId);
-                    } catch (Exception e) {
-                        logger.error("❌ Failed to link document {} to group {}: {}",
-                                documentId, groupId, e.getMessage());
-                        // Continue with other groups even if one fails
-                    }
-                }
-                logger.info("✅ Successfully linked document {} to {} groups", documentId, groupIdList.size());
-            }
+        // ✅ Link uploaded document to selected groups (if any) - one batched insert, unknown groups skipped
+        List<Long> groupIdList = parseGroupIds(groupIds);
+        if (!groupIdList.isEmpty()) {
+            int linked = groupService.linkDocumentToGroups(documentId, groupIdList);
+            logger.info("✅ Linked document {} to {} groups", documentId, linked);
         } else {
             logger.info("ℹ️ No groups selected for document {}", documentId);
         }
+        changeSequenceService.changed(ChangeSequenceService.Table.DOCUMENTS);
     }
 
     // ✅ UPDATED: Added groupIds parameter and group update logic
@@ -178,6 +183,7 @@ public class DocumentServiceImpl implements DocumentService {
     @Transactional
     public void updateDocument(Long id, DocumentDto documentDto, MultipartFile file, String username, String groupIds) throws Exception {
         logger.info("Updating document ID: {}", id);
+        changeSequenceService.documentChanged(id);
 
         // Handle file if provided
         String filePathStr = null;
@@ -229,6 +235,12 @@ public class DocumentServiceImpl implements DocumentService {
                 .orElseThrow(() -> new RuntimeException("Document not found with id: " + id));
 
         if (documentDto.getFilePath() != null && !documentDto.getFilePath().isEmpty()) {
+            if (!documentDto.getFilePath().equals(document.getFilePath())) {
+                // Stats belong to the old file; the indexer fills them in again for the new path
+                document.setFileSizeBytes(null);
+                document.setContentSha256(null);
+                document.setPageCountVerified(null);
+            }
             document.setFilePath(documentDto.getFilePath());
         }
 
@@ -273,39 +285,21 @@ public class DocumentServiceImpl implements DocumentService {
 
         logger.info("✅ Document metadata updated successfully: {}", id);
 
-        // ✅ NEW: Update group associations
-        // First, remove all existing group associations for this document
-        try {
-            accessControlLogicRepository.deleteByDocumentId(id);
-            logger.info("✅ Removed existing group associations for document {}", id);
-        } catch (Exception e) {
-            logger.warn("⚠️ No existing group associations to remove for document {}: {}", id, e.getMessage());
-        }
-
-        // Then, add new group associations
-        if (groupIds != null && !groupIds.trim().isEmpty()) {
-            List<Long> groupIdList = Arrays.stream(groupIds.split(","))
-                    .map(String::trim)
-                    .filter(s -> !s.isEmpty())
-                    .map(Long::valueOf)
-                    .collect(Collectors.toList());
+        // ✅ Update group associations: only links that were added or removed are written
+        groupService.setDocumentGroups(id, parseGroupIds(groupIds));
+        logger.info("✅ Updated group associations for document {}", id);
+    }
 
-            if (!groupIdList.isEmpty()) {
-                for (Long groupId : groupIdList) {
-                    try {
-                        groupService.addDocumentToGroup(groupId, id);
-                        logger.info("✅ Linked document {} to group {}", id, groupId);
-                    } catch (Exception e) {
-                        logger.error("❌ Failed to link document {} to group {}: {}",
-                                id, groupId, e.getMessage());
-                        // Continue with other groups even if one fails
-                    }
-                }
-                logger.info("✅ Successfully updated group associations for document {}", id);
-            }
-        } else {
-            logger.info("ℹ️ No groups selected for document {} (all associations removed)", id);
+    private static List<Long> parseGroupIds(String groupIds) {
+        if (groupIds == null || groupIds.trim().isEmpty()) {
+            return List.of();
         }
+        return Arrays.stream(groupIds.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Long::valueOf)
+                .distinct()
+                .collect(Collectors.toList());
     }
     //groupname sdor docuemnts- Lochan
     public String getGroupNamesForDocument(Long documentId) {
@@ -356,15 +350,11 @@ public class DocumentServiceImpl implements DocumentService {
         if (deleted == null || !deleted) {
             throw new RuntimeException("Failed to delete document");
         }
+        changeSequenceService.documentChanged(id);
 
-        if (filePath != null && !filePath.isEmpty()) {
-            try {
-                Files.deleteIfExists(Paths.get(filePath));
-                logger.info("Deleted physical file: {}", filePath);
-            } catch (Exception e) {
-                logger.error("Error deleting file: {}", filePath, e);
-            }
-        }
+        // Removed from the share after commit, and retried if the share is unreachable
+        fileDeletionQueueService.enqueue(
+                List.of(new FileDeletionQueueService.QueuedFile(id, filePath)), null);
     }
 
     @Override
@@ -395,6 +385,9 @@ public class DocumentServiceImpl implements DocumentService {
         dto.setNoOfPages(document.getNoOfPages());
         dto.setNotes(document.getNotes());
         dto.setFilePath(document.getFilePath());
+        dto.setFileSizeBytes(document.getFileSizeBytes());
+        dto.setContentSha256(document.getContentSha256());
+        dto.setPageCountVerified(document.getPageCountVerified());
 
         if (document.getUploadedAt() != null) {
             dto.setUploadedAt(document.getUploadedAt()
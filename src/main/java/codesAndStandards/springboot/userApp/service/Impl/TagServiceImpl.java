@@ -9,6 +9,7 @@ import codesAndStandards.springboot.userApp.exception.UnauthorizedException;
 import codesAndStandards.springboot.userApp.repository.DocumentRepository;
 import codesAndStandards.springboot.userApp.repository.TagRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.service.NameDictionaryService;
 import codesAndStandards.springboot.userApp.service.TagService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +29,7 @@ public class TagServiceImpl implements TagService {
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
+    private final NameDictionaryService nameDictionaryService;
 
     @Override
     @Transactional
@@ -44,20 +47,14 @@ public class TagServiceImpl implements TagService {
         tag.setCreatedBy(user);
 
         Tag savedTag = tagRepository.save(tag);
+        nameDictionaryService.created(NameDictionaryService.Kind.TAG, savedTag.getId(), savedTag.getTagName());
         return mapToDto(savedTag);
     }
 
+    @Transactional
     public void createTagIfNotExists(String tagName, Long userId) {
-        if (!tagRepository.existsByTagName(tagName)) {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-            Tag tag = new Tag();
-            tag.setTagName(tagName);
-            tag.setCreatedBy(user);  // ✅ Set creator
-            // created_at is set automatically by @CreationTimestamp
-            tagRepository.save(tag);
-        }
+        // Known names are answered from memory; a new one is inserted with created_by = userId
+        nameDictionaryService.resolve(NameDictionaryService.Kind.TAG, List.of(tagName), userId);
     }
 
     @Override
@@ -108,10 +105,12 @@ public class TagServiceImpl implements TagService {
         User updatingUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
+        String previousName = tag.getTagName();
         tag.setTagName(tagDto.getTagName());
         tag.setUpdatedBy(updatingUser);
 
         Tag updatedTag = tagRepository.save(tag);
+        nameDictionaryService.renamed(NameDictionaryService.Kind.TAG, tagId, previousName, updatedTag.getTagName());
         return mapToDto(updatedTag);
     }
 
@@ -142,6 +141,7 @@ public class TagServiceImpl implements TagService {
         tag.getDocuments().clear();
 
         tagRepository.delete(tag);
+        nameDictionaryService.deleted(NameDictionaryService.Kind.TAG, tagId, tag.getTagName());
     }
 
     @Override
@@ -212,29 +212,38 @@ public class TagServiceImpl implements TagService {
 
     @Transactional
     public Tag getOrCreateTag(String tagName, Long userId) {
-        // Try to find existing tag
-        return tagRepository.findByTagName(tagName)
-                .orElseGet(() -> {
-                    // Create new tag with creator info
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
-
-                    Tag newTag = new Tag();
-                    newTag.setTagName(tagName);
-                    newTag.setCreatedBy(user);  // ✅ Set creator
-                    // created_at is auto-set by @CreationTimestamp
-
-                    return tagRepository.save(newTag);
-                });
+        List<Tag> tags = getOrCreateTags(List.of(tagName), userId);
+        return tags.isEmpty() ? null : tags.get(0);
     }
 
     /**
-     * Get or create multiple tags at once
+     * Get or create multiple tags at once.
+     * Names are resolved through the dictionary in one call; missing ones are inserted together.
+     * Blank names are skipped.
      */
     @Transactional
     public List<Tag> getOrCreateTags(List<String> tagNames, Long userId) {
+        Map<String, Long> ids = nameDictionaryService.resolve(NameDictionaryService.Kind.TAG, tagNames, userId);
+        Map<Long, Tag> tagsById = tagRepository.findAllById(ids.values()).stream()
+                .collect(Collectors.toMap(Tag::getId, tag -> tag));
+
+        // A tag deleted on another node stays in the dictionary until the next reload - forget it and create it again
+        List<String> stale = tagNames.stream()
+                .filter(tagName -> tagName != null && !tagName.trim().isEmpty())
+                .filter(tagName -> !tagsById.containsKey(ids.get(NameDictionaryService.key(tagName))))
+                .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            stale.forEach(tagName -> nameDictionaryService.forget(
+                    NameDictionaryService.Kind.TAG, tagName, ids.get(NameDictionaryService.key(tagName))));
+            Map<String, Long> retried = nameDictionaryService.resolve(NameDictionaryService.Kind.TAG, stale, userId);
+            ids.putAll(retried);
+            tagRepository.findAllById(retried.values()).forEach(tag -> tagsById.put(tag.getId(), tag));
+        }
+
         return tagNames.stream()
-                .map(tagName -> getOrCreateTag(tagName, userId))
+                .filter(tagName -> tagName != null && !tagName.trim().isEmpty())
+                .map(tagName -> tagsById.get(ids.get(NameDictionaryService.key(tagName))))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -10,6 +10,9 @@ import codesAndStandards.springboot.userApp.repository.GroupRepository;
 import codesAndStandards.springboot.userApp.repository.GroupUserRepository;
 import codesAndStandards.springboot.userApp.repository.RoleRepository;
 import codesAndStandards.springboot.userApp.repository.UserRepository;
+import codesAndStandards.springboot.userApp.security.AuthorizationSnapshotService;
+import codesAndStandards.springboot.userApp.security.AuthorizedUser;
+import codesAndStandards.springboot.userApp.service.ChangeSequenceService;
 import codesAndStandards.springboot.userApp.service.UserService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -42,6 +45,8 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final GroupUserRepository groupUserRepository;
     private final GroupRepository groupRepository;
+    private final AuthorizationSnapshotService authorizationSnapshotService;
+    private final ChangeSequenceService changeSequenceService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -50,12 +55,16 @@ public class UserServiceImpl implements UserService {
                            RoleRepository roleRepository,
                            PasswordEncoder passwordEncoder,
                            GroupUserRepository groupUserRepository,
-                           GroupRepository groupRepository) {
+                           GroupRepository groupRepository,
+                           AuthorizationSnapshotService authorizationSnapshotService,
+                           ChangeSequenceService changeSequenceService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.groupUserRepository = groupUserRepository;
         this.groupRepository = groupRepository;
+        this.authorizationSnapshotService = authorizationSnapshotService;
+        this.changeSequenceService = changeSequenceService;
     }
 
     // =====================================================
@@ -132,6 +141,7 @@ public class UserServiceImpl implements UserService {
 
             // Remove old groups (in case of update)
             groupUserRepository.deleteByUserId(userId);
+            authorizationSnapshotService.aclChanged();
             logger.info("Old group mappings removed for userId: {}", userId);
 
             // Insert new groups
@@ -157,6 +167,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void editUserByAdminWithStoredProcedure(String username, UserDto userDto) throws RuntimeException {
         logger.info("Starting editUserByAdminWithStoredProcedure for user: {}", username);
+        changeSequenceService.changed(ChangeSequenceService.Table.USERS);
 
         try {
             StoredProcedureQuery storedProcedure = entityManager.createStoredProcedureQuery("EditUserByAdmin");
@@ -185,6 +196,9 @@ public class UserServiceImpl implements UserService {
             storedProcedure.execute();
             logger.info("User updated by admin successfully: {}", username);
 
+            // Role may have changed - logged-in sessions pick it up on their next request
+            authorizationSnapshotService.aclChanged();
+
         } catch (Exception e) {
             logger.error("Error in editUserByAdmin: {}", username, e);
             handleStoredProcedureException(e, "Failed to update user");
@@ -195,6 +209,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void editUserProfileWithStoredProcedure(String username, UserDto userDto) throws RuntimeException {
         logger.info("Starting editUserProfileWithStoredProcedure for user: {}", username);
+        changeSequenceService.changed(ChangeSequenceService.Table.USERS);
 
         try {
             StoredProcedureQuery storedProcedure = entityManager.createStoredProcedureQuery("EditUserProfile");
@@ -228,6 +243,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUserWithStoredProcedure(String username) throws RuntimeException {
         logger.info("Starting deleteUserWithStoredProcedure for user: {}", username);
+        changeSequenceService.changed(ChangeSequenceService.Table.USERS);
 
         try {
             StoredProcedureQuery storedProcedure = entityManager.createStoredProcedureQuery("DeleteUser");
@@ -241,6 +257,8 @@ public class UserServiceImpl implements UserService {
             storedProcedure.execute();
             logger.info("User deleted successfully: {}", username);
 
+            authorizationSnapshotService.aclChanged();
+
         } catch (Exception e) {
             logger.error("Error deleting user: {}", username, e);
             handleStoredProcedureException(e, "Failed to delete user");
@@ -357,6 +375,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUserById(Long userId) {
         userRepository.deleteById(userId);
+        authorizationSnapshotService.aclChanged();
     }
 
     @Override
@@ -445,6 +464,7 @@ public class UserServiceImpl implements UserService {
         existingUser.setRole(role);
 
         userRepository.save(existingUser);
+        authorizationSnapshotService.aclChanged();
     }
 
     @Override
@@ -506,9 +526,8 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Long getLoggedInUserId() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<User> user = findByUsername(username);
-        return user.map(User::getId).orElse(null);
+        AuthorizedUser currentUser = AuthorizedUser.current();
+        return currentUser != null ? currentUser.getId() : null;
     }
 
     public Optional<User> findByUsername(String username) {
@@ -554,6 +573,7 @@ public class UserServiceImpl implements UserService {
             }
         }
 
+        authorizationSnapshotService.aclChanged();
         logger.info("✅ Group assignment completed for user ID: {}", userId);
     }
 
@@ -567,6 +587,7 @@ public class UserServiceImpl implements UserService {
         try {
             // Delete existing associations
             groupUserRepository.deleteByUserId(userId);
+            authorizationSnapshotService.aclChanged();
             logger.info("🗑️ Deleted existing group associations for user ID: {}", userId);
 
             // Add new associations
@@ -0,0 +1,119 @@
+package codesAndStandards.springboot.userApp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable license-gate decision, rebuilt whenever the license changes and published atomically.
+ * Everything the per-request check needs is precomputed, so the hot path is a volatile read
+ * and a long comparison against validUntilEpochMillis.
+ */
+public final class LicenseDecision {
+
+    public enum Feature {
+        BULK_UPLOAD,
+        LOG_EXPORT
+    }
+
+    public static final String PROFESSIONAL_EDITION = "ED2";
+
+    public static final LicenseDecision NONE = new LicenseDecision(null);
+
+    private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final LicenseService.LicenseInfo license;
+    private final long validUntilEpochMillis;
+    private final String edition;
+    private final Set<Feature> features;
+
+    // Pre-serialized 403 bodies for LicenseInterceptor
+    private final byte[] invalidLicenseBody;
+    private final byte[] editionUpgradeBody;
+
+    public LicenseDecision(LicenseService.LicenseInfo license) {
+        this.license = license;
+
+        boolean usable = license != null && Boolean.TRUE.equals(license.getIsActive())
+                && license.getExpiryDate() != null;
+        this.validUntilEpochMillis = usable
+                ? license.getExpiryDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : Long.MIN_VALUE;
+        this.edition = license != null ? license.getEdition() : null;
+
+        // Features are granted by edition; validity is checked separately against the clock
+        this.features = PROFESSIONAL_EDITION.equalsIgnoreCase(edition)
+                ? Collections.unmodifiableSet(EnumSet.allOf(Feature.class))
+                : Collections.emptySet();
+
+        if (license == null) {
+            this.invalidLicenseBody = json("{\"error\": \"No license found. Please activate a license.\", "
+                    + "\"code\": \"LICENSE_NOT_FOUND\"}");
+        } else {
+            String expiredOn = license.getExpiryDate() != null ? license.getExpiryDate().format(EXPIRY_FORMAT) : "unknown";
+            this.invalidLicenseBody = json("{\"error\": \"License expired on " + expiredOn
+                    + ". Please renew your license.\", \"code\": \"LICENSE_EXPIRED\"}");
+        }
+
+        this.editionUpgradeBody = json("{"
+                + "\"error\": \"Bulk upload feature not available in your edition\", "
+                + "\"code\": \"EDITION_UPGRADE_REQUIRED\", "
+                + "\"currentEdition\": \"" + (edition != null ? edition : "ED1") + "\", "
+                + "\"requiredEdition\": \"" + PROFESSIONAL_EDITION + "\", "
+                + "\"daysRemaining\": " + getDaysRemaining(LocalDateTime.now()) + ", "
+                + "\"message\": \"Please upgrade to ED2 Professional edition to use bulk upload feature. Contact your administrator.\""
+                + "}");
+    }
+
+    // ==================== DECISIONS ====================
+
+    public boolean isValid() {
+        return System.currentTimeMillis() <= validUntilEpochMillis;
+    }
+
+    public boolean allows(Feature feature) {
+        return isValid() && features.contains(feature);
+    }
+
+    public long getDaysRemaining(LocalDateTime now) {
+        if (license == null || license.getExpiryDate() == null) {
+            return 0;
+        }
+        return ChronoUnit.DAYS.between(now, license.getExpiryDate());
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public LicenseService.LicenseInfo getLicense() {
+        return license;
+    }
+
+    public long getValidUntilEpochMillis() {
+        return validUntilEpochMillis;
+    }
+
+    public String getEdition() {
+        return edition;
+    }
+
+    public Set<Feature> getFeatures() {
+        return features;
+    }
+
+    public byte[] getInvalidLicenseBody() {
+        return invalidLicenseBody;
+    }
+
+    public byte[] getEditionUpgradeBody() {
+        return editionUpgradeBody;
+    }
+
+    private static byte[] json(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,10 @@
 package codesAndStandards.springboot.userApp.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -11,18 +16,31 @@ import java.io.*;
 import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ScheduledFuture;
 
 @Service
 public class LicenseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LicenseService.class);
+
     private static final String LICENSE_DIR = "config";
     private static final String LICENSE_FILE = "config/license.lic";
     private static final String LICFILE_PWD = "Kbe@Adr";
 
-    private LicenseInfo cachedLicense = null;
+    // Current license state; replaced as a whole on load, activation and expiry, never mutated
+    private volatile LicenseDecision decision = LicenseDecision.NONE;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> expiryTick;
+
+    // Host facts do not change while the process runs; resolved once, the reverse lookup is slow on some DNS setups
+    private volatile String hostName;
+    private volatile String hardwareId;
 
     @PostConstruct
     public void init() {
@@ -30,6 +48,44 @@ public class LicenseService {
         loadLicenseFromFile();
     }
 
+    /**
+     * Publish a new decision and schedule a refresh for the moment it expires.
+     */
+    private synchronized void publish(LicenseInfo license) {
+        LicenseDecision next = new LicenseDecision(license);
+        this.decision = next;
+
+        if (expiryTick != null) {
+            expiryTick.cancel(false);
+            expiryTick = null;
+        }
+        long validUntil = next.getValidUntilEpochMillis();
+        if (validUntil != Long.MIN_VALUE && validUntil >= System.currentTimeMillis()) {
+            expiryTick = taskScheduler.schedule(this::onExpiry, Instant.ofEpochMilli(validUntil + 1));
+        }
+    }
+
+    private void onExpiry() {
+        LicenseInfo license = decision.getLicense();
+        logger.warn("License expired at {}", license != null ? license.getExpiryDate() : null);
+        publish(license);
+    }
+
+    /**
+     * Rebuild once a day so days-remaining figures in the precomputed responses stay current.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void refreshDaily() {
+        publish(decision.getLicense());
+    }
+
+    /**
+     * Current license-gate decision - a single volatile read.
+     */
+    public LicenseDecision getDecision() {
+        return decision;
+    }
+
     /**
      * Load and decrypt license file
      */
@@ -44,13 +100,14 @@ public class LicenseService {
                 String content = new String(decryptedData, StandardCharsets.UTF_8);
 
                 // Parse license content
-                this.cachedLicense = parseLicenseContent(content);
+                LicenseInfo license = parseLicenseContent(content);
+                publish(license);
 
-                if (this.cachedLicense != null) {
+                if (license != null) {
                     System.out.println("✅ License loaded successfully");
-                    System.out.println("  Edition: " + this.cachedLicense.getEdition());
-                    System.out.println("  System: " + this.cachedLicense.getSystemName());
-                    System.out.println("  Expiry: " + this.cachedLicense.getExpiryDate());
+                    System.out.println("  Edition: " + license.getEdition());
+                    System.out.println("  System: " + license.getSystemName());
+                    System.out.println("  Expiry: " + license.getExpiryDate());
                     System.out.println("  Days Remaining: " + getDaysRemaining());
                     System.out.println("  Bulk Upload Allowed: " + isBulkUploadAllowed());
                 }
@@ -200,20 +257,29 @@ public class LicenseService {
     }
 
     /**
-     * Generate hardware ID based on system properties
+     * Generate hardware ID based on system properties (computed once per process)
      */
     public String generateHardwareId() {
+        String id = hardwareId;
+        if (id == null) {
+            id = computeHardwareId();
+            if (hostName != null) {
+                // Not kept when the host lookup failed, so a later successful lookup gives the real id
+                hardwareId = id;
+            }
+        }
+        return id;
+    }
+
+    private String computeHardwareId() {
         try {
             StringBuilder systemInfo = new StringBuilder();
             systemInfo.append(System.getProperty("user.name"));
             systemInfo.append(System.getProperty("os.name"));
             systemInfo.append(System.getProperty("os.version"));
 
-            try {
-                systemInfo.append(InetAddress.getLocalHost().getHostName());
-            } catch (Exception e) {
-                systemInfo.append("unknown-host");
-            }
+            String host = resolveHostName();
+            systemInfo.append(host != null ? host : "unknown-host");
 
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hash = md.digest(systemInfo.toString().getBytes(StandardCharsets.UTF_8));
@@ -234,11 +300,24 @@ public class LicenseService {
      * Get system name (hostname)
      */
     public String getSystemName() {
-        try {
-            return InetAddress.getLocalHost().getHostName().toUpperCase();
-        } catch (Exception e) {
-            return "UNKNOWN-SYSTEM";
+        String host = resolveHostName();
+        return host != null ? host.toUpperCase() : "UNKNOWN-SYSTEM";
+    }
+
+    /**
+     * Local host name, or null if it cannot be resolved. A failed lookup is retried on the next call.
+     */
+    private String resolveHostName() {
+        String host = hostName;
+        if (host == null) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+                hostName = host;
+            } catch (Exception e) {
+                return null;
+            }
         }
+        return host;
     }
 
     /**
@@ -301,8 +380,8 @@ public class LicenseService {
                 }
             }
 
-            // Update cached license
-            this.cachedLicense = newLicense;
+            // Publish the new license to all readers at once
+            publish(newLicense);
 
             System.out.println("✅ License activated successfully!");
             System.out.println("  Edition: " + newLicense.getEdition());
@@ -320,31 +399,23 @@ public class LicenseService {
      * Get current license info
      */
     public LicenseInfo getCurrentLicense() {
-        return this.cachedLicense;
+        return decision.getLicense();
     }
 
     /**
      * Check if license is valid
      */
     public boolean isLicenseValid() {
-        if (cachedLicense == null || !cachedLicense.getIsActive()) {
-            return false;
-        }
-
-        if (cachedLicense.getExpiryDate().isBefore(LocalDateTime.now())) {
-            cachedLicense.setIsActive(false);
-            return false;
-        }
-
-        return true;
+        return decision.isValid();
     }
 
     /**
      * Validate license and throw exception if invalid
      */
     public void validateLicenseOrThrow() throws Exception {
-        if (!isLicenseValid()) {
-            if (cachedLicense == null) {
+        LicenseDecision current = decision;
+        if (!current.isValid()) {
+            if (current.getLicense() == null) {
                 throw new Exception("No license found. Please activate a license.");
             } else {
                 throw new Exception("License has expired. Please renew your license.");
@@ -356,31 +427,21 @@ public class LicenseService {
      * Get current edition (ED1 or ED2)
      */
     public String getCurrentEdition() {
-        return cachedLicense != null ? cachedLicense.getEdition() : null;
+        return decision.getEdition();
     }
 
     /**
      * Check if bulk upload is allowed (ED2 only)
      */
     public boolean isBulkUploadAllowed() {
-        if (!isLicenseValid()) {
-            return false;
-        }
-        return "ED2".equalsIgnoreCase(getCurrentEdition());
+        return decision.allows(LicenseDecision.Feature.BULK_UPLOAD);
     }
 
     /**
      * Get days remaining until license expiry
      */
     public long getDaysRemaining() {
-        if (cachedLicense == null) {
-            return 0;
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime expiry = cachedLicense.getExpiryDate();
-
-        return ChronoUnit.DAYS.between(now, expiry);
+        return decision.getDaysRemaining(LocalDateTime.now());
     }
 
     /**
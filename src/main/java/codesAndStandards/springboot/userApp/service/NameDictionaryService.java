@@ -0,0 +1,259 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.dto.NamedIdRow;
+import codesAndStandards.springboot.userApp.repository.ClassificationRepository;
+import codesAndStandards.springboot.userApp.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory name → id dictionary for tags and classifications.
+ *
+ * Loaded when the application is ready, kept in sync by the tag/classification services on
+ * create, rename and delete (after commit; the change sequence behind the tag and classification
+ * ETags moves with it), and fully reloaded on a slow schedule to pick up
+ * changes made on other nodes. Bulk callers resolve all names of a batch in one call; names
+ * not yet in the database are inserted with one multi-row statement that skips rows already
+ * present, then read back with one IN query.
+ *
+ * Keys are lower-cased, matching the case-insensitive unique constraints on the name columns.
+ */
+@Service
+public class NameDictionaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameDictionaryService.class);
+
+    // SQL Server allows 2100 parameters per statement and 1000 rows per VALUES list
+    private static final int INSERT_CHUNK = 500;
+
+    public enum Kind {
+        TAG("tags", "tag_name"),
+        CLASSIFICATION("classification", "classification_name");
+
+        private final String table;
+        private final String nameColumn;
+
+        Kind(String table, String nameColumn) {
+            this.table = table;
+            this.nameColumn = nameColumn;
+        }
+    }
+
+    private final TagRepository tagRepository;
+    private final ClassificationRepository classificationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequenceService changeSequenceService;
+
+    private volatile Map<String, Long> tagIds = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> classificationIds = new ConcurrentHashMap<>();
+
+    public NameDictionaryService(TagRepository tagRepository,
+                                 ClassificationRepository classificationRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 ChangeSequenceService changeSequenceService) {
+        this.tagRepository = tagRepository;
+        this.classificationRepository = classificationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeSequenceService = changeSequenceService;
+    }
+
+    // ==================== LOADING ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${dictionary.refresh-interval-ms:300000}",
+            initialDelayString = "${dictionary.refresh-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Replace both dictionaries with the current table contents.
+     */
+    public void reload() {
+        tagIds = toMap(tagRepository.findAllIdNames());
+        classificationIds = toMap(classificationRepository.findAllIdNames());
+        logger.info("Name dictionary loaded: {} tags, {} classifications", tagIds.size(), classificationIds.size());
+    }
+
+    private static Map<String, Long> toMap(List<NamedIdRow> rows) {
+        Map<String, Long> map = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+        for (NamedIdRow row : rows) {
+            if (row.getName() != null) {
+                map.put(key(row.getName()), row.getId());
+            }
+        }
+        return map;
+    }
+
+    // ==================== RESOLUTION ====================
+
+    public static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * Resolve names to ids, creating the missing ones (created_by = userId).
+     * Must run inside the caller's transaction when rows may be created, so they commit or
+     * roll back with the documents that reference them.
+     *
+     * @return id per dictionary key (see {@link #key(String)}); blank names are ignored
+     */
+    public Map<String, Long> resolve(Kind kind, Collection<String> names, Long userId) {
+        Map<String, Long> dictionary = dictionary(kind);
+        Map<String, Long> resolved = new HashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>();
+
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) {
+                continue;
+            }
+            String key = key(name);
+            Long id = dictionary.get(key);
+            if (id != null) {
+                resolved.put(key, id);
+            } else {
+                missing.putIfAbsent(key, name.trim());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<String> newNames = new ArrayList<>(missing.values());
+            insertMissing(kind, newNames, userId);
+
+            Map<String, Long> created = new HashMap<>();
+            for (int from = 0; from < newNames.size(); from += INSERT_CHUNK) {
+                List<String> chunk = newNames.subList(from, Math.min(from + INSERT_CHUNK, newNames.size()));
+                for (NamedIdRow row : findIdNames(kind, chunk)) {
+                    created.put(key(row.getName()), row.getId());
+                }
+            }
+            resolved.putAll(created);
+            publishAfterCommit(kind, created);
+            logger.debug("Resolved {} new {} name(s)", created.size(), kind);
+        }
+        return resolved;
+    }
+
+    private List<NamedIdRow> findIdNames(Kind kind, Collection<String> names) {
+        return kind == Kind.TAG
+                ? tagRepository.findIdNamesByTagNameIn(names)
+                : classificationRepository.findIdNamesByClassificationNameIn(names);
+    }
+
+    /**
+     * INSERT ... SELECT FROM (VALUES ...) WHERE NOT EXISTS - one statement per chunk.
+     * A concurrent insert of the same name trips the unique constraint; the chunk is then
+     * retried once, and the NOT EXISTS filter skips what the other writer created.
+     */
+    private void insertMissing(Kind kind, List<String> names, Long userId) {
+        for (int from = 0; from < names.size(); from += INSERT_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(from + INSERT_CHUNK, names.size()));
+
+            StringBuilder sql = new StringBuilder()
+                    .append("INSERT INTO ").append(kind.table)
+                    .append(" (").append(kind.nameColumn).append(", created_by, created_at, updated_at)")
+                    .append(" SELECT v.name, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM (VALUES ");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?)" : ",(?)");
+            }
+            sql.append(") AS v(name) WHERE NOT EXISTS (SELECT 1 FROM ").append(kind.table)
+                    .append(" e WHERE e.").append(kind.nameColumn).append(" = v.name)");
+
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = userId;
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+
+            try {
+                jdbcTemplate.update(sql.toString(), args);
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Concurrent {} insert detected, retrying chunk: {}", kind, e.getMessage());
+                jdbcTemplate.update(sql.toString(), args);
+            }
+        }
+    }
+
+    // ==================== SYNC HOOKS ====================
+
+    public void created(Kind kind, Long id, String name) {
+        Map<String, Long> change = new HashMap<>();
+        change.put(key(name), id);
+        publishAfterCommit(kind, change);
+    }
+
+    public void renamed(Kind kind, Long id, String oldName, String newName) {
+        changeSequenceService.changed(table(kind));
+        afterCommit(() -> {
+            Map<String, Long> dictionary = dictionary(kind);
+            dictionary.remove(key(oldName), id);
+            dictionary.put(key(newName), id);
+        });
+    }
+
+    public void deleted(Kind kind, Long id, String name) {
+        changeSequenceService.changed(table(kind));
+        afterCommit(() -> dictionary(kind).remove(key(name), id));
+    }
+
+    /**
+     * Drop an entry whose row turned out to be gone (deleted on another node since the last reload),
+     * so the next resolve creates the name again.
+     */
+    public void forget(Kind kind, String name, Long id) {
+        dictionary(kind).remove(key(name), id);
+    }
+
+    public int size(Kind kind) {
+        return dictionary(kind).size();
+    }
+
+    private Map<String, Long> dictionary(Kind kind) {
+        return kind == Kind.TAG ? tagIds : classificationIds;
+    }
+
+    private void publishAfterCommit(Kind kind, Map<String, Long> entries) {
+        if (!entries.isEmpty()) {
+            changeSequenceService.changed(table(kind));
+            afterCommit(() -> dictionary(kind).putAll(entries));
+        }
+    }
+
+    private static ChangeSequenceService.Table table(Kind kind) {
+        return kind == Kind.TAG ? ChangeSequenceService.Table.TAGS : ChangeSequenceService.Table.CLASSIFICATIONS;
+    }
+
+    // Uncommitted rows never reach the dictionary; outside a transaction the change applies at once
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
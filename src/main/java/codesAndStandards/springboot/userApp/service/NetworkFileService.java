@@ -1,12 +1,15 @@
 package codesAndStandards.springboot.userApp.service;
 
 import jcifs.CIFSContext;
+import jcifs.CloseableIterator;
+import jcifs.SmbResource;
 import jcifs.config.PropertyConfiguration;
 import jcifs.context.BaseContext;
 import jcifs.smb.NtlmPasswordAuthenticator;
 import jcifs.smb.SmbFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -17,6 +20,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class NetworkFileService {
@@ -41,19 +45,28 @@ public class NetworkFileService {
     @Value("${network.share.folder:#{null}}")
     private String folder;
 
+    @Autowired
+    private ShareMetrics shareMetrics;
+
+    private volatile CIFSContext authContext;
+    private final ReentrantLock authContextLock = new ReentrantLock();
+
     // ================= READ FILE =================
     public byte[] readFileFromNetworkShare(String filePath) throws Exception {
         logger.info("Reading file from network: {}", filePath);
         String smbPath = convertToSmbUrl(filePath);
 
-        try (InputStream is = new SmbFile(smbPath, getAuthContext()).getInputStream()) {
-            byte[] data = is.readAllBytes();
-            logger.info("Successfully read {} bytes from {}", data.length, smbPath);
-            return data;
-        } catch (Exception e) {
-            logger.error("Error reading SMB file: {}", e.getMessage(), e);
-            throw new Exception("Failed to read SMB file: " + e.getMessage(), e);
-        }
+        return shareMetrics.record("read", filePath, () -> {
+            try (InputStream is = new SmbFile(smbPath, getAuthContext()).getInputStream()) {
+                byte[] data = is.readAllBytes();
+                shareMetrics.bytesRead(data.length);
+                logger.info("Successfully read {} bytes from {}", data.length, smbPath);
+                return data;
+            } catch (Exception e) {
+                logger.error("Error reading SMB file: {}", e.getMessage(), e);
+                throw new Exception("Failed to read SMB file: " + e.getMessage(), e);
+            }
+        });
     }
 
     // ================= STORE FILE =================
@@ -84,20 +97,26 @@ public class NetworkFileService {
         logger.info("Attempting to store file: {}", uniqueFileName);
         logger.info("File size: {} bytes", file.getSize());
 
-        // Try Method 1: Direct SMB write
-        try {
-            return storeFileDirectSMB(file, uniqueFileName);
-        } catch (Exception e) {
-            logger.warn("Direct SMB write failed: {}. Trying alternative method...", e.getMessage());
-        }
+        return shareMetrics.record("store", uniqueFileName, () -> {
+            // Try Method 1: Direct SMB write
+            try {
+                String stored = storeFileDirectSMB(file, uniqueFileName);
+                shareMetrics.bytesWritten(file.getSize());
+                return stored;
+            } catch (Exception e) {
+                logger.warn("Direct SMB write failed: {}. Trying alternative method...", e.getMessage());
+            }
 
-        // Try Method 2: Write to temp file first, then copy
-        try {
-            return storeFileViaTempFile(file, uniqueFileName);
-        } catch (Exception e) {
-            logger.error("Both storage methods failed", e);
-            throw new Exception("Failed to upload file: " + e.getMessage(), e);
-        }
+            // Try Method 2: Write to temp file first, then copy
+            try {
+                String stored = storeFileViaTempFile(file, uniqueFileName);
+                shareMetrics.bytesWritten(file.getSize());
+                return stored;
+            } catch (Exception e) {
+                logger.error("Both storage methods failed", e);
+                throw new Exception("Failed to upload file: " + e.getMessage(), e);
+            }
+        });
     }
 
     // Method 1: Direct SMB Write (Fixed to always use USERDATA/Abhay)
@@ -169,34 +188,37 @@ public class NetworkFileService {
             return;
         }
 
-        try {
-            String smbPath = convertToSmbUrl(filePath);
-            logger.info("Attempting to delete file: {}", smbPath);
+        shareMetrics.record("delete", filePath, () -> {
+            try {
+                String smbPath = convertToSmbUrl(filePath);
+                logger.info("Attempting to delete file: {}", smbPath);
 
-            SmbFile smbFile = new SmbFile(smbPath, getAuthContext());
+                SmbFile smbFile = new SmbFile(smbPath, getAuthContext());
+
+                if (smbFile.exists()) {
+                    if (!smbFile.canWrite()) {
+                        logger.warn("No write permission for file: {}", smbPath);
+                        throw new Exception("No permission to delete file");
+                    }
 
-            if (smbFile.exists()) {
-                if (!smbFile.canWrite()) {
-                    logger.warn("No write permission for file: {}", smbPath);
-                    throw new Exception("No permission to delete file");
+                    smbFile.delete();
+                    logger.info("Successfully deleted file from network share: {}", smbPath);
+                } else {
+                    logger.warn("File not found (may already be deleted): {}", smbPath);
                 }
 
-                smbFile.delete();
-                logger.info("Successfully deleted file from network share: {}", smbPath);
-            } else {
-                logger.warn("File not found (may already be deleted): {}", smbPath);
+            } catch (jcifs.smb.SmbAuthException e) {
+                logger.error("Authentication failed while deleting: {}", e.getMessage(), e);
+                throw new Exception("Access denied while deleting file.", e);
+            } catch (jcifs.smb.SmbException e) {
+                logger.error("SMB error deleting file: {}", e.getMessage(), e);
+                throw new Exception("Network share error while deleting: " + e.getMessage(), e);
+            } catch (Exception e) {
+                logger.error("Error deleting file: {}", e.getMessage(), e);
+                throw new Exception("Failed to delete file: " + e.getMessage(), e);
             }
-
-        } catch (jcifs.smb.SmbAuthException e) {
-            logger.error("Authentication failed while deleting: {}", e.getMessage(), e);
-            throw new Exception("Access denied while deleting file.", e);
-        } catch (jcifs.smb.SmbException e) {
-            logger.error("SMB error deleting file: {}", e.getMessage(), e);
-            throw new Exception("Network share error while deleting: " + e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Error deleting file: {}", e.getMessage(), e);
-            throw new Exception("Failed to delete file: " + e.getMessage(), e);
-        }
+            return null;
+        });
     }
 
     // ================= GET FULL FILE PATH =================
@@ -216,14 +238,96 @@ public class NetworkFileService {
     public boolean fileExists(String filePath) {
         try {
             String smbPath = convertToSmbUrl(filePath);
-            SmbFile smbFile = new SmbFile(smbPath, getAuthContext());
-            return smbFile.exists();
+            return shareMetrics.record("exists", filePath, () -> new SmbFile(smbPath, getAuthContext()).exists());
         } catch (Exception e) {
             logger.error("Error checking file existence: {}", e.getMessage());
             return false;
         }
     }
 
+    // ================= FILE SIZE =================
+    /**
+     * Size of a file on the share, or -1 if it does not exist.
+     */
+    public long getFileSize(String filePath) throws Exception {
+        String smbPath = convertToSmbUrl(filePath);
+        return shareMetrics.record("stat", filePath, () -> {
+            SmbFile smbFile = new SmbFile(smbPath, getAuthContext());
+            if (!smbFile.exists()) {
+                return -1L;
+            }
+            return smbFile.length();
+        });
+    }
+
+    // ================= OPEN STREAM =================
+    /**
+     * Opens a stream on a file on the share without buffering it in memory. Caller must close it.
+     */
+    public InputStream openInputStream(String filePath) throws Exception {
+        String smbPath = convertToSmbUrl(filePath);
+        InputStream in = shareMetrics.record("open", filePath, () -> new SmbFile(smbPath, getAuthContext()).getInputStream());
+        return shareMetrics.countingReads(in);
+    }
+
+    // ================= LIST DIRECTORY =================
+    /**
+     * Receives one file of a directory listing; size and timestamp come from the listing itself.
+     */
+    @FunctionalInterface
+    public interface ListedFileVisitor {
+        void visit(String name, String path, long size, long lastModifiedMillis) throws Exception;
+    }
+
+    /**
+     * Streams the files (not sub-directories) of a directory on the share. Entries are read
+     * from the server as the iteration advances, so a large directory is never held in memory.
+     */
+    public void listFiles(String dirPath, ListedFileVisitor visitor) throws Exception {
+        String smbPath = convertToSmbUrl(dirPath);
+        if (!smbPath.endsWith("/")) {
+            smbPath = smbPath + "/";
+        }
+        String dirUrl = smbPath;
+        shareMetrics.record("list", dirPath, () -> {
+            try (SmbFile dir = new SmbFile(dirUrl, getAuthContext());
+                 CloseableIterator<SmbResource> children = dir.children()) {
+                while (children.hasNext()) {
+                    try (SmbResource child = children.next()) {
+                        if (child.isDirectory()) {
+                            continue;
+                        }
+                        visitor.visit(child.getName(), child.getLocator().getUNCPath(),
+                                child.length(), child.lastModified());
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // ================= MOVE FILE =================
+    /**
+     * Moves a file to another directory on the same share (a server-side rename).
+     */
+    public void moveFile(String filePath, String targetDirPath) throws Exception {
+        String targetDir = convertToSmbUrl(targetDirPath);
+        if (!targetDir.endsWith("/")) {
+            targetDir = targetDir + "/";
+        }
+        String targetUrl = targetDir;
+        shareMetrics.record("move", filePath, () -> {
+            CIFSContext authContext = getAuthContext();
+            SmbFile source = new SmbFile(convertToSmbUrl(filePath), authContext);
+            SmbFile dir = new SmbFile(targetUrl, authContext);
+            if (!dir.exists()) {
+                dir.mkdirs();
+            }
+            source.renameTo(new SmbFile(targetUrl + source.getName(), authContext));
+            return null;
+        });
+    }
+
     // ================= TEST CONNECTION =================
     public boolean testConnection() {
         try {
@@ -305,7 +409,25 @@ public class NetworkFileService {
     }
 
     // ================= INTERNAL HELPERS =================
+    // One context for the whole application so SMB connections and sessions are pooled and reused;
+    // a new BaseContext per call opened a fresh connection (and 30 s timeouts) for every file operation
     private CIFSContext getAuthContext() throws Exception {
+        CIFSContext context = authContext;
+        if (context != null) {
+            return context;
+        }
+        authContextLock.lock();
+        try {
+            if (authContext == null) {
+                authContext = createAuthContext();
+            }
+            return authContext;
+        } finally {
+            authContextLock.unlock();
+        }
+    }
+
+    private CIFSContext createAuthContext() throws Exception {
         try {
             Properties prop = new Properties();
             prop.setProperty("jcifs.smb.client.minVersion", "SMB202");
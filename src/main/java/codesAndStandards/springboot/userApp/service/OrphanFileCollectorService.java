@@ -0,0 +1,497 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.config.BackgroundThreads;
+import codesAndStandards.springboot.userApp.dto.OrphanFileReport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mark-and-sweep collector for files in the document repository that no document points to
+ * (uploads that failed after the copy, replaced files, deletes that never reached the share).
+ *
+ * Mark: every Documents.file_path is streamed from the database and its file name is kept as a
+ * 64-bit hash in an open-addressing set - about 16 bytes per document instead of a String.
+ * Sweep: the repository directory is listed once, streaming, and the files of the current shard
+ * that are not in the set are handed to a small worker pool in pages. Workers stat them where the
+ * listing did not, skip anything younger than the grace period (in-flight uploads) and either
+ * report or quarantine the rest, at a capped number of file operations per second.
+ *
+ * Each scheduled run handles one hash shard of the file names, so a full pass over a large share
+ * is spread over several runs. A hash collision can only make a file look referenced - never the
+ * other way round - and quarantine is a move into a sub-directory, so nothing is deleted here.
+ */
+@Service
+public class OrphanFileCollectorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanFileCollectorService.class);
+
+    private static final int SAMPLE_SIZE = 100;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NetworkFileService networkFileService;
+
+    @Value("${file.upload-dir}")
+    private String repositoryPath;
+
+    @Value("${orphan-gc.enabled:true}")
+    private boolean enabled;
+
+    // REPORT only logs and reports; QUARANTINE also moves orphans out of the repository directory
+    @Value("${orphan-gc.mode:REPORT}")
+    private String mode;
+
+    @Value("${orphan-gc.quarantine-dir:}")
+    private String quarantineDir;
+
+    @Value("${orphan-gc.grace-hours:72}")
+    private long graceHours;
+
+    @Value("${orphan-gc.shards:8}")
+    private int shardCount;
+
+    @Value("${orphan-gc.threads:4}")
+    private int threads;
+
+    @Value("${orphan-gc.page-size:500}")
+    private int pageSize;
+
+    @Value("${orphan-gc.max-files-per-second:50}")
+    private double maxFilesPerSecond;
+
+    private ExecutorService sweepRunner;
+    private ExecutorService workerPool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile int nextShard = 0;
+    private volatile OrphanFileReport lastReport;
+
+    // Simple pacing rate limiter shared by all workers
+    private final ReentrantLock rateLock = new ReentrantLock();
+    private long nextPermitNanos = System.nanoTime();
+
+    @PostConstruct
+    public void init() {
+        sweepRunner = backgroundThreads.newSingleThread("orphan-gc", true);
+        workerPool = backgroundThreads.newFixedPool("orphan-gc-", threads, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweepRunner != null) {
+            sweepRunner.shutdownNow();
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    // ==================== RUN ====================
+
+    @Scheduled(cron = "${orphan-gc.cron:0 30 2 * * *}")
+    public void runScheduled() {
+        if (enabled) {
+            startNextShard();
+        }
+    }
+
+    /**
+     * Sweep the next shard in the background.
+     *
+     * @return false if a sweep is already running
+     */
+    public boolean startNextShard() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        int shards = Math.max(1, shardCount);
+        int shard = nextShard % shards;
+        nextShard = (shard + 1) % shards;
+        try {
+            sweepRunner.execute(() -> {
+                try {
+                    lastReport = sweep(shard, shards);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public OrphanFileReport getLastReport() {
+        return lastReport;
+    }
+
+    // ==================== MARK & SWEEP ====================
+
+    private OrphanFileReport sweep(int shard, int shards) {
+        OrphanFileReport report = new OrphanFileReport();
+        report.setMode(isQuarantine() ? "QUARANTINE" : "REPORT");
+        report.setRepositoryPath(repositoryPath);
+        report.setShard(shard);
+        report.setShardCount(shards);
+        report.setStartedAt(LocalDateTime.now());
+
+        try {
+            // Mark before listing: a file written after this point is younger than the grace period anyway
+            LongHashSet referenced = markReferencedFiles();
+            report.setReferencedFiles(referenced.size());
+
+            Sweep sweep = new Sweep(referenced, shard, shards,
+                    System.currentTimeMillis() - TimeUnit.HOURS.toMillis(graceHours));
+            Path localDir = Paths.get(repositoryPath);
+            if (Files.isDirectory(localDir)) {
+                listLocal(localDir, sweep);
+            } else {
+                networkFileService.listFiles(repositoryPath,
+                        (name, path, size, lastModified) -> sweep.offer(new Candidate(name, path, size, lastModified)));
+            }
+            sweep.finish(report);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.setErrorMessage("Interrupted");
+        } catch (Exception e) {
+            logger.error("Orphaned file sweep failed: {}", e.getMessage(), e);
+            report.setErrorMessage(e.getMessage());
+        }
+
+        report.setFinishedAt(LocalDateTime.now());
+        logger.info("Orphaned file sweep of shard {}/{} ({}): {} referenced, {} listed, {} checked, " +
+                        "{} orphaned ({} bytes), {} quarantined, {} failed, {} within grace period",
+                shard + 1, shards, report.getMode(), report.getReferencedFiles(), report.getListedFiles(),
+                report.getScannedFiles(), report.getOrphanedFiles(), report.getOrphanedBytes(),
+                report.getQuarantinedFiles(), report.getFailedFiles(), report.getYoungFiles());
+        return report;
+    }
+
+    private LongHashSet markReferencedFiles() {
+        LongHashSet referenced = new LongHashSet(1 << 16);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT file_path FROM Documents WHERE file_path IS NOT NULL");
+            ps.setFetchSize(5000);
+            return ps;
+        }, rs -> {
+            referenced.add(nameHash(rs.getString(1)));
+        });
+        return referenced;
+    }
+
+    private void listLocal(Path dir, Sweep sweep) throws Exception {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                // Size and age are read by the workers, only for files that are not referenced
+                sweep.offer(new Candidate(file.getFileName().toString(), file.toString(), -1L, -1L));
+            }
+        }
+    }
+
+    /**
+     * One pass over the listing: filters in the listing thread, does I/O in the worker pool.
+     */
+    private final class Sweep {
+
+        private final LongHashSet referenced;
+        private final int shard;
+        private final int shards;
+        private final long cutoffMillis;
+
+        private final List<Future<?>> pages = new ArrayList<>();
+        private List<Candidate> page = new ArrayList<>();
+
+        private long listed;
+        private long scanned;
+        private final AtomicLong young = new AtomicLong();
+        private final AtomicLong orphaned = new AtomicLong();
+        private final AtomicLong orphanedBytes = new AtomicLong();
+        private final AtomicLong quarantined = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> sample = new ArrayList<>();
+
+        Sweep(LongHashSet referenced, int shard, int shards, long cutoffMillis) {
+            this.referenced = referenced;
+            this.shard = shard;
+            this.shards = shards;
+            this.cutoffMillis = cutoffMillis;
+        }
+
+        void offer(Candidate candidate) {
+            listed++;
+            long hash = nameHash(candidate.name);
+            if (Math.floorMod(hash, shards) != shard) {
+                return;
+            }
+            scanned++;
+            if (referenced.contains(hash)) {
+                return;
+            }
+            page.add(candidate);
+            if (page.size() >= Math.max(1, pageSize)) {
+                submitPage();
+            }
+        }
+
+        private void submitPage() {
+            List<Candidate> batch = page;
+            page = new ArrayList<>();
+            pages.add(workerPool.submit(() -> {
+                for (Candidate candidate : batch) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    check(candidate);
+                }
+            }));
+        }
+
+        private void check(Candidate candidate) {
+            try {
+                long size = candidate.size;
+                long lastModified = candidate.lastModified;
+                if (lastModified < 0) {
+                    acquireRatePermit();
+                    BasicFileAttributes attributes = Files.readAttributes(Paths.get(candidate.path), BasicFileAttributes.class);
+                    if (!attributes.isRegularFile()) {
+                        return;
+                    }
+                    size = attributes.size();
+                    lastModified = attributes.lastModifiedTime().toMillis();
+                }
+                if (lastModified > cutoffMillis) {
+                    young.incrementAndGet();
+                    return;
+                }
+
+                orphaned.incrementAndGet();
+                orphanedBytes.addAndGet(Math.max(0, size));
+                synchronized (sample) {
+                    if (sample.size() < SAMPLE_SIZE) {
+                        sample.add(candidate.path);
+                    }
+                }
+
+                if (isQuarantine()) {
+                    acquireRatePermit();
+                    quarantine(candidate.path);
+                    quarantined.incrementAndGet();
+                    logger.info("Quarantined orphaned file {}", candidate.path);
+                } else {
+                    logger.debug("Orphaned file {} ({} bytes)", candidate.path, size);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.warn("Orphaned file check failed for {}: {}", candidate.path, e.getMessage());
+            }
+        }
+
+        void finish(OrphanFileReport report) throws InterruptedException {
+            if (!page.isEmpty()) {
+                submitPage();
+            }
+            for (Future<?> future : pages) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    logger.warn("Orphaned file page failed: {}", e.getCause().getMessage());
+                }
+            }
+            report.setListedFiles(listed);
+            report.setScannedFiles(scanned);
+            report.setYoungFiles(young.get());
+            report.setOrphanedFiles(orphaned.get());
+            report.setOrphanedBytes(orphanedBytes.get());
+            report.setQuarantinedFiles(quarantined.get());
+            report.setFailedFiles(failed.get());
+            report.getSampleOrphans().addAll(sample);
+        }
+    }
+
+    private static final class Candidate {
+        private final String name;
+        private final String path;
+        // -1 when the listing did not provide them
+        private final long size;
+        private final long lastModified;
+
+        Candidate(String name, String path, long size, long lastModified) {
+            this.name = name;
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    // ==================== QUARANTINE ====================
+
+    private boolean isQuarantine() {
+        return "QUARANTINE".equalsIgnoreCase(mode);
+    }
+
+    private void quarantine(String filePath) throws Exception {
+        String targetDir = (quarantineDir == null || quarantineDir.isBlank()
+                ? Paths.get(repositoryPath, "_orphaned").toString()
+                : quarantineDir) + java.io.File.separator + LocalDate.now();
+        Path localSource = Paths.get(filePath);
+        if (Files.exists(localSource)) {
+            Path target = Files.createDirectories(Paths.get(targetDir));
+            Files.move(localSource, target.resolve(localSource.getFileName()));
+        } else {
+            networkFileService.moveFile(filePath, targetDir);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * 64-bit FNV-1a of the lower-cased file name. Stored paths differ in form (UNC, drive letter,
+     * smb://) but the file names the application generates are unique, so the name is the key.
+     */
+    static long nameHash(String path) {
+        int start = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < path.length(); i++) {
+            hash ^= Character.toLowerCase(path.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void acquireRatePermit() throws InterruptedException {
+        if (maxFilesPerSecond <= 0) {
+            return;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / maxFilesPerSecond);
+        long waitNanos;
+        rateLock.lock();
+        try {
+            long now = System.nanoTime();
+            long permitAt = Math.max(now, nextPermitNanos);
+            nextPermitNanos = permitAt + intervalNanos;
+            waitNanos = permitAt - now;
+        } finally {
+            rateLock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Open-addressing set of longs (linear probing); 0 is stored out of band.
+     */
+    static final class LongHashSet {
+
+        private long[] table;
+        private int size;
+        private boolean containsZero;
+
+        LongHashSet(int expected) {
+            table = new long[Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1];
+        }
+
+        void add(long value) {
+            if (value == 0) {
+                if (!containsZero) {
+                    containsZero = true;
+                    size++;
+                }
+                return;
+            }
+            if ((size + 1) * 2 > table.length) {
+                grow();
+            }
+            if (insert(table, value)) {
+                size++;
+            }
+        }
+
+        boolean contains(long value) {
+            if (value == 0) {
+                return containsZero;
+            }
+            int mask = table.length - 1;
+            for (int i = slot(value, mask); ; i = (i + 1) & mask) {
+                long current = table[i];
+                if (current == value) {
+                    return true;
+                }
+                if (current == 0) {
+                    return false;
+                }
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static boolean insert(long[] table, long value) {
+            int mask = table.length - 1;
+            for (int i = slot(value, mask); ; i = (i + 1) & mask) {
+                long current = table[i];
+                if (current == value) {
+                    return false;
+                }
+                if (current == 0) {
+                    table[i] = value;
+                    return true;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] bigger = new long[table.length << 1];
+            for (long value : table) {
+                if (value != 0) {
+                    insert(bigger, value);
+                }
+            }
+            table = bigger;
+        }
+
+        private static int slot(long value, int mask) {
+            long mixed = value * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package codesAndStandards.springboot.userApp.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the page count of a PDF without parsing the document.
+ *
+ * Follows startxref → cross-reference section(s) → trailer /Root → catalog /Pages → page tree /Count
+ * with a handful of small random reads, so the cost does not depend on the size of the file.
+ * Understands classic xref tables and Flate-compressed cross-reference and object streams
+ * (PDF 1.5+), incremental updates and linearized files. Anything else - other filters,
+ * a damaged xref, an encrypted object stream - returns null and the caller falls back to a
+ * full PDFBox load.
+ */
+final class PdfProbe {
+
+    // startxref must be within the last 1024 bytes; allow for trailing garbage after %%EOF
+    private static final int TAIL_BYTES = 4096;
+    private static final int OBJECT_BYTES = 4096;
+    private static final int XREF_ENTRY_BYTES = 20;
+    private static final int MAX_SECTIONS = 64;
+    private static final int MAX_STREAM_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_PAGE_COUNT = 10_000_000;
+
+    private static final Pattern SUBSECTION = Pattern.compile("\\s*(\\d+)\\s+(\\d+)[ \\t]*(\\r\\n|\\r|\\n)");
+    private static final Pattern XREF_ENTRY = Pattern.compile("(\\d{10}) (\\d{5}) ([nf])[ \\r\\n]{2}");
+    private static final Pattern OBJECT_HEADER = Pattern.compile("\\s*(\\d+)\\s+(\\d+)\\s+obj");
+    private static final Pattern ROOT = Pattern.compile("/Root\\s+(\\d+)\\s+\\d+\\s+R");
+    private static final Pattern PREV = Pattern.compile("/Prev\\s+(\\d+)");
+    private static final Pattern XREF_STM = Pattern.compile("/XRefStm\\s+(\\d+)");
+    private static final Pattern PAGES = Pattern.compile("/Pages\\s+(\\d+)\\s+\\d+\\s+R");
+    private static final Pattern COUNT = Pattern.compile("/Count\\s+(\\d+)(\\s+\\d+\\s+R)?");
+    private static final Pattern TYPE_PAGES = Pattern.compile("/Type\\s*/Pages\\b");
+    private static final Pattern TYPE_XREF = Pattern.compile("/Type\\s*/XRef\\b");
+    private static final Pattern LENGTH = Pattern.compile("/Length\\s+(\\d+)(\\s+\\d+\\s+R)?");
+    private static final Pattern FILTER = Pattern.compile("/Filter\\s*(?:/(\\w+)|\\[\\s*/(\\w+)\\s*(/\\w+)?\\s*])");
+    private static final Pattern W = Pattern.compile("/W\\s*\\[\\s*(\\d+)\\s+(\\d+)\\s+(\\d+)\\s*]");
+    private static final Pattern INDEX = Pattern.compile("/Index\\s*\\[([\\d\\s]*)]");
+    private static final Pattern SIZE = Pattern.compile("/Size\\s+(\\d+)");
+    private static final Pattern PREDICTOR = Pattern.compile("/Predictor\\s+(\\d+)");
+    private static final Pattern COLUMNS = Pattern.compile("/Columns\\s+(\\d+)");
+    private static final Pattern FIRST = Pattern.compile("/First\\s+(\\d+)");
+    private static final Pattern N = Pattern.compile("/N\\s+(\\d+)");
+    private static final Pattern INTEGER = Pattern.compile("\\s*(\\d+)");
+
+    private PdfProbe() {
+    }
+
+    /**
+     * @return the page count, or null when it cannot be read cheaply
+     */
+    static Integer pageCount(Path pdf) {
+        try (FileChannel channel = FileChannel.open(pdf, StandardOpenOption.READ)) {
+            return new Reader(channel).pageCount();
+        } catch (IOException | RuntimeException | DataFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Reader {
+
+        private final FileChannel channel;
+        private final long size;
+
+        // Cross-reference sections, newest first (startxref, then each /Prev)
+        private final List<Section> sections = new ArrayList<>();
+        private final Map<Integer, List<String>> objectStreams = new HashMap<>();
+
+        Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        Integer pageCount() throws IOException, DataFormatException {
+            // Offsets are only trustworthy when the header is at byte 0
+            if (size < 64 || !read(0, 8).startsWith("%PDF-")) {
+                return null;
+            }
+
+            String tail = read(Math.max(0, size - TAIL_BYTES), (int) Math.min(size, TAIL_BYTES));
+            int startxref = tail.lastIndexOf("startxref");
+            if (startxref < 0) {
+                return null;
+            }
+            Long xrefOffset = integer(tail.substring(startxref + "startxref".length()));
+            if (xrefOffset == null) {
+                return null;
+            }
+
+            Integer root = null;
+            long next = xrefOffset;
+            while (next >= 0 && sections.size() < MAX_SECTIONS) {
+                Section section = readSection(next);
+                if (section == null) {
+                    return null;
+                }
+                sections.add(section);
+                if (root == null) {
+                    root = find(ROOT, section.trailer);
+                }
+                // Hybrid files: the stream holds objects the table leaves out
+                Long xrefStm = findLong(XREF_STM, section.trailer);
+                if (xrefStm != null) {
+                    Section stream = readSection(xrefStm);
+                    if (stream == null) {
+                        return null;
+                    }
+                    sections.add(stream);
+                }
+                Long prev = findLong(PREV, section.trailer);
+                next = prev != null ? prev : -1;
+            }
+            if (root == null) {
+                return null;
+            }
+
+            String catalog = readObject(root);
+            Integer pagesRef = catalog != null ? find(PAGES, catalog) : null;
+            if (pagesRef == null) {
+                return null;
+            }
+
+            String pageTree = readObject(pagesRef);
+            if (pageTree == null || !TYPE_PAGES.matcher(pageTree).find()) {
+                return null;
+            }
+            Matcher count = COUNT.matcher(pageTree);
+            if (!count.find()) {
+                return null;
+            }
+
+            Long pageCount = Long.parseLong(count.group(1));
+            if (count.group(2) != null) {
+                // Indirect /Count
+                String value = readObject(Integer.parseInt(count.group(1)));
+                pageCount = value != null ? integer(value) : null;
+            }
+            return pageCount != null && pageCount > 0 && pageCount <= MAX_PAGE_COUNT ? pageCount.intValue() : null;
+        }
+
+        // ==================== XREF ====================
+
+        /**
+         * One cross-reference section: either a classic table (entries are fixed-width, so only
+         * subsection headers are read) or a decoded cross-reference stream.
+         */
+        private static final class Section {
+            // {first object number, entry count, offset of the first entry (file or stream data)}
+            private final List<long[]> subsections = new ArrayList<>();
+            private String trailer;
+            // Cross-reference stream only
+            private byte[] data;
+            private int[] widths;
+        }
+
+        private Section readSection(long offset) throws IOException, DataFormatException {
+            if (offset >= size) {
+                return null;
+            }
+            String head = read(offset, 64);
+            String trimmed = head.stripLeading();
+            if (trimmed.startsWith("xref")) {
+                return readTable(offset + (head.length() - trimmed.length()) + "xref".length());
+            }
+            return readXrefStream(offset);
+        }
+
+        private Section readTable(long position) throws IOException {
+            Section section = new Section();
+            while (position < size) {
+                String chunk = read(position, 64);
+                String stripped = chunk.stripLeading();
+                if (stripped.startsWith("trailer")) {
+                    long trailerStart = position + (chunk.length() - stripped.length()) + "trailer".length();
+                    String trailer = read(trailerStart, OBJECT_BYTES);
+                    int end = trailer.indexOf("startxref");
+                    section.trailer = end >= 0 ? trailer.substring(0, end) : trailer;
+                    return section;
+                }
+                Matcher header = SUBSECTION.matcher(chunk);
+                if (!header.lookingAt()) {
+                    return null;
+                }
+                long first = Long.parseLong(header.group(1));
+                long count = Long.parseLong(header.group(2));
+                long entries = position + header.end();
+                section.subsections.add(new long[]{first, count, entries});
+                position = entries + count * XREF_ENTRY_BYTES;
+            }
+            return null;
+        }
+
+        private Section readXrefStream(long offset) throws IOException, DataFormatException {
+            StreamObject xref = readStreamAt(offset, -1);
+            if (xref == null || !TYPE_XREF.matcher(xref.dictionary).find()) {
+                return null;
+            }
+            Matcher w = W.matcher(xref.dictionary);
+            Integer entryCount = find(SIZE, xref.dictionary);
+            if (!w.find() || entryCount == null) {
+                return null;
+            }
+
+            Section section = new Section();
+            section.trailer = xref.dictionary;
+            section.data = xref.data;
+            section.widths = new int[]{
+                    Integer.parseInt(w.group(1)), Integer.parseInt(w.group(2)), Integer.parseInt(w.group(3))};
+            int rowBytes = section.widths[0] + section.widths[1] + section.widths[2];
+
+            long[] index = {0, entryCount};
+            Matcher indexMatch = INDEX.matcher(xref.dictionary);
+            if (indexMatch.find()) {
+                String[] values = indexMatch.group(1).trim().split("\\s+");
+                index = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    index[i] = Long.parseLong(values[i]);
+                }
+            }
+            long row = 0;
+            for (int i = 0; i + 1 < index.length; i += 2) {
+                section.subsections.add(new long[]{index[i], index[i + 1], row * rowBytes});
+                row += index[i + 1];
+            }
+            return row * rowBytes <= section.data.length ? section : null;
+        }
+
+        /**
+         * Where an object lives, from the newest section that lists it:
+         * {1, file offset} or {2, object stream number, index within the stream}; null if free or unknown.
+         */
+        private long[] lookup(int objectNumber) throws IOException {
+            for (Section section : sections) {
+                for (long[] subsection : section.subsections) {
+                    long first = subsection[0];
+                    if (objectNumber < first || objectNumber >= first + subsection[1]) {
+                        continue;
+                    }
+                    long slot = objectNumber - first;
+                    return section.data == null
+                            ? tableEntry(subsection[2] + slot * XREF_ENTRY_BYTES)
+                            : streamEntry(section, (int) (subsection[2] + slot * rowBytes(section)));
+                }
+            }
+            return null;
+        }
+
+        private long[] tableEntry(long position) throws IOException {
+            Matcher m = XREF_ENTRY.matcher(read(position, XREF_ENTRY_BYTES));
+            if (!m.matches() || !"n".equals(m.group(3))) {
+                return null;
+            }
+            return new long[]{1, Long.parseLong(m.group(1))};
+        }
+
+        private static long[] streamEntry(Section section, int position) {
+            int[] widths = section.widths;
+            long type = widths[0] == 0 ? 1 : field(section.data, position, widths[0]);
+            long second = field(section.data, position + widths[0], widths[1]);
+            long third = field(section.data, position + widths[0] + widths[1], widths[2]);
+            return type == 1 || type == 2 ? new long[]{type, second, third} : null;
+        }
+
+        private static int rowBytes(Section section) {
+            return section.widths[0] + section.widths[1] + section.widths[2];
+        }
+
+        private static long field(byte[] data, int position, int width) {
+            long value = 0;
+            for (int i = 0; i < width; i++) {
+                value = (value << 8) | (data[position + i] & 0xFF);
+            }
+            return value;
+        }
+
+        // ==================== OBJECTS ====================
+
+        /**
+         * Body of an object (up to "stream" or "endobj"), or null if it cannot be found.
+         */
+        private String readObject(int objectNumber) throws IOException, DataFormatException {
+            long[] entry = lookup(objectNumber);
+            if (entry == null) {
+                return null;
+            }
+            if (entry[0] == 2) {
+                List<String> objects = objectStream((int) entry[1]);
+                return objects != null && entry[2] < objects.size() ? objects.get((int) entry[2]) : null;
+            }
+
+            long offset = entry[1];
+            if (offset >= size) {
+                return null;
+            }
+            String text = read(offset, OBJECT_BYTES);
+            Matcher header = OBJECT_HEADER.matcher(text);
+            if (!header.lookingAt() || Integer.parseInt(header.group(1)) != objectNumber) {
+                return null;
+            }
+            String body = text.substring(header.end());
+            int end = body.indexOf("endobj");
+            int stream = body.indexOf("stream");
+            if (stream >= 0 && (end < 0 || stream < end)) {
+                end = stream;
+            }
+            return end >= 0 ? body.substring(0, end) : body;
+        }
+
+        /**
+         * The objects of an object stream, in index order. Cached - page tree and catalog
+         * usually share one.
+         */
+        private List<String> objectStream(int streamNumber) throws IOException, DataFormatException {
+            if (objectStreams.containsKey(streamNumber)) {
+                return objectStreams.get(streamNumber);
+            }
+            long[] entry = lookup(streamNumber);
+            StreamObject stream = entry != null && entry[0] == 1 ? readStreamAt(entry[1], streamNumber) : null;
+            List<String> objects = null;
+            if (stream != null) {
+                Integer count = find(N, stream.dictionary);
+                Integer first = find(FIRST, stream.dictionary);
+                if (count != null && first != null && first <= stream.data.length) {
+                    String content = new String(stream.data, StandardCharsets.ISO_8859_1);
+                    String[] header = content.substring(0, first).trim().split("\\s+");
+                    if (header.length >= count * 2) {
+                        objects = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            int start = first + Integer.parseInt(header[i * 2 + 1]);
+                            int end = i + 1 < count ? first + Integer.parseInt(header[i * 2 + 3]) : content.length();
+                            objects.add(content.substring(start, Math.min(end, content.length())));
+                        }
+                    }
+                }
+            }
+            objectStreams.put(streamNumber, objects);
+            return objects;
+        }
+
+        private static final class StreamObject {
+            private final String dictionary;
+            private final byte[] data;
+
+            StreamObject(String dictionary, byte[] data) {
+                this.dictionary = dictionary;
+                this.data = data;
+            }
+        }
+
+        /**
+         * Read and decode the stream object at offset (expectedNumber -1 = any object number).
+         */
+        private StreamObject readStreamAt(long offset, int expectedNumber) throws IOException, DataFormatException {
+            String text = read(offset, OBJECT_BYTES);
+            Matcher header = OBJECT_HEADER.matcher(text);
+            if (!header.lookingAt()
+                    || (expectedNumber >= 0 && Integer.parseInt(header.group(1)) != expectedNumber)) {
+                return null;
+            }
+            int keyword = text.indexOf("stream", header.end());
+            if (keyword < 0) {
+                return null;
+            }
+            String dictionary = text.substring(header.end(), keyword);
+
+            Matcher lengthMatch = LENGTH.matcher(dictionary);
+            if (!lengthMatch.find()) {
+                return null;
+            }
+            Long length = Long.parseLong(lengthMatch.group(1));
+            if (lengthMatch.group(2) != null) {
+                String value = readObject(Integer.parseInt(lengthMatch.group(1)));
+                length = value != null ? integer(value) : null;
+            }
+            if (length == null || length > MAX_STREAM_BYTES) {
+                return null;
+            }
+
+            int dataStart = keyword + "stream".length();
+            if (text.startsWith("\r\n", dataStart)) {
+                dataStart += 2;
+            } else if (text.startsWith("\n", dataStart) || text.startsWith("\r", dataStart)) {
+                dataStart += 1;
+            }
+            byte[] raw = bytes(offset + dataStart, length.intValue());
+            if (raw.length < length) {
+                return null;
+            }
+
+            Matcher filter = FILTER.matcher(dictionary);
+            byte[] data = raw;
+            if (filter.find()) {
+                String name = filter.group(1) != null ? filter.group(1) : filter.group(2);
+                if (!"FlateDecode".equals(name) || filter.group(3) != null) {
+                    return null;
+                }
+                data = inflate(raw);
+            }
+            Integer predictor = find(PREDICTOR, dictionary);
+            if (predictor != null && predictor >= 10) {
+                Integer columns = find(COLUMNS, dictionary);
+                data = unpredictPng(data, columns != null ? columns : 1);
+            } else if (predictor != null && predictor > 1) {
+                return null;
+            }
+            return new StreamObject(dictionary, data);
+        }
+
+        private static byte[] inflate(byte[] compressed) throws DataFormatException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+                byte[] buffer = new byte[8192];
+                while (!inflater.finished()) {
+                    int n = inflater.inflate(buffer);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    out.write(buffer, 0, n);
+                    if (out.size() > MAX_STREAM_BYTES) {
+                        throw new DataFormatException("Stream too large");
+                    }
+                }
+                return out.toByteArray();
+            } finally {
+                inflater.end();
+            }
+        }
+
+        // PNG row filters, one byte per pixel (as used by cross-reference streams)
+        private static byte[] unpredictPng(byte[] data, int columns) {
+            int rows = data.length / (columns + 1);
+            byte[] out = new byte[rows * columns];
+            for (int r = 0; r < rows; r++) {
+                int in = r * (columns + 1);
+                int type = data[in] & 0xFF;
+                int row = r * columns;
+                for (int c = 0; c < columns; c++) {
+                    int raw = data[in + 1 + c] & 0xFF;
+                    int left = c > 0 ? out[row + c - 1] & 0xFF : 0;
+                    int up = r > 0 ? out[row - columns + c] & 0xFF : 0;
+                    int upLeft = r > 0 && c > 0 ? out[row - columns + c - 1] & 0xFF : 0;
+                    int value;
+                    switch (type) {
+                        case 1: value = raw + left; break;
+                        case 2: value = raw + up; break;
+                        case 3: value = raw + ((left + up) >> 1); break;
+                        case 4: value = raw + paeth(left, up, upLeft); break;
+                        default: value = raw;
+                    }
+                    out[row + c] = (byte) value;
+                }
+            }
+            return out;
+        }
+
+        private static int paeth(int a, int b, int c) {
+            int p = a + b - c;
+            int pa = Math.abs(p - a);
+            int pb = Math.abs(p - b);
+            int pc = Math.abs(p - c);
+            return pa <= pb && pa <= pc ? a : (pb <= pc ? b : c);
+        }
+
+        // ==================== IO ====================
+
+        private static Integer find(Pattern pattern, String text) {
+            Long value = findLong(pattern, text);
+            return value != null ? Math.toIntExact(value) : null;
+        }
+
+        private static Long findLong(Pattern pattern, String text) {
+            Matcher m = pattern.matcher(text);
+            return m.find() ? Long.valueOf(m.group(1)) : null;
+        }
+
+        private static Long integer(String text) {
+            Matcher m = INTEGER.matcher(text);
+            return m.lookingAt() ? Long.valueOf(m.group(1)) : null;
+        }
+
+        private String read(long position, int length) throws IOException {
+            return new String(bytes(position, length), StandardCharsets.ISO_8859_1);
+        }
+
+        private byte[] bytes(long position, int length) throws IOException {
+            int available = (int) Math.max(0, Math.min(length, size - position));
+            ByteBuffer buffer = ByteBuffer.allocate(available);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            return buffer.position() == available ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package codesAndStandards.springboot.userApp.service;
+
+import codesAndStandards.springboot.userApp.profiling.RequestProfile;
+import codesAndStandards.springboot.userApp.profiling.ShareIoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Timers and byte counters for file operations against the document share.
+ *
+ *   cns.share.operations{operation, outcome}  - one timer per operation (read, store, delete, exists, ...)
+ *   cns.share.bytes{direction}                - bytes read from / written to the share
+ *
+ * While a flight recording is running each call is also emitted as a {@link ShareIoEvent}.
+ * Bytes reported during the call are attributed to it; bytes read later through
+ * {@link #countingReads} streams are only counted in the meter.
+ */
+@Component
+public class ShareMetrics {
+
+    /**
+     * A share call, timed by {@link #record}.
+     */
+    @FunctionalInterface
+    public interface ShareCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private static final ThreadLocal<ShareIoEvent> CURRENT_EVENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final Counter bytesRead;
+    private final Counter bytesWritten;
+
+    public ShareMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.bytesRead = Counter.builder("cns.share.bytes")
+                .description("Bytes transferred to and from the document share")
+                .baseUnit("bytes")
+                .tag("direction", "read")
+                .register(registry);
+        this.bytesWritten = Counter.builder("cns.share.bytes")
+                .description("Bytes transferred to and from the document share")
+                .baseUnit("bytes")
+                .tag("direction", "write")
+                .register(registry);
+    }
+
+    public <T, E extends Exception> T record(String operation, String path, ShareCall<T, E> call) throws E {
+        Timer.Sample sample = Timer.start(registry);
+        ShareIoEvent event = new ShareIoEvent();
+        ShareIoEvent outer = CURRENT_EVENT.get();
+        boolean traced = event.isEnabled();
+        if (traced) {
+            event.begin();
+            CURRENT_EVENT.set(event);
+        }
+        String outcome = "error";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            long nanos = sample.stop(Timer.builder("cns.share.operations")
+                    .description("Document share operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+            RequestProfile.shareCall(nanos);
+            if (traced) {
+                if (outer != null) {
+                    CURRENT_EVENT.set(outer);
+                } else {
+                    CURRENT_EVENT.remove();
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = operation;
+                    event.pathHash = ShareIoEvent.hash(path);
+                    event.succeeded = "success".equals(outcome);
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    public void bytesRead(long bytes) {
+        bytesRead.increment(bytes);
+        addEventBytes(bytes);
+    }
+
+    public void bytesWritten(long bytes) {
+        bytesWritten.increment(bytes);
+        addEventBytes(bytes);
+    }
+
+    private static void addEventBytes(long bytes) {
+        ShareIoEvent event = CURRENT_EVENT.get();
+        if (event != null) {
+            event.bytes += bytes;
+        }
+    }
+
+    /**
+     * Counts the bytes actually read from a share stream, however far the caller reads it.
+     */
+    public InputStream countingReads(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    bytesRead.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    bytesRead.increment(n);
+                }
+                return n;
+            }
+        };
+    }
+}
@@ -7,6 +7,12 @@ import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
+import codesAndStandards.springboot.userApp.profiling.RequestProfile;
+import codesAndStandards.springboot.userApp.profiling.WatermarkRenderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -16,6 +22,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class WatermarkService {
@@ -24,6 +31,23 @@ public class WatermarkService {
     private static final float FONT_SIZE = 48f;
     private static final float FOOTER_FONT_SIZE = 12f;
 
+    private final Timer renderTimer;
+    private final Counter pagesCounter;
+    private final DistributionSummary pagesPerSecond;
+
+    public WatermarkService(MeterRegistry meterRegistry) {
+        this.renderTimer = Timer.builder("cns.watermark.render")
+                .description("Time to load, watermark and save a PDF")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.pagesCounter = Counter.builder("cns.watermark.pages")
+                .description("Pages watermarked")
+                .register(meterRegistry);
+        this.pagesPerSecond = DistributionSummary.builder("cns.watermark.pages_per_second")
+                .description("Watermarking throughput per document")
+                .register(meterRegistry);
+    }
+
     /**
      * ADD WATERMARK TO PDF WITH CUSTOM SETTINGS
      */
@@ -32,6 +56,9 @@ public class WatermarkService {
 
         float calculatedFontSize = calculateFontSize(fontSize);
         PDDocument document = null;
+        long start = System.nanoTime();
+        WatermarkRenderEvent event = new WatermarkRenderEvent();
+        event.begin();
 
         try {
             // =============== STEP 1: TRY LOAD PDF ===============
@@ -76,7 +103,10 @@ public class WatermarkService {
             document.save(outputStream);
 
             logger.info("Watermark applied successfully to {} pages", pageNumber - 1);
-            return outputStream.toByteArray();
+            byte[] watermarked = outputStream.toByteArray();
+            recordRender(start, pageNumber - 1);
+            commitRenderEvent(event, pageNumber - 1, position, pdfData.length, watermarked.length);
+            return watermarked;
 
         } finally {
             if (document != null) {
@@ -92,6 +122,28 @@ public class WatermarkService {
         return addWatermarkToPdf(pdfData, username, 30, "Diagonal", 100);
     }
 
+    private static void commitRenderEvent(WatermarkRenderEvent event, int pages, String position,
+                                          long inputBytes, long outputBytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.pages = pages;
+            event.position = position;
+            event.inputBytes = inputBytes;
+            event.outputBytes = outputBytes;
+            event.commit();
+        }
+    }
+
+    private void recordRender(long startNanos, int pages) {
+        long elapsed = System.nanoTime() - startNanos;
+        renderTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        RequestProfile.pdfWork(elapsed);
+        pagesCounter.increment(pages);
+        if (elapsed > 0) {
+            pagesPerSecond.record(pages * 1_000_000_000d / elapsed);
+        }
+    }
+
     /**
      * Calculate alpha value from opacity percentage
      */
@@ -0,0 +1,18 @@
+-- Stored file statistics for Documents (size checks, Content-Length, ETags, storage reports).
+-- Existing rows are backfilled by DocumentFileIndexService.
+
+IF COL_LENGTH('dbo.Documents', 'file_size_bytes') IS NULL
+    ALTER TABLE dbo.Documents ADD file_size_bytes BIGINT NULL;
+GO
+
+IF COL_LENGTH('dbo.Documents', 'content_sha256') IS NULL
+    ALTER TABLE dbo.Documents ADD content_sha256 CHAR(64) NULL;
+GO
+
+IF COL_LENGTH('dbo.Documents', 'page_count_verified') IS NULL
+    ALTER TABLE dbo.Documents ADD page_count_verified INT NULL;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Documents_file_size_bytes' AND object_id = OBJECT_ID('dbo.Documents'))
+    CREATE INDEX IX_Documents_file_size_bytes ON dbo.Documents (file_size_bytes);
+GO
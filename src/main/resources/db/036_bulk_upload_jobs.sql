@@ -0,0 +1,44 @@
+-- Background bulk upload jobs. Items keep their metadata so a job interrupted by a restart
+-- resumes with the documents that were not committed yet.
+
+IF OBJECT_ID('dbo.bulk_upload_jobs', 'U') IS NULL
+    CREATE TABLE dbo.bulk_upload_jobs (
+        job_id              BIGINT IDENTITY(1,1) PRIMARY KEY,
+        status              VARCHAR(20)    NOT NULL,
+        created_by          BIGINT         NOT NULL,
+        created_by_username NVARCHAR(100)  NOT NULL,
+        metadata_file_name  NVARCHAR(255)  NULL,
+        edited_metadata     BIT            NOT NULL DEFAULT 0,
+        staging_dir         NVARCHAR(1000) NOT NULL,
+        total_count         INT            NOT NULL DEFAULT 0,
+        success_count       INT            NOT NULL DEFAULT 0,
+        failed_count        INT            NOT NULL DEFAULT 0,
+        cancel_requested    BIT            NOT NULL DEFAULT 0,
+        error_message       NVARCHAR(2000) NULL,
+        created_at          DATETIME2      NOT NULL,
+        started_at          DATETIME2      NULL,
+        finished_at         DATETIME2      NULL
+    );
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_bulk_upload_jobs_status' AND object_id = OBJECT_ID('dbo.bulk_upload_jobs'))
+    CREATE INDEX idx_bulk_upload_jobs_status ON dbo.bulk_upload_jobs (status);
+GO
+
+IF OBJECT_ID('dbo.bulk_upload_job_items', 'U') IS NULL
+    CREATE TABLE dbo.bulk_upload_job_items (
+        item_id        BIGINT IDENTITY(1,1) PRIMARY KEY,
+        job_id         BIGINT         NOT NULL REFERENCES dbo.bulk_upload_jobs (job_id) ON DELETE CASCADE,
+        filename       NVARCHAR(255)  NOT NULL,
+        title          NVARCHAR(500)  NULL,
+        metadata_json  NVARCHAR(MAX)  NULL,
+        state          VARCHAR(20)    NOT NULL,
+        document_id    BIGINT         NULL,
+        failure_reason NVARCHAR(1000) NULL,
+        updated_at     DATETIME2      NULL
+    );
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_bulk_upload_job_items_job_state' AND object_id = OBJECT_ID('dbo.bulk_upload_job_items'))
+    CREATE INDEX idx_bulk_upload_job_items_job_state ON dbo.bulk_upload_job_items (job_id, state);
+GO
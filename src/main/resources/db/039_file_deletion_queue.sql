@@ -0,0 +1,24 @@
+-- Tombstones for stored files whose database rows are already gone.
+-- Written in the same transaction as the delete and drained by FileDeletionQueueService,
+-- so a file is never orphaned by a crash or an unreachable share - it is only retried later.
+
+IF OBJECT_ID('dbo.file_deletion_queue', 'U') IS NULL
+    CREATE TABLE dbo.file_deletion_queue (
+        tombstone_id    BIGINT IDENTITY(1,1) PRIMARY KEY,
+        file_path       NVARCHAR(1000) NOT NULL,
+        document_id     BIGINT         NULL,
+        batch_id        VARCHAR(36)    NULL,
+        attempts        INT            NOT NULL DEFAULT 0,
+        next_attempt_at DATETIME2      NOT NULL,
+        last_error      NVARCHAR(1000) NULL,
+        created_at      DATETIME2      NOT NULL
+    );
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_file_deletion_queue_next_attempt' AND object_id = OBJECT_ID('dbo.file_deletion_queue'))
+    CREATE INDEX idx_file_deletion_queue_next_attempt ON dbo.file_deletion_queue (next_attempt_at);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'idx_file_deletion_queue_batch' AND object_id = OBJECT_ID('dbo.file_deletion_queue'))
+    CREATE INDEX idx_file_deletion_queue_batch ON dbo.file_deletion_queue (batch_id);
+GO
@@ -0,0 +1,667 @@
+// ==================== DOCUMENT LIBRARY PAGE ====================
+// Expects window.userRole to be set by the page
+
+// ==================== UTILITY FUNCTIONS ====================
+function showContent() {
+    document.querySelector('.list-view').style.visibility = 'visible';
+    document.querySelector('.grid-view').style.visibility = 'visible';
+}
+
+function formatToMonthYear(dateStr) {
+    if (!dateStr || dateStr.trim() === '' || dateStr === '-') return '';
+    const original = dateStr.trim();
+    const yearMatch = original.match(/^\d{4}/);
+    if (!yearMatch) return '';
+    const year = yearMatch[0];
+    const monthMatch = original.match(/^\d{4}-(\d{2})/);
+    let monthNum = monthMatch ? monthMatch[1] : null;
+    if (!monthNum || monthNum === "00") return year;
+    const monthNames = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+    return `${year} ${monthNames[parseInt(monthNum, 10) - 1]}`;
+}
+
+function formatDateToDDMMMYYYY(dateStr, includeTime = false) {
+    if (!dateStr || dateStr === '-') return dateStr;
+    const monthNames = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+    try {
+        let date, hasTime = false;
+        if (/^\d{4}-\d{2}-\d{2}/.test(dateStr)) { hasTime = /\d{2}:\d{2}:\d{2}/.test(dateStr); date = new Date(dateStr); }
+        else { date = new Date(dateStr); }
+        if (isNaN(date.getTime())) return dateStr;
+        const day = String(date.getDate()).padStart(2, '0');
+        const month = monthNames[date.getMonth()];
+        const year = date.getFullYear();
+        let formattedDate = `${day}-${month}-${year}`;
+        if (includeTime && hasTime) {
+            formattedDate += ` ${String(date.getHours()).padStart(2,'0')}:${String(date.getMinutes()).padStart(2,'0')}:${String(date.getSeconds()).padStart(2,'0')}`;
+        }
+        return formattedDate;
+    } catch (error) { return dateStr; }
+}
+
+function formatAllDates() {
+    document.querySelectorAll('.format-date:not(.format-date-time)').forEach(el => {
+        const d = el.textContent.trim();
+        if (d && d !== '-') el.textContent = formatToMonthYear(d);
+    });
+    document.querySelectorAll('.format-date-time').forEach(el => {
+        const d = el.textContent.trim();
+        if (d && d !== '-') el.textContent = formatDateToDDMMMYYYY(d, true);
+    });
+}
+
+function parseDate(dateStr) {
+    if (!dateStr) return new Date();
+    dateStr = dateStr.trim();
+    // DD-MMM-YYYY HH:MM:SS
+    const m1 = dateStr.match(/^(\d{2})-([A-Za-z]{3})-(\d{4})\s+(\d{2}):(\d{2}):(\d{2})$/);
+    if (m1) { const mm = {jan:0,feb:1,mar:2,apr:3,may:4,jun:5,jul:6,aug:7,sep:8,oct:9,nov:10,dec:11}; const mo = mm[m1[2].toLowerCase()]; if (mo !== undefined) return new Date(+m1[3], mo, +m1[1], +m1[4], +m1[5], +m1[6]); }
+    // DD-MMM-YYYY
+    const m2 = dateStr.match(/^(\d{2})-([A-Za-z]{3})-(\d{4})$/);
+    if (m2) { const mm = {jan:0,feb:1,mar:2,apr:3,may:4,jun:5,jul:6,aug:7,sep:8,oct:9,nov:10,dec:11}; const mo = mm[m2[2].toLowerCase()]; if (mo !== undefined) return new Date(+m2[3], mo, +m2[1]); }
+    // ISO format
+    if (/^\d{4}-\d{2}-\d{2}/.test(dateStr)) return new Date(dateStr);
+    const parsed = new Date(dateStr);
+    return !isNaN(parsed.getTime()) ? parsed : new Date();
+}
+
+// ==================== STATE VARIABLES ====================
+let watermarkEnabled = true;
+let watermarkOpacity = 30;
+let watermarkPosition = 'Diagonal';
+const itemsPerPage = 7;
+let currentPage = 1;
+let currentView = 'list';
+let currentSortColumn = null;
+let currentSortDirection = null;
+
+// ⭐ UNIFIED DATA MODEL: Store ALL documents as data objects (not DOM elements)
+let allDocuments = [];    // Master list of all document data objects
+let filteredDocuments = []; // Filtered subset
+
+const urlParams = new URLSearchParams(window.location.search);
+const viewParam = urlParams.get('view');
+if (viewParam) currentView = viewParam;
+else if (localStorage.getItem('documentView')) currentView = localStorage.getItem('documentView');
+
+// ==================== INITIALIZATION ====================
+window.addEventListener("pageshow", function(event) {
+    document.getElementById('searchInput').value = '';
+    document.getElementById('tagFilter').value = '';
+    document.getElementById('classificationFilter').value = '';
+    document.getElementById('sortFilter').value = 'latest';
+    document.getElementById('startDate').value = '';
+    document.getElementById('endDate').value = '';
+    document.getElementById('clearFiltersBtn').classList.remove('show');
+    applyAllFilters();
+});
+
+document.addEventListener('DOMContentLoaded', function() {
+    loadWatermarkSettings();
+    formatAllDates();
+    buildDocumentDataModel();
+
+    if (currentView === 'grid') toggleView('grid');
+    else toggleView('list');
+
+    applyAllFilters();
+    toggleClearButton();
+    showContent();
+     // Reset download modal state when closed
+    document.getElementById('downloadModal').addEventListener('hidden.bs.modal', function() {
+        resetDownloadModal();
+});
+});
+
+/**
+ * ⭐ BUILD UNIFIED DATA MODEL from list view rows (they have ALL data attributes)
+ * This ensures search works identically in both views across ALL documents
+ */
+function buildDocumentDataModel() {
+    const rows = document.querySelectorAll('#documentsTable tbody tr');
+    allDocuments = [];
+
+    rows.forEach((row, index) => {
+        allDocuments.push({
+            index: index,
+            title: (row.getAttribute('data-title') || '').toLowerCase(),
+            code: (row.getAttribute('data-code') || '').toLowerCase(),
+            edition: (row.getAttribute('data-Edition') || '').toLowerCase(),
+            tags: (row.getAttribute('data-tags') || '').toLowerCase(),
+            classifications: (row.getAttribute('data-classifications') || '').toLowerCase(),
+            uploadDate: row.getAttribute('data-upload-date') || '',
+            publishDate: row.getAttribute('data-publish-date') || '',
+            pages: row.getAttribute('data-pages') || '',
+            notes: (row.getAttribute('data-notes') || '').toLowerCase(),
+            listElement: row,
+            gridElement: null // Will be linked below
+        });
+    });
+
+    // Link grid view cards to the same data objects (by index, same th:each order)
+    const cards = document.querySelectorAll('.documents-grid .document-card');
+    cards.forEach((card, index) => {
+        if (index < allDocuments.length) {
+            allDocuments[index].gridElement = card;
+        }
+    });
+
+    console.log(`✅ Built data model: ${allDocuments.length} documents`);
+}
+
+// ==================== VIEW TOGGLE ====================
+function toggleView(view) {
+    currentView = view;
+    localStorage.setItem('documentView', view);
+
+    const listView = document.getElementById('listView');
+    const gridView = document.getElementById('gridView');
+    const listBtn = document.getElementById('listViewBtn');
+    const gridBtn = document.getElementById('gridViewBtn');
+
+    if (view === 'grid') {
+        listView.style.display = 'none';
+        gridView.style.display = 'block';
+        listBtn.classList.remove('active');
+        gridBtn.classList.add('active');
+    } else {
+        listView.style.display = 'block';
+        gridView.style.display = 'none';
+        gridBtn.classList.remove('active');
+        listBtn.classList.add('active');
+    }
+
+    // Reset sort when switching views
+    currentSortColumn = null;
+    currentSortDirection = null;
+    document.querySelectorAll('.data-grid-table thead th').forEach(th => th.classList.remove('sorted-asc', 'sorted-desc'));
+
+    applyAllFilters();
+    bindClicks();
+}
+
+// ==================== SEARCH & FILTER (UNIFIED) ====================
+function searchDocuments() { applyAllFilters(); }
+
+function applyAllFilters() {
+    const searchTerm = document.getElementById('searchInput').value.toLowerCase().trim();
+    const tagFilter = document.getElementById('tagFilter').value.toLowerCase();
+    const classificationFilter = document.getElementById('classificationFilter').value.toLowerCase();
+    const sortValue = document.getElementById('sortFilter').value;
+    const startDate = document.getElementById('startDate').value;
+    const endDate = document.getElementById('endDate').value;
+
+    // ⭐ Filter from the COMPLETE data model (not DOM visibility)
+    filteredDocuments = allDocuments.filter(doc => {
+        // Search across ALL fields
+        let matchesSearch = true;
+        if (searchTerm) {
+            matchesSearch =
+                doc.title.includes(searchTerm) ||
+                doc.code.includes(searchTerm) ||
+                doc.edition.includes(searchTerm) ||
+                doc.tags.includes(searchTerm) ||
+                doc.classifications.includes(searchTerm) ||
+                doc.notes.includes(searchTerm) ||
+                doc.pages.includes(searchTerm);
+        }
+
+        // Tag filter (exact match)
+        let matchesTag = true;
+        if (tagFilter) {
+            const tags = doc.tags.split(',').map(t => t.trim());
+            matchesTag = tags.some(t => t === tagFilter);
+        }
+
+        // Classification filter (exact match)
+        let matchesClassification = true;
+        if (classificationFilter) {
+            const classifications = doc.classifications.split(',').map(c => c.trim());
+            matchesClassification = classifications.some(c => c === classificationFilter);
+        }
+
+        // Date range filter (on upload date)
+        // Date range filter (on upload date)
+        let matchesDate = true;
+        if (startDate || endDate) {
+            if (doc.uploadDate) {
+                const itemDate = parseDate(doc.uploadDate);
+
+                // Build inclusive "from" start-of-day
+                let fromDate = null;
+                if (startDate) {
+                    fromDate = new Date(startDate);
+                    fromDate.setHours(0, 0, 0, 0);
+                }
+
+                // Build inclusive "to" end-of-day
+                let toDate = null;
+                if (endDate) {
+                    toDate = new Date(endDate);
+                    toDate.setHours(23, 59, 59, 999);
+                }
+
+                if (fromDate && toDate) {
+                    // Both dates selected: show from-date to to-date (inclusive)
+                    matchesDate = itemDate >= fromDate && itemDate <= toDate;
+                } else if (fromDate && !toDate) {
+                    // Only from-date: show from that date to today (inclusive)
+                    const today = new Date();
+                    today.setHours(23, 59, 59, 999);
+                    matchesDate = itemDate >= fromDate && itemDate <= today;
+                } else if (!fromDate && toDate) {
+                    // Only to-date: show all documents before/on that date
+                    matchesDate = itemDate <= toDate;
+                }
+            } else {
+                // No upload date on document — exclude from date-filtered results
+                matchesDate = false;
+            }
+        }
+
+        return matchesSearch && matchesTag && matchesClassification && matchesDate;
+    });
+
+    // Apply sorting
+    applySorting(sortValue);
+
+    // Reset to page 1 and display
+    currentPage = 1;
+    displayPage(1);
+    toggleClearButton();
+}
+
+function applySorting(sortValue) {
+    if (currentSortColumn && currentSortDirection) {
+        sortByColumn(currentSortColumn, currentSortDirection);
+        return;
+    }
+
+    if (sortValue === 'latest') {
+        filteredDocuments.sort((a, b) => parseDate(b.uploadDate) - parseDate(a.uploadDate));
+    } else if (sortValue === 'oldest') {
+        filteredDocuments.sort((a, b) => parseDate(a.uploadDate) - parseDate(b.uploadDate));
+    } else if (sortValue === 'title') {
+        filteredDocuments.sort((a, b) => a.title.localeCompare(b.title));
+    } else if (sortValue === 'title-desc') {
+        filteredDocuments.sort((a, b) => b.title.localeCompare(a.title));
+    }
+}
+
+function sortByColumn(column, direction) {
+    filteredDocuments.sort((a, b) => {
+        let vA, vB;
+        switch(column) {
+            case 'title': vA = a.title; vB = b.title; break;
+            case 'code': vA = a.code; vB = b.code; break;
+            case 'Edition': vA = a.edition; vB = b.edition; break;
+            case 'publishDate': return direction === 'asc' ? parseDate(a.publishDate) - parseDate(b.publishDate) : parseDate(b.publishDate) - parseDate(a.publishDate);
+            case 'pages': return direction === 'asc' ? (parseInt(a.pages)||0) - (parseInt(b.pages)||0) : (parseInt(b.pages)||0) - (parseInt(a.pages)||0);
+            case 'uploadDate': return direction === 'asc' ? parseDate(a.uploadDate) - parseDate(b.uploadDate) : parseDate(b.uploadDate) - parseDate(a.uploadDate);
+            default: return 0;
+        }
+        const cmp = (vA || '').localeCompare(vB || '');
+        return direction === 'asc' ? cmp : -cmp;
+    });
+}
+
+// ==================== PAGINATION ====================
+function displayPage(page) {
+    currentPage = page;
+    const start = (page - 1) * itemsPerPage;
+    const end = start + itemsPerPage;
+
+    // Hide ALL elements in both views
+    allDocuments.forEach(doc => {
+        if (doc.listElement) doc.listElement.style.display = 'none';
+        if (doc.gridElement) doc.gridElement.style.display = 'none';
+    });
+
+    // Show only the current page's filtered items
+    const pageItems = filteredDocuments.slice(start, end);
+    pageItems.forEach(doc => {
+        if (currentView === 'list' && doc.listElement) {
+            doc.listElement.style.display = '';
+        } else if (currentView === 'grid' && doc.gridElement) {
+            doc.gridElement.style.display = '';
+        }
+    });
+
+    // ⭐ Reorder DOM to match sort order (so visible items appear in correct order)
+    if (currentView === 'list') {
+        const tbody = document.querySelector('#documentsTable tbody');
+        filteredDocuments.forEach(doc => { if (doc.listElement) tbody.appendChild(doc.listElement); });
+        // Append non-filtered items at the end (hidden)
+        allDocuments.filter(d => !filteredDocuments.includes(d)).forEach(doc => { if (doc.listElement) tbody.appendChild(doc.listElement); });
+    } else {
+        const grid = document.querySelector('.documents-grid');
+        filteredDocuments.forEach(doc => { if (doc.gridElement) grid.appendChild(doc.gridElement); });
+        allDocuments.filter(d => !filteredDocuments.includes(d)).forEach(doc => { if (doc.gridElement) grid.appendChild(doc.gridElement); });
+    }
+
+    // Update counts
+    document.getElementById('pageStart').textContent = filteredDocuments.length > 0 ? start + 1 : 0;
+    document.getElementById('pageEnd').textContent = Math.min(end, filteredDocuments.length);
+    document.getElementById('pageTotal').textContent = filteredDocuments.length;
+    document.getElementById('currentCount').textContent = filteredDocuments.length;
+    document.getElementById('totalCount').textContent = allDocuments.length;
+
+    renderPaginationButtons();
+    bindClicks();
+}
+
+function renderPaginationButtons() {
+    const totalPages = Math.ceil(filteredDocuments.length / itemsPerPage);
+    const paginationUl = document.getElementById('pagination');
+    paginationUl.innerHTML = '';
+
+    const prevLi = document.createElement('li');
+    prevLi.className = `page-item ${currentPage === 1 ? 'disabled' : ''}`;
+    prevLi.innerHTML = `<a class="page-link" href="#" onclick="changePage(${currentPage - 1}); return false;">Previous</a>`;
+    paginationUl.appendChild(prevLi);
+
+    for (let i = 1; i <= totalPages; i++) {
+        if (i === 1 || i === totalPages || (i >= currentPage - 1 && i <= currentPage + 1)) {
+            const li = document.createElement('li');
+            li.className = `page-item ${i === currentPage ? 'active' : ''}`;
+            li.innerHTML = `<a class="page-link" href="#" onclick="changePage(${i}); return false;">${i}</a>`;
+            paginationUl.appendChild(li);
+        } else if (i === currentPage - 2 || i === currentPage + 2) {
+            const li = document.createElement('li');
+            li.className = 'page-item disabled';
+            li.innerHTML = '<a class="page-link" href="#">...</a>';
+            paginationUl.appendChild(li);
+        }
+    }
+
+    const nextLi = document.createElement('li');
+    nextLi.className = `page-item ${currentPage === totalPages || totalPages === 0 ? 'disabled' : ''}`;
+    nextLi.innerHTML = `<a class="page-link" href="#" onclick="changePage(${currentPage + 1}); return false;">Next</a>`;
+    paginationUl.appendChild(nextLi);
+}
+
+function changePage(page) {
+    const totalPages = Math.ceil(filteredDocuments.length / itemsPerPage);
+    if (page < 1 || page > totalPages) return;
+    displayPage(page);
+}
+
+// ==================== TABLE COLUMN SORT ====================
+function sortTable(column) {
+    if (currentView !== 'list') return;
+    const headers = document.querySelectorAll('.data-grid-table thead th');
+
+    if (currentSortColumn === column) {
+        if (currentSortDirection === 'asc') currentSortDirection = 'desc';
+        else if (currentSortDirection === 'desc') { currentSortDirection = null; currentSortColumn = null; document.getElementById('sortFilter').value = 'latest'; }
+    } else {
+        currentSortColumn = column;
+        currentSortDirection = 'asc';
+    }
+
+    headers.forEach(th => th.classList.remove('sorted-asc', 'sorted-desc'));
+    const clickedHeader = Array.from(headers).find(th => { const oc = th.getAttribute('onclick'); return oc && oc.includes(`'${column}'`); });
+    if (clickedHeader && currentSortDirection) clickedHeader.classList.add(currentSortDirection === 'asc' ? 'sorted-asc' : 'sorted-desc');
+
+    if (currentSortDirection === null) { applyAllFilters(); return; }
+    sortByColumn(column, currentSortDirection);
+    displayPage(currentPage);
+}
+
+// ==================== CLICK HANDLERS ====================
+function bindClicks() {
+    document.querySelectorAll('#documentsTable tbody tr').forEach(row => {
+        const mainLink = row.querySelector('.doc-main-link');
+        row.removeEventListener('click', row._rowClickHandler);
+        row._rowClickHandler = function(e) { if (e.target.closest('.col-actions')) return; if (mainLink) window.open(mainLink.href, '_blank'); };
+        row.addEventListener('click', row._rowClickHandler);
+        row.style.cursor = 'pointer';
+        row.querySelectorAll('.col-actions a, .col-actions button, .action-btn, .btn-sm').forEach(btn => btn.addEventListener('click', evt => evt.stopPropagation()));
+    });
+
+    document.querySelectorAll('.document-card').forEach(card => {
+        const mainLink = card.querySelector('.doc-main-link');
+        card.removeEventListener('click', card._cardClickHandler);
+        card._cardClickHandler = function(e) { if (e.target.closest('.card-actions')) return; if (mainLink) window.open(mainLink.href, '_blank'); };
+        card.addEventListener('click', card._cardClickHandler);
+        card.style.cursor = 'pointer';
+        card.querySelectorAll('.card-actions a, .card-actions button, .action-btn, .btn-sm').forEach(btn => btn.addEventListener('click', evt => evt.stopPropagation()));
+    });
+}
+
+// ==================== FILTER UI ====================
+function toggleClearButton() {
+    const hasFilters = document.getElementById('startDate').value || document.getElementById('endDate').value ||
+        document.getElementById('tagFilter').value || document.getElementById('classificationFilter').value ||
+        document.getElementById('searchInput').value;
+    document.getElementById('clearFiltersBtn').classList.toggle('show', !!hasFilters);
+}
+
+function clearAllFilters() {
+    document.getElementById('startDate').value = '';
+    document.getElementById('endDate').value = '';
+    document.getElementById('tagFilter').value = '';
+    document.getElementById('classificationFilter').value = '';
+    document.getElementById('searchInput').value = '';
+    document.getElementById('sortFilter').value = 'latest';
+    currentSortColumn = null;
+    currentSortDirection = null;
+    document.querySelectorAll('.data-grid-table thead th').forEach(th => th.classList.remove('sorted-asc', 'sorted-desc'));
+    applyAllFilters();
+}
+
+// ==================== WATERMARK SETTINGS ====================
+async function loadWatermarkSettings() {
+    try {
+        const response = await fetch('/api/settings/watermark');
+        if (!response.ok) return;
+        const settings = await response.json();
+        watermarkEnabled = settings.watermarkEnabled || false;
+        watermarkOpacity = settings.watermarkOpacity || 30;
+        watermarkPosition = settings.watermarkPosition || 'Diagonal';
+        updateDownloadModals();
+    } catch (error) { console.error('Error loading watermark settings:', error); }
+}
+
+function updateDownloadModals() {
+    const downloadModal = document.getElementById('downloadModal');
+    if (!downloadModal) return;
+    const modalBody = downloadModal.querySelector('.modal-body');
+    if (watermarkEnabled) {
+        modalBody.innerHTML = `<div class="download-icon mb-3"><div style="width:80px;height:80px;background:linear-gradient(135deg,#667eea 0%,#764ba2 100%);border-radius:50%;display:flex;align-items:center;justify-content:center;margin:0 auto;"><i class="bi bi-shield-check" style="font-size:40px;color:white;"></i></div></div><h5 class="mb-3" style="font-size:18px;font-weight:600;color:#1a2332;">Watermarked Download</h5><p class="text-muted mb-0" style="font-size:14px;line-height:1.6;">This PDF will be downloaded with watermarks for security purposes.</p><p class="mt-2 mb-0" style="font-size:13px;color:#6b7a99;">Document: <strong id="downloadDocTitle"></strong></p>`;
+    } else {
+        modalBody.innerHTML = `<div class="download-icon mb-3"><div style="width:80px;height:80px;background:linear-gradient(135deg,#10b981 0%,#059669 100%);border-radius:50%;display:flex;align-items:center;justify-content:center;margin:0 auto;"><i class="bi bi-download" style="font-size:40px;color:white;"></i></div></div><h5 class="mb-3" style="font-size:18px;font-weight:600;color:#1a2332;">Download PDF</h5><p class="text-muted mb-0" style="font-size:14px;line-height:1.6;">This document will be downloaded without watermarks.</p><p class="mt-2 mb-0" style="font-size:13px;color:#6b7a99;">Document: <strong id="downloadDocTitle"></strong></p>`;
+    }
+}
+
+// ==================== MODALS ====================
+function showDeleteModal(element) {
+    const docId = element.getAttribute('data-doc-id');
+    const docTitle = element.getAttribute('data-doc-title');
+    document.getElementById('documentTitle').textContent = docTitle;
+    document.getElementById('confirmDeleteBtn').setAttribute('href', `/documents/delete/${docId}`);
+    new bootstrap.Modal(document.getElementById('deleteModal')).show();
+}
+
+async function showDownloadModal(element) {
+    const docId = element.getAttribute('data-doc-id');
+    const docTitle = element.getAttribute('data-doc-title');
+
+    let wSettings = { enabled: false };
+    try {
+        const r = await fetch('/api/settings/watermark');
+        if (r.ok) { const s = await r.json(); wSettings = { enabled: s.watermarkEnabled || false }; }
+    } catch (e) {}
+
+    const downloadModal = document.getElementById('downloadModal');
+    const modalBody = downloadModal.querySelector('.modal-body');
+
+    if (wSettings.enabled) {
+        modalBody.innerHTML = `<div class="download-icon mb-3"><div style="width:80px;height:80px;background:linear-gradient(135deg,#667eea 0%,#764ba2 100%);border-radius:50%;display:flex;align-items:center;justify-content:center;margin:0 auto;"><i class="bi bi-shield-check" style="font-size:40px;color:white;"></i></div></div><h5 class="mb-3" style="font-size:18px;font-weight:600;color:#1a2332;">Watermarked Download</h5><p class="text-muted mb-2" style="font-size:14px;line-height:1.6;">This PDF will be downloaded with watermarks for security purposes.</p><p class="mt-2 mb-0" style="font-size:13px;color:#6b7a99;">Document: <strong id="downloadDocTitle">${docTitle}</strong></p>`;
+    } else {
+        modalBody.innerHTML = `<div class="download-icon mb-3"><div style="width:80px;height:80px;background:linear-gradient(135deg,#10b981 0%,#059669 100%);border-radius:50%;display:flex;align-items:center;justify-content:center;margin:0 auto;"><i class="bi bi-download" style="font-size:40px;color:white;"></i></div></div><h5 class="mb-3" style="font-size:18px;font-weight:600;color:#1a2332;">Download PDF</h5><p class="text-muted mb-0" style="font-size:14px;line-height:1.6;">This document will be downloaded without watermarks.</p><p class="mt-2 mb-0" style="font-size:13px;color:#6b7a99;">Document: <strong id="downloadDocTitle">${docTitle}</strong></p>`;
+    }
+
+    resetDownloadModal();
+    currentDownloadDocId = docId;
+    currentDownloadDocTitle = docTitle;
+    new bootstrap.Modal(downloadModal).show();
+}
+
+// Auto-dismiss alerts
+setTimeout(() => { document.querySelectorAll('.alert').forEach(alert => { const a = bootstrap.Alert.getOrCreateInstance(alert); if (a) a.close(); }); }, 5000);
+
+// ==================== DOWNLOAD WITH PROGRESS ====================
+let currentDownloadDocId = null;
+let currentDownloadDocTitle = null;
+
+function startDownload() {
+const confirmBtn = document.getElementById('confirmDownloadBtn');
+const cancelBtn = document.getElementById('cancelDownloadBtn');
+const modalBody = document.querySelector('#downloadModal .modal-body');
+
+if (!currentDownloadDocId) return;
+
+// Disable buttons during download
+confirmBtn.disabled = true;
+confirmBtn.innerHTML = '<span class="spinner-border spinner-border-sm me-2"></span> Downloading...';
+cancelBtn.disabled = true;
+
+// Add progress bar to modal body
+let progressContainer = document.getElementById('downloadProgressContainer');
+if (!progressContainer) {
+    progressContainer = document.createElement('div');
+    progressContainer.id = 'downloadProgressContainer';
+    progressContainer.className = 'download-progress-container';
+    progressContainer.innerHTML = `
+        <div class="progress-bar-wrapper">
+            <div class="progress-bar-fill indeterminate" id="downloadProgressBar"></div>
+        </div>
+        <div class="download-status-text" id="downloadStatusText">Preparing your document...</div>
+    `;
+    modalBody.appendChild(progressContainer);
+}
+
+progressContainer.classList.add('active');
+const progressBar = document.getElementById('downloadProgressBar');
+const statusText = document.getElementById('downloadStatusText');
+
+// Status messages cycle
+const messages = [
+    'Preparing your document...',
+    'Applying watermark...',
+    'Generating PDF...',
+    'Almost ready...'
+];
+let msgIndex = 0;
+const msgInterval = setInterval(() => {
+    msgIndex = Math.min(msgIndex + 1, messages.length - 1);
+    statusText.textContent = messages[msgIndex];
+}, 1200);
+
+// Fetch the document as blob
+fetch(`/documents/download/${currentDownloadDocId}`)
+    .then(response => {
+        if (!response.ok) throw new Error('Download failed');
+
+        const contentLength = response.headers.get('content-length');
+
+        if (contentLength) {
+            // Known size — show real progress
+            progressBar.classList.remove('indeterminate');
+            const total = parseInt(contentLength, 10);
+            let loaded = 0;
+
+            const reader = response.body.getReader();
+            const chunks = [];
+
+            return new ReadableStream({
+                start(controller) {
+                    function pump() {
+                        return reader.read().then(({ done, value }) => {
+                            if (done) {
+                                controller.close();
+                                return;
+                            }
+                            loaded += value.length;
+                            const percent = Math.round((loaded / total) * 100);
+                            progressBar.style.width = percent + '%';
+                            statusText.textContent = `Downloading... ${percent}%`;
+                            controller.enqueue(value);
+                            return pump();
+                        });
+                    }
+                    return pump();
+                }
+            });
+        } else {
+            // Unknown size — keep indeterminate
+            return response.body;
+        }
+    })
+    .then(stream => new Response(stream))
+    .then(response => response.blob())
+    .then(blob => {
+        clearInterval(msgInterval);
+
+        // Show complete state
+        progressBar.classList.remove('indeterminate');
+        progressBar.style.width = '100%';
+        statusText.innerHTML = '<span class="download-complete-icon"><i class="bi bi-check-circle-fill"></i></span> Download complete!';
+
+        confirmBtn.innerHTML = '<i class="bi bi-check-circle me-2"></i> Downloaded';
+        confirmBtn.style.background = '#10b981';
+
+        // Trigger file save
+        const url = window.URL.createObjectURL(blob);
+        const a = document.createElement('a');
+        a.href = url;
+        a.download = (currentDownloadDocTitle || 'document') + '.pdf';
+        document.body.appendChild(a);
+        a.click();
+        document.body.removeChild(a);
+        window.URL.revokeObjectURL(url);
+
+        // Auto-close modal after short delay
+        setTimeout(() => {
+            const modalEl = document.getElementById('downloadModal');
+            const modalInstance = bootstrap.Modal.getInstance(modalEl);
+            if (modalInstance) modalInstance.hide();
+            resetDownloadModal();
+        }, 1500);
+    })
+    .catch(error => {
+        clearInterval(msgInterval);
+        console.error('Download error:', error);
+
+        progressBar.classList.remove('indeterminate');
+        progressBar.style.width = '100%';
+        progressBar.style.background = '#ef4444';
+        statusText.innerHTML = '<i class="bi bi-exclamation-circle me-2" style="color:#ef4444;"></i> Download failed. Please try again.';
+
+        confirmBtn.disabled = false;
+        confirmBtn.innerHTML = '<i class="bi bi-arrow-clockwise me-2"></i> Retry';
+        confirmBtn.style.background = '#4285f4';
+        cancelBtn.disabled = false;
+    });
+}
+
+function resetDownloadModal() {
+const confirmBtn = document.getElementById('confirmDownloadBtn');
+const cancelBtn = document.getElementById('cancelDownloadBtn');
+const progressContainer = document.getElementById('downloadProgressContainer');
+
+if (confirmBtn) {
+    confirmBtn.disabled = false;
+    confirmBtn.innerHTML = '<i class="bi bi-download me-2"></i> Download with Watermark';
+    confirmBtn.style.background = '#4285f4';
+}
+if (cancelBtn) cancelBtn.disabled = false;
+if (progressContainer) {
+    progressContainer.classList.remove('active');
+    progressContainer.remove();
+}
+
+currentDownloadDocId = null;
+currentDownloadDocTitle = null;
+}
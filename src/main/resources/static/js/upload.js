@@ -0,0 +1,1550 @@
+// ==================== UPLOAD DOCUMENT PAGE ====================
+
+// ==================== WIZARD STATE MANAGEMENT ====================
+/**
+ * Global state variables for the wizard
+ */
+let currentStep = 1; // Current wizard step (1-4)
+let formChanged = false; // Track if form has been modified
+let selectedTags = []; // Array of selected tag names
+let selectedClassifications = []; // Array of selected classification names
+let selectedGroups = []; // Array of selected group objects {id, name}
+let uploadedFile = null; // Currently uploaded PDF file
+let pdfDoc = null; // PDF.js document object
+let isPasswordProtected = false; // Flag for password-protected PDFs
+let allExistingTags = []; // All available tags
+let allExistingClassifications = []; // All available classifications
+let allExistingGroups = []; // All available groups
+let classificationSelectionLocked = false; // ED1 lock
+let maxFileSizeMB = 50; // Default max file size (will be fetched from settings)
+let allowedFormats = ['PDF'];
+let metadataSchema = {};
+let maxTagsPerDocument = 10;
+
+
+// ==================== MODAL POSITIONING (sidebar-aware) ====================
+let activeCustomModalId = null;
+
+function centerModalToMainContent(modalId) {
+const overlay = document.getElementById(modalId);
+if (!overlay) return;
+const modalEl = overlay.querySelector('.custom-modal');
+if (!modalEl) return;
+
+const mainContent = document.querySelector('.main-content');
+if (!mainContent) return;
+
+const mainRect = mainContent.getBoundingClientRect();
+const modalWidth = modalEl.offsetWidth;
+const modalHeight = modalEl.offsetHeight;
+
+const left = mainRect.left + (mainRect.width / 2) - (modalWidth / 2);
+const top = Math.max(80, (window.innerHeight / 2) - (modalHeight / 2));
+
+modalEl.style.left = `${left}px`;
+modalEl.style.top = `${top}px`;
+}
+
+function openCustomModal(modalId) {
+const overlay = document.getElementById(modalId);
+if (!overlay) return;
+
+activeCustomModalId = modalId;
+overlay.classList.add('show');
+
+const modalEl = overlay.querySelector('.custom-modal');
+if (modalEl) modalEl.classList.add('show');
+
+document.body.style.overflow = 'hidden';
+
+setTimeout(() => centerModalToMainContent(modalId), 10);
+}
+
+function closeCustomModal(modalId) {
+const overlay = document.getElementById(modalId);
+if (!overlay) return;
+
+overlay.classList.remove('show');
+
+const modalEl = overlay.querySelector('.custom-modal');
+if (modalEl) {
+    modalEl.classList.remove('show');
+    modalEl.style.left = '';
+    modalEl.style.top = '';
+}
+
+document.body.style.overflow = '';
+activeCustomModalId = null;
+}
+
+
+async function checkClassificationEditionAccess() {
+try {
+    const response = await fetch('/api/classifications/check-management-access');
+    const data = await response.json();
+
+    console.log('Classification license check:', data);
+
+    // 🔒 LOCK ONLY WHEN EXPLICITLY ED1
+    if (data && data.managementAllowed === false) {
+        classificationSelectionLocked = true;
+        applyEssentialClassificationLock();
+    }
+} catch (err) {
+    console.error('Classification edit license check failed', err);
+    // ❌ DO NOT LOCK on error
+}
+}
+/**
+ * Fetch max file size and allowed formats from settings
+ */
+async function fetchUploadSettings() {
+try {
+    const response = await fetch('/api/settings');
+    if (!response.ok) {
+        console.warn('Could not fetch settings, using defaults');
+        return;
+    }
+
+    const settings = await response.json();
+
+    if (settings.maxFileSizeMb) {
+        maxFileSizeMB = settings.maxFileSizeMb;
+        console.log('✅ Max file size loaded:', maxFileSizeMB, 'MB');
+    }
+
+    if (settings.allowedFiles) {
+        allowedFormats = settings.allowedFiles.split(',').map(f => f.trim());
+        console.log('✅ Allowed formats loaded:', allowedFormats);
+    }
+
+    updateUploadUIText();
+
+} catch (error) {
+    console.error('Error fetching upload settings:', error);
+}
+}
+
+/**
+ * Fetch metadata schema settings and apply to form
+ */
+async function fetchMetadataSchema() {
+try {
+    const response = await fetch('/api/settings/metadata');
+    if (!response.ok) {
+        console.warn('Could not fetch metadata schema, using defaults');
+        return;
+    }
+
+    metadataSchema = await response.json();
+    console.log('✅ Metadata schema loaded:', metadataSchema);
+
+    applyMetadataSchema();
+
+} catch (error) {
+    console.error('Error fetching metadata schema:', error);
+}
+}
+/**
+ * Fetch tag policies from settings
+ */
+async function fetchTagPolicies() {
+try {
+    const response = await fetch('/api/settings/tag-policies');
+    if (!response.ok) {
+        console.warn('Could not fetch tag policies, using defaults');
+        return;
+    }
+
+    const policies = await response.json();
+
+    if (policies.maxTagsPerDocument) {
+        maxTagsPerDocument = policies.maxTagsPerDocument;
+        console.log('✅ Max tags per document loaded:', maxTagsPerDocument);
+    }
+
+} catch (error) {
+    console.error('Error fetching tag policies:', error);
+}
+}
+
+/**
+ * Apply metadata schema to form (show/hide fields, add required indicators)
+ */
+function applyMetadataSchema() {
+// Product Code
+const productCodeGroup = document.getElementById('productCode').closest('.form-group');
+const productCodeLabel = document.querySelector('label[for="productCode"]');
+if (metadataSchema.productCode) {
+    productCodeGroup.style.display = 'block';
+    document.getElementById('productCode').required = true;
+    if (!productCodeLabel.querySelector('.required-indicator')) {
+        productCodeLabel.innerHTML = 'Product Code <span class="required-indicator">*</span>';
+    }
+} else {
+    productCodeGroup.style.display = 'none';
+    document.getElementById('productCode').required = false;
+}
+
+// Edition
+const editionGroup = document.getElementById('edition').closest('.form-group');
+const editionLabel = document.querySelector('label[for="edition"]');
+if (metadataSchema.edition) {
+    editionGroup.style.display = 'block';
+    document.getElementById('edition').required = true;
+    if (!editionLabel.querySelector('.required-indicator')) {
+        editionLabel.innerHTML = 'Edition <span class="required-indicator">*</span>';
+    }
+} else {
+    editionGroup.style.display = 'none';
+    document.getElementById('edition').required = false;
+}
+
+// Publication Date (Month + Year together)
+const publishMonthGroup = document.getElementById('publishMonth').closest('.form-group');
+const publishYearGroup = document.getElementById('publishYear').closest('.form-group');
+const publishRow = publishMonthGroup.closest('.form-row');
+
+if (metadataSchema.publicationDate) {
+    publishRow.style.display = 'grid';
+    document.getElementById('publishYear').required = true;
+    const publishYearLabel = document.querySelector('label[for="publishYear"]');
+    if (!publishYearLabel.querySelector('.required-indicator')) {
+        publishYearLabel.innerHTML = 'Publication Year <span class="required-indicator">*</span>';
+    }
+} else {
+    publishRow.style.display = 'none';
+    document.getElementById('publishYear').required = false;
+    document.getElementById('publishMonth').required = false;
+}
+
+// Title
+const titleGroup = document.getElementById('title').closest('.form-group');
+const titleLabel = document.querySelector('label[for="title"]');
+if (metadataSchema.title) {
+    titleGroup.style.display = 'block';
+    document.getElementById('title').required = true;
+    if (!titleLabel.querySelector('.required-indicator')) {
+        titleLabel.innerHTML = 'Document Title <span class="required-indicator">*</span>';
+    }
+} else {
+    titleGroup.style.display = 'none';
+    document.getElementById('title').required = false;
+}
+
+// Description (Notes field)
+const notesGroup = document.getElementById('notes').closest('.form-group');
+const notesLabel = document.querySelector('label[for="notes"]');
+if (metadataSchema.description) {
+    notesGroup.style.display = 'block';
+    document.getElementById('notes').required = true;
+    if (!notesLabel.querySelector('.required-indicator')) {
+        notesLabel.innerHTML = 'Notes / Description <span class="required-indicator">*</span>';
+    }
+} else {
+    notesGroup.style.display = 'none';
+    document.getElementById('notes').required = false;
+}
+
+console.log('✅ Metadata schema applied to form');
+}
+
+/**
+ * Update UI text with current settings
+ */
+function updateUploadUIText() {
+const dropZoneInfo = document.querySelector('.drop-zone-info:last-of-type');
+if (dropZoneInfo) {
+    const formatsList = allowedFormats.join(', ');
+    dropZoneInfo.innerHTML = `
+        <i class="bi bi-info-circle"></i>
+        Supported format${allowedFormats.length > 1 ? 's' : ''}: ${formatsList} •
+        Maximum size: ${maxFileSizeMB}MB
+    `;
+}
+}
+
+
+
+function applyEssentialClassificationLock() {
+
+// Show upgrade message
+document.getElementById('classificationRestrictionMsg').style.display = 'block';
+
+// ❌ Hide available classifications
+const selectionArea = document.getElementById('classificationsSelectionArea');
+const selectexectingclassificationshedditn = document.getElementById('selectexectingclassifications');
+const selectexectingclassificationsmessage = document.getElementById('selectexectingclassificationsmessage');
+const selectedclassifications = document.getElementById('selectedclassifications');
+if (selectionArea) selectionArea.style.display = 'none';
+if (selectexectingclassificationshedditn) {
+    selectexectingclassificationshedditn.style.display = "none";
+}
+if (selectexectingclassificationsmessage) {
+    selectexectingclassificationsmessage.style.display = "none";
+}
+if (selectedclassifications) {
+    selectedclassifications.style.display = "none";
+}
+
+
+// ❌ Hide selected classifications
+const selectedArea = document.getElementById('selectedClassificationsContainer');
+if (selectedArea) {
+    selectedArea.innerHTML =
+        '<div class="empty-state">Available in Professional Edition</div>';
+    selectedArea.style.pointerEvents = 'none';
+    selectedArea.style.opacity = '0.6';
+}
+}
+
+
+// ==================== INITIALIZATION ====================
+/**
+ * Initialize the wizard when DOM is loaded
+ */
+   document.addEventListener('DOMContentLoaded', async function() {
+populateYearDropdown();
+await fetchUploadSettings(); // ⭐ ADD THIS LINE
+await fetchMetadataSchema();
+await checkClassificationEditionAccess();
+await fetchTagPolicies(); // ⭐ ADD THIS LINE
+initializeTagsAndClassifications();
+initializeGroups();
+});
+
+// ==================== INITIALIZE TAGS AND CLASSIFICATIONS ====================
+/**
+ * Initialize tags and classifications selection handlers
+ */
+function initializeTagsAndClassifications() {
+    // Get all existing tags from the DOM
+    document.querySelectorAll('.tag-checkbox').forEach(checkbox => {
+        const tagName = checkbox.getAttribute('data-tag-name');
+        if (tagName) {
+            allExistingTags.push(tagName.toLowerCase());
+        }
+    });
+
+    // Get all existing classifications from the DOM
+    document.querySelectorAll('.classification-checkbox').forEach(checkbox => {
+        const classificationName = checkbox.getAttribute('data-classification-name');
+        if (classificationName) {
+            allExistingClassifications.push(classificationName);
+        }
+    });
+
+    // Attach click handlers to existing tags
+document.querySelectorAll('.selection-item-flex[data-tag-name]').forEach(item => {
+item.addEventListener('click', function() {
+    const checkbox = this.querySelector('.tag-checkbox');
+    const tagName = this.getAttribute('data-tag-name');
+
+    if (checkbox.checked) {
+        // Deselecting - always allowed
+        checkbox.checked = false;
+        this.classList.remove('selected');
+        selectedTags = selectedTags.filter(t => t !== tagName);
+    } else {
+        // Selecting - check limit
+        if (selectedTags.length >= maxTagsPerDocument) {
+            // ⭐ VALIDATION: Show error and blink
+            this.classList.add('blink');
+            setTimeout(() => this.classList.remove('blink'), 800);
+            showTagError(`<i class="bi bi-exclamation-circle"></i> Maximum ${maxTagsPerDocument} tags allowed per document`);
+            return; // ← STOP HERE!
+        }
+
+        checkbox.checked = true;
+        this.classList.add('selected');
+        if (!selectedTags.includes(tagName)) {
+            selectedTags.push(tagName);
+        }
+    }
+    renderSelectedTags();
+    formChanged = true;
+});
+});
+
+    // Attach click handlers to existing classifications
+    document.querySelectorAll('.selection-item-flex[data-classification-name]').forEach(item => {
+        item.addEventListener('click', function() {
+            // 🔐 BLOCK FOR ESSENTIAL EDITION
+        if (classificationSelectionLocked) {
+            this.classList.add('blink');
+            setTimeout(() => this.classList.remove('blink'), 800);
+            return;
+        }
+
+            const checkbox = this.querySelector('.classification-checkbox');
+            const classificationName = this.getAttribute('data-classification-name');
+            if (checkbox.checked) {
+                checkbox.checked = false;
+                this.classList.remove('selected');
+                selectedClassifications = selectedClassifications.filter(c => c !== classificationName);
+            } else {
+                checkbox.checked = true;
+                this.classList.add('selected');
+                if (!selectedClassifications.includes(classificationName)) {
+                    selectedClassifications.push(classificationName);
+                }
+            }
+            renderSelectedClassifications();
+            formChanged = true;
+        });
+    });
+}
+
+// ==================== INITIALIZE GROUPS (NEW) ====================
+/**
+ * Initialize groups selection handlers
+ * Works the same way as classifications
+ */
+function initializeGroups() {
+    // Get all existing groups from the DOM
+    document.querySelectorAll('.group-checkbox').forEach(checkbox => {
+        const groupId = checkbox.getAttribute('data-group-id');
+        const groupName = checkbox.getAttribute('data-group-name');
+        if (groupId && groupName) {
+            allExistingGroups.push({ id: groupId, name: groupName });
+        }
+    });
+
+    // Attach click handlers to group selection items
+    document.querySelectorAll('.selection-item-flex[data-group-id]').forEach(item => {
+        item.addEventListener('click', function() {
+            const checkbox = this.querySelector('.group-checkbox');
+            const groupId = this.getAttribute('data-group-id');
+            const groupName = this.getAttribute('data-group-name');
+
+            if (checkbox.checked) {
+                // Deselect group
+                checkbox.checked = false;
+                this.classList.remove('selected');
+                selectedGroups = selectedGroups.filter(g => g.id !== groupId);
+            } else {
+                // Select group
+                checkbox.checked = true;
+                this.classList.add('selected');
+                const existingGroup = selectedGroups.find(g => g.id === groupId);
+                if (!existingGroup) {
+                    selectedGroups.push({ id: groupId, name: groupName });
+                }
+            }
+            renderSelectedGroups();
+            formChanged = true;
+        });
+    });
+
+    // Re-center modal on window resize
+window.addEventListener('resize', function() {
+if (activeCustomModalId) centerModalToMainContent(activeCustomModalId);
+});
+
+// Re-center on sidebar toggle
+const sidebarToggle = document.querySelector('[data-bs-toggle="offcanvas"]');
+if (sidebarToggle) {
+sidebarToggle.addEventListener('click', function() {
+    setTimeout(() => {
+        if (activeCustomModalId) centerModalToMainContent(activeCustomModalId);
+    }, 350);
+});
+}
+
+// MutationObserver for sidebar
+const sidebar = document.querySelector('.sidebar, .offcanvas, [class*="sidebar"]');
+if (sidebar) {
+const observer = new MutationObserver(function() {
+    setTimeout(() => {
+        if (activeCustomModalId) centerModalToMainContent(activeCustomModalId);
+    }, 350);
+});
+observer.observe(sidebar, { attributes: true, attributeFilter: ['class', 'style'] });
+}
+
+// Escape key closes active modal
+document.addEventListener('keydown', function(e) {
+if (e.key === 'Escape' && activeCustomModalId) closeCustomModal(activeCustomModalId);
+});
+}
+
+// ==================== POPULATE YEAR DROPDOWN ====================
+/**
+ * Populate the publication year dropdown with years from current to 1900
+ */
+function populateYearDropdown() {
+    const yearSelect = document.getElementById('publishYear');
+    const currentYear = new Date().getFullYear();
+
+    for (let year = currentYear; year >= 1900; year--) {
+        const option = document.createElement('option');
+        option.value = year;
+        option.textContent = year;
+        yearSelect.appendChild(option);
+    }
+}
+
+// ==================== WIZARD NAVIGATION ====================
+/**
+ * Update wizard step display and navigation buttons
+ * @param {number} step - Target step number (1-4)
+ */
+function updateWizardStep(step) {
+    // Hide all step contents
+    document.querySelectorAll('.wizard-step-content').forEach(content => {
+        content.classList.remove('active');
+    });
+
+    // Show current step content
+    const currentContent = document.querySelector(`.wizard-step-content[data-step="${step}"]`);
+    if (currentContent) {
+        currentContent.classList.add('active');
+    }
+
+    // Update step indicators
+    document.querySelectorAll('.wizard-step').forEach(stepEl => {
+        const stepNum = parseInt(stepEl.getAttribute('data-step'));
+        stepEl.classList.remove('active', 'completed');
+
+        if (stepNum < step) {
+            stepEl.classList.add('completed');
+        } else if (stepNum === step) {
+            stepEl.classList.add('active');
+        }
+    });
+
+    // Update navigation buttons
+    const prevBtn = document.getElementById('prevBtn');
+    const nextBtn = document.getElementById('nextBtn');
+    const submitBtn = document.getElementById('submitBtn');
+
+    if (step === 1) {
+        prevBtn.style.display = 'none';
+        nextBtn.style.display = 'inline-flex';
+        submitBtn.style.display = 'none';
+    } else if (step === 2) {
+        prevBtn.style.display = 'inline-flex';
+        nextBtn.style.display = 'inline-flex';
+        submitBtn.style.display = 'none';
+    } else if (step === 3) {
+        prevBtn.style.display = 'inline-flex';
+        nextBtn.style.display = 'inline-flex';
+        submitBtn.style.display = 'none';
+    } else if (step === 4) {
+        prevBtn.style.display = 'inline-flex';
+        nextBtn.style.display = 'none';
+        submitBtn.style.display = 'inline-flex';
+        updateReviewSection(); // Populate review section
+    }
+
+    currentStep = step;
+}
+
+/**
+ * Next button handler - validates and moves to next step
+ */
+   document.getElementById('nextBtn').addEventListener('click', function() {
+if (currentStep === 1) {
+    // Validate file upload
+    if (!uploadedFile) {
+        showCustomAlert('Please upload a PDF file before proceeding.');
+        return;
+    }
+    formChanged = true;
+    updateWizardStep(2);
+} else if (currentStep === 2) {
+    // ⭐ DYNAMIC VALIDATION BASED ON METADATA SCHEMA
+    const missingFields = [];
+
+    // Check Product Code (if required)
+    if (metadataSchema.productCode && !document.getElementById('productCode').value.trim()) {
+        missingFields.push('Product Code');
+    }
+
+    // Check Edition (if required)
+    if (metadataSchema.edition && !document.getElementById('edition').value.trim()) {
+        missingFields.push('Edition');
+    }
+
+    // Check Publication Year (if required)
+    if (metadataSchema.publicationDate && !document.getElementById('publishYear').value.trim()) {
+        missingFields.push('Publication Year');
+    }
+
+    // Check Title (if required)
+    if (metadataSchema.title && !document.getElementById('title').value.trim()) {
+        missingFields.push('Document Title');
+    }
+
+    // Check Description/Notes (if required)
+    if (metadataSchema.description && !document.getElementById('notes').value.trim()) {
+        missingFields.push('Notes/Description');
+    }
+
+    // Always check Number of Pages (system requirement)
+    if (!document.getElementById('noOfPages').value.trim()) {
+        missingFields.push('Number of Pages');
+    }
+
+    // Show error if any required fields are missing
+    if (missingFields.length > 0) {
+        const fieldsList = missingFields.join(', ');
+        showCustomAlert(`Please fill in the following required fields: ${fieldsList}`);
+        return;
+    }
+
+    updateWizardStep(3);
+} else if (currentStep === 3) {
+    updateWizardStep(4);
+}
+});
+
+/**
+ * Previous button handler - moves to previous step
+ */
+document.getElementById('prevBtn').addEventListener('click', function() {
+    if (currentStep > 1) {
+        updateWizardStep(currentStep - 1);
+    }
+});
+
+// ==================== FILE UPLOAD HANDLING ====================
+/**
+ * Setup drag-and-drop and file input handlers
+ */
+const dropZone = document.getElementById('dropZone');
+const fileInput = document.getElementById('fileInput');
+const fileUploadedMessage = document.getElementById('fileUploadedMessage');
+
+// Prevent default drag behaviors
+['dragenter', 'dragover', 'dragleave', 'drop'].forEach(eventName => {
+    dropZone.addEventListener(eventName, e => { e.preventDefault(); e.stopPropagation(); }, false);
+});
+
+// Add dragover effect
+['dragenter', 'dragover'].forEach(eventName => {
+    dropZone.addEventListener(eventName, () => dropZone.classList.add('dragover'), false);
+});
+
+// Remove dragover effect
+['dragleave', 'drop'].forEach(eventName => {
+    dropZone.addEventListener(eventName, () => dropZone.classList.remove('dragover'), false);
+});
+
+// Handle dropped files
+dropZone.addEventListener('drop', (e) => {
+    const dt = e.dataTransfer;
+    const files = dt.files;
+    fileInput.files = files;
+    handleFiles(files);
+});
+
+// Handle file input change
+fileInput.addEventListener('change', (e) => {
+    handleFiles(e.target.files);
+});
+
+/**
+ * Process uploaded files
+ * @param {FileList} files - Uploaded files
+ */
+   async function handleFiles(files) {
+if (files.length > 0) {
+    const file = files[0];
+
+    // ⭐ VALIDATE FILE TYPE
+    const fileExtension = file.name.split('.').pop().toUpperCase();
+    if (!allowedFormats.includes(fileExtension)) {
+        showCustomAlert(
+            `File type not allowed. Supported formats: ${allowedFormats.join(', ')}`
+        );
+        fileInput.value = '';
+        return;
+    }
+
+    // ⭐ VALIDATE FILE SIZE - THIS IS THE KEY PART!
+    const maxSizeBytes = maxFileSizeMB * 1024 * 1024;
+    if (file.size > maxSizeBytes) {
+        showCustomAlert(
+            `File size exceeds maximum limit of ${maxFileSizeMB}MB. ` +
+            `Your file is ${formatFileSize(file.size)}.`
+        );
+        fileInput.value = '';
+        return; // ← STOPS HERE! User cannot proceed!
+    }
+
+    uploadedFile = file;
+    await checkPdfProtection(file);
+}
+}
+
+/**
+ * Check if PDF has protection/restrictions
+ * @param {File} file - PDF file to check
+ */
+async function checkPdfProtection(file) {
+    try {
+        const arrayBuffer = await file.arrayBuffer();
+        const loadingTask = pdfjsLib.getDocument({ data: arrayBuffer });
+        const pdf = await loadingTask.promise;
+
+        const restrictions = [];
+
+        // Check for password protection
+        if (pdf.isEncrypted || loadingTask._transport._passwordCallback) {
+            restrictions.push('Password Protected');
+        }
+
+        // Get document permissions
+        try {
+            const permissions = await pdf.getPermissions();
+            if (permissions) {
+                if (permissions.includes(4) === false) {
+                    restrictions.push('Print Restricted');
+                }
+                if (permissions.includes(16) === false) {
+                    restrictions.push('Copy/Extract Restricted');
+                }
+                if (permissions.includes(8) === false) {
+                    restrictions.push('Modification Restricted');
+                }
+            }
+        } catch (permError) {
+            console.log('Could not check permissions:', permError);
+        }
+
+        if (restrictions.length > 0) {
+            showProtectionWarning(restrictions);
+        } else {
+            await proceedWithUpload(file, pdf);
+        }
+    } catch (error) {
+        console.error("Error checking PDF protection:", error);
+        if (error.name === 'PasswordException') {
+            showProtectionWarning(['Password Protected - Cannot preview']);
+        } else {
+            await proceedWithUpload(file, null);
+        }
+    }
+}
+
+/**
+ * Show PDF protection warning modal
+ * @param {Array} restrictions - List of detected restrictions
+ */
+function showProtectionWarning(restrictions) {
+    const protectionList = document.getElementById('protectionList');
+    protectionList.innerHTML = '';
+
+    restrictions.forEach(restriction => {
+        const li = document.createElement('li');
+        li.innerHTML = `<i class="bi bi-exclamation-triangle" style="color: #f59e0b; margin-right: 5px;"></i>${restriction}`;
+        protectionList.appendChild(li);
+    });
+
+   openCustomModal('pdfProtectionModal');
+}
+
+/**
+ * Close PDF protection modal
+ */
+function closePdfProtectionModal() {
+   closeCustomModal('pdfProtectionModal');
+}
+
+/**
+ * Cancel protected PDF upload
+ */
+function cancelProtectedPdf() {
+    fileInput.value = '';
+    uploadedFile = null;
+    closePdfProtectionModal();
+}
+
+/**
+ * Force upload of protected PDF
+ */
+document.getElementById('forceUploadBtn').addEventListener('click', async function() {
+    closePdfProtectionModal();
+    isPasswordProtected = true;
+    await proceedWithUpload(uploadedFile, null);
+});
+
+/**
+ * Proceed with file upload after validation
+ * @param {File} file - PDF file
+ * @param {Object} pdf - PDF.js document object (can be null for protected PDFs)
+ */
+async function proceedWithUpload(file, pdf) {
+    displayFileSuccess(file);
+    await extractPdfMetadata(file, pdf);
+    if (pdf) {
+        pdfDoc = pdf;
+    }
+    formChanged = true;
+}
+
+/**
+ * Extract metadata from PDF
+ * @param {File} file - PDF file
+ * @param {Object} pdf - PDF.js document object
+ */
+async function extractPdfMetadata(file, pdf) {
+    try {
+        let pageCount = 0;
+
+        if (pdf) {
+            pageCount = pdf.numPages;
+            document.getElementById('noOfPages').value = pageCount;
+            document.getElementById('noOfPages').readOnly = true;
+            document.getElementById('pagesInfoText').textContent = 'Auto-detected from PDF';
+        } else {
+            // Password protected - allow manual entry
+            document.getElementById('noOfPages').value = '';
+            document.getElementById('noOfPages').readOnly = false;
+            document.getElementById('pagesInfoText').textContent = 'Please enter the number of pages manually';
+            document.getElementById('pagesInfoText').style.color = '#f59e0b';
+        }
+
+        document.getElementById('uploadedFilePages').textContent = pageCount > 0 ? pageCount + ' pages' : 'Manual entry required';
+
+        // Extract product code from filename
+        const match = file.name.match(/(PM-\d+)/i);
+        if (match) {
+            document.getElementById('productCode').value = match[1];
+        }
+
+        // Try to get title from metadata or filename
+        if (pdf) {
+            const metadata = await pdf.getMetadata().catch(() => null);
+            if (metadata && metadata.info && metadata.info.Title) {
+                document.getElementById('title').value = metadata.info.Title;
+            } else {
+                const defaultTitle = file.name.replace(/\.[^/.]+$/, '');
+                document.getElementById('title').value = defaultTitle;
+            }
+        } else {
+            const defaultTitle = file.name.replace(/\.[^/.]+$/, '');
+            document.getElementById('title').value = defaultTitle;
+        }
+    } catch (error) {
+        console.error("Error reading PDF metadata:", error);
+    }
+}
+
+/**
+ * Display file upload success message
+ * @param {File} file - Uploaded file
+ */
+function displayFileSuccess(file) {
+    document.getElementById('uploadedFileName').textContent = file.name;
+    document.getElementById('uploadedFileSize').textContent = formatFileSize(file.size);
+    dropZone.style.display = 'none';
+    fileUploadedMessage.classList.add('show');
+}
+
+/**
+ * Change uploaded file (reset)
+ */
+function changeFile() {
+    fileInput.value = '';
+    uploadedFile = null;
+    pdfDoc = null;
+    isPasswordProtected = false;
+    fileUploadedMessage.classList.remove('show');
+    dropZone.style.display = 'block';
+    document.getElementById('noOfPages').value = '';
+    document.getElementById('noOfPages').readOnly = false;
+    document.getElementById('pagesInfoText').textContent = 'This field will be auto-filled when you upload a PDF';
+    document.getElementById('pagesInfoText').style.color = '#6b7280';
+}
+
+/**
+ * Format file size in human-readable format
+ * @param {number} bytes - File size in bytes
+ * @returns {string} Formatted file size
+ */
+function formatFileSize(bytes) {
+    if (bytes === 0) return '0 Bytes';
+    const k = 1024;
+    const sizes = ['Bytes', 'KB', 'MB', 'GB'];
+    const i = Math.floor(Math.log(bytes) / Math.log(k));
+    return Math.round(bytes / Math.pow(k, i) * 100) / 100 + ' ' + sizes[i];
+}
+
+// ==================== TAGS HANDLING ====================
+const newTagInput = document.getElementById('newTagInput');
+const addTagBtn = document.getElementById('addTagBtn');
+const tagErrorMessage = document.getElementById('tagErrorMessage');
+
+addTagBtn.addEventListener('click', addNewTag);
+
+newTagInput.addEventListener('keypress', function(e) {
+    if (e.key === 'Enter') {
+        e.preventDefault();
+        addNewTag();
+    }
+});
+
+newTagInput.addEventListener('input', function() {
+    hideTagError();
+});
+
+/**
+ * Add a new tag
+ */
+function addNewTag() {
+    let tagName = newTagInput.value.trim();
+
+    if (!tagName) {
+        showTagError('<i class="bi bi-exclamation-circle"></i> Please enter a tag name');
+        return;
+    }
+
+    if (tagName.includes(' ')) {
+        showTagError('<i class="bi bi-exclamation-circle"></i> Spaces are not allowed in tag names');
+        return;
+    }
+
+    tagName = tagName.toLowerCase();
+    if (selectedTags.length >= maxTagsPerDocument) {
+        showTagError(`<i class="bi bi-exclamation-circle"></i> Maximum ${maxTagsPerDocument} tags allowed per document`);
+        return; // ← STOP HERE!
+    }
+
+
+    if (allExistingTags.includes(tagName)) {
+        const existingItem = Array.from(document.querySelectorAll('.selection-item-flex[data-tag-name]')).find(
+            item => item.getAttribute('data-tag-name').toLowerCase() === tagName
+        );
+
+        if (existingItem) {
+            blinkItem(existingItem);
+            showTagError('<i class="bi bi-info-circle"></i> Tag already exists in available tags');
+
+            const checkbox = existingItem.querySelector('.tag-checkbox');
+            if (checkbox && !checkbox.checked) {
+                checkbox.checked = true;
+                if (!selectedTags.includes(tagName)) {
+                    selectedTags.push(tagName);
+                    existingItem.classList.add('selected');
+                    renderSelectedTags();
+                }
+            }
+        }
+        newTagInput.value = '';
+        return;
+    }
+
+    if (selectedTags.some(t => t.toLowerCase() === tagName)) {
+        showTagError('<i class="bi bi-info-circle"></i> Tag is already selected');
+        newTagInput.value = '';
+        return;
+    }
+
+    selectedTags.push(tagName);
+    allExistingTags.push(tagName);
+
+    const tagsArea = document.getElementById('tagsSelectionArea');
+    const emptyState = tagsArea.querySelector('.empty-state');
+    if (emptyState) {
+        emptyState.remove();
+    }
+
+    const newTagItem = createNewSelectionItem(tagName, 'tag');
+    newTagItem.classList.add('selected');
+    const checkbox = newTagItem.querySelector('.tag-checkbox');
+    checkbox.checked = true;
+
+    tagsArea.appendChild(newTagItem);
+    renderSelectedTags();
+    newTagInput.value = '';
+    formChanged = true;
+}
+
+/**
+ * Create a new selection item (tag, classification, or group)
+ * @param {string} name - Item name
+ * @param {string} type - Item type ('tag', 'classification', or 'group')
+ * @returns {HTMLElement} Selection item element
+ */
+function createNewSelectionItem(name, type) {
+    const item = document.createElement('div');
+    item.className = 'selection-item-flex';
+    item.setAttribute(`data-${type}-name`, name);
+    item.innerHTML = `
+        <input type="checkbox" class="selection-checkbox ${type}-checkbox" data-${type}-name="${name}" style="display: none;">
+        <span class="selection-label">${name}</span>
+    `;
+
+    item.addEventListener('click', function() {
+const checkbox = this.querySelector(`.${type}-checkbox`);
+const itemName = this.getAttribute(`data-${type}-name`);
+
+if (checkbox.checked) {
+    // Deselecting - always allowed
+    checkbox.checked = false;
+    this.classList.remove('selected');
+    if (type === 'tag') {
+        selectedTags = selectedTags.filter(t => t !== itemName);
+        renderSelectedTags();
+    } else {
+        selectedClassifications = selectedClassifications.filter(c => c !== itemName);
+        renderSelectedClassifications();
+    }
+} else {
+    // Selecting - check limit for tags
+    if (type === 'tag' && selectedTags.length >= maxTagsPerDocument) {
+        // ⭐ VALIDATION: Show error and blink
+        this.classList.add('blink');
+        setTimeout(() => this.classList.remove('blink'), 800);
+        showTagError(`<i class="bi bi-exclamation-circle"></i> Maximum ${maxTagsPerDocument} tags allowed per document`);
+        return; // ← STOP HERE!
+    }
+
+    checkbox.checked = true;
+    this.classList.add('selected');
+    if (type === 'tag') {
+        if (!selectedTags.includes(itemName)) {
+            selectedTags.push(itemName);
+        }
+        renderSelectedTags();
+    } else {
+        if (!selectedClassifications.includes(itemName)) {
+            selectedClassifications.push(itemName);
+        }
+        renderSelectedClassifications();
+    }
+}
+formChanged = true;
+});
+
+    return item;
+}
+
+/**
+ * Show tag error message
+ * @param {string} message - Error message HTML
+ */
+function showTagError(message) {
+    tagErrorMessage.innerHTML = message;
+    tagErrorMessage.classList.add('show');
+    setTimeout(() => {
+        hideTagError();
+    }, 3000);
+}
+
+/**
+ * Hide tag error message
+ */
+function hideTagError() {
+    tagErrorMessage.classList.remove('show');
+}
+
+/**
+ * Render selected tags as chips
+ */
+function renderSelectedTags() {
+    const container = document.getElementById('selectedTagsContainer');
+    container.innerHTML = '';
+
+    if (selectedTags.length === 0) {
+        container.innerHTML = '<div class="empty-state">No tags selected</div>';
+    } else {
+        selectedTags.forEach(tag => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip';
+            chip.innerHTML = `
+                ${tag}
+                <span class="chip-remove" onclick="removeSelectedTag('${tag}')">
+                    <i class="bi bi-x"></i>
+                </span>
+            `;
+            container.appendChild(chip);
+        });
+    }
+
+    // Update hidden form field
+    document.getElementById('tagNamesField').value = selectedTags.join(',');
+}
+
+/**
+ * Remove a selected tag
+ * @param {string} tagName - Tag name to remove
+ */
+function removeSelectedTag(tagName) {
+    selectedTags = selectedTags.filter(t => t !== tagName);
+
+    const checkbox = document.querySelector(`.tag-checkbox[data-tag-name="${tagName}"]`);
+    if (checkbox) {
+        checkbox.checked = false;
+        const item = checkbox.closest('.selection-item-flex');
+        if (item) item.classList.remove('selected');
+    }
+
+    renderSelectedTags();
+}
+
+// ==================== CLASSIFICATIONS HANDLING ====================
+/**
+ * Render selected classifications as chips
+ */
+function renderSelectedClassifications() {
+    const container = document.getElementById('selectedClassificationsContainer');
+    container.innerHTML = '';
+
+    if (selectedClassifications.length === 0) {
+        container.innerHTML = '<div class="empty-state">No classifications selected</div>';
+    } else {
+        selectedClassifications.forEach(classification => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip classification-chip';
+            chip.innerHTML = `
+                ${classification}
+                <span class="chip-remove" onclick="removeSelectedClassification('${classification}')">
+                    <i class="bi bi-x"></i>
+                </span>
+            `;
+            container.appendChild(chip);
+        });
+    }
+
+    // Update hidden form field
+    document.getElementById('classificationNamesField').value = selectedClassifications.join(',');
+}
+
+/**
+ * Remove a selected classification
+ * @param {string} classificationName - Classification name to remove
+ */
+function removeSelectedClassification(classificationName) {
+     if (classificationSelectionLocked) {
+        showCustomAlert('Upgrade to Professional Edition to modify classifications.');
+        return;
+    }
+    selectedClassifications = selectedClassifications.filter(c => c !== classificationName);
+
+    const checkbox = document.querySelector(`.classification-checkbox[data-classification-name="${classificationName}"]`);
+    if (checkbox) {
+        checkbox.checked = false;
+        const item = checkbox.closest('.selection-item-flex');
+        if (item) item.classList.remove('selected');
+    }
+
+    renderSelectedClassifications();
+}
+
+// ==================== GROUPS HANDLING (NEW) ====================
+/**
+ * Render selected groups as chips
+ * Similar to classifications but stores group IDs
+ */
+function renderSelectedGroups() {
+    const container = document.getElementById('selectedGroupsContainer');
+    container.innerHTML = '';
+
+    if (selectedGroups.length === 0) {
+        container.innerHTML = '<div class="empty-state">No groups selected</div>';
+    } else {
+        selectedGroups.forEach(group => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip group-chip';
+            chip.innerHTML = `
+                ${group.name}
+                <span class="chip-remove" onclick="removeSelectedGroup('${group.id}')">
+                    <i class="bi bi-x"></i>
+                </span>
+            `;
+            container.appendChild(chip);
+        });
+    }
+
+    // Update hidden form field with comma-separated group IDs
+    document.getElementById('groupIdsField').value = selectedGroups.map(g => g.id).join(',');
+}
+
+/**
+ * Remove a selected group
+ * @param {string} groupId - Group ID to remove
+ */
+function removeSelectedGroup(groupId) {
+    selectedGroups = selectedGroups.filter(g => g.id !== groupId);
+
+    const checkbox = document.querySelector(`.group-checkbox[data-group-id="${groupId}"]`);
+    if (checkbox) {
+        checkbox.checked = false;
+        const item = checkbox.closest('.selection-item-flex');
+        if (item) item.classList.remove('selected');
+    }
+
+    renderSelectedGroups();
+}
+
+// ==================== BLINK ANIMATION ====================
+/**
+ * Blink animation for existing items
+ * @param {HTMLElement} element - Element to blink
+ */
+function blinkItem(element) {
+    element.classList.add('blink');
+    setTimeout(() => {
+        element.classList.remove('blink');
+    }, 1800);
+}
+
+// ==================== REVIEW SECTION ====================
+/**
+ * Update review section with all form data
+ */
+async function updateReviewSection() {
+    // File Information
+    document.getElementById('reviewFileName').textContent = uploadedFile ? uploadedFile.name : '-';
+    document.getElementById('reviewFileSize').textContent = uploadedFile ? formatFileSize(uploadedFile.size) : '-';
+    document.getElementById('reviewFilePages').textContent = document.getElementById('noOfPages').value || '-';
+
+    // Document Details
+    document.getElementById('reviewTitle').textContent = document.getElementById('title').value || '-';
+    document.getElementById('reviewProductCode').textContent = document.getElementById('productCode').value || '-';
+    document.getElementById('reviewEdition').textContent = document.getElementById('edition').value || '-';
+
+    const month = document.getElementById('publishMonth').value;
+    const year = document.getElementById('publishYear').value;
+    let publishDate = '-';
+    if (year) {
+        if (month) {
+            const monthNames = ['', 'January', 'February', 'March', 'April', 'May', 'June',
+                              'July', 'August', 'September', 'October', 'November', 'December'];
+            publishDate = `${monthNames[parseInt(month)]} ${year}`;
+        } else {
+            publishDate = year;
+        }
+    }
+    document.getElementById('reviewPublishDate').textContent = publishDate;
+
+    document.getElementById('reviewNotes').textContent = document.getElementById('notes').value || '-';
+
+    // Tags
+    const reviewTagsContainer = document.getElementById('reviewTags');
+    reviewTagsContainer.innerHTML = '';
+    if (selectedTags.length === 0) {
+        reviewTagsContainer.innerHTML = '<span style="color: #9ca3af; font-size: 14px;">No tags selected</span>';
+    } else {
+        selectedTags.forEach(tag => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip';
+            chip.textContent = tag;
+            reviewTagsContainer.appendChild(chip);
+        });
+    }
+
+    // Classifications
+    const reviewClassificationsContainer = document.getElementById('reviewClassifications');
+    reviewClassificationsContainer.innerHTML = '';
+    if (selectedClassifications.length === 0) {
+        reviewClassificationsContainer.innerHTML = '<span style="color: #9ca3af; font-size: 14px;">No classifications selected</span>';
+    } else {
+        selectedClassifications.forEach(classification => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip classification-chip';
+            chip.textContent = classification;
+            reviewClassificationsContainer.appendChild(chip);
+        });
+    }
+
+    // Groups (NEW)
+    const reviewGroupsContainer = document.getElementById('reviewGroups');
+    reviewGroupsContainer.innerHTML = '';
+    if (selectedGroups.length === 0) {
+        reviewGroupsContainer.innerHTML = '<span style="color: #9ca3af; font-size: 14px;">No groups selected (Document will be accessible to all users)</span>';
+    } else {
+        selectedGroups.forEach(group => {
+            const chip = document.createElement('span');
+            chip.className = 'selected-chip group-chip';
+            chip.textContent = group.name;
+            reviewGroupsContainer.appendChild(chip);
+        });
+    }
+
+    // Render PDF Preview
+    if (pdfDoc && !isPasswordProtected) {
+        await renderReviewPdfPreview();
+    } else {
+        // Show placeholder for password-protected PDFs
+        const canvas = document.getElementById('reviewPdfCanvas');
+        const ctx = canvas.getContext('2d');
+        canvas.width = 400;
+        canvas.height = 500;
+        ctx.fillStyle = '#f3f4f6';
+        ctx.fillRect(0, 0, canvas.width, canvas.height);
+        ctx.fillStyle = '#6b7280';
+        ctx.font = '16px Arial';
+        ctx.textAlign = 'center';
+        ctx.fillText('Preview not available', canvas.width / 2, canvas.height / 2 - 10);
+        ctx.fillText('(Password Protected)', canvas.width / 2, canvas.height / 2 + 15);
+    }
+}
+
+/**
+ * Render PDF preview in review section
+ */
+async function renderReviewPdfPreview() {
+    try {
+        const page = await pdfDoc.getPage(1);
+        const canvas = document.getElementById('reviewPdfCanvas');
+        const context = canvas.getContext('2d');
+
+        const viewport = page.getViewport({ scale: 1.2 });
+        canvas.height = viewport.height;
+        canvas.width = viewport.width;
+
+        const renderContext = {
+            canvasContext: context,
+            viewport: viewport
+        };
+
+        await page.render(renderContext).promise;
+    } catch (error) {
+        console.error("Error rendering PDF preview:", error);
+    }
+}
+
+// ==================== MODAL FUNCTIONS ====================
+/**
+ * Cancel button handler - shows confirmation if form changed
+ */
+document.getElementById('cancelBtn').addEventListener('click', function() {
+    if (formChanged || uploadedFile) {
+       openCustomModal('confirmationModal');
+    } else {
+        navigateAway();
+    }
+});
+
+/**
+ * Close confirmation modal
+ */
+function closeConfirmationModal() {
+   closeCustomModal('confirmationModal');
+}
+
+/**
+ * Confirm cancel action
+ */
+document.getElementById('confirmCancelBtn').addEventListener('click', function() {
+    closeConfirmationModal();
+    navigateAway();
+});
+
+/**
+ * Navigate away from page
+ */
+function navigateAway() {
+    formChanged = false;
+    isSubmitting = true;
+
+    // Check if there's a previous page in history
+    if (window.history.length > 1 && document.referrer) {
+        window.history.back();
+    } else {
+        // No previous page, go to documents page
+        window.location.href = '/documents';
+    }
+}
+
+// ==================== PREVENT ACCIDENTAL NAVIGATION ====================
+let isSubmitting = false;
+
+window.addEventListener('beforeunload', function(e) {
+    if ((formChanged || uploadedFile) && !isSubmitting) {
+        e.preventDefault();
+        e.returnValue = '';
+        return '';
+    }
+});
+
+// ==================== FORM SUBMISSION ====================
+/**
+ * Form submit handler
+ */
+document.getElementById('uploadForm').addEventListener('submit', function(e) {
+    if (!uploadedFile) {
+        e.preventDefault();
+        e.stopPropagation();
+        showCustomAlert('Please upload a file before submitting.');
+        return false;
+    }
+
+    // Set month and year values
+    document.getElementById('publishMonthField').value = document.getElementById('publishMonth').value;
+    document.getElementById('publishYearField').value = document.getElementById('publishYear').value;
+
+    const submitBtn = document.getElementById('submitBtn');
+    submitBtn.disabled = true;
+    submitBtn.innerHTML = '<span class="spinner-border spinner-border-sm me-2"></span>Uploading...';
+    formChanged = false;
+    isSubmitting = true;
+    return true;
+});
+
+// Mark form as changed on any input
+document.getElementById('uploadForm').addEventListener('input', function() {
+    formChanged = true;
+});
+
+document.getElementById('uploadForm').addEventListener('change', function() {
+    formChanged = true;
+});
+
+/**
+ * Show custom alert notification
+ * @param {string} message - Alert message
+ */
+function showCustomAlert(message) {
+    const alertDiv = document.createElement('div');
+    alertDiv.style.cssText = `
+        position: fixed;
+        top: 20px;
+        right: 20px;
+        background: #ef4444;
+        color: white;
+        padding: 16px 24px;
+        border-radius: 8px;
+        box-shadow: 0 4px 12px rgba(0,0,0,0.3);
+        z-index: 10000;
+        animation: slideInRight 0.3s ease;
+        max-width: 400px;
+        display: flex;
+        align-items: center;
+        gap: 10px;
+    `;
+    alertDiv.innerHTML = `
+        <i class="bi bi-exclamation-circle-fill" style="font-size: 20px;"></i>
+        <span>${message}</span>
+    `;
+    document.body.appendChild(alertDiv);
+
+    setTimeout(() => {
+        alertDiv.style.animation = 'slideOutRight 0.3s ease';
+        setTimeout(() => alertDiv.remove(), 300);
+    }, 3000);
+}
+
+// Initialize wizard
+updateWizardStep(1);
+
+// Auto-dismiss alerts
+window.addEventListener('load', function() {
+    setTimeout(() => {
+        const alerts = document.querySelectorAll('.alert');
+        alerts.forEach(alert => {
+            const bsAlert = bootstrap.Alert.getOrCreateInstance(alert);
+            if (bsAlert) bsAlert.close();
+        });
+    }, 5000);
+});
+
+// ==================== INTERCEPT ALL NAVIGATION ATTEMPTS ====================
+let navigationConfirmed = false;
+let pendingNavigationUrl = null;
+
+// Push initial state to prevent back button
+window.history.pushState(null, '', window.location.href);
+
+// Handle browser back/forward buttons
+window.addEventListener('popstate', function(e) {
+    if ((formChanged || uploadedFile) && !isSubmitting && !navigationConfirmed) {
+        window.history.pushState(null, '', window.location.href);
+        showNavigationConfirmation('back');
+    }
+});
+
+// Intercept all link clicks
+document.addEventListener('click', function(e) {
+    // Find if the clicked element or any parent is a link
+    const link = e.target.closest('a');
+
+    if (link && link.href && !link.hasAttribute('data-bs-toggle')) {
+        // Check if it's not a wizard button or internal action
+        const isWizardButton = link.closest('.wizard-navigation') ||
+                               link.closest('.wizard-content') ||
+                               link.id === 'confirmCancelBtn' ||
+                               link.classList.contains('modal-btn') ||
+                               link.classList.contains('change-file-btn');
+
+        // Check if it's a navbar or sidebar link
+        const isNavLink = link.closest('.navbar') ||
+                         link.closest('.sidebar') ||
+                         link.closest('nav') ||
+                         link.hasAttribute('href');
+
+        if (isNavLink && !isWizardButton && (formChanged || uploadedFile) && !isSubmitting && !navigationConfirmed) {
+            e.preventDefault();
+            e.stopPropagation();
+            e.stopImmediatePropagation();
+
+            const targetUrl = link.href;
+            showNavigationConfirmation(targetUrl);
+            return false;
+        }
+    }
+}, true); // Use capture phase to intercept before other handlers
+
+// Show confirmation modal for navigation
+function showNavigationConfirmation(targetUrl) {
+    pendingNavigationUrl = targetUrl;
+    openCustomModal('confirmationModal');
+
+    const confirmBtn = document.getElementById('confirmCancelBtn');
+    // Remove old event listeners by cloning
+    const newConfirmBtn = confirmBtn.cloneNode(true);
+    confirmBtn.parentNode.replaceChild(newConfirmBtn, confirmBtn);
+
+    newConfirmBtn.onclick = function() {
+        navigationConfirmed = true;
+        formChanged = false;
+        isSubmitting = true;
+        closeConfirmationModal();
+
+        if (pendingNavigationUrl === 'back') {
+            window.history.back();
+        } else {
+            window.location.href = pendingNavigationUrl;
+        }
+    };
+}
+
+// Intercept form submissions from other forms (if any)
+document.addEventListener('submit', function(e) {
+    // Allow only our upload form to submit
+    if (e.target.id !== 'uploadForm' && (formChanged || uploadedFile) && !isSubmitting && !navigationConfirmed) {
+        e.preventDefault();
+        showNavigationConfirmation(e.target.action);
+    }
+}, true);
+
+/**
+ * Go back function for back button in navbar
+ */
+function goBack() {
+    if (formChanged || uploadedFile) {
+       openCustomModal('confirmationModal');
+
+        const confirmBtn = document.getElementById('confirmCancelBtn');
+        confirmBtn.onclick = function() {
+            navigationConfirmed = true;
+            formChanged = false;
+            isSubmitting = true;
+            closeConfirmationModal();
+
+            if (document.referrer && document.referrer !== window.location.href) {
+                window.history.back();
+            } else {
+                window.location.href = '/documents';
+            }
+        };
+    } else if (document.referrer && document.referrer !== window.location.href) {
+        window.history.back();
+    } else {
+        window.location.href = '/documents';
+    }
+}
@@ -0,0 +1,1251 @@
+// ==================== USER MANAGEMENT PAGE ====================
+// Expects contextPath to be set by the page
+
+// ==================== GLOBAL VARIABLES ====================
+//    let currentFilter = 'all';
+let activeFilters = new Set(['all']);
+let usernameCheckTimeout = null;
+let emailCheckTimeout = null;
+let isUsernameValid = false;
+let isEmailValid = false;
+let isEditEmailValid = true;
+let editEmailCheckTimeout = null;
+let originalEmail = '';
+let allGroups = [];
+// ==================== CENTER MODAL TO MAIN CONTENT ====================
+function centerModalToMainContent() {
+    const modal = document.getElementById('userDetailsModal');
+    const mainContent = document.querySelector('.main-content');
+
+    if (!modal || !mainContent) return;
+
+    // Get main-content dimensions and position
+    const mainRect = mainContent.getBoundingClientRect();
+
+    // Calculate center position relative to main-content
+    const modalWidth = modal.offsetWidth;
+    const modalHeight = modal.offsetHeight;
+
+    // Center horizontally within main-content
+    const left = mainRect.left + (mainRect.width / 2) - (modalWidth / 2);
+
+    // Center vertically within viewport (but considering navbar)
+    const top = window.innerHeight / 2 - modalHeight / 2;
+
+    modal.style.left = `${left}px`;
+    modal.style.top = `${top}px`;
+    modal.style.transform = 'none'; // Remove transform since we're using absolute positioning
+}
+// ==================== UNIFIED MODAL MANAGEMENT ====================
+let activeModalId = null;
+
+function centerCustomModal(modalId) {
+const modal = document.getElementById(modalId);
+const mainContent = document.querySelector('.main-content');
+if (!modal || !mainContent) return;
+
+const mainRect = mainContent.getBoundingClientRect();
+const modalWidth = modal.offsetWidth;
+const modalHeight = modal.offsetHeight;
+
+const left = mainRect.left + (mainRect.width / 2) - (modalWidth / 2);
+const top = Math.max(80, (window.innerHeight / 2) - (modalHeight / 2));
+
+modal.style.left = `${left}px`;
+modal.style.top = `${top}px`;
+modal.style.transform = 'none';
+}
+
+function openModal(modalId) {
+const modal = document.getElementById(modalId);
+const overlay = document.getElementById('modalOverlay');
+if (!modal || !overlay) return;
+
+// Close any previously open custom modal
+if (activeModalId && activeModalId !== modalId) {
+    closeModal(activeModalId);
+}
+
+activeModalId = modalId;
+
+// Step 1: Make modal visible but invisible to measure dimensions
+modal.style.visibility = 'hidden';
+modal.style.display = 'flex';
+
+// Step 2: Position it correctly while still invisible
+centerCustomModal(modalId);
+
+// Step 3: Hide it again, remove inline display
+modal.style.display = '';
+modal.style.visibility = '';
+
+// Step 4: Now show with animation — appears at correct position
+modal.classList.add('active');
+overlay.classList.add('active');
+document.body.style.overflow = 'hidden';
+}
+
+function closeModal(modalId) {
+const modal = document.getElementById(modalId);
+const overlay = document.getElementById('modalOverlay');
+
+if (modal) {
+    modal.classList.remove('active');
+    modal.style.left = '';
+    modal.style.top = '';
+    modal.style.transform = '';
+}
+
+if (overlay) {
+    overlay.classList.remove('active');
+}
+
+document.body.style.overflow = '';
+activeModalId = null;
+
+// Modal-specific cleanup
+if (modalId === 'addUserModal') {
+    document.getElementById('addUserForm')?.reset();
+    clearGroupSelection('add');
+    const usernameFeedback = document.getElementById('addUsernameFeedback');
+    if (usernameFeedback) { usernameFeedback.className = 'validation-feedback'; usernameFeedback.textContent = ''; }
+    const emailFeedback = document.getElementById('addEmailFeedback');
+    if (emailFeedback) { emailFeedback.className = 'validation-feedback'; emailFeedback.textContent = ''; }
+    document.getElementById('addUsername')?.classList.remove('is-valid', 'is-invalid');
+    document.getElementById('addEmail')?.classList.remove('is-valid', 'is-invalid');
+    document.getElementById('addPassword')?.classList.remove('is-invalid');
+    const addPwdError = document.getElementById('addPasswordPolicyError');
+    if (addPwdError) addPwdError.style.display = 'none';
+    isUsernameValid = false;
+    isEmailValid = false;
+      const hint = document.getElementById('usernameMinLengthHint');
+    if (hint) hint.style.display = 'block';
+} else if (modalId === 'editUserModal') {
+    document.getElementById('editPassword')?.classList.remove('is-invalid');
+    const editPwdError = document.getElementById('editPasswordPolicyError');
+    if (editPwdError) editPwdError.style.display = 'none';
+    const editEmailFeedback = document.getElementById('editEmailFeedback');
+    if (editEmailFeedback) { editEmailFeedback.className = 'validation-feedback'; editEmailFeedback.textContent = ''; }
+    document.getElementById('editEmail')?.classList.remove('is-valid', 'is-invalid');
+}
+}
+
+function closeActiveModal() {
+// Close user details modal if open
+const userModal = document.getElementById('userDetailsModal');
+if (userModal && userModal.classList.contains('active')) {
+    closeUserModal();
+    return;
+}
+// Close any custom modal
+if (activeModalId) {
+    closeModal(activeModalId);
+}
+}
+function closeUserModal() {
+const modal = document.getElementById('userDetailsModal');
+const overlay = document.getElementById('modalOverlay');
+
+if (modal) {
+    modal.classList.remove('active');
+    // Reset inline styles
+    modal.style.left = '';
+    modal.style.top = '';
+    modal.style.transform = '';
+}
+
+if (overlay) {
+    overlay.classList.remove('active');
+}
+
+console.log('✅ User modal closed');
+}
+// ==================== INITIALIZATION ====================
+document.addEventListener('DOMContentLoaded', function() {
+    fetchGroups();
+
+    const table = document.getElementById('usersTable');
+    if (table) {
+        table.addEventListener('click', function(e) {
+            const clickableRow = e.target.closest('.clickable-row');
+            const actionsCell = e.target.closest('.actions-cell');
+
+            if (clickableRow && !actionsCell) {
+                const userId = clickableRow.getAttribute('data-user-id');
+                if (userId && userId !== '0') {
+                    showUserDetails(parseInt(userId));
+                }
+            }
+        });
+    }
+
+    const searchInput = document.getElementById('searchInput');
+    if (searchInput) {
+        searchInput.addEventListener('input', function() {
+            applyFilters();
+        });
+    }
+
+   document.addEventListener('keydown', function(e) {
+if (e.key === 'Escape') {
+    closeUserModal();
+    if (activeModalId) closeModal(activeModalId);
+    closeGroupsDropdown('add');
+    closeGroupsDropdown('edit');
+}
+});
+
+    document.addEventListener('click', function(e) {
+        if (!e.target.closest('.groups-dropdown-container')) {
+            closeGroupsDropdown('add');
+            closeGroupsDropdown('edit');
+        }
+    });
+
+    const addUsernameInput = document.getElementById('addUsername');
+    if (addUsernameInput) {
+        addUsernameInput.addEventListener('input', function() {
+            clearTimeout(usernameCheckTimeout);
+            const username = this.value.trim();
+            const feedback = document.getElementById('addUsernameFeedback');
+            const hint = document.getElementById('usernameMinLengthHint');
+
+            // Show/hide minimum length hint
+            if (hint) {
+                hint.style.display = username.length >= 2 ? 'none' : 'block';
+            }
+
+           if (username.length < 2) {
+                feedback.className = 'validation-feedback';
+                feedback.textContent = '';
+                this.classList.remove('is-valid', 'is-invalid');
+                isUsernameValid = false;
+                updateSubmitButton();
+                return;
+            }
+
+            feedback.className = 'validation-feedback checking';
+            feedback.innerHTML = '<i class="bi bi-arrow-repeat"></i> Checking username...';
+            this.classList.remove('is-valid', 'is-invalid');
+
+            usernameCheckTimeout = setTimeout(() => {
+                checkUsernameAvailability(username);
+            }, 500);
+        });
+    }
+
+    const addEmailInput = document.getElementById('addEmail');
+    if (addEmailInput) {
+        addEmailInput.addEventListener('input', function() {
+            clearTimeout(emailCheckTimeout);
+            const email = this.value.trim();
+            const feedback = document.getElementById('addEmailFeedback');
+            const emailRegex = /^[^\s@]+@[^\s@]+\.[^\s@]+$/;
+
+            if (email.length === 0) {
+                feedback.className = 'validation-feedback';
+                feedback.textContent = '';
+                this.classList.remove('is-valid', 'is-invalid');
+                isEmailValid = false;
+                updateSubmitButton();
+                return;
+            }
+
+            if (!emailRegex.test(email)) {
+                feedback.className = 'validation-feedback invalid';
+                feedback.innerHTML = '<i class="bi bi-x-circle"></i> Invalid email format.';
+                this.classList.remove('is-valid');
+                this.classList.add('is-invalid');
+                isEmailValid = false;
+                updateSubmitButton();
+                return;
+            }
+
+            feedback.className = 'validation-feedback checking';
+            feedback.innerHTML = '<i class="bi bi-arrow-repeat"></i> Checking email...';
+            this.classList.remove('is-valid', 'is-invalid');
+
+            emailCheckTimeout = setTimeout(() => {
+                checkEmailAvailability(email);
+            }, 500);
+        });
+    }
+
+    const editEmailInput = document.getElementById('editEmail');
+    if (editEmailInput) {
+        editEmailInput.addEventListener('input', function() {
+            clearTimeout(editEmailCheckTimeout);
+            const email = this.value.trim();
+            const feedback = document.getElementById('editEmailFeedback');
+            const emailRegex = /^[^\s@]+@[^\s@]+\.[^\s@]+$/;
+
+            if (email.length === 0) {
+                feedback.className = 'validation-feedback';
+                feedback.textContent = '';
+                this.classList.remove('is-valid', 'is-invalid');
+                isEditEmailValid = false;
+                updateEditSubmitButton();
+                return;
+            }
+
+            if (!emailRegex.test(email)) {
+                feedback.className = 'validation-feedback invalid';
+                feedback.innerHTML = '<i class="bi bi-x-circle"></i> Invalid email format.';
+                this.classList.remove('is-valid');
+                this.classList.add('is-invalid');
+                isEditEmailValid = false;
+                updateEditSubmitButton();
+                return;
+            }
+
+            if (email === originalEmail) {
+                feedback.className = 'validation-feedback valid';
+                feedback.innerHTML = '<i class="bi bi-check-circle"></i> Current email.';
+                this.classList.remove('is-invalid');
+                this.classList.add('is-valid');
+                isEditEmailValid = true;
+                updateEditSubmitButton();
+                return;
+            }
+
+            feedback.className = 'validation-feedback checking';
+            feedback.innerHTML = '<i class="bi bi-arrow-repeat"></i> Checking email...';
+            this.classList.remove('is-valid', 'is-invalid');
+
+            editEmailCheckTimeout = setTimeout(() => {
+                checkEditEmailAvailability(email);
+            }, 500);
+        });
+    }
+
+    const addUserForm = document.getElementById('addUserForm');
+    if (addUserForm) {
+        addUserForm.addEventListener('submit', function(e) {
+            updateSelectedGroupsBeforeSubmit('add');
+            console.log('📝 Form submitting with groupIds:', document.getElementById('addGroupIds').value);
+
+            if (!isUsernameValid || !isEmailValid) {
+                e.preventDefault();
+                let message = 'Please fix the following issues:\n';
+                if (!isUsernameValid) {
+                    message += '- Username is not available or invalid\n';
+                }
+                if (!isEmailValid) {
+                    message += '- Email is not available or invalid\n';
+                }
+                alert(message);
+                return false;
+            }
+        });
+    }
+
+
+    const editUserForm = document.getElementById('editForm');
+    if (editUserForm) {
+        editUserForm.addEventListener('submit', function(e) {
+            // Update groupIds hidden input before submission
+            updateSelectedGroupsBeforeSubmit('edit');
+
+            const groupIdsValue = document.getElementById('editGroupIds').value;
+            console.log('📝 Edit form submitting with groupIds:', groupIdsValue);
+
+            // Log for debugging
+            if (!groupIdsValue || groupIdsValue.trim() === '') {
+                console.warn('⚠️ Warning: No groups selected. This will remove all group associations.');
+            }
+
+            if (!isEditEmailValid) {
+                e.preventDefault();
+                alert('Please fix the email - it is already in use by another user.');
+                return false;
+            }
+        });
+    }
+
+
+    formatAllDates();
+    // ✅ ADD THIS: Re-center modal when window resizes or sidebar toggles
+   window.addEventListener('resize', function() {
+const modal = document.getElementById('userDetailsModal');
+if (modal && modal.classList.contains('active')) {
+    centerModalToMainContent();
+}
+if (activeModalId) {
+    centerCustomModal(activeModalId);
+}
+});
+
+    // ✅ ADD THIS: Listen for sidebar toggle events
+    const sidebarToggle = document.querySelector('[data-bs-toggle="offcanvas"]');
+   if (sidebarToggle) {
+sidebarToggle.addEventListener('click', function() {
+    setTimeout(() => {
+        const modal = document.getElementById('userDetailsModal');
+        if (modal && modal.classList.contains('active')) {
+            centerModalToMainContent();
+        }
+        if (activeModalId) {
+            centerCustomModal(activeModalId);
+        }
+    }, 350);
+});
+}
+});
+
+// ==================== GROUPS FUNCTIONALITY ====================
+
+function fetchGroups() {
+    console.log('🔄 Fetching groups...');
+    fetch(contextPath + 'api/access-groups')
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('Failed to fetch groups');
+            }
+            return response.json();
+        })
+        .then(groups => {
+            console.log('✅ Fetched groups:', groups);
+            allGroups = groups;
+            populateGroupsDropdown('add', groups);
+            populateGroupsDropdown('edit', groups);
+        })
+        .catch(error => {
+            console.error('❌ Error fetching groups:', error);
+            allGroups = [];
+        });
+}
+
+function populateGroupsDropdown(modalType, groups) {
+    const container = document.getElementById(`${modalType}GroupsCheckboxes`);
+    if (!container) {
+        console.error(`❌ Container not found: ${modalType}GroupsCheckboxes`);
+        return;
+    }
+
+    container.innerHTML = '';
+
+    if (groups.length === 0) {
+        container.innerHTML = '<div class="groups-no-results">No groups available</div>';
+        return;
+    }
+
+    groups.forEach(group => {
+        const item = document.createElement('div');
+        item.className = 'groups-checkbox-item';
+        item.setAttribute('data-group-name', group.groupName.toLowerCase());
+
+        const checkbox = document.createElement('input');
+        checkbox.type = 'checkbox';
+        checkbox.className = `${modalType}-group-checkbox`;
+        checkbox.id = `${modalType}Group${group.id}`;
+        checkbox.value = group.id;
+        checkbox.onchange = function() {
+            updateSelectedGroups(modalType);
+        };
+
+        const label = document.createElement('label');
+        label.htmlFor = checkbox.id;
+        label.textContent = group.groupName;
+        label.style.marginLeft = '8px';
+        label.style.cursor = 'pointer';
+        label.onclick = function() {
+            checkbox.checked = !checkbox.checked;
+            updateSelectedGroups(modalType);
+        };
+
+        item.appendChild(checkbox);
+        item.appendChild(label);
+        container.appendChild(item);
+    });
+
+    console.log(`✅ Populated ${groups.length} groups in ${modalType} dropdown`);
+}
+
+function toggleGroupsDropdown(modalType) {
+    const menu = document.getElementById(`${modalType}GroupsMenu`);
+    const btn = document.getElementById(`${modalType}GroupsBtn`);
+
+    if (menu.classList.contains('show')) {
+        closeGroupsDropdown(modalType);
+    } else {
+        const otherType = modalType === 'add' ? 'edit' : 'add';
+        closeGroupsDropdown(otherType);
+
+        menu.classList.add('show');
+        btn.classList.add('active');
+    }
+}
+
+function closeGroupsDropdown(modalType) {
+    const menu = document.getElementById(`${modalType}GroupsMenu`);
+    const btn = document.getElementById(`${modalType}GroupsBtn`);
+
+    if (menu && btn) {
+        menu.classList.remove('show');
+        btn.classList.remove('active');
+    }
+}
+
+function filterGroups(modalType) {
+    const searchValue = document.getElementById(`${modalType}GroupsSearch`).value.toLowerCase();
+    const items = document.querySelectorAll(`#${modalType}GroupsCheckboxes .groups-checkbox-item`);
+
+    let visibleCount = 0;
+    items.forEach(item => {
+        const groupName = item.getAttribute('data-group-name');
+        if (groupName.includes(searchValue)) {
+            item.style.display = '';
+            visibleCount++;
+        } else {
+            item.style.display = 'none';
+        }
+    });
+
+    const container = document.getElementById(`${modalType}GroupsCheckboxes`);
+    let noResults = container.querySelector('.groups-no-results');
+
+    if (visibleCount === 0 && items.length > 0) {
+        if (!noResults) {
+            noResults = document.createElement('div');
+            noResults.className = 'groups-no-results';
+            noResults.textContent = 'No groups found';
+            container.appendChild(noResults);
+        }
+    } else if (noResults) {
+        noResults.remove();
+    }
+}
+
+function updateSelectedGroups(modalType) {
+    const checkboxes = document.querySelectorAll(`.${modalType}-group-checkbox:checked`);
+    const selectedIds = Array.from(checkboxes)
+        .map(cb => cb.value)
+        .filter(id => id && id !== 'undefined' && id !== 'null');
+
+    console.log(`🔄 ${modalType} - Selected Group IDs:`, selectedIds);
+
+    const textElement = document.getElementById(`${modalType}GroupsSelectedText`);
+    if (selectedIds.length === 0) {
+        textElement.textContent = 'Select groups...';
+        textElement.classList.add('placeholder');
+    } else {
+        const selectedNames = Array.from(checkboxes)
+            .map(cb => {
+                const label = cb.parentElement.querySelector('label');
+                return label ? label.textContent : '';
+            })
+            .filter(name => name);
+
+        if (selectedNames.length === 1) {
+            textElement.textContent = selectedNames[0];
+        } else {
+            textElement.innerHTML = `${selectedNames[0]} <span class="groups-count-badge">+${selectedNames.length - 1}</span>`;
+        }
+        textElement.classList.remove('placeholder');
+    }
+
+    const allCheckboxes = document.querySelectorAll(`.${modalType}-group-checkbox`);
+    const selectAllCheckbox = document.getElementById(`${modalType}SelectAllCheckbox`);
+    if (selectAllCheckbox) {
+        selectAllCheckbox.checked = allCheckboxes.length > 0 && checkboxes.length === allCheckboxes.length;
+    }
+}
+
+function updateSelectedGroupsBeforeSubmit(modalType) {
+    const checkboxes = document.querySelectorAll(`.${modalType}-group-checkbox:checked`);
+    const selectedIds = Array.from(checkboxes)
+        .map(cb => cb.value)
+        .filter(id => id && id !== 'undefined' && id !== 'null');
+
+    const hiddenInput = document.getElementById(`${modalType}GroupIds`);
+    hiddenInput.value = selectedIds.join(',');
+
+    console.log(`✅ Updated ${modalType}GroupIds hidden input:`, hiddenInput.value);
+}
+
+function toggleSelectAll(modalType) {
+    const selectAllCheckbox = document.getElementById(`${modalType}SelectAllCheckbox`);
+    const allCheckboxes = document.querySelectorAll(`.${modalType}-group-checkbox`);
+
+    allCheckboxes.forEach(checkbox => {
+        checkbox.checked = selectAllCheckbox.checked;
+    });
+
+    updateSelectedGroups(modalType);
+}
+
+function clearGroupSelection(modalType) {
+    const allCheckboxes = document.querySelectorAll(`.${modalType}-group-checkbox`);
+    allCheckboxes.forEach(checkbox => {
+        checkbox.checked = false;
+    });
+
+    const selectAllCheckbox = document.getElementById(`${modalType}SelectAllCheckbox`);
+    if (selectAllCheckbox) {
+        selectAllCheckbox.checked = false;
+    }
+
+    updateSelectedGroups(modalType);
+}
+
+function loadUserGroups(userId) {
+    console.log('🔄 Loading groups for user:', userId);
+
+    // Show loading state
+    const textElement = document.getElementById('editGroupsSelectedText');
+    textElement.textContent = 'Loading groups...';
+    textElement.classList.add('placeholder');
+
+    fetch(contextPath + `api/access-groups/by-user/${userId}`)
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('Failed to fetch user groups');
+            }
+            return response.json();
+        })
+        .then(userGroups => {
+            console.log('✅ User groups received:', userGroups);
+
+            // IMPORTANT: Wait a bit to ensure DOM is ready
+            setTimeout(() => {
+                // Clear ALL previous selections first
+                const allCheckboxes = document.querySelectorAll('.edit-group-checkbox');
+                allCheckboxes.forEach(cb => {
+                    cb.checked = false;
+                });
+                console.log('🧹 Cleared all edit checkboxes');
+
+                // Check the boxes for user's current groups
+                let checkedCount = 0;
+                userGroups.forEach(group => {
+                    const checkbox = document.getElementById(`editGroup${group.id}`);
+                    if (checkbox) {
+                        checkbox.checked = true;
+                        checkedCount++;
+                        console.log(`✅ Checked group: ${group.groupName} (ID: ${group.id})`);
+                    } else {
+                        console.warn(`⚠️ Checkbox not found for group ID: ${group.id}, Name: ${group.groupName}`);
+                    }
+                });
+
+                console.log(`📊 Total groups checked: ${checkedCount} out of ${userGroups.length}`);
+
+                // Update the display text and hidden input
+                updateSelectedGroups('edit');
+
+                // CRITICAL: Also update the hidden input immediately to preserve current groups
+                updateSelectedGroupsBeforeSubmit('edit');
+
+                // If no groups, show appropriate message
+                if (userGroups.length === 0) {
+                    textElement.textContent = 'No groups assigned';
+                    textElement.classList.add('placeholder');
+                    // Clear hidden input since no groups
+                    document.getElementById('editGroupIds').value = '';
+                }
+            }, 100); // Small delay to ensure dropdowns are populated
+
+        })
+        .catch(error => {
+            console.error('❌ Error loading user groups:', error);
+            textElement.textContent = 'Select groups...';
+            textElement.classList.add('placeholder');
+            // Don't clear the hidden input on error - keep any existing values
+        });
+}
+
+// ==================== USERNAME VALIDATION ====================
+
+function checkUsernameAvailability(username) {
+    const feedback = document.getElementById('addUsernameFeedback');
+    const input = document.getElementById('addUsername');
+
+    fetch(contextPath + `users/check-username?username=${encodeURIComponent(username)}`)
+        .then(response => response.json())
+        .then(data => {
+            if (data.exists) {
+                feedback.className = 'validation-feedback invalid';
+                feedback.innerHTML = '<i class="bi bi-x-circle"></i> Username already exists.';
+                input.classList.remove('is-valid');
+                input.classList.add('is-invalid');
+                isUsernameValid = false;
+            } else {
+                feedback.className = 'validation-feedback valid';
+                feedback.innerHTML = '<i class="bi bi-check-circle"></i> Username is available.';
+                input.classList.remove('is-invalid');
+                input.classList.add('is-valid');
+                isUsernameValid = true;
+            }
+            updateSubmitButton();
+        })
+        .catch(error => {
+            console.error('Error checking username:', error);
+            feedback.className = 'validation-feedback';
+            feedback.textContent = '';
+            input.classList.remove('is-valid', 'is-invalid');
+            isUsernameValid = false;
+            updateSubmitButton();
+        });
+}
+
+// ==================== EMAIL VALIDATION ====================
+
+function checkEmailAvailability(email) {
+    const feedback = document.getElementById('addEmailFeedback');
+    const input = document.getElementById('addEmail');
+
+    fetch(contextPath + `users/check-email?email=${encodeURIComponent(email)}`)
+        .then(response => response.json())
+        .then(data => {
+            if (data.exists) {
+                feedback.className = 'validation-feedback invalid';
+                feedback.innerHTML = '<i class="bi bi-x-circle"></i> Email already exists.';
+                input.classList.remove('is-valid');
+                input.classList.add('is-invalid');
+                isEmailValid = false;
+            } else {
+                feedback.className = 'validation-feedback valid';
+                feedback.innerHTML = '<i class="bi bi-check-circle"></i> Email is available.';
+                input.classList.remove('is-invalid');
+                input.classList.add('is-valid');
+                isEmailValid = true;
+            }
+            updateSubmitButton();
+        })
+        .catch(error => {
+            console.error('Error checking email:', error);
+            feedback.className = 'validation-feedback';
+            feedback.textContent = '';
+            input.classList.remove('is-valid', 'is-invalid');
+            isEmailValid = false;
+            updateSubmitButton();
+        });
+}
+
+function checkEditEmailAvailability(email) {
+    const feedback = document.getElementById('editEmailFeedback');
+    const input = document.getElementById('editEmail');
+
+    fetch(contextPath + `users/check-email?email=${encodeURIComponent(email)}`)
+        .then(response => response.json())
+        .then(data => {
+            if (data.exists) {
+                feedback.className = 'validation-feedback invalid';
+                feedback.innerHTML = '<i class="bi bi-x-circle"></i> Email already exists.';
+                input.classList.remove('is-valid');
+                input.classList.add('is-invalid');
+                isEditEmailValid = false;
+            } else {
+                feedback.className = 'validation-feedback valid';
+                feedback.innerHTML = '<i class="bi bi-check-circle"></i> Email is available.';
+                input.classList.remove('is-invalid');
+                input.classList.add('is-valid');
+                isEditEmailValid = true;
+            }
+            updateEditSubmitButton();
+        })
+        .catch(error => {
+            console.error('Error checking email:', error);
+            feedback.className = 'validation-feedback';
+            feedback.textContent = '';
+            input.classList.remove('is-valid', 'is-invalid');
+            isEditEmailValid = true;
+            updateEditSubmitButton();
+        });
+}
+
+// ==================== SUBMIT BUTTON CONTROL ====================
+
+function updateEditSubmitButton() {
+    const submitBtn = document.querySelector('#editUserModal button[type="submit"]');
+    if (submitBtn) {
+        submitBtn.disabled = !isEditEmailValid;
+    }
+}
+
+function updateSubmitButton() {
+    const submitBtn = document.getElementById('addUserSubmitBtn');
+    const usernameInput = document.getElementById('addUsername');
+    const emailInput = document.getElementById('addEmail');
+
+    const usernameHasValue = usernameInput && usernameInput.value.trim().length >= 1;
+    const emailHasValue = emailInput && emailInput.value.trim().length > 0;
+
+    if (usernameHasValue && emailHasValue && isUsernameValid && isEmailValid) {
+        submitBtn.disabled = false;
+    } else {
+        submitBtn.disabled = true;
+    }
+}
+
+// ==================== USER DETAILS MODAL ====================
+
+function showUserDetails(userId) {
+    const modal = document.getElementById('userDetailsModal');
+    const overlay = document.getElementById('modalOverlay');
+    const content = document.getElementById('userDetailsContent');
+
+    modal.classList.add('active');
+    overlay.classList.add('active');
+
+    // ✅ Center modal after showing it
+    setTimeout(() => {
+        centerModalToMainContent();
+    }, 10);
+
+    content.innerHTML = '<div class="text-center py-4"><div class="loading-spinner"></div><p class="mt-2">Loading user details...</p></div>';
+
+    fetch(contextPath + `apis/users/${userId}`)
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('User not found');
+            }
+            return response.json();
+        })
+        .then(user => {
+            let createdDate = 'N/A';
+            if (user.createdAt) {
+                const date = new Date(user.createdAt);
+                createdDate = date.toLocaleString('en-IN', {
+                    year: 'numeric',
+                    month: '2-digit',
+                    day: '2-digit',
+                    hour: '2-digit',
+                    minute: '2-digit',
+                    second: '2-digit',
+                    hour12: false
+                });
+            }
+
+            let roleName = user.roleName || 'N/A';
+            let groupsHtml = '<span class="text-muted">No groups assigned</span>';
+            if (user.groups && user.groups.length > 0) {
+                groupsHtml = user.groups.map(group =>
+                    `<span class="badge rounded-pill" style="background-color: #d1fae5; color: #065f46; margin-right: 4px; margin-bottom: 4px; padding: 6px 12px; font-size: 11px;">${group.groupName}</span>`
+                ).join('');
+            }
+
+            content.innerHTML = `
+        <div class="user-detail-row">
+            <div class="user-detail-label">First Name:</div>
+            <div class="user-detail-value">${user.firstName || 'N/A'}</div>
+        </div>
+        <div class="user-detail-row">
+            <div class="user-detail-label">Last Name:</div>
+            <div class="user-detail-value">${user.lastName || 'N/A'}</div>
+        </div>
+        <div class="user-detail-row">
+            <div class="user-detail-label">Username:</div>
+            <div class="user-detail-value">${user.username || 'N/A'}</div>
+        </div>
+        <div class="user-detail-row">
+            <div class="user-detail-label">Email:</div>
+            <div class="user-detail-value">${user.email || 'N/A'}</div>
+        </div>
+        <div class="user-detail-row">
+            <div class="user-detail-label">Role:</div>
+            <div class="user-detail-value"><span class="role-pill">${roleName}</span></div>
+        </div>
+        <div class="user-detail-row">
+             <div class="user-detail-label">Groups:</div>
+             <div class="user-detail-value">${groupsHtml}</div>
+        </div>
+        <div class="user-detail-row">
+            <div class="user-detail-label">Created At:</div>
+            <div class="user-detail-value">${createdDate}</div>
+        </div>
+        <div class="user-detail-row" style="border-bottom: none;">
+            <div class="user-detail-label">Created By:</div>
+            <div class="user-detail-value">${user.createdByUsername || 'System'}</div>
+        </div>
+    `;
+
+            // ✅ Re-center after content loads (height may change)
+            setTimeout(() => {
+                centerModalToMainContent();
+            }, 10);
+        })
+        .catch(error => {
+            content.innerHTML = `
+                <div class="alert alert-danger">
+                    <i class="bi bi-exclamation-triangle me-2"></i>
+                    Failed to load user details. ${error.message}
+                </div>
+            `;
+
+            // ✅ Re-center after error message loads
+            setTimeout(() => {
+                centerModalToMainContent();
+            }, 10);
+        });
+}
+
+// ==================== TABLE FILTERING ====================
+
+//    function filterByStatCard(card) {
+//        const filter = card.getAttribute('data-filter');
+//        document.querySelectorAll('.stat-card').forEach(c => c.classList.remove('active'));
+//        card.classList.add('active');
+//        currentFilter = filter;
+//        applyFilters();
+//    }
+function filterByStatCard(card) {
+
+const filter = card.getAttribute('data-filter');
+
+// If "All" clicked → reset everything
+if (filter === 'all') {
+
+    activeFilters.clear();
+    activeFilters.add('all');
+
+    document.querySelectorAll('.stat-card').forEach(c => c.classList.remove('active'));
+    card.classList.add('active');
+
+    applyFilters();
+    return;
+}
+
+// Remove ALL filter
+activeFilters.delete('all');
+document.querySelector('[data-filter="all"]').classList.remove('active');
+
+// Toggle selected card
+if (activeFilters.has(filter)) {
+    activeFilters.delete(filter);
+    card.classList.remove('active');
+} else {
+    activeFilters.add(filter);
+    card.classList.add('active');
+}
+
+// If nothing selected → default to ALL
+if (activeFilters.size === 0) {
+    activeFilters.add('all');
+    document.querySelector('[data-filter="all"]').classList.add('active');
+}
+
+applyFilters();
+}
+
+function applyFilters() {
+    const searchQuery = document.getElementById('searchInput').value.trim().toLowerCase();
+    const allRows = document.querySelectorAll('#usersTable tbody tr');
+    let visibleCount = 0;
+
+    allRows.forEach(row => {
+        const cells = row.querySelectorAll('td');
+        if (cells.length < 6) return;
+
+        let show = true;
+        const rowRole = row.getAttribute('data-role') || '';
+
+//            if (currentFilter !== 'all') {
+//                if (rowRole !== currentFilter) {
+//                    show = false;
+//                }
+//            }
+if (!activeFilters.has('all')) {
+if (!activeFilters.has(rowRole)) {
+    show = false;
+}
+}
+
+        if (searchQuery && show) {
+            let searchText = '';
+            for (let i = 0; i < 3; i++) {
+                searchText += cells[i].textContent.toLowerCase() + ' ';
+            }
+            if (!searchText.includes(searchQuery)) {
+                show = false;
+            }
+        }
+
+        row.style.display = show ? '' : 'none';
+        if (show) visibleCount++;
+    });
+
+    document.getElementById('userCount').textContent = visibleCount;
+}
+
+// ==================== DATE FORMATTING ====================
+
+function formatDate(dateString) {
+    if (!dateString || dateString === 'N/A') return 'N/A';
+
+    try {
+        const date = new Date(dateString);
+        if (isNaN(date.getTime())) return dateString;
+
+        const months = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun',
+                      'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+
+        const day = String(date.getDate()).padStart(2, '0');
+        const month = months[date.getMonth()];
+        const year = date.getFullYear();
+        const hours = String(date.getHours()).padStart(2, '0');
+        const minutes = String(date.getMinutes()).padStart(2, '0');
+        const seconds = String(date.getSeconds()).padStart(2, '0');
+
+        return `${day}-${month}-${year} ${hours}:${minutes}:${seconds}`;
+    } catch (error) {
+        return dateString;
+    }
+}
+
+function formatAllDates() {
+    const dateElements = document.querySelectorAll('#usersTable tbody tr td:nth-child(5) small');
+    dateElements.forEach(element => {
+        const originalDate = element.textContent.trim();
+        element.textContent = formatDate(originalDate);
+    });
+}
+
+// ==================== EDIT MODAL ====================
+
+function openEditModal(button) {
+    const userId = button.getAttribute('data-id');
+    const firstName = button.getAttribute('data-firstname');
+    const lastName = button.getAttribute('data-lastname');
+    const username = button.getAttribute('data-username');
+    const email = button.getAttribute('data-email');
+    const roleId = button.getAttribute('data-roleid');
+
+    console.log('📝 Opening edit modal for user ID:', userId);
+
+    document.getElementById('editFirstName').value = firstName;
+    document.getElementById('editLastName').value = lastName;
+    document.getElementById('editUsername').value = username;
+    document.getElementById('editEmail').value = email;
+    document.getElementById('editRoleId').value = roleId;
+    document.getElementById('editPassword').value = '';
+
+    originalEmail = email;
+
+    isEditEmailValid = true;
+    const feedback = document.getElementById('editEmailFeedback');
+    const input = document.getElementById('editEmail');
+    if (feedback) {
+        feedback.className = 'validation-feedback';
+        feedback.textContent = '';
+    }
+    if (input) {
+        input.classList.remove('is-valid', 'is-invalid');
+    }
+    updateEditSubmitButton();
+
+    // IMPORTANT: Ensure groups are loaded before attempting to check them
+    if (allGroups && allGroups.length > 0) {
+        // Groups already loaded, proceed immediately
+        loadUserGroups(userId);
+    } else {
+        // Groups not loaded yet, wait for them
+        console.log('⏳ Groups not loaded yet, waiting...');
+        const checkInterval = setInterval(() => {
+            if (allGroups && allGroups.length > 0) {
+                clearInterval(checkInterval);
+                console.log('✅ Groups now available, loading user groups');
+                loadUserGroups(userId);
+            }
+        }, 100);
+
+        // Timeout after 5 seconds
+        setTimeout(() => {
+            clearInterval(checkInterval);
+            if (!allGroups || allGroups.length === 0) {
+                console.error('❌ Timeout: Groups failed to load');
+            }
+        }, 5000);
+    }
+
+    document.getElementById('editForm').action = '/edit/' + userId;
+
+    // Show modal
+    openModal('editUserModal');
+    console.log('✅ Edit modal opened for user:', username);
+}
+
+// ==================== DELETE MODAL ====================
+
+   function openDeleteModal(button) {
+const userId = button.getAttribute('data-userid');
+const username = button.getAttribute('data-username');
+
+document.getElementById('deleteModalMessage').textContent =
+    `Are you sure you want to delete ${username}? This action cannot be undone.`;
+document.getElementById('confirmDeleteBtn').setAttribute('href', `/delete/${userId}`);
+
+openModal('deleteModal');
+}
+
+// ==================== FORM RESET ON SUCCESS ====================
+
+window.addEventListener('load', function() {
+    const successAlert = document.querySelector('.alert-success');
+
+    if (successAlert) {
+        setTimeout(() => {
+            const addUserForm = document.getElementById('addUserForm');
+            if (addUserForm) {
+                addUserForm.reset();
+            }
+            const usernameFeedback = document.getElementById('addUsernameFeedback');
+            if (usernameFeedback) {
+                usernameFeedback.className = 'validation-feedback';
+                usernameFeedback.textContent = '';
+            }
+            const emailFeedback = document.getElementById('addEmailFeedback');
+            if (emailFeedback) {
+                emailFeedback.className = 'validation-feedback';
+                emailFeedback.textContent = '';
+            }
+            const usernameInput = document.getElementById('addUsername');
+            const emailInput = document.getElementById('addEmail');
+            if (usernameInput) usernameInput.classList.remove('is-valid', 'is-invalid');
+            if (emailInput) emailInput.classList.remove('is-valid', 'is-invalid');
+
+            clearGroupSelection('add');
+
+            isUsernameValid = false;
+            isEmailValid = false;
+            document.getElementById('addUserSubmitBtn').disabled = true;
+        }, 100);
+    }
+
+    setTimeout(() => {
+        const alerts = document.querySelectorAll('.alert');
+        alerts.forEach(alert => {
+            const bsAlert = bootstrap.Alert.getOrCreateInstance(alert);
+            if (bsAlert) bsAlert.close();
+        });
+    }, 5000);
+});
+// ==================== PASSWORD POLICY VALIDATION FOR ADD USER ====================
+let passwordPolicyCache = null;
+
+async function fetchPasswordPolicy() {
+if (passwordPolicyCache !== null) {
+    return passwordPolicyCache;
+}
+try {
+    const response = await fetch(contextPath + 'api/settings/password-policy');
+    if (response.ok) {
+        passwordPolicyCache = await response.json();
+        return passwordPolicyCache;
+    }
+} catch (error) {
+    console.error('Error fetching password policy:', error);
+}
+return null;
+}
+
+function validatePasswordPolicy(password, policy) {
+if (!policy || !policy.enforcePasswordPolicy) {
+    return { valid: true, errors: [] };
+}
+const errors = [];
+if (policy.minPasswordLength && password.length < policy.minPasswordLength) {
+    errors.push(`Must be at least ${policy.minPasswordLength} characters`);
+}
+if (policy.requireUppercase && !/[A-Z]/.test(password)) {
+    errors.push('Must contain uppercase letter');
+}
+if (policy.requireLowercase && !/[a-z]/.test(password)) {
+    errors.push('Must contain lowercase letter');
+}
+if (policy.requireNumber && !/[0-9]/.test(password)) {
+    errors.push('Must contain number');
+}
+if (policy.requireSpecialChar && !/[!@#$%^&*()_+\-=\[\]{}|;':",./<>?]/.test(password)) {
+    errors.push('Must contain special character');
+}
+return { valid: errors.length === 0, errors: errors };
+}
+
+function showPasswordErrors(errors) {
+const input = document.getElementById('addPassword');
+const errorDiv = document.getElementById('addPasswordPolicyError');
+if (errors.length > 0) {
+    input.classList.add('is-invalid');
+    errorDiv.style.display = 'block';
+    errorDiv.textContent = errors.join(', ');
+} else {
+    input.classList.remove('is-invalid');
+    errorDiv.style.display = 'none';
+}
+}
+
+// Add listener for real-time validation
+document.getElementById('addPassword')?.addEventListener('input', async function() {
+const password = this.value;
+if (password.length === 0) {
+    showPasswordErrors([]);
+    return;
+}
+const policy = await fetchPasswordPolicy();
+if (policy) {
+    const result = validatePasswordPolicy(password, policy);
+    showPasswordErrors(result.errors);
+}
+});
+
+// Validate on form submit
+document.getElementById('addUserForm')?.addEventListener('submit', async function(e) {
+const passwordInput = document.getElementById('addPassword');
+const policy = await fetchPasswordPolicy();
+if (policy && policy.enforcePasswordPolicy) {
+    const result = validatePasswordPolicy(passwordInput.value, policy);
+    if (!result.valid) {
+        e.preventDefault();
+        showPasswordErrors(result.errors);
+        alert('Please fix password policy errors');
+        return false;
+    }
+}
+});
+
+
+
+
+// Real-time validation for Edit User password
+document.getElementById('editPassword')?.addEventListener('input', async function() {
+const password = this.value;
+if (password.length === 0) {
+    this.classList.remove('is-invalid');
+    document.getElementById('editPasswordPolicyError').style.display = 'none';
+    return;
+}
+const policy = await fetchPasswordPolicy();
+if (policy) {
+    const result = validatePasswordPolicy(password, policy);
+    const errorDiv = document.getElementById('editPasswordPolicyError');
+    if (result.errors.length > 0) {
+        this.classList.add('is-invalid');
+        errorDiv.style.display = 'block';
+        errorDiv.textContent = result.errors.join(', ');
+    } else {
+        this.classList.remove('is-invalid');
+        errorDiv.style.display = 'none';
+    }
+}
+});
+
+// Validate on Edit User form submit
+document.getElementById('editForm')?.addEventListener('submit', async function(e) {
+const passwordInput = document.getElementById('editPassword');
+if (passwordInput.value.trim().length === 0) {
+    return; // Allow empty password (keep current)
+}
+const policy = await fetchPasswordPolicy();
+if (policy && policy.enforcePasswordPolicy) {
+    const result = validatePasswordPolicy(passwordInput.value, policy);
+    if (!result.valid) {
+        e.preventDefault();
+        passwordInput.classList.add('is-invalid');
+        document.getElementById('editPasswordPolicyError').style.display = 'block';
+        document.getElementById('editPasswordPolicyError').textContent = result.errors.join(', ');
+        alert('Please fix password policy errors');
+        return false;
+    }
+}
+});
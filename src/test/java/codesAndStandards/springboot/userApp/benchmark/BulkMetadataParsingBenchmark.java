@@ -0,0 +1,142 @@
+package codesAndStandards.springboot.userApp.benchmark;
+
+import codesAndStandards.springboot.userApp.service.BulkMetadataSheetReader;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the streaming metadata-sheet reader with the old XSSFWorkbook (DOM) parse.
+ *
+ * Not a unit test - run it by hand:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=codesAndStandards.springboot.userApp.benchmark.BulkMetadataParsingBenchmark \
+ *       -Dexec.args="50000"
+ *
+ * Reports wall time and peak heap (sampled every 5 ms) for each path. Use a fixed -Xmx
+ * (e.g. -Xmx2g) so the numbers are comparable between runs.
+ */
+public class BulkMetadataParsingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        Path sheet = Files.createTempFile("bulk-metadata-bench-", ".xlsx");
+        try {
+            writeSheet(sheet, rows);
+            System.out.printf("Sheet: %,d rows, %,d bytes%n", rows, Files.size(sheet));
+
+            // Warm up both paths once so class loading doesn't count
+            parseDom(sheet);
+            parseStreaming(sheet);
+
+            measure("DOM (XSSFWorkbook)", () -> parseDom(sheet));
+            measure("Streaming (XSSFReader)", () -> parseStreaming(sheet));
+        } finally {
+            Files.deleteIfExists(sheet);
+        }
+    }
+
+    private interface Parse {
+        int run() throws Exception;
+    }
+
+    private static void measure(String name, Parse parse) throws Exception {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+        AtomicLong peak = new AtomicLong(baseline);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        int parsed = parse.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        sampler.interrupt();
+        sampler.join();
+
+        System.out.printf("%-24s rows=%,d  time=%,d ms  peak heap above baseline=%,d MB%n",
+                name, parsed, elapsedMs, (peak.get() - baseline) / (1024 * 1024));
+    }
+
+    // Old path: whole workbook in memory, then walk the cells
+    private static int parseDom(Path sheet) throws Exception {
+        DataFormatter formatter = new DataFormatter();
+        int count = 0;
+        try (InputStream in = Files.newInputStream(sheet);
+             Workbook workbook = new XSSFWorkbook(in)) {
+            Sheet first = workbook.getSheetAt(0);
+            for (int i = 3; i <= first.getLastRowNum(); i++) {
+                Row row = first.getRow(i);
+                if (row == null) continue;
+                String[] cells = new String[BulkMetadataSheetReader.COLUMN_COUNT];
+                for (int c = 0; c < cells.length; c++) {
+                    Cell cell = row.getCell(c);
+                    cells[c] = cell != null ? formatter.formatCellValue(cell) : null;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int parseStreaming(Path sheet) throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        new BulkMetadataSheetReader().read(sheet, cells -> count.incrementAndGet());
+        return count.get();
+    }
+
+    // Same layout as the generated template: header, legend, example, then data
+    private static void writeSheet(Path target, int rows) throws Exception {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+             OutputStream out = Files.newOutputStream(target)) {
+            Sheet sheet = workbook.createSheet("Document Metadata");
+            String[] header = {"Filename *", "Title *", "Product Code *", "Edition", "Publish Month",
+                    "Publish Year *", "No. of Pages *", "Notes", "Tags *", "Classifications"};
+            Row headerRow = sheet.createRow(0);
+            for (int c = 0; c < header.length; c++) {
+                headerRow.createCell(c).setCellValue(header[c]);
+            }
+            sheet.createRow(1).createCell(0).setCellValue("* = Required field");
+            sheet.createRow(2).createCell(0).setCellValue("example.pdf");
+
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 3);
+                row.createCell(0).setCellValue("document-" + i + ".pdf");
+                row.createCell(1).setCellValue("Standard document number " + i);
+                row.createCell(2).setCellValue("PC-" + (i % 5000));
+                row.createCell(3).setCellValue("Ed " + (i % 7));
+                row.createCell(4).setCellValue(String.format("%02d", i % 12 + 1));
+                row.createCell(5).setCellValue(1990 + i % 35);
+                row.createCell(6).setCellValue(10 + i % 400);
+                row.createCell(7).setCellValue("Imported by benchmark");
+                row.createCell(8).setCellValue("tag" + (i % 50) + ",tag" + (i % 13));
+                row.createCell(9).setCellValue("Class " + (i % 9));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+}
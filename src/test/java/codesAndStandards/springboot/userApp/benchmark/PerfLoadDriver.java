@@ -0,0 +1,326 @@
+package codesAndStandards.springboot.userApp.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scripted load against a running instance in the perf profile (mvn -Pperf spring-boot:run).
+ *
+ * Not a unit test - run it by hand once the application has started and seeded its data:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=codesAndStandards.springboot.userApp.benchmark.PerfLoadDriver \
+ *       -Dexec.args="http://localhost:8085 50 120"
+ *
+ * Arguments: base URL, concurrent viewers, duration in seconds, password (default "perf").
+ * Each viewer logs in as its own perf-viewer-NNNN account (sessions are limited to one per user)
+ * and then loops over a weighted mix of library listing, title search, viewing and watermarked
+ * download, re-logging in now and then. One extra perf-admin session runs bulk uploads of five
+ * generated PDFs back to back. Prints requests, errors, throughput and p50/p95/p99 per scenario.
+ *
+ * The application needs an active license (ED2 for bulk upload) - activate one on the perf
+ * machine first; the driver stops if /api/license/status reports none.
+ */
+public class PerfLoadDriver {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern DOCUMENT_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] SEARCH_TERMS = {"steel", "pressure vessel", "fire", "seismic", "coating", "nomatch"};
+
+    // Scenario mix for a viewer iteration, in percent
+    private static final Object[][] MIX = {
+            {"library", 25}, {"search", 25}, {"view", 30}, {"download", 15}, {"login", 5}
+    };
+
+    private final URI baseUri;
+    private final String password;
+    private final Map<String, List<Long>> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> errors = new LinkedHashMap<>();
+
+    private PerfLoadDriver(URI baseUri, String password) {
+        this.baseUri = baseUri;
+        this.password = password;
+        for (String scenario : List.of("login", "library", "search", "view", "download", "bulk-upload")) {
+            latencies.put(scenario, Collections.synchronizedList(new ArrayList<>()));
+            errors.put(scenario, new AtomicInteger());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:8085");
+        int viewers = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+        String password = args.length > 3 ? args[3] : "perf";
+
+        PerfLoadDriver driver = new PerfLoadDriver(baseUri, password);
+        driver.checkLicense();
+        System.out.printf("Target: %s, viewers: %d, duration: %d s%n", baseUri, viewers, seconds);
+        driver.run(viewers, seconds);
+    }
+
+    private void run(int viewers, int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = Executors.newFixedThreadPool(viewers + 1);
+        try {
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 1; i <= viewers; i++) {
+                String username = String.format("perf-viewer-%04d", i);
+                long seed = i;
+                sessions.add(pool.submit(() -> {
+                    viewerLoop(username, deadline, new Random(seed));
+                    return null;
+                }));
+            }
+            sessions.add(pool.submit(() -> {
+                adminLoop(deadline);
+                return null;
+            }));
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report(seconds);
+    }
+
+    // ==================== SESSIONS ====================
+
+    private static final class Session {
+        private HttpClient client;
+        private List<Long> documentIds = List.of();
+    }
+
+    private void viewerLoop(String username, long deadline, Random random) {
+        Session session = new Session();
+        if (!login(session, username)) {
+            return;
+        }
+        listLibrary(session);
+
+        while (System.nanoTime() < deadline) {
+            String scenario = pickScenario(random);
+            switch (scenario) {
+                case "login" -> login(session, username);
+                case "library" -> listLibrary(session);
+                case "search" -> timed("search", session, get("/api/documents/search?query="
+                        + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8)));
+                case "view" -> {
+                    Long id = randomDocument(session, random);
+                    if (id != null) {
+                        timed("view", session, get("/documents/DocViewer-view/" + id));
+                    }
+                }
+                case "download" -> {
+                    Long id = randomDocument(session, random);
+                    if (id != null) {
+                        timed("download", session, get("/documents/download/" + id));
+                    }
+                }
+                default -> throw new IllegalStateException(scenario);
+            }
+        }
+    }
+
+    private void adminLoop(long deadline) throws IOException {
+        Session session = new Session();
+        if (!login(session, "perf-admin")) {
+            return;
+        }
+        List<byte[]> pdfs = new ArrayList<>();
+        for (int pages : new int[]{1, 3, 8, 15, 30}) {
+            pdfs.add(pdf(pages));
+        }
+        while (System.nanoTime() < deadline) {
+            String boundary = "----perf" + UUID.randomUUID();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            for (int i = 0; i < pdfs.size(); i++) {
+                String header = "--" + boundary + "\r\n"
+                        + "Content-Disposition: form-data; name=\"files\"; filename=\"perf-bulk-" + UUID.randomUUID() + ".pdf\"\r\n"
+                        + "Content-Type: application/pdf\r\n\r\n";
+                body.write(header.getBytes(StandardCharsets.UTF_8));
+                body.write(pdfs.get(i));
+                body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+            body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            timed("bulk-upload", session, HttpRequest.newBuilder(baseUri.resolve("/api/documents/bulk-upload"))
+                    .timeout(Duration.ofMinutes(5))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+        }
+    }
+
+    /**
+     * Fresh cookie jar, login page for the CSRF token, then the form post. Timed as one step.
+     */
+    private boolean login(Session session, String username) {
+        session.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> page = session.client.send(get("/login").build(), HttpResponse.BodyHandlers.ofString());
+            Matcher csrf = CSRF.matcher(page.body());
+            String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                    + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8)
+                    + (csrf.find() ? "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8) : "");
+            HttpResponse<Void> response = session.client.send(HttpRequest.newBuilder(baseUri.resolve("/login"))
+                            .timeout(Duration.ofSeconds(60))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(form))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            String location = response.headers().firstValue("Location").orElse("");
+            boolean ok = response.statusCode() == 302 && !location.contains("error");
+            record("login", start, ok);
+            return ok;
+        } catch (Exception e) {
+            record("login", start, false);
+            return false;
+        }
+    }
+
+    private void listLibrary(Session session) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = session.client.send(get("/api/documents").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() == 200;
+            record("library", start, ok);
+            if (ok) {
+                List<Long> ids = new ArrayList<>();
+                Matcher matcher = DOCUMENT_ID.matcher(response.body());
+                while (matcher.find()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+                session.documentIds = ids;
+            }
+        } catch (Exception e) {
+            record("library", start, false);
+        }
+    }
+
+    // ==================== REQUESTS ====================
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(120)).GET();
+    }
+
+    private void timed(String scenario, Session session, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = session.client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            record(scenario, start, response.statusCode() >= 200 && response.statusCode() < 300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            record(scenario, start, false);
+        }
+    }
+
+    private void record(String scenario, long startNanos, boolean ok) {
+        if (ok) {
+            latencies.get(scenario).add(System.nanoTime() - startNanos);
+        } else {
+            errors.get(scenario).incrementAndGet();
+        }
+    }
+
+    private static String pickScenario(Random random) {
+        int roll = random.nextInt(100);
+        for (Object[] entry : MIX) {
+            roll -= (Integer) entry[1];
+            if (roll < 0) {
+                return (String) entry[0];
+            }
+        }
+        return (String) MIX[0][0];
+    }
+
+    private static Long randomDocument(Session session, Random random) {
+        List<Long> ids = session.documentIds;
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    private void checkLicense() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpResponse<String> response = client.send(get("/api/license/status").build(), HttpResponse.BodyHandlers.ofString());
+        if (!response.body().contains("\"isValid\":true")) {
+            throw new IllegalStateException("No valid license on " + baseUri + " - activate one first: " + response.body());
+        }
+    }
+
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.beginText();
+                    cs.setFont(PDType1Font.HELVETICA, 12);
+                    cs.newLineAtOffset(50, 780);
+                    cs.showText("Perf bulk upload page " + (p + 1));
+                    cs.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    // ==================== REPORT ====================
+
+    private void report(int seconds) {
+        System.out.printf("%-12s %9s %7s %9s %9s %9s %9s%n", "scenario", "ok", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+            List<Long> sorted;
+            synchronized (entry.getValue()) {
+                sorted = new ArrayList<>(entry.getValue());
+            }
+            Collections.sort(sorted);
+            System.out.printf("%-12s %,9d %,7d %,9.1f %,9d %,9d %,9d%n",
+                    entry.getKey(), sorted.size(), errors.get(entry.getKey()).get(),
+                    sorted.size() / (double) seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99));
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+}
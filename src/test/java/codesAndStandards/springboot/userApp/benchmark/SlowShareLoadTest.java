@@ -0,0 +1,211 @@
+package codesAndStandards.springboot.userApp.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of document viewing against a slow share, with Tomcat on platform threads
+ * (the default 200-thread pool) and on virtual threads (spring.threads.virtual.enabled=true).
+ *
+ * Not a unit test - run it by hand, on a Java 21 runtime for the virtual mode:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=codesAndStandards.springboot.userApp.benchmark.SlowShareLoadTest \
+ *       -Dexec.args="both 1000 500 30"
+ *
+ * Arguments: mode (platform | virtual | both), concurrent viewers, share latency in ms per
+ * request, test duration in seconds. Each viewer requests the document endpoint in a loop;
+ * the servlet stands in for the viewer endpoint and blocks for the share latency before
+ * streaming 256 KB, the way a jcifs read blocks the request thread. Prints completed requests
+ * per second and latency percentiles for each mode.
+ *
+ * Expected shape: with platform threads throughput is capped at about 200 / latency and the
+ * remaining viewers queue in the accept backlog; with virtual threads it scales with viewers.
+ */
+public class SlowShareLoadTest {
+
+    private static final int PAYLOAD_BYTES = 256 * 1024;
+    private static final int PLATFORM_MAX_THREADS = 200;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "both";
+        int viewers = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        System.out.printf("Viewers: %d, share latency: %d ms, duration: %d s%n", viewers, latencyMillis, seconds);
+        if (!"virtual".equals(mode)) {
+            run(false, viewers, latencyMillis, seconds);
+        }
+        if (!"platform".equals(mode)) {
+            if (Runtime.version().feature() < 21) {
+                System.out.println("Virtual mode skipped: needs a Java 21+ runtime");
+            } else {
+                run(true, viewers, latencyMillis, seconds);
+            }
+        }
+    }
+
+    private static void run(boolean virtual, int viewers, long latencyMillis, int seconds) throws Exception {
+        Path baseDir = Files.createTempDirectory("slow-share-load-");
+        Tomcat tomcat = startServer(virtual, latencyMillis, baseDir);
+        try {
+            int port = tomcat.getConnector().getLocalPort();
+            URI uri = URI.create("http://localhost:" + port + "/documents/view");
+
+            // Short warm-up so JIT and connection setup don't count
+            drive(uri, Math.min(viewers, 50), Duration.ofSeconds(3), new ArrayList<>());
+
+            List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            Result result = drive(uri, viewers, Duration.ofSeconds(seconds), latencies);
+            report(virtual ? "Virtual threads" : "Platform threads (" + PLATFORM_MAX_THREADS + ")",
+                    result, latencies, seconds);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    // ==================== SERVER ====================
+
+    private static Tomcat startServer(boolean virtual, long latencyMillis, Path baseDir) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+
+        Connector connector = new Connector("HTTP/1.1");
+        connector.setPort(0);
+        AbstractProtocol<?> protocol = (AbstractProtocol<?>) connector.getProtocolHandler();
+        protocol.setMaxConnections(20_000);
+        protocol.setAcceptCount(5_000);
+        if (virtual) {
+            // What Spring Boot installs for spring.threads.virtual.enabled=true
+            protocol.setExecutor(new VirtualThreadTaskExecutor("tomcat-handler-"));
+        } else {
+            protocol.setMaxThreads(PLATFORM_MAX_THREADS);
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", baseDir.toString());
+        Tomcat.addServlet(context, "viewer", new SlowShareServlet(latencyMillis));
+        context.addServletMappingDecoded("/documents/view", "viewer");
+
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static final class SlowShareServlet extends HttpServlet {
+
+        private final long latencyMillis;
+        private final byte[] payload = new byte[PAYLOAD_BYTES];
+
+        SlowShareServlet(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            try {
+                // Time to first byte from the share
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response.sendError(503);
+                return;
+            }
+            response.setContentType("application/pdf");
+            response.setContentLength(payload.length);
+            try (OutputStream out = response.getOutputStream()) {
+                out.write(payload);
+            }
+        }
+    }
+
+    // ==================== CLIENT ====================
+
+    private static final class Result {
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+    }
+
+    private static Result drive(URI uri, int viewers, Duration duration, List<Long> latencies) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(120)).GET().build();
+
+        Result result = new Result();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<CompletableFuture<Void>> loops = new ArrayList<>(viewers);
+        for (int i = 0; i < viewers; i++) {
+            loops.add(viewerLoop(client, request, deadline, result, latencies));
+        }
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).get();
+        return result;
+    }
+
+    // One viewer: request, wait for the whole body, repeat until the deadline
+    private static CompletableFuture<Void> viewerLoop(HttpClient client, HttpRequest request, long deadline,
+                                                      Result result, List<Long> latencies) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error == null && response.statusCode() == 200) {
+                        result.completed.incrementAndGet();
+                        result.bytes.addAndGet(response.body().length);
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        result.failed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> viewerLoop(client, request, deadline, result, latencies));
+    }
+
+    private static void report(String name, Result result, List<Long> latencies, int seconds) {
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        System.out.printf("%-28s %,9d ok %,6d failed %,9.1f req/s %,8.1f MB/s  p50 %,6d ms  p95 %,6d ms  p99 %,6d ms%n",
+                name, result.completed.get(), result.failed.get(),
+                result.completed.get() / (double) seconds,
+                result.bytes.get() / (1024.0 * 1024.0) / seconds,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99));
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+}
@@ -0,0 +1,90 @@
+package codesAndStandards.springboot.userApp.service;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkMetadataSheetReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final BulkMetadataSheetReader reader = new BulkMetadataSheetReader();
+
+    @Test
+    void writesNumbersPlainWhateverTheirFormat() throws Exception {
+        Path xlsx = workbook((workbook, sheet) -> {
+            CellStyle thousands = workbook.createCellStyle();
+            thousands.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("a.pdf");
+            row.createCell(1).setCellValue("Title");
+            // General format would show 1.23457E+11
+            row.createCell(2).setCellValue(123456789012d);
+            row.createCell(3).setCellValue(2.5);
+            row.createCell(5).setCellValue(2021);
+            row.createCell(6).setCellValue(1234);
+            row.getCell(6).setCellStyle(thousands);
+        });
+
+        List<String[]> rows = read(xlsx);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[]{"a.pdf", "Title", "123456789012", "2.5", null, "2021", "1234", null, null, null},
+                rows.get(0));
+    }
+
+    @Test
+    void skipsLegendAndExampleRowsOfTemplate() throws Exception {
+        Path xlsx = workbook((workbook, sheet) -> {
+            sheet.createRow(1).createCell(0).setCellValue("* = Required");
+            sheet.createRow(2).createCell(0).setCellValue("example.pdf");
+            Row row = sheet.createRow(3);
+            row.createCell(0).setCellValue("b.pdf");
+            row.createCell(6).setCellValue(12);
+        });
+
+        List<String[]> rows = read(xlsx);
+
+        assertEquals(1, rows.size());
+        assertEquals("b.pdf", rows.get(0)[0]);
+        assertEquals("12", rows.get(0)[6]);
+    }
+
+    // ==================== HELPERS ====================
+
+    private interface SheetWriter {
+        void write(XSSFWorkbook workbook, Sheet sheet);
+    }
+
+    private Path workbook(SheetWriter writer) throws IOException {
+        Path file = dir.resolve("metadata.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Metadata");
+            sheet.createRow(0).createCell(0).setCellValue("Filename");
+            writer.write(workbook, sheet);
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    private List<String[]> read(Path xlsx) throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        reader.read(xlsx, rows::add);
+        return rows;
+    }
+}
@@ -0,0 +1,284 @@
+package codesAndStandards.springboot.userApp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PdfProbeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsCountThroughClassicXrefTable() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R 4 0 R 5 0 R] /Count 3 >>");
+        pdf.pages(3, 5, 2);
+        long xref = pdf.xrefTable(0, 6);
+        pdf.trailer("<< /Size 6 /Root 1 0 R >>", xref);
+
+        assertEquals(3, probe(pdf));
+    }
+
+    @Test
+    void readsCountThroughXrefStreamWithPngPredictor() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        // Catalog and page tree live in a compressed object stream, as most PDF 1.5+ writers do
+        String catalog = "<< /Type /Catalog /Pages 2 0 R >>";
+        String pages = "<< /Type /Pages /Kids [4 0 R 5 0 R] /Count 2 >>";
+        String offsets = "1 0 2 " + catalog.length() + " ";
+        byte[] objects = (offsets + catalog + pages).getBytes(StandardCharsets.ISO_8859_1);
+        pdf.stream(3, "/Type /ObjStm /N 2 /First " + offsets.length() + " /Filter /FlateDecode", deflate(objects));
+        pdf.pages(4, 5, 2);
+
+        long xref = pdf.position();
+        byte[] rows = xrefRows(new long[][]{
+                {0, 0, 65535},
+                {2, 3, 0},
+                {2, 3, 1},
+                {1, pdf.offset(3), 0},
+                {1, pdf.offset(4), 0},
+                {1, pdf.offset(5), 0},
+                {1, xref, 0}});
+        pdf.stream(6, "/Type /XRef /Size 7 /W [1 4 2] /Root 1 0 R /Filter /FlateDecode"
+                + " /DecodeParms << /Predictor 12 /Columns 7 >>", deflate(pngUp(rows, 7)));
+        pdf.startxref(xref);
+
+        assertEquals(2, probe(pdf));
+    }
+
+    @Test
+    void newestSectionWinsAfterIncrementalUpdate() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        pdf.pages(3, 3, 2);
+        long original = pdf.xrefTable(0, 4);
+        pdf.trailer("<< /Size 4 /Root 1 0 R >>", original);
+
+        // Appended revision: a second page and a new page tree; the catalog is only in the old section
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R 4 0 R] /Count 2 >>");
+        pdf.pages(4, 4, 2);
+        long update = pdf.xrefTable(2, 3);
+        pdf.trailer("<< /Size 5 /Root 1 0 R /Prev " + original + " >>", update);
+
+        assertEquals(2, probe(pdf));
+    }
+
+    @Test
+    void followsXRefStmInHybridFile() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R 4 0 R 5 0 R 6 0 R] /Count 4 >>");
+        pdf.pages(3, 6, 2);
+
+        // Only the cross-reference stream knows where the page tree is
+        long stream = pdf.position();
+        byte[] rows = xrefRows(new long[][]{{1, pdf.offset(2), 0}});
+        pdf.stream(7, "/Type /XRef /Size 8 /Index [2 1] /W [1 4 2]", rows);
+
+        long table = pdf.position();
+        pdf.write("xref\n0 2\n" + PdfBuilder.FREE + pdf.entry(1) + "3 4\n"
+                + pdf.entry(3) + pdf.entry(4) + pdf.entry(5) + pdf.entry(6));
+        pdf.trailer("<< /Size 8 /Root 1 0 R /XRefStm " + stream + " >>", table);
+
+        assertEquals(4, probe(pdf));
+    }
+
+    @Test
+    void resolvesIndirectCount() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R] /Count 4 0 R >>");
+        pdf.pages(3, 3, 2);
+        pdf.object(4, "7");
+        long xref = pdf.xrefTable(0, 5);
+        pdf.trailer("<< /Size 5 /Root 1 0 R >>", xref);
+
+        assertEquals(7, probe(pdf));
+    }
+
+    @Test
+    void returnsNullWhenStartxrefPointsNowhere() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        pdf.pages(3, 3, 2);
+        long xref = pdf.xrefTable(0, 4);
+        pdf.trailer("<< /Size 4 /Root 1 0 R >>", xref - 7);
+
+        assertNull(probe(pdf));
+    }
+
+    @Test
+    void returnsNullWhenTruncated() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        pdf.pages(3, 3, 2);
+        long xref = pdf.xrefTable(0, 4);
+        pdf.trailer("<< /Size 4 /Root 1 0 R >>", xref);
+
+        byte[] bytes = pdf.toBytes();
+        Path file = dir.resolve("truncated.pdf");
+        Files.write(file, Arrays.copyOf(bytes, (int) xref + 10));
+
+        assertNull(PdfProbe.pageCount(file));
+    }
+
+    @Test
+    void returnsNullForObjectThatIsNotAPageTree() throws IOException {
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object(2, "<< /Type /Page /Count 5 >>");
+        long xref = pdf.xrefTable(0, 3);
+        pdf.trailer("<< /Size 3 /Root 1 0 R >>", xref);
+
+        assertNull(probe(pdf));
+    }
+
+    @Test
+    void returnsNullForNonPdf() throws IOException {
+        Path file = dir.resolve("notes.pdf");
+        Files.writeString(file, "Not a PDF at all, although it is long enough to pass the size check. startxref 0");
+
+        assertNull(PdfProbe.pageCount(file));
+    }
+
+    // ==================== HELPERS ====================
+
+    private Integer probe(PdfBuilder pdf) throws IOException {
+        Path file = Files.createTempFile(dir, "probe-", ".pdf");
+        Files.write(file, pdf.toBytes());
+        return PdfProbe.pageCount(file);
+    }
+
+    // Rows of {type, field 2, field 3} for /W [1 4 2]
+    private static byte[] xrefRows(long[][] entries) {
+        byte[] rows = new byte[entries.length * 7];
+        for (int i = 0; i < entries.length; i++) {
+            int at = i * 7;
+            rows[at] = (byte) entries[i][0];
+            for (int b = 0; b < 4; b++) {
+                rows[at + 1 + b] = (byte) (entries[i][1] >>> (8 * (3 - b)));
+            }
+            rows[at + 5] = (byte) (entries[i][2] >>> 8);
+            rows[at + 6] = (byte) entries[i][2];
+        }
+        return rows;
+    }
+
+    // PNG "Up" filter on every row (predictor 12)
+    private static byte[] pngUp(byte[] data, int columns) {
+        int rows = data.length / columns;
+        byte[] out = new byte[rows * (columns + 1)];
+        for (int r = 0; r < rows; r++) {
+            out[r * (columns + 1)] = 2;
+            for (int c = 0; c < columns; c++) {
+                int up = r > 0 ? data[(r - 1) * columns + c] : 0;
+                out[r * (columns + 1) + 1 + c] = (byte) (data[r * columns + c] - up);
+            }
+        }
+        return out;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes objects while remembering their offsets, so the cross-reference data can point at them.
+     */
+    private static final class PdfBuilder {
+
+        static final String FREE = "0000000000 65535 f\r\n";
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final TreeMap<Integer, Long> offsets = new TreeMap<>();
+
+        PdfBuilder() {
+            write("%PDF-1.7\n%\u00e2\u00e3\u00cf\u00d3\n");
+        }
+
+        void object(int number, String body) {
+            offsets.put(number, position());
+            write(number + " 0 obj\n" + body + "\nendobj\n");
+        }
+
+        void pages(int first, int last, int parent) {
+            for (int n = first; n <= last; n++) {
+                object(n, "<< /Type /Page /Parent " + parent + " 0 R /MediaBox [0 0 612 792] >>");
+            }
+        }
+
+        void stream(int number, String dictionary, byte[] data) {
+            offsets.put(number, position());
+            write(number + " 0 obj\n<< " + dictionary + " /Length " + data.length + " >>\nstream\n");
+            out.writeBytes(data);
+            write("\nendstream\nendobj\n");
+        }
+
+        /**
+         * Classic table with one subsection covering [first, first + count); object 0 is written free.
+         */
+        long xrefTable(int first, int count) {
+            long start = position();
+            StringBuilder table = new StringBuilder("xref\n").append(first).append(' ').append(count).append('\n');
+            for (int n = first; n < first + count; n++) {
+                table.append(n == 0 ? FREE : entry(n));
+            }
+            write(table.toString());
+            return start;
+        }
+
+        String entry(int number) {
+            return String.format("%010d 00000 n\r\n", offsets.get(number));
+        }
+
+        void trailer(String dictionary, long xref) {
+            write("trailer\n" + dictionary + "\n");
+            startxref(xref);
+        }
+
+        void startxref(long xref) {
+            write("startxref\n" + xref + "\n%%EOF\n");
+        }
+
+        long offset(int number) {
+            return offsets.get(number);
+        }
+
+        long position() {
+            return out.size();
+        }
+
+        void write(String text) {
+            out.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        byte[] toBytes() {
+            return out.toByteArray();
+        }
+    }
+}